@@ -0,0 +1,25 @@
+package com.medilabo.commun.declencheur;
+
+import java.util.List;
+
+/**
+ * Termes déclencheurs du risque de diabète, recherchés dans les notes du prestataire de santé.
+ * <p>
+ * L'API Note compte ces termes à l'écriture des notes, et le microservice alerte évalue le risque à partir
+ * de ces comptages : les deux utilisent cette liste et cet automate, qui ne doivent être modifiés qu'ici.
+ * </p>
+ */
+public final class Declencheurs {
+
+	/** La liste des declencheurs. */
+	public static final List<String> MOTS_CLES = List.of(
+		    "HbA1C", "Microalbumine", "Taille", "Poids", "Fumeur", "Fumer",
+		    "Fumeuse", "Anormal", "Cholestérol", "Vertiges", "Rechute", "Réaction", "Anticorps"
+		);
+
+	/** Automate de recherche des {@link #MOTS_CLES}, construit une seule fois et partagé entre les threads. */
+	public static final MotCleMatcher MATCHER = new MotCleMatcher(MOTS_CLES);
+
+	private Declencheurs() {
+	}
+}
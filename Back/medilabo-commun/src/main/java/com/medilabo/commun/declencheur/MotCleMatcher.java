@@ -0,0 +1,217 @@
+package com.medilabo.commun.declencheur;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche simultanée des termes déclencheurs dans une transmission (algorithme d'Aho-Corasick).
+ * <p>
+ * L'automate est construit une seule fois à partir de la liste des mots-clés. Chaque transmission
+ * est ensuite parcourue en une seule passe, caractère par caractère, sans créer de copie en minuscules :
+ * la comparaison est insensible à la casse grâce à une table de correspondance des caractères
+ * construite avec {@link Character#toLowerCase(char)}.
+ * </p>
+ * <p>
+ * Comme pour l'ancienne implémentation ({@code contains} par mot-clé), un mot-clé présent plusieurs fois
+ * dans une même transmission n'est compté qu'une seule fois. L'instance est immuable et peut être
+ * partagée entre plusieurs threads.
+ * </p>
+ */
+public final class MotCleMatcher {
+
+	/** Nombre maximum de mots-clés, chaque mot-clé correspondant à un bit d'un {@code long}. */
+	private static final int NOMBRE_MAX_MOTS_CLES = Long.SIZE;
+
+	/** Index dans l'alphabet réduit des caractères latins (0 = caractère absent des mots-clés). */
+	private final int[] indexLatin = new int[256];
+
+	/** Index dans l'alphabet réduit des autres caractères présents dans les mots-clés. */
+	private final Map<Character, Integer> indexAutres = new HashMap<>();
+
+	/**
+	 * Table de transitions complète. Les états sont représentés par leur position dans la table
+	 * ({@code numeroEtat * tailleAlphabet}) : transitions[etat + indexCaractere] donne directement l'état suivant.
+	 */
+	private final int[] transitions;
+
+	/** Masque des mots-clés reconnus en arrivant dans un état, indexé comme {@link #transitions}. */
+	private final long[] sorties;
+
+	private final int tailleAlphabet;
+
+	private final int nombreMotsCles;
+
+	/**
+	 * Construit l'automate à partir de la liste des mots-clés.
+	 *
+	 * @param motsCles la liste des termes déclencheurs (64 au maximum)
+	 * @throws IllegalArgumentException si la liste est vide, trop longue ou contient un mot-clé vide
+	 */
+	public MotCleMatcher(List<String> motsCles) {
+		if (motsCles == null || motsCles.isEmpty() || motsCles.size() > NOMBRE_MAX_MOTS_CLES) {
+			throw new IllegalArgumentException("La liste des mots-clés doit contenir entre 1 et "
+					+ NOMBRE_MAX_MOTS_CLES + " éléments.");
+		}
+		this.nombreMotsCles = motsCles.size();
+
+		int prochainIndex = 1;
+		for (String motCle : motsCles) {
+			if (motCle == null || motCle.isEmpty()) {
+				throw new IllegalArgumentException("Un mot-clé ne peut pas être null ou vide.");
+			}
+			for (int i = 0; i < motCle.length(); i++) {
+				char c = Character.toLowerCase(motCle.charAt(i));
+				if (indexCaractereMinuscule(c) == 0) {
+					if (c < indexLatin.length) {
+						indexLatin[c] = prochainIndex++;
+					} else {
+						indexAutres.put(c, prochainIndex++);
+					}
+				}
+			}
+		}
+		// Les majuscules latines pointent directement vers l'index de leur minuscule :
+		// le parcours des transmissions n'a ainsi pas besoin d'appeler toLowerCase.
+		for (char c = 0; c < indexLatin.length; c++) {
+			char minuscule = Character.toLowerCase(c);
+			if (minuscule != c) {
+				indexLatin[c] = indexCaractereMinuscule(minuscule);
+			}
+		}
+		this.tailleAlphabet = prochainIndex;
+
+		// Construction du trie
+		List<int[]> trie = new ArrayList<>();
+		List<Long> masques = new ArrayList<>();
+		trie.add(nouvelEtat());
+		masques.add(0L);
+		for (int numero = 0; numero < motsCles.size(); numero++) {
+			String motCle = motsCles.get(numero);
+			int etat = 0;
+			for (int i = 0; i < motCle.length(); i++) {
+				int index = indexCaractereMinuscule(Character.toLowerCase(motCle.charAt(i)));
+				if (trie.get(etat)[index] < 0) {
+					trie.get(etat)[index] = trie.size();
+					trie.add(nouvelEtat());
+					masques.add(0L);
+				}
+				etat = trie.get(etat)[index];
+			}
+			masques.set(etat, masques.get(etat) | (1L << numero));
+		}
+
+		// Liens d'échec calculés en largeur, puis table de transitions complète (automate déterministe)
+		int nombreEtats = trie.size();
+		int[] suivants = new int[nombreEtats * tailleAlphabet];
+		long[] sortiesEtats = new long[nombreEtats];
+		int[] echecs = new int[nombreEtats];
+		Deque<Integer> file = new ArrayDeque<>();
+
+		sortiesEtats[0] = masques.get(0);
+		for (int index = 0; index < tailleAlphabet; index++) {
+			int suivant = trie.get(0)[index];
+			if (suivant > 0) {
+				echecs[suivant] = 0;
+				suivants[index] = suivant;
+				file.add(suivant);
+			} else {
+				suivants[index] = 0;
+			}
+		}
+		while (!file.isEmpty()) {
+			int etat = file.poll();
+			sortiesEtats[etat] = masques.get(etat) | sortiesEtats[echecs[etat]];
+			for (int index = 0; index < tailleAlphabet; index++) {
+				int suivant = trie.get(etat)[index];
+				if (suivant > 0) {
+					echecs[suivant] = suivants[echecs[etat] * tailleAlphabet + index];
+					suivants[etat * tailleAlphabet + index] = suivant;
+					file.add(suivant);
+				} else {
+					suivants[etat * tailleAlphabet + index] = suivants[echecs[etat] * tailleAlphabet + index];
+				}
+			}
+		}
+
+		this.transitions = new int[suivants.length];
+		this.sorties = new long[suivants.length];
+		for (int i = 0; i < suivants.length; i++) {
+			transitions[i] = suivants[i] * tailleAlphabet;
+		}
+		for (int etat = 0; etat < nombreEtats; etat++) {
+			sorties[etat * tailleAlphabet] = sortiesEtats[etat];
+		}
+	}
+
+	/**
+	 * Compte le nombre de mots-clés distincts présents dans une transmission.
+	 *
+	 * @param texte le contenu de la transmission
+	 * @return le nombre de mots-clés distincts trouvés
+	 */
+	public int compterDeclencheurs(CharSequence texte) {
+		return compterDeclencheurs(texte, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Compte le nombre de mots-clés distincts présents dans une transmission,
+	 * en arrêtant le parcours dès que {@code plafond} mots-clés ont été trouvés.
+	 *
+	 * @param texte   le contenu de la transmission
+	 * @param plafond le nombre de mots-clés au-delà duquel il est inutile de poursuivre
+	 * @return le nombre de mots-clés distincts trouvés, au plus égal au nombre de mots-clés
+	 */
+	public int compterDeclencheurs(CharSequence texte, long plafond) {
+		if (texte == null || plafond <= 0) {
+			return 0;
+		}
+		long limite = Math.min(plafond, nombreMotsCles);
+		long trouves = 0L;
+		int nombreTrouves = 0;
+		int etat = 0;
+		for (int i = 0, longueur = texte.length(); i < longueur; i++) {
+			etat = transitions[etat + indexCaractere(texte.charAt(i))];
+			long sortie = sorties[etat];
+			if (sortie != 0L && (sortie & ~trouves) != 0L) {
+				trouves |= sortie;
+				nombreTrouves = Long.bitCount(trouves);
+				if (nombreTrouves >= limite) {
+					break;
+				}
+			}
+		}
+		return nombreTrouves;
+	}
+
+	/**
+	 * Retourne l'index d'un caractère quelconque de la transmission, sans tenir compte de la casse.
+	 */
+	private int indexCaractere(char c) {
+		if (c < indexLatin.length) {
+			return indexLatin[c];
+		}
+		return indexCaractereMinuscule(Character.toLowerCase(c));
+	}
+
+	/**
+	 * Retourne l'index d'un caractère déjà converti en minuscule.
+	 */
+	private int indexCaractereMinuscule(char c) {
+		if (c < indexLatin.length) {
+			return indexLatin[c];
+		}
+		Integer index = indexAutres.get(c);
+		return index != null ? index : 0;
+	}
+
+	private int[] nouvelEtat() {
+		int[] etat = new int[tailleAlphabet];
+		Arrays.fill(etat, -1);
+		return etat;
+	}
+}
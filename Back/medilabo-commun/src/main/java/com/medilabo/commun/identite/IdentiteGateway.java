@@ -0,0 +1,133 @@
+package com.medilabo.commun.identite;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Lecture de l'identité transmise par la gateway dans les en-têtes {@code X-Medilabo-*}.
+ * <p>
+ * Avec {@code medilabo.identite.mode=entetes}, le token JWT déjà vérifié par la gateway n'est pas vérifié
+ * une nouvelle fois : la signature HMAC-SHA256 des en-têtes est contrôlée avec la clé partagée
+ * {@code medilabo.identite.secret}, ainsi que la date d'expiration du token d'origine.
+ * En mode {@code jwt} (par défaut), les en-têtes sont ignorés.
+ * </p>
+ * Déclaré par {@link IdentiteGatewayAutoConfiguration}.
+ */
+public class IdentiteGateway {
+
+	public static final String MODE_ENTETES = "entetes";
+
+	private static final String PREFIXE = "X-Medilabo-";
+	private static final String ENTETE_USER_ID = PREFIXE + "User-Id";
+	private static final String ENTETE_USERNAME = PREFIXE + "Username";
+	private static final String ENTETE_ROLE = PREFIXE + "Role";
+	private static final String ENTETE_NOM = PREFIXE + "Nom";
+	private static final String ENTETE_PRENOM = PREFIXE + "Prenom";
+	private static final String ENTETE_EXPIRATION = PREFIXE + "Expiration";
+	private static final String ENTETE_SIGNATURE = PREFIXE + "Signature";
+
+	private static final String ALGORITHME = "HmacSHA256";
+
+	private Logger logger = LogManager.getLogger();
+
+	private final boolean modeEntetes;
+
+	private final SecretKeySpec cle;
+
+	/**
+	 * @param mode   {@code jwt} ou {@code entetes}
+	 * @param secret clé partagée avec la gateway
+	 */
+	public IdentiteGateway(String mode, String secret) {
+		this.modeEntetes = MODE_ENTETES.equals(mode);
+		if (modeEntetes && (secret == null || secret.isBlank())) {
+			throw new IllegalStateException("medilabo.identite.secret doit être défini en mode " + MODE_ENTETES);
+		}
+		this.cle = modeEntetes ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHME) : null;
+	}
+
+	/**
+	 * Indique si le microservice fait confiance aux en-têtes d'identité de la gateway.
+	 */
+	public boolean isModeEntetes() {
+		return modeEntetes;
+	}
+
+	/**
+	 * Indique si la requête contient des en-têtes d'identité de la gateway.
+	 */
+	public boolean contientIdentite(HttpServletRequest request) {
+		return modeEntetes && request.getHeader(ENTETE_SIGNATURE) != null;
+	}
+
+	/**
+	 * Lit l'identité transmise par la gateway.
+	 *
+	 * @param request la requête HTTP
+	 * @return l'identité, ou null si le mode {@code entetes} n'est pas actif, si les en-têtes sont absents,
+	 *         si leur signature est invalide ou si le token d'origine est expiré
+	 */
+	public IdentiteTransmise lire(HttpServletRequest request) {
+		if (!contientIdentite(request)) {
+			return null;
+		}
+		String userId = valeur(request, ENTETE_USER_ID);
+		String username = valeur(request, ENTETE_USERNAME);
+		String role = valeur(request, ENTETE_ROLE);
+		String nom = valeur(request, ENTETE_NOM);
+		String prenom = valeur(request, ENTETE_PRENOM);
+		String expiration = valeur(request, ENTETE_EXPIRATION);
+
+		byte[] attendue = signer(String.join("\n", userId, username, role, nom, prenom, expiration));
+		byte[] recue;
+		try {
+			recue = Base64.getUrlDecoder().decode(request.getHeader(ENTETE_SIGNATURE));
+		} catch (IllegalArgumentException e) {
+			recue = new byte[0];
+		}
+		if (!MessageDigest.isEqual(attendue, recue)) {
+			logger.warn("Signature des en-têtes d'identité invalide pour la requête {}", request.getRequestURI());
+			return null;
+		}
+		if (!expiration.isEmpty() && Instant.ofEpochSecond(Long.parseLong(expiration)).isBefore(Instant.now())) {
+			logger.warn("Identité transmise expirée pour la requête {}", request.getRequestURI());
+			return null;
+		}
+		return new IdentiteTransmise(
+				userId.isEmpty() ? null : Long.valueOf(userId),
+				decoder(username),
+				role.isEmpty() ? null : role,
+				decoder(nom),
+				decoder(prenom));
+	}
+
+	private byte[] signer(String donnees) {
+		try {
+			Mac mac = Mac.getInstance(ALGORITHME);
+			mac.init(cle);
+			return mac.doFinal(donnees.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Impossible de vérifier les en-têtes d'identité", e);
+		}
+	}
+
+	private static String valeur(HttpServletRequest request, String entete) {
+		String valeur = request.getHeader(entete);
+		return valeur != null ? valeur : "";
+	}
+
+	private static String decoder(String valeur) {
+		return valeur.isEmpty() ? null : URLDecoder.decode(valeur, StandardCharsets.UTF_8);
+	}
+}
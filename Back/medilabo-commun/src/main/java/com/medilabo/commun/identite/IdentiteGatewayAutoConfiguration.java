@@ -0,0 +1,35 @@
+package com.medilabo.commun.identite;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Lecture de l'identité transmise par la gateway ({@link IdentiteGateway}).
+ * <p>
+ * Active dans toutes les applications web servlet qui dépendent de ce module. Le mode est lu dans
+ * {@code medilabo.identite.mode} ({@code jwt} par défaut). La clé partagée n'est lue qu'en mode {@code entetes} :
+ * {@code medilabo.identite.secret}, ou {@code JWT_SECRET} s'il est vide, comme côté gateway.
+ * </p>
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+public class IdentiteGatewayAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	IdentiteGateway identiteGateway(Environment environment) {
+		String mode = environment.getProperty("medilabo.identite.mode", "jwt");
+		if (!IdentiteGateway.MODE_ENTETES.equals(mode)) {
+			return new IdentiteGateway(mode, null);
+		}
+		String secret = environment.getProperty("medilabo.identite.secret", "");
+		if (secret.isBlank()) {
+			secret = environment.getProperty("JWT_SECRET", "");
+		}
+		return new IdentiteGateway(mode, secret);
+	}
+}
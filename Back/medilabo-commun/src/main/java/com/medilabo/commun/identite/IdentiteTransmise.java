@@ -0,0 +1,46 @@
+package com.medilabo.commun.identite;
+
+/**
+ * Identité de l'utilisateur transmise par la gateway dans les en-têtes {@code X-Medilabo-*},
+ * après vérification de leur signature.
+ */
+public class IdentiteTransmise {
+
+	private final Long userId;
+
+	private final String username;
+
+	private final String role;
+
+	private final String nom;
+
+	private final String prenom;
+
+	public IdentiteTransmise(Long userId, String username, String role, String nom, String prenom) {
+		this.userId = userId;
+		this.username = username;
+		this.role = role;
+		this.nom = nom;
+		this.prenom = prenom;
+	}
+
+	public Long getUserId() {
+		return userId;
+	}
+
+	public String getUsername() {
+		return username;
+	}
+
+	public String getRole() {
+		return role;
+	}
+
+	public String getNom() {
+		return nom;
+	}
+
+	public String getPrenom() {
+		return prenom;
+	}
+}
@@ -0,0 +1,154 @@
+package com.medilabo.commun.limiteur;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite adaptative du nombre de requêtes traitées simultanément (AIMD guidé par la latence).
+ * <p>
+ * La limite augmente d'une unité par fenêtre de {@code limite} requêtes réussies tant qu'elle est
+ * réellement utilisée (au moins la moitié des places occupées), et diminue de façon multiplicative
+ * ({@code reduction}) sur un signe de surcharge : une requête en échec, ou plus lente que
+ * {@code tolerance} fois la latence de référence de sa route. La latence de référence d'une route est
+ * une moyenne mobile longue de ses requêtes abouties (un export n'est comparé qu'aux exports) : quand
+ * la base ralentit, les latences s'écartent de la référence et la limite baisse avant que les requêtes
+ * ne s'accumulent.
+ * </p>
+ * <p>
+ * La limite ne diminue qu'une fois par fenêtre de latence : les requêtes déjà en cours lors de la dernière
+ * réduction ont subi la même surcharge et ne la réduisent pas à nouveau. Sans cela, chacune des requêtes
+ * d'un même ralentissement appliquerait la réduction, et la limite tomberait aussitôt au minimum.
+ * </p>
+ * <p>
+ * Une requête peut n'avoir droit qu'à une part de la limite : avec une part de 0,5, elle est refusée
+ * dès que la moitié des places est occupée, et les requêtes de part 1 gardent le reste. L'instance
+ * est partagée par tous les threads ; la prise d'une place ne bloque jamais.
+ * </p>
+ */
+public class LimiteurConcurrence {
+
+	/** Nombre de requêtes de la moyenne mobile de la latence de référence. */
+	private static final double FENETRE_REFERENCE = 500;
+
+	private final int limiteMin;
+
+	private final int limiteMax;
+
+	private final double tolerance;
+
+	private final double reduction;
+
+	private final AtomicInteger enCours = new AtomicInteger();
+
+	/** Verrou des mises à jour de la limite et des latences de référence, compatible avec les threads virtuels. */
+	private final ReentrantLock verrou = new ReentrantLock();
+
+	private volatile double limite;
+
+	/** Latence de référence de chaque route en nanosecondes, protégée par {@link #verrou}. */
+	private final Map<String, Double> latencesReferenceNs = new HashMap<>();
+
+	/** Date ({@link System#nanoTime()}) de la dernière réduction de la limite, protégée par {@link #verrou}. */
+	private long derniereReductionNs;
+
+	/** {@code true} dès la première réduction de la limite, protégé par {@link #verrou}. */
+	private boolean reduite;
+
+	/**
+	 * @param limiteInitiale la limite au démarrage
+	 * @param limiteMin      la limite en dessous de laquelle la surcharge ne fait plus descendre
+	 * @param limiteMax      la limite au-dessus de laquelle les succès ne font plus monter
+	 * @param tolerance      rapport à la latence de référence au-delà duquel une requête signale une surcharge
+	 * @param reduction      facteur appliqué à la limite à chaque surcharge, entre 0 et 1
+	 * @throws IllegalArgumentException si les bornes sont incohérentes
+	 */
+	public LimiteurConcurrence(int limiteInitiale, int limiteMin, int limiteMax, double tolerance, double reduction) {
+		if (limiteMin < 1 || limiteMin > limiteInitiale || limiteInitiale > limiteMax
+				|| tolerance <= 1 || reduction <= 0 || reduction >= 1) {
+			throw new IllegalArgumentException("Limiteur de concurrence mal configuré : il faut 1 <= min <= initiale <= max, "
+					+ "une tolérance supérieure à 1 et une réduction entre 0 et 1.");
+		}
+		this.limite = limiteInitiale;
+		this.limiteMin = limiteMin;
+		this.limiteMax = limiteMax;
+		this.tolerance = tolerance;
+		this.reduction = reduction;
+	}
+
+	/**
+	 * Prend une place si la part de la limite accordée à la requête n'est pas entièrement occupée.
+	 *
+	 * @param part la part de la limite accessible à la requête, entre 0 et 1
+	 * @return le nombre de requêtes en cours au moment de la prise, -1 si la requête est refusée
+	 */
+	public int acquerir(double part) {
+		int plafond = Math.max(1, (int) (limite * part));
+		while (true) {
+			int courant = enCours.get();
+			if (courant >= plafond) {
+				return -1;
+			}
+			if (enCours.compareAndSet(courant, courant + 1)) {
+				return courant;
+			}
+		}
+	}
+
+	/**
+	 * Libère la place d'une requête terminée et ajuste la limite.
+	 *
+	 * @param route         la route de la requête (modèle de chemin), pour comparer sa durée aux requêtes semblables
+	 * @param dureeNs       la durée de traitement de la requête
+	 * @param enCoursAvant  la valeur renvoyée par {@link #acquerir(double)}
+	 * @param echec         {@code true} si la requête a échoué faute de ressources (exception, 503, 504)
+	 */
+	public void liberer(String route, long dureeNs, int enCoursAvant, boolean echec) {
+		enCours.decrementAndGet();
+		long debutNs = System.nanoTime() - dureeNs;
+		verrou.lock();
+		try {
+			Double referenceNs = latencesReferenceNs.get(route);
+			boolean lente = referenceNs != null && dureeNs > tolerance * referenceNs;
+			if (!echec) {
+				// les requêtes lentes comptent aussi : un ralentissement durable devient la nouvelle référence
+				latencesReferenceNs.put(route, referenceNs == null
+						? dureeNs
+						: referenceNs + (dureeNs - referenceNs) / FENETRE_REFERENCE);
+			}
+			if (echec || lente) {
+				// requête commencée avant la dernière réduction : sa surcharge a déjà été prise en compte
+				if (!reduite || debutNs - derniereReductionNs >= 0) {
+					limite = Math.max(limiteMin, limite * reduction);
+					derniereReductionNs = System.nanoTime();
+					reduite = true;
+				}
+			} else if (enCoursAvant + 1 >= limite / 2) {
+				limite = Math.min(limiteMax, limite + 1 / limite);
+			}
+		} finally {
+			verrou.unlock();
+		}
+	}
+
+	/** La limite courante, arrondie à l'entier inférieur. */
+	public int limite() {
+		return (int) limite;
+	}
+
+	public int enCours() {
+		return enCours.get();
+	}
+
+	/** La latence de référence d'une route en millisecondes, 0 avant sa première requête aboutie. */
+	public double latenceReferenceMs(String route) {
+		verrou.lock();
+		try {
+			return latencesReferenceNs.getOrDefault(route, 0.0) / TimeUnit.MILLISECONDS.toNanos(1);
+		} finally {
+			verrou.unlock();
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.medilabo.commun.limiteur;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Limite de concurrence adaptative des microservices ({@link LimiteurConcurrenceFilter}).
+ * <p>
+ * Active dans toutes les applications web servlet qui dépendent de ce module ; se désactive avec
+ * {@code medilabo.limiteur.enabled=false}. Les réglages sont lus dans les propriétés {@code medilabo.limiteur.*}.
+ * </p>
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = Type.SERVLET)
+@ConditionalOnProperty(name = "medilabo.limiteur.enabled", havingValue = "true", matchIfMissing = true)
+@Import(LimiteurConcurrenceFilter.class)
+public class LimiteurConcurrenceAutoConfiguration {
+}
@@ -0,0 +1,229 @@
+package com.medilabo.commun.limiteur;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Délestage des requêtes au-delà de la limite de concurrence adaptative ({@link LimiteurConcurrence}).
+ * <p>
+ * Une requête refusée reçoit immédiatement une réponse 503 avec l'en-tête {@code Retry-After}, au lieu
+ * d'attendre un thread ou une connexion à la base. La part de la limite accessible à chaque route se règle
+ * avec {@code medilabo.limiteur.parts} ({@code chemin:part}, séparés par des virgules, première règle
+ * qui correspond) : les lectures coûteuses ou différables sont refusées avant les écritures cliniques.
+ * Les endpoints {@code /actuator} ne sont jamais limités.
+ * </p>
+ * <p>
+ * Métriques : jauges {@code limiteur.limite} et {@code limiteur.en.cours}, compteur {@code limiteur.rejets}
+ * (étiquette {@code regle} : la règle de {@code medilabo.limiteur.parts} appliquée, ou {@code defaut}).
+ * </p>
+ * <p>
+ * Déclaré par {@link LimiteurConcurrenceAutoConfiguration}.
+ * </p>
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class LimiteurConcurrenceFilter extends OncePerRequestFilter {
+
+	private static final String REGLE_DEFAUT = "defaut";
+
+	private static final String ROUTE_INCONNUE = "inconnue";
+
+	private Logger logger = LogManager.getLogger();
+
+	private final LimiteurConcurrence limiteur;
+
+	/** Part de la limite accessible par modèle de chemin, dans l'ordre de déclaration. */
+	private final Map<String, Double> parts;
+
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	private final long retryAfterSecondes;
+
+	private final Map<String, Counter> rejets = new LinkedHashMap<>();
+
+	public LimiteurConcurrenceFilter(@Value("${medilabo.limiteur.limite-initiale:20}") int limiteInitiale,
+			@Value("${medilabo.limiteur.limite-min:4}") int limiteMin,
+			@Value("${medilabo.limiteur.limite-max:200}") int limiteMax,
+			@Value("${medilabo.limiteur.tolerance:2.0}") double tolerance,
+			@Value("${medilabo.limiteur.reduction:0.9}") double reduction,
+			@Value("${medilabo.limiteur.retry-after-s:1}") long retryAfterSecondes,
+			@Value("${medilabo.limiteur.parts:}") String parts,
+			ObjectProvider<MeterRegistry> registryProvider) {
+		this.limiteur = new LimiteurConcurrence(limiteInitiale, limiteMin, limiteMax, tolerance, reduction);
+		this.parts = lireParts(parts);
+		this.retryAfterSecondes = retryAfterSecondes;
+
+		MeterRegistry registry = registryProvider.getIfAvailable(SimpleMeterRegistry::new);
+		Gauge.builder("limiteur.limite", limiteur, LimiteurConcurrence::limite)
+				.description("Nombre maximum de requêtes traitées simultanément")
+				.register(registry);
+		Gauge.builder("limiteur.en.cours", limiteur, LimiteurConcurrence::enCours)
+				.description("Nombre de requêtes en cours de traitement")
+				.register(registry);
+		this.parts.keySet().forEach(regle -> rejets.put(regle, compteurRejets(registry, regle)));
+		rejets.put(REGLE_DEFAUT, compteurRejets(registry, REGLE_DEFAUT));
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return request.getRequestURI().startsWith("/actuator");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String regle = regle(request.getRequestURI());
+		int enCoursAvant = limiteur.acquerir(regle != null ? parts.get(regle) : 1.0);
+		if (enCoursAvant < 0) {
+			rejets.get(regle != null ? regle : REGLE_DEFAUT).increment();
+			logger.debug("Requête {} refusée : limite de {} requêtes simultanées atteinte.", request.getRequestURI(), limiteur.limite());
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSecondes));
+			response.setContentType("text/plain;charset=UTF-8");
+			response.getWriter().write("Service surchargé, réessayez dans " + retryAfterSecondes + " s.");
+			return;
+		}
+
+		long debut = System.nanoTime();
+		boolean termine = false;
+		try {
+			filterChain.doFilter(request, response);
+			termine = true;
+		} finally {
+			if (termine && request.isAsyncStarted()) {
+				// réponse écrite plus tard (StreamingResponseBody...) : la place est libérée à la fin du traitement asynchrone
+				request.getAsyncContext().addListener(new LiberationAsynchrone(request, response, debut, enCoursAvant));
+			} else {
+				liberer(request, response, debut, enCoursAvant, !termine);
+			}
+		}
+	}
+
+	/**
+	 * La limite courante, pour les tests.
+	 */
+	LimiteurConcurrence limiteur() {
+		return limiteur;
+	}
+
+	private void liberer(HttpServletRequest request, HttpServletResponse response, long debut, int enCoursAvant, boolean echec) {
+		Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		int statut = response.getStatus();
+		boolean surcharge = echec || statut == HttpStatus.SERVICE_UNAVAILABLE.value() || statut == HttpStatus.GATEWAY_TIMEOUT.value();
+		limiteur.liberer(route != null ? route.toString() : ROUTE_INCONNUE, System.nanoTime() - debut, enCoursAvant, surcharge);
+	}
+
+	private String regle(String chemin) {
+		for (String modele : parts.keySet()) {
+			if (pathMatcher.match(modele, chemin)) {
+				return modele;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Lit les règles {@code chemin:part}, séparées par des virgules.
+	 *
+	 * @throws IllegalArgumentException si une règle est mal formée ou si une part n'est pas comprise entre 0 et 1
+	 */
+	static Map<String, Double> lireParts(String texte) {
+		Map<String, Double> parts = new LinkedHashMap<>();
+		if (texte == null || texte.isBlank()) {
+			return parts;
+		}
+		for (String regle : texte.split(",")) {
+			int separateur = regle.lastIndexOf(':');
+			if (separateur < 0) {
+				throw new IllegalArgumentException("Règle de limiteur attendue sous la forme chemin:part : " + regle);
+			}
+			double part = Double.parseDouble(regle.substring(separateur + 1).trim());
+			if (part <= 0 || part > 1) {
+				throw new IllegalArgumentException("La part d'une règle de limiteur doit être comprise entre 0 et 1 : " + regle);
+			}
+			parts.put(regle.substring(0, separateur).trim(), part);
+		}
+		return parts;
+	}
+
+	private static Counter compteurRejets(MeterRegistry registry, String regle) {
+		return Counter.builder("limiteur.rejets")
+				.description("Requêtes refusées par le limiteur de concurrence")
+				.tag("regle", regle)
+				.register(registry);
+	}
+
+	/**
+	 * Libère la place d'une requête asynchrone une seule fois, à sa fin, son expiration ou son erreur.
+	 */
+	private final class LiberationAsynchrone implements AsyncListener {
+
+		private final HttpServletRequest request;
+
+		private final HttpServletResponse response;
+
+		private final long debut;
+
+		private final int enCoursAvant;
+
+		private final AtomicBoolean liberee = new AtomicBoolean();
+
+		private LiberationAsynchrone(HttpServletRequest request, HttpServletResponse response, long debut, int enCoursAvant) {
+			this.request = request;
+			this.response = response;
+			this.debut = debut;
+			this.enCoursAvant = enCoursAvant;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			terminer(false);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			terminer(true);
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			terminer(true);
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			// un nouveau cycle asynchrone rappellera onComplete
+			event.getAsyncContext().addListener(this);
+		}
+
+		private void terminer(boolean echec) {
+			if (liberee.compareAndSet(false, true)) {
+				liberer(request, response, debut, enCoursAvant, echec);
+			}
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package com.medilabo.commun.notification;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Informe le microservice alerte qu'un patient a été modifié, afin qu'il invalide son niveau de risque en cache.
+ * <p>
+ * L'appel est asynchrone et ses erreurs sont seulement journalisées : une indisponibilité de l'API alerte
+ * ne doit pas faire échouer l'enregistrement. Dans ce cas, l'entrée expire d'elle-même (durée de vie du cache).
+ * </p>
+ */
+public class AlerteNotificationListener {
+
+	private Logger logger = LogManager.getLogger();
+
+	private final RestClient alerteRestClient;
+
+	public AlerteNotificationListener(RestClient alerteRestClient) {
+		this.alerteRestClient = alerteRestClient;
+	}
+
+	@Async
+	@EventListener
+	public void onPatientModifie(PatientModifieEvent event) {
+		if (event.getPatientId() == null) {
+			return;
+		}
+		try {
+			alerteRestClient.post()
+					.uri(uriBuilder -> uriBuilder.path("/alerte/cache/invalidate")
+							.queryParam("patientId", event.getPatientId())
+							.build())
+					.retrieve()
+					.toBodilessEntity();
+			logger.debug("Risque en cache invalidé pour le patient {}", event.getPatientId());
+		} catch (RestClientException e) {
+			logger.warn("Impossible d'invalider le risque en cache du patient {} : {}", event.getPatientId(), e.getMessage());
+		}
+	}
+}
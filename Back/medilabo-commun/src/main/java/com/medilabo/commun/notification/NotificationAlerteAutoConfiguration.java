@@ -0,0 +1,50 @@
+package com.medilabo.commun.notification;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.ClientHttpRequestFactories;
+import org.springframework.boot.web.client.ClientHttpRequestFactorySettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Notifications envoyées au microservice alerte quand un patient ou ses notes sont modifiés.
+ * <p>
+ * Active dans les microservices qui définissent {@code alerte.url} (patient et note). L'envoi des notifications
+ * se désactive avec {@code alerte.notification.enabled=false}.
+ * </p>
+ */
+@AutoConfiguration
+@EnableAsync
+@ConditionalOnProperty(name = "alerte.url")
+public class NotificationAlerteAutoConfiguration {
+
+	/**
+	 * Client HTTP vers le microservice alerte, avec des délais courts : la notification
+	 * est un simple signal d'invalidation de cache.
+	 *
+	 * @param alerteUrl l'URL de base du microservice alerte
+	 * @return le client configuré
+	 */
+	@Bean
+	RestClient alerteRestClient(@Value("${alerte.url}") String alerteUrl) {
+		ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings.DEFAULTS
+				.withConnectTimeout(Duration.ofSeconds(1))
+				.withReadTimeout(Duration.ofSeconds(2));
+		return RestClient.builder()
+				.baseUrl(alerteUrl)
+				.requestFactory(ClientHttpRequestFactories.get(settings))
+				.build();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "alerte.notification.enabled", havingValue = "true", matchIfMissing = true)
+	AlerteNotificationListener alerteNotificationListener(@Qualifier("alerteRestClient") RestClient alerteRestClient) {
+		return new AlerteNotificationListener(alerteRestClient);
+	}
+}
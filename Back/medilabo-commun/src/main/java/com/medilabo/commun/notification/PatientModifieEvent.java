@@ -0,0 +1,17 @@
+package com.medilabo.commun.notification;
+
+/**
+ * Événement publié lorsqu'une donnée utilisée pour l'évaluation du risque d'un patient est modifiée.
+ */
+public class PatientModifieEvent {
+
+	private final Long patientId;
+
+	public PatientModifieEvent(Long patientId) {
+		this.patientId = patientId;
+	}
+
+	public Long getPatientId() {
+		return patientId;
+	}
+}
@@ -0,0 +1,124 @@
+package com.medilabo.commun;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import com.medilabo.commun.identite.IdentiteGateway;
+import com.medilabo.commun.identite.IdentiteGatewayAutoConfiguration;
+import com.medilabo.commun.identite.IdentiteTransmise;
+
+public class IdentiteGatewayTest {
+
+	private static final String SECRET = "secret-identite-de-test";
+
+	private final IdentiteGateway identiteGateway = new IdentiteGateway(IdentiteGateway.MODE_ENTETES, SECRET);
+
+	@Test
+	public void lireIdentiteSigneeTest() throws Exception {
+		MockHttpServletRequest request = requete(Instant.now().plusSeconds(600).getEpochSecond());
+		request.addHeader("X-Medilabo-Signature", signer(request));
+
+		IdentiteTransmise identite = identiteGateway.lire(request);
+
+		assertThat(identite).isNotNull();
+		assertThat(identite.getUserId()).isEqualTo(7L);
+		assertThat(identite.getUsername()).isEqualTo("jdupont");
+		assertThat(identite.getRole()).isEqualTo("USER");
+		assertThat(identite.getPrenom()).isEqualTo("Éloïse");
+	}
+
+	@Test
+	public void lireIdentiteModifieeTest() throws Exception {
+		MockHttpServletRequest request = requete(Instant.now().plusSeconds(600).getEpochSecond());
+		request.addHeader("X-Medilabo-Signature", signer(request));
+		request.removeHeader("X-Medilabo-Role");
+		request.addHeader("X-Medilabo-Role", "ADMIN");
+
+		assertThat(identiteGateway.lire(request)).isNull();
+	}
+
+	@Test
+	public void lireIdentiteExpireeTest() throws Exception {
+		MockHttpServletRequest request = requete(Instant.now().minusSeconds(1).getEpochSecond());
+		request.addHeader("X-Medilabo-Signature", signer(request));
+
+		assertThat(identiteGateway.lire(request)).isNull();
+	}
+
+	@Test
+	public void modeJwtIgnoreEntetesTest() throws Exception {
+		IdentiteGateway modeJwt = new IdentiteGateway("jwt", "");
+		MockHttpServletRequest request = requete(Instant.now().plusSeconds(600).getEpochSecond());
+		request.addHeader("X-Medilabo-Signature", signer(request));
+
+		assertThat(modeJwt.contientIdentite(request)).isFalse();
+		assertThat(modeJwt.lire(request)).isNull();
+	}
+
+	@Test
+	public void autoConfigurationModeEntetesTest() {
+		new WebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(IdentiteGatewayAutoConfiguration.class))
+			.withPropertyValues("medilabo.identite.mode=entetes", "medilabo.identite.secret=" + SECRET)
+			.run(context -> assertThat(context.getBean(IdentiteGateway.class).isModeEntetes()).isTrue());
+	}
+
+	@Test
+	public void autoConfigurationModeEntetesSansSecretTest() {
+		new WebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(IdentiteGatewayAutoConfiguration.class))
+			.withPropertyValues("medilabo.identite.mode=entetes", "JWT_SECRET=")
+			.run(context -> assertThat(context).hasFailed());
+	}
+
+	@Test
+	public void autoConfigurationModeEntetesSecretJwtTest() {
+		new WebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(IdentiteGatewayAutoConfiguration.class))
+			.withPropertyValues("medilabo.identite.mode=entetes", "medilabo.identite.secret=", "JWT_SECRET=" + SECRET)
+			.run(context -> assertThat(context.getBean(IdentiteGateway.class).isModeEntetes()).isTrue());
+	}
+
+	@Test
+	public void autoConfigurationModeJwtSansSecretTest() {
+		new WebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(IdentiteGatewayAutoConfiguration.class))
+			.withPropertyValues("medilabo.identite.secret=${JWT_SECRET}")
+			.run(context -> assertThat(context.getBean(IdentiteGateway.class).isModeEntetes()).isFalse());
+	}
+
+	private static MockHttpServletRequest requete(long expiration) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/utilisateur/list");
+		request.addHeader("X-Medilabo-User-Id", "7");
+		request.addHeader("X-Medilabo-Username", "jdupont");
+		request.addHeader("X-Medilabo-Role", "USER");
+		request.addHeader("X-Medilabo-Nom", "Dupont");
+		request.addHeader("X-Medilabo-Prenom", "%C3%89lo%C3%AFse");
+		request.addHeader("X-Medilabo-Expiration", String.valueOf(expiration));
+		return request;
+	}
+
+	private static String signer(MockHttpServletRequest request) throws Exception {
+		String donnees = String.join("\n",
+				request.getHeader("X-Medilabo-User-Id"),
+				request.getHeader("X-Medilabo-Username"),
+				request.getHeader("X-Medilabo-Role"),
+				request.getHeader("X-Medilabo-Nom"),
+				request.getHeader("X-Medilabo-Prenom"),
+				request.getHeader("X-Medilabo-Expiration"));
+		Mac mac = Mac.getInstance("HmacSHA256");
+		mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(donnees.getBytes(StandardCharsets.UTF_8)));
+	}
+}
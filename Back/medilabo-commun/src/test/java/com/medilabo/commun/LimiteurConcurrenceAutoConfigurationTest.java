@@ -0,0 +1,36 @@
+package com.medilabo.commun;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import com.medilabo.commun.limiteur.LimiteurConcurrenceAutoConfiguration;
+import com.medilabo.commun.limiteur.LimiteurConcurrenceFilter;
+
+public class LimiteurConcurrenceAutoConfigurationTest {
+
+	private final WebApplicationContextRunner contexte = new WebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(LimiteurConcurrenceAutoConfiguration.class));
+
+	@Test
+	public void actifParDefautTest() {
+		contexte.withPropertyValues("medilabo.limiteur.parts=/patient/export:0.2")
+			.run(context -> assertThat(context).hasSingleBean(LimiteurConcurrenceFilter.class));
+	}
+
+	@Test
+	public void desactiveTest() {
+		contexte.withPropertyValues("medilabo.limiteur.enabled=false")
+			.run(context -> assertThat(context).doesNotHaveBean(LimiteurConcurrenceFilter.class));
+	}
+
+	@Test
+	public void inactifHorsApplicationWebTest() {
+		new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(LimiteurConcurrenceAutoConfiguration.class))
+			.run(context -> assertThat(context).doesNotHaveBean(LimiteurConcurrenceFilter.class));
+	}
+}
@@ -0,0 +1,106 @@
+package com.medilabo.commun;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.medilabo.commun.limiteur.LimiteurConcurrenceFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+
+public class LimiteurConcurrenceFilterTest {
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor();
+
+	/** Retient les requêtes dans la chaîne de filtres jusqu'à sa libération. */
+	private final CountDownLatch liberation = new CountDownLatch(1);
+
+	private final CountDownLatch entrees = new CountDownLatch(2);
+
+	private final FilterChain chaineBloquante = (request, response) -> {
+		entrees.countDown();
+		try {
+			liberation.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	};
+
+	@AfterEach
+	public void arreter() {
+		liberation.countDown();
+		executeur.shutdownNow();
+	}
+
+	private LimiteurConcurrenceFilter filtre(String parts) {
+		return new LimiteurConcurrenceFilter(4, 1, 4, 2.0, 0.9, 3, parts,
+				new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class));
+	}
+
+	private Future<MockHttpServletResponse> envoyer(LimiteurConcurrenceFilter filtre, String chemin, FilterChain chaine) {
+		return executeur.submit(() -> {
+			MockHttpServletResponse response = new MockHttpServletResponse();
+			filtre.doFilter(new MockHttpServletRequest("GET", chemin), response, chaine);
+			return response;
+		});
+	}
+
+	@Test
+	public void evaluationsRefuseesAvantLesInvalidationsTest() throws Exception {
+		LimiteurConcurrenceFilter filtre = filtre("/alerte/detecte/**:0.5");
+		Future<MockHttpServletResponse> premiere = envoyer(filtre, "/alerte/detecte", chaineBloquante);
+		Future<MockHttpServletResponse> deuxieme = envoyer(filtre, "/alerte/detecte/batch", chaineBloquante);
+		assertThat(entrees.await(5, TimeUnit.SECONDS)).isTrue();
+
+		// la moitié de la limite de 4 est occupée par les évaluations
+		MockHttpServletResponse refusee = envoyer(filtre, "/alerte/detecte", (request, response) -> { }).get();
+		MockHttpServletResponse acceptee = envoyer(filtre, "/alerte/cache/invalidate", (request, response) -> { }).get();
+
+		assertThat(refusee.getStatus()).isEqualTo(503);
+		assertThat(refusee.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+		assertThat(acceptee.getStatus()).isEqualTo(200);
+		assertThat(registry.get("limiteur.rejets").tag("regle", "/alerte/detecte/**").counter().count()).isEqualTo(1);
+		assertThat(registry.get("limiteur.en.cours").gauge().value()).isEqualTo(2);
+
+		liberation.countDown();
+		assertThat(premiere.get().getStatus()).isEqualTo(200);
+		assertThat(deuxieme.get().getStatus()).isEqualTo(200);
+		assertThat(registry.get("limiteur.en.cours").gauge().value()).isZero();
+	}
+
+	@Test
+	public void actuatorJamaisLimiteTest() throws Exception {
+		LimiteurConcurrenceFilter filtre = filtre("/alerte/**:0.5");
+		envoyer(filtre, "/alerte/detecte", chaineBloquante);
+		envoyer(filtre, "/alerte/detecte", chaineBloquante);
+		assertThat(entrees.await(5, TimeUnit.SECONDS)).isTrue();
+
+		MockHttpServletResponse sante = envoyer(filtre, "/actuator/health", (request, response) -> { }).get();
+
+		assertThat(sante.getStatus()).isEqualTo(200);
+		assertThat(registry.get("limiteur.limite").gauge().value()).isEqualTo(4);
+	}
+
+	@Test
+	public void partInvalideTest() {
+		assertThatThrownBy(() -> filtre("/alerte/detecte/**:2")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> filtre("/alerte/detecte/**")).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,134 @@
+package com.medilabo.commun;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.medilabo.commun.limiteur.LimiteurConcurrence;
+
+public class LimiteurConcurrenceTest {
+
+	private static final long DIX_MS = TimeUnit.MILLISECONDS.toNanos(10);
+
+	@Test
+	public void refusAuDelaDeLaLimiteTest() {
+		LimiteurConcurrence limiteur = new LimiteurConcurrence(4, 1, 10, 2.0, 0.9);
+
+		for (int i = 0; i < 4; i++) {
+			assertThat(limiteur.acquerir(1.0)).isEqualTo(i);
+		}
+
+		assertThat(limiteur.acquerir(1.0)).isEqualTo(-1);
+		assertThat(limiteur.enCours()).isEqualTo(4);
+	}
+
+	@Test
+	public void partDeLaLimiteTest() {
+		LimiteurConcurrence limiteur = new LimiteurConcurrence(10, 1, 10, 2.0, 0.9);
+
+		for (int i = 0; i < 5; i++) {
+			limiteur.acquerir(1.0);
+		}
+
+		// la moitié des places est occupée : une requête de part 0,5 est refusée, une requête de part 1 passe
+		assertThat(limiteur.acquerir(0.5)).isEqualTo(-1);
+		assertThat(limiteur.acquerir(1.0)).isEqualTo(5);
+	}
+
+	@Test
+	public void augmentationQuandLaLimiteEstUtiliseeTest() {
+		LimiteurConcurrence limiteur = new LimiteurConcurrence(10, 1, 100, 2.0, 0.9);
+
+		for (int i = 0; i < 11; i++) {
+			int enCoursAvant = limiteur.acquerir(1.0);
+			limiteur.liberer("/patient/infos/{id}", DIX_MS, Math.max(enCoursAvant, 9), false);
+		}
+
+		assertThat(limiteur.limite()).isEqualTo(11);
+	}
+
+	@Test
+	public void pasDAugmentationQuandLaLimiteEstPeuUtiliseeTest() {
+		LimiteurConcurrence limiteur = new LimiteurConcurrence(10, 1, 100, 2.0, 0.9);
+
+		for (int i = 0; i < 100; i++) {
+			int enCoursAvant = limiteur.acquerir(1.0);
+			limiteur.liberer("/patient/infos/{id}", DIX_MS, enCoursAvant, false);
+		}
+
+		assertThat(limiteur.limite()).isEqualTo(10);
+	}
+
+	@Test
+	public void reductionSurRequeteLenteTest() {
+		LimiteurConcurrence limiteur = new LimiteurConcurrence(20, 1, 100, 2.0, 0.5);
+		limiteur.acquerir(1.0);
+		limiteur.liberer("/patient/infos/{id}", DIX_MS, 0, false);
+		limiteur.acquerir(1.0);
+
+		limiteur.liberer("/patient/infos/{id}", 5 * DIX_MS, 0, false);
+
+		assertThat(limiteur.limite()).isEqualTo(10);
+		assertThat(limiteur.latenceReferenceMs("/patient/infos/{id}")).isGreaterThan(10);
+	}
+
+	@Test
+	public void latenceDeReferenceParRouteTest() {
+		LimiteurConcurrence limiteur = new LimiteurConcurrence(20, 1, 100, 2.0, 0.5);
+		limiteur.acquerir(1.0);
+		limiteur.liberer("/patient/infos/{id}", DIX_MS, 0, false);
+		limiteur.acquerir(1.0);
+		limiteur.liberer("/patient/export", 100 * DIX_MS, 0, false);
+		limiteur.acquerir(1.0);
+
+		// un export lent n'est comparé qu'aux autres exports
+		limiteur.liberer("/patient/export", 110 * DIX_MS, 0, false);
+
+		assertThat(limiteur.limite()).isEqualTo(20);
+	}
+
+	@Test
+	public void reductionSurEchecBorneeParLeMinimumTest() {
+		LimiteurConcurrence limiteur = new LimiteurConcurrence(10, 4, 100, 2.0, 0.5);
+
+		// chaque requête commence après la réduction précédente
+		for (int i = 0; i < 5; i++) {
+			limiteur.acquerir(1.0);
+			limiteur.liberer("/patient/list", 0, 0, true);
+		}
+
+		assertThat(limiteur.limite()).isEqualTo(4);
+		assertThat(limiteur.enCours()).isZero();
+		// une requête en échec ne sert pas de référence
+		assertThat(limiteur.latenceReferenceMs("/patient/list")).isZero();
+	}
+
+	@Test
+	public void uneReductionParFenetreDeLatenceTest() {
+		LimiteurConcurrence limiteur = new LimiteurConcurrence(20, 1, 100, 2.0, 0.5);
+		for (int i = 0; i < 10; i++) {
+			limiteur.acquerir(1.0);
+		}
+
+		// dix requêtes en cours ensemble échouent : une seule réduction
+		for (int i = 0; i < 10; i++) {
+			limiteur.liberer("/patient/list", 100 * DIX_MS, 9, true);
+		}
+		assertThat(limiteur.limite()).isEqualTo(10);
+
+		// une requête commencée après la réduction peut à nouveau réduire la limite
+		limiteur.acquerir(1.0);
+		limiteur.liberer("/patient/list", 0, 0, true);
+		assertThat(limiteur.limite()).isEqualTo(5);
+	}
+
+	@Test
+	public void configurationIncoherenteTest() {
+		assertThrows(IllegalArgumentException.class, () -> new LimiteurConcurrence(2, 4, 10, 2.0, 0.9));
+		assertThrows(IllegalArgumentException.class, () -> new LimiteurConcurrence(4, 1, 10, 1.0, 0.9));
+		assertThrows(IllegalArgumentException.class, () -> new LimiteurConcurrence(4, 1, 10, 2.0, 1.0));
+	}
+}
@@ -0,0 +1,64 @@
+package com.medilabo.commun;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.medilabo.commun.declencheur.Declencheurs;
+import com.medilabo.commun.declencheur.MotCleMatcher;
+
+public class MotCleMatcherTest {
+
+	private static final List<String> MOTS_CLES = Declencheurs.MOTS_CLES;
+
+	private final MotCleMatcher matcher = Declencheurs.MATCHER;
+
+	@Test
+	public void compterDeclencheursInsensibleALaCasseTest() {
+		int result = matcher.compterDeclencheurs("Le patient a HBA1C, MICROALBUMINE et une réaction anormale");
+
+		assertThat(result).isEqualTo(4);
+	}
+
+	@Test
+	public void compterDeclencheursSansDoublonTest() {
+		int result = matcher.compterDeclencheurs("Fumeur, fumeur, toujours fumeur");
+
+		assertThat(result).isEqualTo(1);
+	}
+
+	@Test
+	public void compterDeclencheursChevauchementTest() {
+		// "fumeuse" contient aussi "fume" mais ni "fumeur" ni "fumer" : un seul déclencheur.
+		assertThat(matcher.compterDeclencheurs("patiente fumeuse")).isEqualTo(1);
+		// "rechutes" contient "rechute", "tailles" contient "taille".
+		assertThat(matcher.compterDeclencheurs("rechutes et tailles")).isEqualTo(2);
+	}
+
+	@Test
+	public void compterDeclencheursIdentiqueAContainsTest() {
+		String note = "Le patient présente les symptômes suivants : HbA1C, Fumeur, Anormal, Réaction, Anticorps, Cholestérol";
+		String noteMinuscule = note.toLowerCase();
+		long attendu = MOTS_CLES.stream().map(String::toLowerCase).filter(noteMinuscule::contains).count();
+
+		assertThat(matcher.compterDeclencheurs(note)).isEqualTo(attendu);
+	}
+
+	@Test
+	public void compterDeclencheursPlafondTest() {
+		String note = "HbA1C, Microalbumine, Fumeur, Anormal, Réaction, Anticorps, Vertiges, Rechute";
+
+		assertThat(matcher.compterDeclencheurs(note)).isEqualTo(8);
+		assertThat(matcher.compterDeclencheurs(note, 3)).isEqualTo(3);
+		assertThat(matcher.compterDeclencheurs(null)).isZero();
+	}
+
+	@Test
+	public void motCleVideTest() {
+		assertThatThrownBy(() -> new MotCleMatcher(List.of("HbA1C", "")))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+}
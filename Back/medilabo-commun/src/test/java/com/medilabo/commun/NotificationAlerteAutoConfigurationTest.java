@@ -0,0 +1,41 @@
+package com.medilabo.commun;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.client.RestClient;
+
+import com.medilabo.commun.notification.AlerteNotificationListener;
+import com.medilabo.commun.notification.NotificationAlerteAutoConfiguration;
+
+public class NotificationAlerteAutoConfigurationTest {
+
+	private final ApplicationContextRunner contexte = new ApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(NotificationAlerteAutoConfiguration.class));
+
+	@Test
+	public void activeAvecUrlAlerteTest() {
+		contexte.withPropertyValues("alerte.url=http://api-alerte:8081")
+			.run(context -> {
+				assertThat(context).hasSingleBean(AlerteNotificationListener.class);
+				assertThat(context).hasBean("alerteRestClient");
+			});
+	}
+
+	@Test
+	public void notificationsDesactiveesTest() {
+		contexte.withPropertyValues("alerte.url=http://api-alerte:8081", "alerte.notification.enabled=false")
+			.run(context -> {
+				assertThat(context).doesNotHaveBean(AlerteNotificationListener.class);
+				assertThat(context).hasSingleBean(RestClient.class);
+			});
+	}
+
+	@Test
+	public void inactiveSansUrlAlerteTest() {
+		contexte.run(context -> assertThat(context).doesNotHaveBean(AlerteNotificationListener.class)
+				.doesNotHaveBean(RestClient.class));
+	}
+}
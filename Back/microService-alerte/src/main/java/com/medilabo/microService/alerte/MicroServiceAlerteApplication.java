@@ -2,14 +2,21 @@ package com.medilabo.microService.alerte;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 
 @EnableFeignClients
 @SpringBootApplication
 public class MicroServiceAlerteApplication {
 
+	/** Nombre maximum d'étapes de démarrage conservées pour l'endpoint actuator {@code startup}. */
+	private static final int ETAPES_DEMARRAGE_MAX = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(MicroServiceAlerteApplication.class, args);
+		SpringApplication application = new SpringApplication(MicroServiceAlerteApplication.class);
+		// Durée de chaque étape du démarrage, consultable sur /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(ETAPES_DEMARRAGE_MAX));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,142 @@
+package com.medilabo.microService.alerte.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.medilabo.microService.alerte.feign.INoteClient;
+import com.medilabo.microService.alerte.feign.IPatientClient;
+import com.medilabo.microService.alerte.model.CompteurDeclencheurs;
+import com.medilabo.microService.alerte.model.Patient;
+import com.medilabo.microService.alerte.service.CollapseurRequetes;
+import com.medilabo.microService.alerte.service.DernieresDonnees;
+import com.medilabo.microService.alerte.service.ProtectionAppels;
+
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration des ressources d'exécution du microservice alerte.
+ * <p>
+ * Active également le cache des résultats d'évaluation ({@code risques}), configuré dans
+ * {@code application.properties} (Caffeine, taille maximale et durée de vie).
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class AlerteConfig {
+
+	/**
+	 * Exécuteur utilisé pour lancer en parallèle les appels Feign vers les API patient et note.
+	 * <p>
+	 * Chaque appel est bloquant (attente réseau) : un thread virtuel par tâche permet d'en lancer
+	 * autant que nécessaire sans dimensionner de pool.
+	 * </p>
+	 *
+	 * @return un exécuteur créant un thread virtuel par tâche
+	 */
+	@Bean(destroyMethod = "close")
+	ExecutorService appelsExecutor() {
+		return Executors.newVirtualThreadPerTaskExecutor();
+	}
+
+	/**
+	 * Pool borné utilisé par l'évaluation des risques par lot.
+	 * <p>
+	 * Chaque tâche traite un lot de patients (deux appels groupés puis le calcul des risques) :
+	 * la taille du pool limite le nombre de lots traités en même temps, et donc la charge
+	 * imposée aux API patient et note.
+	 * </p>
+	 *
+	 * @param nombreWorkers le nombre de lots traités simultanément
+	 * @return un pool de threads de taille fixe
+	 */
+	@Bean(destroyMethod = "shutdown")
+	ExecutorService batchExecutor(@Value("${alerte.batch.workers:8}") int nombreWorkers) {
+		AtomicInteger compteur = new AtomicInteger();
+		return Executors.newFixedThreadPool(nombreWorkers,
+				tache -> new Thread(tache, "alerte-batch-" + compteur.incrementAndGet()));
+	}
+
+	/**
+	 * Planificateur des envois de lots des collapseurs, à la fin de leur fenêtre.
+	 * Il ne fait que déclencher les appels, exécutés ensuite sur {@code appelsExecutor}.
+	 *
+	 * @return un planificateur à thread unique
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	ScheduledExecutorService collapseScheduler() {
+		return Executors.newSingleThreadScheduledExecutor(tache -> {
+			Thread thread = new Thread(tache, "alerte-collapse");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Regroupement des récupérations de patients lancées par les évaluations simultanées.
+	 * <p>
+	 * Un lot d'un seul patient passe par {@code GET /patient/infos/{id}}, qui profite du cache de l'API Patient ;
+	 * un lot plus grand passe par la récupération par lot {@code GET /patient/infos?ids=}. Dans les deux cas, un patient
+	 * inconnu est absent du résultat (réponse 404 pour un patient seul). Les patients reçus sont conservés
+	 * dans {@link DernieresDonnees}, pour le repli quand l'API patient est indisponible.
+	 * </p>
+	 */
+	@Bean
+	CollapseurRequetes<Long, Patient> collapseurPatients(IPatientClient patientClient, ProtectionAppels protectionAppels,
+			DernieresDonnees dernieresDonnees,
+			@Qualifier("collapseScheduler") ScheduledExecutorService collapseScheduler,
+			@Qualifier("appelsExecutor") ExecutorService appelsExecutor, MeterRegistry registry,
+			@Value("${alerte.collapse.fenetre-ms:5}") long fenetreMs,
+			@Value("${alerte.collapse.taille-max:100}") int tailleMax) {
+		return new CollapseurRequetes<>("patients", ids -> {
+			Map<Long, Patient> patients = new HashMap<>();
+			if (ids.size() == 1) {
+				try {
+					patients.put(ids.get(0), protectionAppels.appelerPatient(() -> patientClient.getPatientById(ids.get(0))));
+				} catch (FeignException.NotFound e) {
+					// patient inconnu : absent du résultat, comme avec la récupération par lot
+				}
+			} else {
+				protectionAppels.appelerPatient(() -> patientClient.getPatientsByIds(ids))
+						.forEach(patient -> patients.put(patient.getId(), patient));
+			}
+			patients.values().forEach(dernieresDonnees::enregistrerPatient);
+			return patients;
+		}, fenetreMs, tailleMax, collapseScheduler, appelsExecutor, registry);
+	}
+
+	/**
+	 * Regroupement des récupérations du nombre de déclencheurs lancées par les évaluations simultanées.
+	 * Le résultat est le compteur de chaque patient (absent si l'API note ne l'a pas renvoyé), marqué {@code incomplet}
+	 * pendant le rattrapage des déclencheurs de l'API note. Le total est conservé dans {@link DernieresDonnees}
+	 * pour le repli quand l'API note est indisponible.
+	 */
+	@Bean
+	CollapseurRequetes<Long, CompteurDeclencheurs> collapseurDeclencheurs(INoteClient noteClient, ProtectionAppels protectionAppels,
+			DernieresDonnees dernieresDonnees,
+			@Qualifier("collapseScheduler") ScheduledExecutorService collapseScheduler,
+			@Qualifier("appelsExecutor") ExecutorService appelsExecutor, MeterRegistry registry,
+			@Value("${alerte.collapse.fenetre-ms:5}") long fenetreMs,
+			@Value("${alerte.collapse.taille-max:100}") int tailleMax) {
+		return new CollapseurRequetes<>("declencheurs", ids -> {
+			Map<Long, CompteurDeclencheurs> compteurs = new HashMap<>();
+			for (CompteurDeclencheurs compteur : protectionAppels.appelerNote(() -> noteClient.getDeclencheurs(List.copyOf(ids)))) {
+				compteurs.put(compteur.getPatientId(), compteur);
+			}
+			ids.forEach(id -> dernieresDonnees.enregistrerDeclencheurs(id,
+					compteurs.containsKey(id) ? compteurs.get(id).getTotalDeclencheurs() : 0L));
+			return compteurs;
+		}, fenetreMs, tailleMax, collapseScheduler, appelsExecutor, registry);
+	}
+}
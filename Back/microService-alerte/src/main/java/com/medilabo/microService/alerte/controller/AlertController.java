@@ -1,32 +1,130 @@
 package com.medilabo.microService.alerte.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.microService.alerte.model.DetectionBatchRequete;
+import com.medilabo.microService.alerte.model.RisqueRepli;
+import com.medilabo.microService.alerte.model.RisqueResultat;
 import com.medilabo.microService.alerte.service.IAlerteService;
+import com.medilabo.microService.alerte.service.ProtectionAppels;
 
 @RestController
 @RequestMapping("/alerte")
 public class AlertController {
 
+	/** En-tête des réponses calculées avec les dernières données connues, faute d'API patient ou note disponible. */
+	public static final String ENTETE_DONNEES_PERIMEES = "X-Medilabo-Donnees-Perimees";
+
+	/** En-tête donnant la date de réception des données utilisées (la plus ancienne des deux API), en ISO-8601 UTC. */
+	public static final String ENTETE_DATE_DONNEES = "X-Medilabo-Date-Donnees";
+
 	private Logger logger = LogManager.getLogger();
 	
 	@Autowired
     private IAlerteService alertService;
 
+	@Autowired
+	private ObjectMapper objectMapper;
+
 
+    /**
+     * Évalue le risque de diabète d'un patient.
+     * <p>
+     * Si l'API patient ou note est indisponible (coupe-circuit ouvert, bulkhead plein, délai dépassé, erreur 5xx),
+     * le risque est évalué avec les dernières données reçues de ces API : la réponse porte alors les en-têtes
+     * {@value #ENTETE_DONNEES_PERIMEES} et {@value #ENTETE_DATE_DONNEES}. Sans données connues, l'erreur est renvoyée.
+     * </p>
+     *
+     * @param patientId l'identifiant du patient
+     * @return le niveau de risque
+     */
     @GetMapping("/detecte")
     public ResponseEntity<String> getAlert(@RequestParam Long patientId) {
     	logger.info("Entrée dans le controller alerte/detecte avec le patientId {}", patientId);
-    	String alert = alertService.riskEvaluation(patientId);
+    	String alert;
+    	try {
+    		alert = alertService.riskEvaluation(patientId);
+    	} catch (RuntimeException e) {
+    		if (!ProtectionAppels.estIndisponibilite(e)) {
+    			throw e;
+    		}
+    		RisqueRepli repli = alertService.riskEvaluationRepli(patientId);
+    		if (repli == null) {
+    			throw e;
+    		}
+    		logger.warn("API indisponible ({}), risque du patient {} renvoyé avec les données du {}.",
+    				e.getClass().getSimpleName(), patientId, repli.getDateDonnees());
+    		return ResponseEntity.ok()
+    				.header(ENTETE_DONNEES_PERIMEES, "true")
+    				.header(ENTETE_DATE_DONNEES, repli.getDateDonnees().toString())
+    				.body(repli.getRisque());
+    	}
     	logger.info("Récupération avec succès de l'alerte santé.");
         return ResponseEntity.ok(alert);
     }
-}
 
+    /**
+     * Invalide le niveau de risque en cache d'un patient.
+     * <p>
+     * Appelé par les API patient et note à chaque modification des données ou des notes du patient.
+     * </p>
+     *
+     * @param patientId l'identifiant du patient
+     * @return une réponse 204
+     */
+    @PostMapping("/cache/invalidate")
+    public ResponseEntity<Void> invaliderRisque(@RequestParam Long patientId) {
+    	logger.info("Entrée dans le controller alerte/cache/invalidate avec le patientId {}", patientId);
+    	alertService.invaliderRisque(patientId);
+    	return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Évalue le risque de diabète d'une liste de patients, ou de tous les patients si {@code all} vaut true.
+     * <p>
+     * Les résultats sont renvoyés au fil de l'eau au format NDJSON (un objet {@link RisqueResultat} par ligne),
+     * lot par lot, dès que chaque lot est évalué : l'ordre des lignes ne suit donc pas forcément celui de la requête.
+     * </p>
+     *
+     * @param requete la liste des patientIds ou all = true
+     * @return le flux des résultats, ou une erreur 400 si la requête est vide
+     */
+    @PostMapping("/detecte/batch")
+    public ResponseEntity<?> getAlertBatch(@RequestBody DetectionBatchRequete requete) {
+    	if (requete == null || (!requete.isAll() && (requete.getPatientIds() == null || requete.getPatientIds().isEmpty()))) {
+    		logger.error("Requête d'évaluation par lot vide.");
+    		return ResponseEntity.badRequest().body("La requête doit contenir une liste de patientIds ou all = true.");
+    	}
+    	logger.info("Entrée dans le controller alerte/detecte/batch (all = {}).", requete.isAll());
+
+    	StreamingResponseBody flux = sortie -> alertService.riskEvaluationBatch(requete, resultats -> {
+    		try {
+    			for (RisqueResultat resultat : resultats) {
+    				sortie.write(objectMapper.writeValueAsBytes(resultat));
+    				sortie.write('\n');
+    			}
+    			sortie.flush();
+    		} catch (IOException e) {
+    			throw new UncheckedIOException(e);
+    		}
+    	});
+        return ResponseEntity.ok()
+        		.contentType(MediaType.APPLICATION_NDJSON)
+        		.body(flux);
+    }
+}
@@ -0,0 +1,18 @@
+package com.medilabo.microService.alerte.exception;
+
+/**
+ * Exception levée lorsque les données nécessaires à l'évaluation du risque
+ * n'ont pas pu être récupérées dans le délai imparti.
+ */
+public class EvaluationTimeoutException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public EvaluationTimeoutException(String message) {
+		super(message);
+	}
+
+	public EvaluationTimeoutException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
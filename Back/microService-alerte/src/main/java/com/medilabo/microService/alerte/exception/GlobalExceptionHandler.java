@@ -0,0 +1,49 @@
+package com.medilabo.microService.alerte.exception;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+
+/**
+ * Gestionnaire global des exceptions du microservice alerte.
+ */
+@ControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger logger = LogManager.getLogger(GlobalExceptionHandler.class);
+
+    /** Délai conseillé avant un nouvel essai quand une API est protégée, la durée d'ouverture des coupe-circuits. */
+    @Value("${alerte.repli.retry-after-s:10}")
+    private long retryAfterSecondes;
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgumentException(IllegalArgumentException e) {
+        logger.error("Erreur de requête : {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    @ExceptionHandler(EvaluationTimeoutException.class)
+    public ResponseEntity<String> handleEvaluationTimeoutException(EvaluationTimeoutException e) {
+        logger.error("Délai dépassé : {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(e.getMessage());
+    }
+
+    /**
+     * Coupe-circuit ouvert ou bulkhead plein vers l'API patient ou note, sans dernières données connues pour répondre.
+     */
+    @ExceptionHandler({ CallNotPermittedException.class, BulkheadFullException.class })
+    public ResponseEntity<String> handleApiIndisponible(RuntimeException e) {
+        logger.error("API indisponible : {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSecondes))
+                .body("Service temporairement indisponible, réessayez plus tard.");
+    }
+}
@@ -6,12 +6,12 @@ import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import com.medilabo.microService.alerte.model.Note;
+import com.medilabo.microService.alerte.model.CompteurDeclencheurs;
 
-@FeignClient(name = "note-service", url = "http://api-note:8081")
+@FeignClient(name = "note-service", url = "${alerte.note.url:http://api-note:8081}")
 public interface INoteClient {
     
-	@GetMapping("/note/getNotesPatient")
-	List<Note> getAllNotesPatient(@RequestParam Long patientId);
+	@GetMapping("/note/declencheurs")
+	List<CompteurDeclencheurs> getDeclencheurs(@RequestParam List<Long> patientIds);
     
 }
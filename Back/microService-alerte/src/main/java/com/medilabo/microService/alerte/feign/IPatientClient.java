@@ -1,18 +1,29 @@
 package com.medilabo.microService.alerte.feign;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import com.medilabo.microService.alerte.model.PagePatients;
 import com.medilabo.microService.alerte.model.Patient;
 
 
-@FeignClient(name = "patient-service", url = "http://api-patient:8081")
+@FeignClient(name = "patient-service", url = "${alerte.patient.url:http://api-patient:8081}")
 public interface IPatientClient {
 	
 	@GetMapping("/patient/infos/{id}")
 	Patient getPatientById(@PathVariable Long id);
 
-    @GetMapping("/patient/infos/{id}/age")
-    int getAgePatient(@PathVariable Long id);
+    /**
+     * Récupère en une requête jusqu'à 5000 patients, avec leur âge déjà calculé.
+     */
+    @GetMapping("/patient/infos")
+    List<Patient> getPatientsByIds(@RequestParam List<Long> ids);
+
+    @GetMapping("/patient/list")
+    PagePatients getPagePatients(@RequestParam("taille") int taille,
+    		@RequestParam(value = "curseur", required = false) String curseur);
 }
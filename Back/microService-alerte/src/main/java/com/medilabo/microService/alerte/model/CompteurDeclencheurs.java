@@ -0,0 +1,34 @@
+package com.medilabo.microService.alerte.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Total des termes déclencheurs des notes d'un patient, calculé par l'API Note à l'écriture des notes.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CompteurDeclencheurs {
+
+	Long patientId;
+
+	long totalDeclencheurs;
+
+	long nombreNotes;
+
+	/**
+	 * Vrai tant que l'API Note rattrape les déclencheurs de ses notes anciennes : le total peut être
+	 * inférieur au nombre réel de déclencheurs du patient.
+	 */
+	boolean incomplet;
+
+	public CompteurDeclencheurs(Long patientId, long totalDeclencheurs, long nombreNotes) {
+		this.patientId = patientId;
+		this.totalDeclencheurs = totalDeclencheurs;
+		this.nombreNotes = nombreNotes;
+	}
+}
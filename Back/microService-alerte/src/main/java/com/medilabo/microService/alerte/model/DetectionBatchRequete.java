@@ -0,0 +1,26 @@
+package com.medilabo.microService.alerte.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Corps de la requête d'évaluation des risques par lot.
+ * <p>
+ * Soit {@code patientIds} contient la liste des patients à évaluer,
+ * soit {@code all} vaut {@code true} pour évaluer l'ensemble des patients.
+ * </p>
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class DetectionBatchRequete {
+
+	List<Long> patientIds;
+
+	boolean all;
+}
@@ -0,0 +1,25 @@
+package com.medilabo.microService.alerte.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Page de patients renvoyée par {@code GET /patient/list} de l'API Patient.
+ * {@code curseurSuivant} vaut {@code null} sur la dernière page.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PagePatients {
+
+	List<Patient> patients;
+
+	String curseurSuivant;
+
+	Long total;
+}
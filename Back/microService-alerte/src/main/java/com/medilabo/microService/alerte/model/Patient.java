@@ -5,11 +5,13 @@ import java.time.LocalDateTime;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Getter
 @Setter
 @AllArgsConstructor
+@NoArgsConstructor
 public class Patient {
 	
 	Long id;
@@ -22,4 +24,7 @@ public class Patient {
 	String telephone;
 	LocalDateTime dateCreation;
 	LocalDateTime dateModification;
+
+	/** Âge calculé par l'API Patient, renseigné uniquement par la récupération par lot. */
+	Integer age;
 }
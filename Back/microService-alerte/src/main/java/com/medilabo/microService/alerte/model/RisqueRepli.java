@@ -0,0 +1,26 @@
+package com.medilabo.microService.alerte.model;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Risque évalué sur les dernières données reçues d'un patient, quand l'API patient ou note est indisponible.
+ * <p>
+ * {@code dateDonnees} est la date de réception de la plus ancienne des données utilisées : le patient ou ses notes
+ * ont pu changer depuis. C'est un instant (UTC), pour être affiché sans ambiguïté dans le fuseau du client.
+ * </p>
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RisqueRepli {
+
+	String risque;
+
+	Instant dateDonnees;
+}
@@ -0,0 +1,39 @@
+package com.medilabo.microService.alerte.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Résultat de l'évaluation du risque d'un patient, renvoyé ligne par ligne par l'évaluation par lot.
+ * <p>
+ * {@code erreur} n'est renseigné que si le risque n'a pas pu être évalué (patient introuvable,
+ * date de naissance absente, API indisponible...). {@code declencheursIncomplets} n'est renseigné que si
+ * l'API Note n'a pas fini de rattraper les déclencheurs de ses notes anciennes.
+ * </p>
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RisqueResultat {
+
+	Long patientId;
+
+	String risque;
+
+	String erreur;
+
+	/** Vrai si le risque a été évalué sur un total de déclencheurs incomplet (rattrapage en cours côté API Note). */
+	Boolean declencheursIncomplets;
+
+	public RisqueResultat(Long patientId, String risque, String erreur) {
+		this.patientId = patientId;
+		this.risque = risque;
+		this.erreur = erreur;
+	}
+}
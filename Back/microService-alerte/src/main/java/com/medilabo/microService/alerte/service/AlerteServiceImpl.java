@@ -1,30 +1,68 @@
 package com.medilabo.microService.alerte.service;
 
+import java.time.LocalDate;
+import java.time.Instant;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import com.medilabo.microService.alerte.exception.EvaluationTimeoutException;
 import com.medilabo.microService.alerte.feign.IPatientClient;
 import com.medilabo.microService.alerte.feign.INoteClient;
-import com.medilabo.microService.alerte.model.Note;
+import com.medilabo.microService.alerte.model.CompteurDeclencheurs;
+import com.medilabo.microService.alerte.model.DetectionBatchRequete;
+import com.medilabo.microService.alerte.model.PagePatients;
 import com.medilabo.microService.alerte.model.Patient;
+import com.medilabo.microService.alerte.model.RisqueRepli;
+import com.medilabo.microService.alerte.model.RisqueResultat;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Service
 public class AlerteServiceImpl implements IAlerteService {
 
-	/** La liste des declencheurs
-	 * <p>
-	 * La liste des termes déclencheurs à rechercher dans les notes du prestataire de santé.
-	 * </p>
-	 * 
+	/** Nom du cache des niveaux de risque, indexé par identifiant patient. */
+	public static final String CACHE_RISQUES = "risques";
+
+	/** Niveaux de risque renvoyés par {@link #niveauRisque}, seuls résultats mis en cache. */
+	public static final Set<String> NIVEAUX_RISQUE = Set.of("None", "Borderline", "In Danger", "Early onset");
+
+	/**
+	 * Nombre de générations de risques. Chaque patient utilise une case ({@code patientId} modulo ce nombre) :
+	 * la mémoire reste bornée, et une invalidation ne fait qu'empêcher, au pire, la mise en cache d'un autre
+	 * patient de la même case en cours d'évaluation.
 	 */
-	private List<String> listMotCle = List.of(
-		    "HbA1C", "Microalbumine", "Taille", "Poids", "Fumeur", "Fumer",
-		    "Fumeuse", "Anormal", "Cholestérol", "Vertiges", "Rechute", "Réaction", "Anticorps"
-		);
+	private static final int NOMBRE_GENERATIONS = 4096;
+
+	/** Taille des pages demandées à l'API Patient (maximum accepté par {@code GET /patient/list}). */
+	private static final int TAILLE_PAGE_PATIENTS = 100;
+
 	private Logger logger = LogManager.getLogger();
 
 	@Autowired
@@ -33,11 +71,95 @@ public class AlerteServiceImpl implements IAlerteService {
 	@Autowired
 	private IPatientClient patientClient;
 
+	@Autowired
+	private CacheManager cacheManager;
+
+	/** Génération des risques de chaque case de patients, incrémentée à chaque invalidation. */
+	private final AtomicLongArray generations = new AtomicLongArray(NOMBRE_GENERATIONS);
+
+	@Autowired
+	private ProtectionAppels protectionAppels;
+
+	@Autowired
+	private DernieresDonnees dernieresDonnees;
+
+	@Autowired
+	@Qualifier("batchExecutor")
+	private ExecutorService batchExecutor;
+
+	@Autowired
+	@Qualifier("collapseurPatients")
+	private CollapseurRequetes<Long, Patient> collapseurPatients;
+
+	@Autowired
+	@Qualifier("collapseurDeclencheurs")
+	private CollapseurRequetes<Long, CompteurDeclencheurs> collapseurDeclencheurs;
+
+	/** Nombre de patients récupérés par requête groupée lors de l'évaluation par lot. */
+	@Value("${alerte.batch.taille-lot:200}")
+	private int tailleLot;
+
+	/** Délai maximum d'un appel vers l'API patient ou note. */
+	@Value("${alerte.appel.timeout-ms:2000}")
+	private long timeoutAppelMs;
+
+	/** Délai maximum pour récupérer l'ensemble des données d'une évaluation. */
+	@Value("${alerte.evaluation.timeout-ms:3000}")
+	private long timeoutGlobalMs;
+
+	/** Compteur {@code alerte.risque.niveaux} de chaque niveau de risque, vide tant qu'aucun registre n'est injecté. */
+	private Map<String, Counter> compteursNiveaux = Map.of();
+
+	/** Compteur {@code alerte.repli} des replis sur les dernières données, par résultat ({@code servi} ou {@code absent}). */
+	private Map<String, Counter> compteursRepli = Map.of();
+
+	/** Compteur {@code alerte.declencheurs.incomplets}, null tant qu'aucun registre n'est injecté. */
+	private Counter compteurIncomplets;
+
+	/**
+	 * Enregistre un compteur par niveau de risque, étiquette {@code niveau}, et les compteurs des replis.
+	 *
+	 * @param registry le registre des métriques
+	 */
+	@Autowired
+	void enregistrerCompteursNiveaux(MeterRegistry registry) {
+		compteursNiveaux = NIVEAUX_RISQUE.stream().collect(Collectors.toMap(Function.identity(),
+				niveau -> Counter.builder("alerte.risque.niveaux")
+						.description("Niveaux de risque calculés (hors réponses servies par le cache)")
+						.tag("niveau", niveau)
+						.register(registry)));
+		compteursRepli = Set.of("servi", "absent").stream().collect(Collectors.toMap(Function.identity(),
+				resultat -> Counter.builder("alerte.repli")
+						.description("Évaluations de risque repliées sur les dernières données reçues des API patient et note")
+						.tag("resultat", resultat)
+						.register(registry)));
+		compteurIncomplets = Counter.builder("alerte.declencheurs.incomplets")
+				.description("Risques évalués pendant le rattrapage des déclencheurs de l'API note, non mis en cache")
+				.register(registry);
+	}
+
 	/**
 	 * Évalue le niveau de risque de diabète pour un patient donné.
+	 * <p>
+	 * Le nombre de déclencheurs (calculé par l'API Note à l'écriture des notes) et les informations
+	 * du patient sont récupérés en parallèle ; l'âge est calculé à partir de la date de naissance
+	 * du patient, sans appel supplémentaire à l'API patient.
+	 * </p>
+	 * <p>
+	 * Les deux récupérations passent par un {@link CollapseurRequetes} : les évaluations simultanées
+	 * d'un même patient partagent les mêmes appels, et celles de patients différents sont regroupées
+	 * en appels par lot.
+	 * </p>
 	 *
 	 * @param patientId L'identifiant unique du patient.
 	 * @return Le niveau de risque sous forme de chaîne de caractères (None, Borderline, In Danger, Early Onset).
+	 * <p>
+	 * Le résultat est conservé dans le cache {@code risques} ; il est invalidé par {@link #invaliderRisque(Long)}
+	 * lorsque les API patient ou note signalent une modification. Les réponses d'erreur ne sont pas mises en cache,
+	 * ni un résultat dont l'évaluation a commencé avant une invalidation du patient (voir {@link #mettreEnCache}),
+	 * ni un résultat calculé sur un total de déclencheurs que l'API note signale incomplet (rattrapage en cours).
+	 * </p>
+	 * @throws EvaluationTimeoutException si un appel dépasse son délai ou si l'ensemble dépasse le délai global.
 	 */
 	public String riskEvaluation (Long patientId) {
 		logger.info("Tentative de récupération de l'alerte santé pour le patient : {}", patientId);
@@ -46,74 +168,399 @@ public class AlerteServiceImpl implements IAlerteService {
 			logger.error("Le patientId ne peut pas être null.");
 			return "L'id du patient est null";
 		}
-		
-	    List<Note> listNotes = noteClient.getAllNotesPatient(patientId);
-	    logger.debug("Notes récupérées pour le patient {}: {}", patientId, listNotes);
 
-	    Patient patient = patientClient.getPatientById(patientId);
-	    if (patient == null) {
-	    	logger.warn("Patient non trouvé avec l'ID : {}. Impossible d'évaluer le risque.", patientId);
-	    	return "Aucun risque (Patient non trouvé)";
-	    }
-	    logger.debug("Patient récupéré avec l'Id {}: {}", patientId, patient);
-	    
-	    int agePatient = patientClient.getAgePatient(patientId);
+		Cache cache = cacheManager.getCache(CACHE_RISQUES);
+		String enCache = cache.get(patientId, String.class);
+		if (enCache != null) {
+			return enCache;
+		}
+		long generation = generations.get(caseGeneration(patientId));
+		Evaluation evaluation = evaluerRisque(patientId);
+		if (evaluation.declencheursIncomplets()) {
+			logger.warn("Risque du patient {} non mis en cache : déclencheurs en cours de rattrapage par l'API note.", patientId);
+			if (compteurIncomplets != null) {
+				compteurIncomplets.increment();
+			}
+		} else if (NIVEAUX_RISQUE.contains(evaluation.risque())) {
+			mettreEnCache(cache, patientId, evaluation.risque(), generation);
+		}
+		return evaluation.risque();
+	}
+
+	/**
+	 * Risque évalué, et indication d'un total de déclencheurs incomplet.
+	 */
+	private record Evaluation(String risque, boolean declencheursIncomplets) {
+	}
+
+	/**
+	 * Met un risque en cache, sauf si le patient a été invalidé depuis le début de son évaluation : le résultat
+	 * peut alors avoir été calculé sur les données d'avant la modification.
+	 * <p>
+	 * La génération est relue après l'écriture : une invalidation qui a lieu entre la vérification et l'écriture
+	 * est détectée et l'entrée retirée ; une invalidation plus tardive retire elle-même l'entrée, car
+	 * {@link #invaliderRisque(Long)} incrémente la génération avant de vider le cache.
+	 * </p>
+	 */
+	private void mettreEnCache(Cache cache, Long patientId, String risque, long generation) {
+		int indice = caseGeneration(patientId);
+		if (generations.get(indice) != generation) {
+			logger.debug("Risque du patient {} non mis en cache : patient modifié pendant l'évaluation.", patientId);
+			return;
+		}
+		cache.put(patientId, risque);
+		if (generations.get(indice) != generation) {
+			cache.evict(patientId);
+		}
+	}
+
+	private static int caseGeneration(Long patientId) {
+		return Math.floorMod(patientId.hashCode(), NOMBRE_GENERATIONS);
+	}
+
+	/**
+	 * Récupère les données du patient et calcule son risque, sans passer par le cache.
+	 */
+	private Evaluation evaluerRisque(Long patientId) {
+		long echeance = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutGlobalMs);
+		CompletableFuture<CompteurDeclencheurs> compteurFuture = borner(collapseurDeclencheurs.demander(patientId));
+		CompletableFuture<Patient> patientFuture = borner(collapseurPatients.demander(patientId));
+
+		Patient patient;
+		CompteurDeclencheurs compteur;
+		try {
+			patient = attendre(patientFuture, echeance, "patient", patientId);
+			if (patient == null) {
+				logger.warn("Patient non trouvé avec l'ID : {}. Impossible d'évaluer le risque.", patientId);
+				return new Evaluation("Aucun risque (Patient non trouvé)", false);
+			}
+			logger.debug("Patient {} récupéré.", patientId);
+
+			compteur = attendre(compteurFuture, echeance, "notes", patientId);
+		} finally {
+			// Annuler un CompletableFuture n'interrompt jamais le thread qui le complète : seule la copie propre
+			// à cette évaluation est abandonnée, l'appel partagé se poursuit jusqu'au délai du client Feign.
+			compteurFuture.cancel(false);
+			patientFuture.cancel(false);
+		}
+		long totalDeclencheurs = (compteur != null) ? compteur.getTotalDeclencheurs() : 0L;
+		logger.debug("Déclencheurs du patient {} : {}", patientId, totalDeclencheurs);
+
+	    int agePatient = calculerAge(patient.getDateNaissance());
 	    logger.debug("Le patient est âgé de : {}", agePatient);
 
 	    String genrePatient = (patient.getGenre() != null) ? patient.getGenre() : "";
 	    logger.debug("Genre du patient : {}", genrePatient);
-	    
-	    String riskDiabete = riskDiabete(listNotes, agePatient, genrePatient);
-	    
-		return riskDiabete;
-	    
 
+	    String riskDiabete = niveauRisque(totalDeclencheurs, agePatient, genrePatient);
+
+		return new Evaluation(riskDiabete, compteur != null && compteur.isIncomplet());
+	}
+
+	/**
+	 * Évalue le risque d'un patient avec les dernières données reçues des API patient et note, quand
+	 * {@link #riskEvaluation(Long)} a échoué faute d'API disponible.
+	 * <p>
+	 * Le résultat n'est pas mis en cache : les données ont pu changer depuis leur réception.
+	 * </p>
+	 *
+	 * @param patientId l'identifiant du patient
+	 * @return le risque et la date des données utilisées, ou {@code null} si le patient ou ses déclencheurs
+	 *         n'ont pas été reçus depuis {@code alerte.repli.duree}
+	 */
+	public RisqueRepli riskEvaluationRepli(Long patientId) {
+		DernieresDonnees.DonneeRecue<Patient> patient = patientId != null ? dernieresDonnees.patient(patientId) : null;
+		DernieresDonnees.DonneeRecue<Long> declencheurs = patientId != null ? dernieresDonnees.declencheurs(patientId) : null;
+		if (patient == null || declencheurs == null || patient.valeur().getDateNaissance() == null) {
+			compterRepli("absent");
+			return null;
+		}
+		Instant dateDonnees = patient.dateReception().isBefore(declencheurs.dateReception())
+				? patient.dateReception() : declencheurs.dateReception();
+		String genre = (patient.valeur().getGenre() != null) ? patient.valeur().getGenre() : "";
+		String risque = niveauRisque(declencheurs.valeur(), calculerAge(patient.valeur().getDateNaissance()), genre);
+		compterRepli("servi");
+		logger.warn("Risque du patient {} évalué sur les données reçues le {}.", patientId, dateDonnees);
+		return new RisqueRepli(risque, dateDonnees);
+	}
+
+	private void compterRepli(String resultat) {
+		Counter compteur = compteursRepli.get(resultat);
+		if (compteur != null) {
+			compteur.increment();
+		}
+	}
+
+	/**
+	 * Supprime du cache le niveau de risque d'un patient.
+	 * <p>
+	 * La génération du patient est incrémentée avant de vider le cache : les évaluations en cours ne mettent pas
+	 * en cache leur résultat, et les suivantes ne rejoignent pas les appels déjà envoyés aux API patient et note.
+	 * </p>
+	 *
+	 * @param patientId l'identifiant du patient dont les données ont changé
+	 */
+	public void invaliderRisque(Long patientId) {
+		logger.info("Invalidation du risque en cache pour le patient {}", patientId);
+		if (patientId == null) {
+			return;
+		}
+		generations.incrementAndGet(caseGeneration(patientId));
+		collapseurPatients.oublier(patientId);
+		collapseurDeclencheurs.oublier(patientId);
+		cacheManager.getCache(CACHE_RISQUES).evict(patientId);
+	}
+
+	/**
+	 * Borne l'attente d'un appel par le délai par appel. La demande reçue du collapseur est
+	 * propre à l'évaluation : son expiration n'interrompt pas l'appel partagé.
+	 */
+	private <T> CompletableFuture<T> borner(CompletableFuture<T> demande) {
+		return demande.orTimeout(timeoutAppelMs, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Attend le résultat d'un appel sans dépasser l'échéance globale de l'évaluation.
+	 * <p>
+	 * Les exceptions levées par le client Feign sont propagées telles quelles.
+	 * </p>
+	 */
+	private <T> T attendre(CompletableFuture<T> future, long echeance, String ressource, Long patientId) {
+		try {
+			return future.get(Math.max(0, echeance - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			logger.error("Délai global dépassé lors de la récupération des {} du patient {}", ressource, patientId);
+			throw new EvaluationTimeoutException("Délai dépassé lors de la récupération des données (" + ressource
+					+ ") du patient " + patientId, e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof TimeoutException) {
+				logger.error("Délai dépassé pour l'appel {} du patient {}", ressource, patientId);
+				throw new EvaluationTimeoutException("Délai dépassé lors de la récupération des données (" + ressource
+						+ ") du patient " + patientId, cause);
+			}
+			if (cause instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(cause);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new EvaluationTimeoutException("Évaluation interrompue pour le patient " + patientId, e);
+		}
+	}
+
+	/**
+	 * Calcule l'âge du patient à partir de sa date de naissance.
+	 *
+	 * @param dateNaissance la date de naissance du patient
+	 * @return l'âge en années
+	 * @throws IllegalArgumentException si la date de naissance est null
+	 */
+	public int calculerAge(LocalDate dateNaissance) {
+		if (dateNaissance == null) {
+			logger.error("La date de naissance du patient ne peut pas être null");
+			throw new IllegalArgumentException("La date de naissance du patient est absente.");
+		}
+		return Period.between(dateNaissance, LocalDate.now()).getYears();
 	}
-	
+
 	/**
-	 * Calcule le risque de diabète d’un patient en fonction des transmissions médicales, de l’âge et du genre.
+	 * Évalue le risque de diabète d'une liste de patients (ou de tous les patients) par lots.
 	 * <p>
-	 * Cette méthode compte le nombre d’occurrences de mots-clés spécifiques aux facteurs de risque
-	 * dans l’ensemble des transmissions du patient. Selon le nombre d’occurrences et les critères
-	 * d’âge/genre, elle détermine un niveau de risque parmi les valeurs :
+	 * Les identifiants sont découpés en lots de {@code alerte.batch.taille-lot} patients. Pour chaque lot,
+	 * les patients puis leurs notes sont récupérés en une requête groupée chacun, et les risques sont
+	 * calculés sur le pool {@code batchExecutor}. Les résultats d'un lot sont transmis au consommateur
+	 * dès que ce lot est terminé, sans attendre les autres ; les appels au consommateur ne sont jamais
+	 * simultanés. Une erreur sur un lot (API indisponible...) est reportée dans les résultats de ce lot
+	 * sans interrompre les autres.
 	 * </p>
 	 *
-	 * @param listTransmission la liste des transmissions médicales du patient
-	 * @param agePatient       l'âge du patient en années
-	 * @param genrePatient     le genre du patient
+	 * @param requete     les patients à évaluer
+	 * @param consommateur reçoit les résultats de chaque lot terminé
+	 * @throws IllegalArgumentException si la requête ne contient ni identifiant ni {@code all}
+	 */
+	public void riskEvaluationBatch(DetectionBatchRequete requete, Consumer<List<RisqueResultat>> consommateur) {
+		if (requete == null || (!requete.isAll() && (requete.getPatientIds() == null || requete.getPatientIds().isEmpty()))) {
+			logger.error("La requête d'évaluation par lot doit contenir des patientIds ou all = true.");
+			throw new IllegalArgumentException("La requête doit contenir une liste de patientIds ou all = true.");
+		}
+
+		// Verrou explicite plutôt que synchronized : le consommateur écrit dans la réponse HTTP (écriture
+		// bloquante), qui ne doit pas immobiliser le thread porteur d'un thread virtuel.
+		ReentrantLock verrou = new ReentrantLock();
+		Consumer<List<RisqueResultat>> consommateurExclusif = resultats -> {
+			verrou.lock();
+			try {
+				consommateur.accept(resultats);
+			} finally {
+				verrou.unlock();
+			}
+		};
+
+		List<CompletableFuture<Void>> lots = new ArrayList<>();
+		if (requete.isAll()) {
+			logger.info("Évaluation par lot de tous les patients, lots de {}", tailleLot);
+			try {
+				parcourirTousLesPatients(lot -> lots.add(
+						CompletableFuture.runAsync(() -> consommateurExclusif.accept(evaluerLotPatients(lot)), batchExecutor)));
+			} catch (RuntimeException e) {
+				lots.forEach(lot -> lot.cancel(false));
+				logger.error("Échec du parcours de la liste des patients : {}", e.getMessage());
+				throw e;
+			}
+		} else {
+			List<Long> ids = requete.getPatientIds().stream()
+					.filter(Objects::nonNull)
+					.distinct()
+					.toList();
+			logger.info("Évaluation par lot de {} patients, lots de {}", ids.size(), tailleLot);
+			for (int debut = 0; debut < ids.size(); debut += tailleLot) {
+				List<Long> lot = ids.subList(debut, Math.min(debut + tailleLot, ids.size()));
+				lots.add(CompletableFuture.runAsync(() -> consommateurExclusif.accept(evaluerLotIds(lot)), batchExecutor));
+			}
+		}
+
+		try {
+			for (CompletableFuture<Void> lot : lots) {
+				lot.join();
+			}
+		} catch (CompletionException e) {
+			// Le consommateur a échoué (client déconnecté...) : inutile de traiter les lots restants.
+			lots.forEach(lot -> lot.cancel(false));
+			logger.error("Évaluation par lot interrompue : {}", e.getCause().getMessage());
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw e;
+		}
+		logger.info("Évaluation par lot terminée : {} lots traités.", lots.size());
+	}
+
+	/**
+	 * Parcourt tous les patients page par page (pagination par curseur de l'API Patient) et transmet
+	 * des lots de {@code alerte.batch.taille-lot} patients au fur et à mesure : l'évaluation des premiers
+	 * lots commence pendant la lecture des pages suivantes, sans charger toute la liste en mémoire.
+	 */
+	private void parcourirTousLesPatients(Consumer<List<Patient>> lotPret) {
+		List<Patient> lotEnCours = new ArrayList<>(tailleLot);
+		String curseur = null;
+		do {
+			String curseurPage = curseur;
+			PagePatients page = protectionAppels.appelerPatient(() -> patientClient.getPagePatients(TAILLE_PAGE_PATIENTS, curseurPage));
+			for (Patient patient : page.getPatients()) {
+				lotEnCours.add(patient);
+				if (lotEnCours.size() == tailleLot) {
+					lotPret.accept(lotEnCours);
+					lotEnCours = new ArrayList<>(tailleLot);
+				}
+			}
+			curseur = page.getCurseurSuivant();
+		} while (curseur != null);
+		if (!lotEnCours.isEmpty()) {
+			lotPret.accept(lotEnCours);
+		}
+	}
+
+	/**
+	 * Évalue un lot de patients connus uniquement par leur identifiant.
+	 */
+	private List<RisqueResultat> evaluerLotIds(List<Long> ids) {
+		try {
+			Map<Long, Patient> patients = new HashMap<>();
+			for (Patient patient : protectionAppels.appelerPatient(() -> patientClient.getPatientsByIds(ids))) {
+				patients.put(patient.getId(), patient);
+			}
+			List<Patient> lot = new ArrayList<>(patients.values());
+			List<RisqueResultat> resultats = new ArrayList<>(ids.size());
+			for (Long id : ids) {
+				if (!patients.containsKey(id)) {
+					resultats.add(new RisqueResultat(id, null, "Patient non trouvé"));
+				}
+			}
+			if (!lot.isEmpty()) {
+				resultats.addAll(evaluerLotPatients(lot));
+			}
+			return resultats;
+		} catch (RuntimeException e) {
+			logger.error("Échec de la récupération d'un lot de {} patients : {}", ids.size(), e.getMessage());
+			return ids.stream()
+					.map(id -> new RisqueResultat(id, null, "Erreur lors de la récupération des données"))
+					.toList();
+		}
+	}
+
+	/**
+	 * Récupère en une requête les déclencheurs d'un lot de patients puis calcule le risque de chacun.
+	 */
+	private List<RisqueResultat> evaluerLotPatients(List<Patient> patients) {
+		List<Long> ids = patients.stream().map(Patient::getId).toList();
+		Map<Long, Long> declencheursParPatient = new HashMap<>();
+		Set<Long> incomplets = new HashSet<>();
+		try {
+			for (CompteurDeclencheurs compteur : protectionAppels.appelerNote(() -> noteClient.getDeclencheurs(ids))) {
+				declencheursParPatient.merge(compteur.getPatientId(), compteur.getTotalDeclencheurs(), Long::sum);
+				if (compteur.isIncomplet()) {
+					incomplets.add(compteur.getPatientId());
+				}
+			}
+		} catch (RuntimeException e) {
+			logger.error("Échec de la récupération des déclencheurs d'un lot de {} patients : {}", ids.size(), e.getMessage());
+			return ids.stream()
+					.map(id -> new RisqueResultat(id, null, "Erreur lors de la récupération des notes"))
+					.toList();
+		}
+
+		List<RisqueResultat> resultats = new ArrayList<>(patients.size());
+		for (Patient patient : patients) {
+			if (patient.getDateNaissance() == null) {
+				resultats.add(new RisqueResultat(patient.getId(), null, "Date de naissance absente"));
+				continue;
+			}
+			long totalDeclencheurs = declencheursParPatient.getOrDefault(patient.getId(), 0L);
+			dernieresDonnees.enregistrerPatient(patient);
+			dernieresDonnees.enregistrerDeclencheurs(patient.getId(), totalDeclencheurs);
+			String genre = (patient.getGenre() != null) ? patient.getGenre() : "";
+			// L'âge est fourni par la récupération par lot ; il n'est recalculé que pour les patients lus page par page.
+			int age = (patient.getAge() != null) ? patient.getAge() : calculerAge(patient.getDateNaissance());
+			String risque = niveauRisque(totalDeclencheurs, age, genre);
+			RisqueResultat resultat = new RisqueResultat(patient.getId(), risque, null);
+			if (incomplets.contains(patient.getId())) {
+				resultat.setDeclencheursIncomplets(true);
+			}
+			resultats.add(resultat);
+		}
+		logger.debug("Lot de {} patients évalué.", patients.size());
+		return resultats;
+	}
+
+	/**
+	 * Détermine le niveau de risque à partir du nombre total de déclencheurs, de l'âge et du genre.
+	 *
+	 * @param totalKeywordOccurrences le nombre total de déclencheurs des transmissions du patient
+	 * @param agePatient              l'âge du patient en années
+	 * @param genrePatient            le genre du patient
 	 * @return une chaîne indiquant le niveau de risque détecté
 	 */
-	public String riskDiabete(List<Note> listNotes, int agePatient, String genrePatient) {
-	    logger.info("Calcul du risque de diabète.");
-	    List<String> keywords = listMotCle.stream()
-	    	    .map(String::toLowerCase)
-	    	    .toList();
-
-    	long totalKeywordOccurrences = listNotes.stream()
-    	    .map(Note::getNote)
-    	    .map(String::toLowerCase)
-    	    .flatMap(noteContent ->
-    	        keywords.stream()
-    	            .filter(noteContent::contains)
-    	    )
-    	    .count();
-
-	    logger.debug("Nombre TOTAL de mots-clés déclencheurs trouvés dans toutes les "
-	    		+ "transmissions : {}", totalKeywordOccurrences);
-		
+	public String niveauRisque(long totalKeywordOccurrences, int agePatient, String genrePatient) {
+		String niveau;
 		if (isEarlyOnset(totalKeywordOccurrences, agePatient, genrePatient)) {
-	    	logger.info("Le patient est classé 'Apparition précoce' (Early Onset).");
-	    	return "Early onset";
+	    	logger.debug("Le patient est classé 'Apparition précoce' (Early Onset).");
+	    	niveau = "Early onset";
 	    } else if (isInDanger(totalKeywordOccurrences, agePatient, genrePatient)) {
-	    	logger.info("Le patient est classé 'Danger' (In Danger).");
-	    	return "In Danger";
+	    	logger.debug("Le patient est classé 'Danger' (In Danger).");
+	    	niveau = "In Danger";
 	    } else if (isBorderline(totalKeywordOccurrences, agePatient)) {
-	    	logger.info("Le patient est classé 'Risque limité' (Borderline).");
-	    	return "Borderline";
+	    	logger.debug("Le patient est classé 'Risque limité' (Borderline).");
+	    	niveau = "Borderline";
 	    } else {
-	    	logger.info("Le patient ne présente aucun risque majeur (classé 'None').");
-	    	return "None";
+	    	logger.debug("Le patient ne présente aucun risque majeur (classé 'None').");
+	    	niveau = "None";
 	    }
+		Counter compteur = compteursNiveaux.get(niveau);
+		if (compteur != null) {
+			compteur.increment();
+		}
+		return niveau;
 	}
 
     /**
@@ -164,7 +611,7 @@ public class AlerteServiceImpl implements IAlerteService {
      * @return true si le risque est Early Onset, false sinon.
      */
     public boolean isEarlyOnset(long occurence, int age, String genre) {
-    	logger.info("Tentative de calcul si la personne est : isEarlyOnSet");
+    	logger.debug("Tentative de calcul si la personne est : isEarlyOnSet");
     	logger.debug("le nombre d occurence : {}, l age : {}, le genre : {} ",occurence, age, genre);
     	
 		// Homme < 30 ans : >= 5 déclencheurs
@@ -0,0 +1,267 @@
+package com.medilabo.microService.alerte.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Regroupement des appels simultanés vers une API distante.
+ * <p>
+ * Deux mécanismes réduisent le nombre d'appels :
+ * </p>
+ * <ul>
+ * <li>une demande portant sur une clé déjà en cours de récupération rejoint l'appel existant
+ * au lieu d'en lancer un nouveau ;</li>
+ * <li>les demandes portant sur des clés différentes sont accumulées pendant une courte fenêtre
+ * ({@code fenetreMs}), puis envoyées en un seul appel groupé. Le lot part plus tôt s'il atteint
+ * {@code tailleMaxLot} clés.</li>
+ * </ul>
+ * <p>
+ * Chaque demande reçoit sa propre copie du résultat partagé : l'annuler, ou lui appliquer un délai,
+ * n'a aucun effet sur les autres demandes ni sur l'appel en cours. Une clé absente du résultat de
+ * l'appel groupé est complétée avec {@code null}. Si l'appel échoue, toutes les demandes du lot
+ * reçoivent la même exception.
+ * </p>
+ * <p>
+ * Les compteurs {@code alerte.collapse.demandes} (étiquette {@code issue} : {@code fusionnee} ou
+ * {@code groupee}), {@code alerte.collapse.appels}, le résumé {@code alerte.collapse.lot} (nombre de
+ * clés par appel) et la jauge {@code alerte.collapse.ratio} (demandes par appel) sont publiés avec
+ * l'étiquette {@code ressource}.
+ * </p>
+ *
+ * @param <K> le type de la clé (identifiant patient)
+ * @param <V> le type du résultat associé à une clé
+ */
+public final class CollapseurRequetes<K, V> {
+
+	private final Logger logger = LogManager.getLogger();
+
+	private final String ressource;
+
+	private final Function<List<K>, Map<K, V>> appelGroupe;
+
+	private final long fenetreMs;
+
+	private final int tailleMaxLot;
+
+	private final ScheduledExecutorService planificateur;
+
+	private final Executor executeur;
+
+	/** Résultat partagé de chaque clé en cours de récupération (en attente d'envoi ou appel en cours). */
+	private final Map<K, CompletableFuture<V>> enCours = new ConcurrentHashMap<>();
+
+	/** Verrou du lot en cours ; la planification de l'envoi peut attendre, d'où un verrou compatible avec les threads virtuels. */
+	private final ReentrantLock verrou = new ReentrantLock();
+
+	/** Clés du lot en cours de constitution, protégé par {@link #verrou}. */
+	private Map<K, CompletableFuture<V>> enAttente = new LinkedHashMap<>();
+
+	/** Envoi planifié à la fin de la fenêtre du lot en cours, protégé par {@link #verrou}. */
+	private ScheduledFuture<?> envoiPlanifie;
+
+	private final Counter demandesFusionnees;
+
+	private final Counter demandesGroupees;
+
+	private final Counter appels;
+
+	private final DistributionSummary tailleLots;
+
+	/**
+	 * @param ressource     nom de la ressource, utilisé dans les journaux et les métriques
+	 * @param appelGroupe   appel distant renvoyant le résultat de chaque clé demandée
+	 * @param fenetreMs     durée d'accumulation d'un lot, en millisecondes
+	 * @param tailleMaxLot  nombre de clés au-delà duquel le lot est envoyé sans attendre la fin de la fenêtre
+	 * @param planificateur planifie l'envoi des lots à la fin de leur fenêtre
+	 * @param executeur     exécute les appels groupés
+	 * @param registry      registre des métriques
+	 * @throws IllegalArgumentException si la fenêtre est négative ou la taille maximale inférieure à 1
+	 */
+	public CollapseurRequetes(String ressource, Function<List<K>, Map<K, V>> appelGroupe, long fenetreMs,
+			int tailleMaxLot, ScheduledExecutorService planificateur, Executor executeur, MeterRegistry registry) {
+		if (fenetreMs < 0 || tailleMaxLot < 1) {
+			throw new IllegalArgumentException("La fenêtre doit être positive et la taille maximale d'un lot au moins égale à 1.");
+		}
+		this.ressource = ressource;
+		this.appelGroupe = appelGroupe;
+		this.fenetreMs = fenetreMs;
+		this.tailleMaxLot = tailleMaxLot;
+		this.planificateur = planificateur;
+		this.executeur = executeur;
+
+		this.demandesFusionnees = Counter.builder("alerte.collapse.demandes")
+				.description("Demandes reçues par le collapseur")
+				.tags("ressource", ressource, "issue", "fusionnee")
+				.register(registry);
+		this.demandesGroupees = Counter.builder("alerte.collapse.demandes")
+				.description("Demandes reçues par le collapseur")
+				.tags("ressource", ressource, "issue", "groupee")
+				.register(registry);
+		this.appels = Counter.builder("alerte.collapse.appels")
+				.description("Appels envoyés à l'API distante")
+				.tag("ressource", ressource)
+				.register(registry);
+		this.tailleLots = DistributionSummary.builder("alerte.collapse.lot")
+				.description("Nombre de clés par appel envoyé")
+				.tag("ressource", ressource)
+				.register(registry);
+		Gauge.builder("alerte.collapse.ratio", this, CollapseurRequetes::ratio)
+				.description("Nombre moyen de demandes servies par appel envoyé")
+				.tag("ressource", ressource)
+				.register(registry);
+	}
+
+	/**
+	 * Demande le résultat associé à une clé.
+	 *
+	 * @param cle la clé demandée
+	 * @return une copie du résultat partagé, complétée à la fin de l'appel groupé
+	 */
+	public CompletableFuture<V> demander(K cle) {
+		CompletableFuture<V> existant = enCours.get(cle);
+		if (existant != null) {
+			demandesFusionnees.increment();
+			return existant.copy();
+		}
+
+		CompletableFuture<V> nouveau = new CompletableFuture<>();
+		Map<K, CompletableFuture<V>> lotComplet = null;
+		verrou.lock();
+		try {
+			// ajout sous le verrou, avec le lot en cours : oublier() voit toujours les deux ensembles cohérents
+			existant = enCours.putIfAbsent(cle, nouveau);
+			if (existant != null) {
+				demandesFusionnees.increment();
+				return existant.copy();
+			}
+			demandesGroupees.increment();
+			enAttente.put(cle, nouveau);
+			if (enAttente.size() >= tailleMaxLot) {
+				lotComplet = enAttente;
+				enAttente = new LinkedHashMap<>();
+				if (envoiPlanifie != null) {
+					envoiPlanifie.cancel(false);
+					envoiPlanifie = null;
+				}
+			} else if (envoiPlanifie == null) {
+				envoiPlanifie = planificateur.schedule(this::envoyerEnAttente, fenetreMs, TimeUnit.MILLISECONDS);
+			}
+		} finally {
+			verrou.unlock();
+		}
+		if (lotComplet != null) {
+			envoyer(lotComplet);
+		}
+		return nouveau.copy();
+	}
+
+	/**
+	 * Détache une clé de l'appel déjà envoyé qui la récupère : les demandes suivantes lancent un nouvel appel
+	 * au lieu de rejoindre un résultat qui peut précéder une modification des données. Les demandes déjà
+	 * servies par cet appel reçoivent toujours son résultat. Une clé encore en attente d'envoi est conservée,
+	 * son appel n'étant pas encore parti.
+	 *
+	 * @param cle la clé dont les données ont changé
+	 */
+	public void oublier(K cle) {
+		verrou.lock();
+		try {
+			CompletableFuture<V> resultat = enCours.get(cle);
+			if (resultat != null && enAttente.get(cle) != resultat) {
+				enCours.remove(cle, resultat);
+			}
+		} finally {
+			verrou.unlock();
+		}
+	}
+
+	/**
+	 * Nombre moyen de demandes servies par appel envoyé (0 tant qu'aucun appel n'a été envoyé).
+	 */
+	public double ratio() {
+		double nombreAppels = appels.count();
+		return nombreAppels == 0 ? 0 : (demandesFusionnees.count() + demandesGroupees.count()) / nombreAppels;
+	}
+
+	/**
+	 * Envoie le lot en cours à la fin de sa fenêtre.
+	 */
+	private void envoyerEnAttente() {
+		Map<K, CompletableFuture<V>> lot;
+		verrou.lock();
+		try {
+			envoiPlanifie = null;
+			if (enAttente.isEmpty()) {
+				return;
+			}
+			lot = enAttente;
+			enAttente = new LinkedHashMap<>();
+		} finally {
+			verrou.unlock();
+		}
+		envoyer(lot);
+	}
+
+	/**
+	 * Lance l'appel groupé d'un lot et complète le résultat de chacune de ses clés.
+	 */
+	private void envoyer(Map<K, CompletableFuture<V>> lot) {
+		appels.increment();
+		tailleLots.record(lot.size());
+		logger.debug("Appel groupé {} pour {} clés.", ressource, lot.size());
+		try {
+			executeur.execute(() -> {
+				try {
+					Map<K, V> resultats = appelGroupe.apply(new ArrayList<>(lot.keySet()));
+					lot.forEach((cle, resultat) -> {
+						liberer(cle, resultat);
+						resultat.complete(resultats.get(cle));
+					});
+				} catch (Throwable e) {
+					// y compris les Error (mémoire, pile) : une clé jamais libérée bloquerait toutes ses demandes suivantes
+					logger.error("Échec de l'appel groupé {} pour {} clés : {}", ressource, lot.size(), e.toString());
+					echouer(lot, e);
+					if (e instanceof Error erreur) {
+						throw erreur;
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			echouer(lot, e);
+		}
+	}
+
+	private void echouer(Map<K, CompletableFuture<V>> lot, Throwable erreur) {
+		lot.forEach((cle, resultat) -> {
+			liberer(cle, resultat);
+			resultat.completeExceptionally(erreur);
+		});
+	}
+
+	/**
+	 * Retire une clé des récupérations en cours avant de compléter son résultat : les demandes servies
+	 * peuvent ainsi redemander la clé immédiatement et obtenir un nouvel appel.
+	 */
+	private void liberer(K cle, CompletableFuture<V> resultat) {
+		enCours.remove(cle, resultat);
+	}
+}
@@ -0,0 +1,77 @@
+package com.medilabo.microService.alerte.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.medilabo.microService.alerte.model.Patient;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Dernières données reçues des API patient et note pour chaque patient évalué.
+ * <p>
+ * Contrairement au cache {@code risques}, ces données ne sont pas invalidées quand le patient ou ses notes changent :
+ * elles ne servent qu'à évaluer le risque quand une API est indisponible, et le résultat est alors signalé comme
+ * calculé sur des données anciennes. Elles sont oubliées au bout de {@code alerte.repli.duree}.
+ * Statistiques : {@code /actuator/metrics/cache.gets?tag=cache:dernieres-donnees-patients}.
+ * </p>
+ */
+@Component
+public class DernieresDonnees {
+
+	/**
+	 * Une donnée et sa date de réception.
+	 */
+	public record DonneeRecue<T>(T valeur, Instant dateReception) {
+	}
+
+	private final Cache<Long, DonneeRecue<Patient>> patients;
+
+	private final Cache<Long, DonneeRecue<Long>> declencheurs;
+
+	/**
+	 * @param taille   nombre maximum de patients conservés, pour chaque type de donnée
+	 * @param duree    durée de conservation d'une donnée après sa réception
+	 * @param registry registre des métriques
+	 */
+	public DernieresDonnees(@Value("${alerte.repli.taille:10000}") long taille,
+			@Value("${alerte.repli.duree:24h}") Duration duree, MeterRegistry registry) {
+		this.patients = Caffeine.newBuilder().maximumSize(taille).expireAfterWrite(duree).recordStats().build();
+		this.declencheurs = Caffeine.newBuilder().maximumSize(taille).expireAfterWrite(duree).recordStats().build();
+		CaffeineCacheMetrics.monitor(registry, patients, "dernieres-donnees-patients");
+		CaffeineCacheMetrics.monitor(registry, declencheurs, "dernieres-donnees-declencheurs");
+	}
+
+	public void enregistrerPatient(Patient patient) {
+		if (patient != null && patient.getId() != null) {
+			patients.put(patient.getId(), new DonneeRecue<>(patient, Instant.now()));
+		}
+	}
+
+	/**
+	 * @param totalDeclencheurs le total des déclencheurs des notes du patient (0 s'il n'a aucune note)
+	 */
+	public void enregistrerDeclencheurs(Long patientId, long totalDeclencheurs) {
+		declencheurs.put(patientId, new DonneeRecue<>(totalDeclencheurs, Instant.now()));
+	}
+
+	/**
+	 * @return le dernier patient reçu, {@code null} s'il n'a pas été reçu depuis {@code alerte.repli.duree}
+	 */
+	public DonneeRecue<Patient> patient(Long patientId) {
+		return patients.getIfPresent(patientId);
+	}
+
+	/**
+	 * @return le dernier total de déclencheurs reçu, {@code null} s'il n'a pas été reçu depuis {@code alerte.repli.duree}
+	 */
+	public DonneeRecue<Long> declencheurs(Long patientId) {
+		return declencheurs.getIfPresent(patientId);
+	}
+}
@@ -1,5 +1,15 @@
 package com.medilabo.microService.alerte.service;
 
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.medilabo.microService.alerte.model.DetectionBatchRequete;
+import com.medilabo.microService.alerte.model.RisqueRepli;
+import com.medilabo.microService.alerte.model.RisqueResultat;
+
 public interface IAlerteService {
 	String riskEvaluation (Long patientId);
+	RisqueRepli riskEvaluationRepli(Long patientId);
+	void invaliderRisque(Long patientId);
+	void riskEvaluationBatch(DetectionBatchRequete requete, Consumer<List<RisqueResultat>> consommateur);
 }
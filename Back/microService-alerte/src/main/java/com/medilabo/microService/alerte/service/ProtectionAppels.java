@@ -0,0 +1,90 @@
+package com.medilabo.microService.alerte.service;
+
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.medilabo.microService.alerte.exception.EvaluationTimeoutException;
+
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+/**
+ * Protection des appels Feign vers les API patient et note.
+ * <p>
+ * Chaque appel passe par le bulkhead de l'API appelée (nombre d'appels simultanés borné,
+ * {@code resilience4j.bulkhead.instances}), puis par son coupe-circuit ({@code resilience4j.circuitbreaker.instances}) :
+ * quand une API est lente ou en panne, les évaluations échouent aussitôt au lieu d'immobiliser chacune un thread
+ * jusqu'au délai de lecture. Les exceptions de l'appel sont propagées telles quelles.
+ * </p>
+ */
+@Component
+public class ProtectionAppels {
+
+	/** Nom du bulkhead et du coupe-circuit des appels vers l'API patient. */
+	public static final String PATIENT = "patient";
+
+	/** Nom du bulkhead et du coupe-circuit des appels vers l'API note. */
+	public static final String NOTE = "note";
+
+	private final Bulkhead bulkheadPatient;
+
+	private final CircuitBreaker circuitBreakerPatient;
+
+	private final Bulkhead bulkheadNote;
+
+	private final CircuitBreaker circuitBreakerNote;
+
+	public ProtectionAppels(BulkheadRegistry bulkheads, CircuitBreakerRegistry circuitBreakers) {
+		this.bulkheadPatient = bulkheads.bulkhead(PATIENT);
+		this.circuitBreakerPatient = circuitBreakers.circuitBreaker(PATIENT);
+		this.bulkheadNote = bulkheads.bulkhead(NOTE);
+		this.circuitBreakerNote = circuitBreakers.circuitBreaker(NOTE);
+	}
+
+	/**
+	 * Exécute un appel vers l'API patient.
+	 *
+	 * @throws BulkheadFullException     si trop d'appels vers l'API patient sont déjà en cours
+	 * @throws CallNotPermittedException si le coupe-circuit de l'API patient est ouvert
+	 */
+	public <T> T appelerPatient(Supplier<T> appel) {
+		return executer(bulkheadPatient, circuitBreakerPatient, appel);
+	}
+
+	/**
+	 * Exécute un appel vers l'API note.
+	 *
+	 * @throws BulkheadFullException     si trop d'appels vers l'API note sont déjà en cours
+	 * @throws CallNotPermittedException si le coupe-circuit de l'API note est ouvert
+	 */
+	public <T> T appelerNote(Supplier<T> appel) {
+		return executer(bulkheadNote, circuitBreakerNote, appel);
+	}
+
+	/**
+	 * Indique si une exception signale une API indisponible (refus du bulkhead ou du coupe-circuit, délai dépassé,
+	 * connexion impossible, erreur 5xx) plutôt qu'une requête invalide.
+	 */
+	public static boolean estIndisponibilite(Throwable exception) {
+		return exception instanceof EvaluationTimeoutException
+				|| exception instanceof CallNotPermittedException
+				|| exception instanceof BulkheadFullException
+				|| exception instanceof RetryableException
+				|| (exception instanceof FeignException feignException && feignException.status() >= 500);
+	}
+
+	/**
+	 * Le bulkhead est pris avant le coupe-circuit : un appel refusé par le bulkhead ne compte pas comme un échec
+	 * de l'API, et un appel refusé par le coupe-circuit ouvert libère aussitôt sa place.
+	 */
+	private static <T> T executer(Bulkhead bulkhead, CircuitBreaker circuitBreaker, Supplier<T> appel) {
+		return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, appel)).get();
+	}
+}
@@ -0,0 +1,94 @@
+package com.medilabo.microService.alerte;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.medilabo.microService.alerte.controller.AlertController;
+import com.medilabo.microService.alerte.model.RisqueRepli;
+import com.medilabo.microService.alerte.service.IAlerteService;
+
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+@WebMvcTest(AlertController.class)
+public class AlertControllerTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private IAlerteService alertService;
+
+	private static CallNotPermittedException coupeCircuitOuvert() {
+		return CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("patient"));
+	}
+
+	@Test
+	public void getAlertTest() throws Exception {
+		when(alertService.riskEvaluation(1L)).thenReturn("Borderline");
+
+		mockMvc.perform(get("/alerte/detecte").param("patientId", "1"))
+			.andExpect(status().isOk())
+			.andExpect(content().string("Borderline"))
+			.andExpect(header().doesNotExist(AlertController.ENTETE_DONNEES_PERIMEES));
+
+		verify(alertService, never()).riskEvaluationRepli(any());
+	}
+
+	@Test
+	public void getAlertDonneesPerimeesTest() throws Exception {
+		when(alertService.riskEvaluation(1L)).thenThrow(coupeCircuitOuvert());
+		when(alertService.riskEvaluationRepli(1L))
+			.thenReturn(new RisqueRepli("In Danger", Instant.parse("2026-10-17T08:30:00Z")));
+
+		mockMvc.perform(get("/alerte/detecte").param("patientId", "1"))
+			.andExpect(status().isOk())
+			.andExpect(content().string("In Danger"))
+			.andExpect(header().string(AlertController.ENTETE_DONNEES_PERIMEES, "true"))
+			.andExpect(header().string(AlertController.ENTETE_DATE_DONNEES, "2026-10-17T08:30:00Z"));
+	}
+
+	@Test
+	public void getAlertSansDonneesConnuesTest() throws Exception {
+		when(alertService.riskEvaluation(1L)).thenThrow(coupeCircuitOuvert());
+		when(alertService.riskEvaluationRepli(1L)).thenReturn(null);
+
+		mockMvc.perform(get("/alerte/detecte").param("patientId", "1"))
+			.andExpect(status().isServiceUnavailable())
+			.andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"))
+			.andExpect(header().doesNotExist(AlertController.ENTETE_DONNEES_PERIMEES));
+	}
+
+	@Test
+	public void getAlertErreurClientSansRepliTest() {
+		Request requete = Request.create(Request.HttpMethod.GET, "http://api-patient:8081/patient/infos/1",
+				Map.of(), null, StandardCharsets.UTF_8, null);
+		when(alertService.riskEvaluation(1L))
+			.thenThrow(new FeignException.BadRequest("Requête invalide", requete, null, Map.of()));
+
+		assertThatThrownBy(() -> mockMvc.perform(get("/alerte/detecte").param("patientId", "1")))
+			.hasRootCauseInstanceOf(FeignException.BadRequest.class);
+
+		verify(alertService, never()).riskEvaluationRepli(any());
+	}
+}
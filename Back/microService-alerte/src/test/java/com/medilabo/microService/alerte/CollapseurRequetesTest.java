@@ -0,0 +1,204 @@
+package com.medilabo.microService.alerte;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.medilabo.microService.alerte.service.CollapseurRequetes;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CollapseurRequetesTest {
+
+	private final ScheduledExecutorService planificateur = Executors.newSingleThreadScheduledExecutor();
+
+	private final ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor();
+
+	private final MeterRegistry registry = new SimpleMeterRegistry();
+
+	/** Lots reçus par l'appel groupé simulé. */
+	private final List<List<Long>> lots = new CopyOnWriteArrayList<>();
+
+	@AfterEach
+	public void arreter() {
+		planificateur.shutdownNow();
+		executeur.shutdownNow();
+	}
+
+	private CollapseurRequetes<Long, String> collapseur(long fenetreMs, int tailleMax) {
+		return collapseur(fenetreMs, tailleMax, ids -> {
+			Map<Long, String> resultats = new HashMap<>();
+			ids.stream().filter(id -> id > 0).forEach(id -> resultats.put(id, "patient-" + id));
+			return resultats;
+		});
+	}
+
+	private CollapseurRequetes<Long, String> collapseur(long fenetreMs, int tailleMax, Function<List<Long>, Map<Long, String>> appel) {
+		return new CollapseurRequetes<>("patients", ids -> {
+			lots.add(ids);
+			return appel.apply(ids);
+		}, fenetreMs, tailleMax, planificateur, executeur, registry);
+	}
+
+	@Test
+	public void demandesIdentiquesFusionneesTest() throws Exception {
+		CollapseurRequetes<Long, String> collapseur = collapseur(50, 100);
+
+		CompletableFuture<String> premiere = collapseur.demander(1L);
+		CompletableFuture<String> seconde = collapseur.demander(1L);
+
+		assertThat(premiere.get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+		assertThat(seconde.get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+		assertThat(lots).containsExactly(List.of(1L));
+		assertThat(registry.get("alerte.collapse.demandes").tag("issue", "fusionnee").counter().count()).isEqualTo(1);
+		assertThat(collapseur.ratio()).isEqualTo(2);
+	}
+
+	@Test
+	public void demandesDistinctesGroupeesTest() throws Exception {
+		CollapseurRequetes<Long, String> collapseur = collapseur(50, 100);
+
+		CompletableFuture<String> patient1 = collapseur.demander(1L);
+		CompletableFuture<String> patient2 = collapseur.demander(2L);
+		CompletableFuture<String> inconnu = collapseur.demander(-3L);
+
+		assertThat(patient1.get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+		assertThat(patient2.get(1, TimeUnit.SECONDS)).isEqualTo("patient-2");
+		assertThat(inconnu.get(1, TimeUnit.SECONDS)).isNull();
+		assertThat(lots).containsExactly(List.of(1L, 2L, -3L));
+	}
+
+	@Test
+	public void lotCompletEnvoyeSansAttendreTest() throws Exception {
+		CollapseurRequetes<Long, String> collapseur = collapseur(10_000, 2);
+
+		CompletableFuture<String> patient1 = collapseur.demander(1L);
+		CompletableFuture<String> patient2 = collapseur.demander(2L);
+
+		assertThat(patient1.get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+		assertThat(patient2.get(1, TimeUnit.SECONDS)).isEqualTo("patient-2");
+		assertThat(lots).containsExactly(List.of(1L, 2L));
+	}
+
+	@Test
+	public void nouvelAppelApresResultatTest() throws Exception {
+		CollapseurRequetes<Long, String> collapseur = collapseur(0, 100);
+
+		assertThat(collapseur.demander(1L).get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+		assertThat(collapseur.demander(1L).get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+
+		assertThat(lots).hasSize(2);
+	}
+
+	@Test
+	public void annulationSansEffetSurLesAutresDemandesTest() throws Exception {
+		CollapseurRequetes<Long, String> collapseur = collapseur(50, 100);
+
+		CompletableFuture<String> annulee = collapseur.demander(1L);
+		CompletableFuture<String> autre = collapseur.demander(1L);
+		annulee.cancel(true);
+
+		assertThat(autre.get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+	}
+
+	@Test
+	public void erreurTransmiseAToutesLesDemandesTest() {
+		CollapseurRequetes<Long, String> collapseur = collapseur(10, 100, ids -> {
+			throw new IllegalStateException("API patient indisponible");
+		});
+
+		CompletableFuture<String> patient1 = collapseur.demander(1L);
+		CompletableFuture<String> patient2 = collapseur.demander(2L);
+
+		for (CompletableFuture<String> demande : List.of(patient1, patient2)) {
+			assertThatThrownBy(() -> demande.get(1, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasRootCauseInstanceOf(IllegalStateException.class)
+				.hasRootCauseMessage("API patient indisponible");
+		}
+	}
+
+	@Test
+	public void cleOublieeNouvelAppelTest() throws Exception {
+		CountDownLatch premierAppelLibere = new CountDownLatch(1);
+		AtomicInteger numeroAppel = new AtomicInteger();
+		CollapseurRequetes<Long, String> collapseur = collapseur(0, 100, ids -> {
+			int numero = numeroAppel.incrementAndGet();
+			if (numero == 1) {
+				try {
+					premierAppelLibere.await(1, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return Map.of(1L, "appel-" + numero);
+		});
+
+		CompletableFuture<String> avantModification = collapseur.demander(1L);
+		while (lots.isEmpty()) {
+			Thread.sleep(5);
+		}
+		collapseur.oublier(1L);
+		CompletableFuture<String> apresModification = collapseur.demander(1L);
+
+		assertThat(apresModification.get(1, TimeUnit.SECONDS)).isEqualTo("appel-2");
+		premierAppelLibere.countDown();
+		assertThat(avantModification.get(1, TimeUnit.SECONDS)).isEqualTo("appel-1");
+	}
+
+	@Test
+	public void cleEnAttenteConserveeTest() throws Exception {
+		CollapseurRequetes<Long, String> collapseur = collapseur(50, 100);
+
+		CompletableFuture<String> premiere = collapseur.demander(1L);
+		collapseur.oublier(1L);
+		CompletableFuture<String> seconde = collapseur.demander(1L);
+
+		assertThat(premiere.get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+		assertThat(seconde.get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+		assertThat(lots).containsExactly(List.of(1L));
+	}
+
+	@Test
+	public void erreurFatalePasDeCleBloqueeTest() throws Exception {
+		List<Boolean> premierAppel = new CopyOnWriteArrayList<>();
+		CollapseurRequetes<Long, String> collapseur = collapseur(0, 100, ids -> {
+			if (premierAppel.isEmpty()) {
+				premierAppel.add(true);
+				throw new StackOverflowError("pile épuisée");
+			}
+			return Map.of(1L, "patient-1");
+		});
+
+		CompletableFuture<String> demande = collapseur.demander(1L);
+		assertThatThrownBy(() -> demande.get(1, TimeUnit.SECONDS))
+			.isInstanceOf(ExecutionException.class)
+			.hasRootCauseInstanceOf(StackOverflowError.class);
+
+		// la clé a été libérée : la demande suivante obtient un nouvel appel
+		assertThat(collapseur.demander(1L).get(1, TimeUnit.SECONDS)).isEqualTo("patient-1");
+	}
+
+	@Test
+	public void parametresInvalidesTest() {
+		assertThatThrownBy(() -> collapseur(-1, 100)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> collapseur(5, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
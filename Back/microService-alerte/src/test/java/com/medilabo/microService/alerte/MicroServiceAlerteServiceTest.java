@@ -1,27 +1,56 @@
 package com.medilabo.microService.alerte;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
-import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import com.medilabo.microService.alerte.exception.EvaluationTimeoutException;
 import com.medilabo.microService.alerte.feign.IPatientClient;
 import com.medilabo.microService.alerte.feign.INoteClient;
-import com.medilabo.microService.alerte.model.Note;
+import com.medilabo.microService.alerte.model.CompteurDeclencheurs;
+import com.medilabo.microService.alerte.model.DetectionBatchRequete;
+import com.medilabo.microService.alerte.model.PagePatients;
 import com.medilabo.microService.alerte.model.Patient;
+import com.medilabo.microService.alerte.model.RisqueRepli;
+import com.medilabo.microService.alerte.model.RisqueResultat;
+import com.medilabo.microService.alerte.service.AlerteServiceImpl;
 import com.medilabo.microService.alerte.service.IAlerteService;
 
-@SpringBootTest
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+		"alerte.appel.timeout-ms=300",
+		"alerte.evaluation.timeout-ms=500",
+		"alerte.batch.taille-lot=2",
+		"alerte.collapse.fenetre-ms=50"
+})
 public class MicroServiceAlerteServiceTest {
 
 	@Autowired
@@ -32,87 +61,56 @@ public class MicroServiceAlerteServiceTest {
 	
 	@MockBean
 	private INoteClient noteClient;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private AlerteServiceImpl alerteServiceImpl;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
 	
-	private static Note noteTest1;
-	private static Note noteTestBorderline;
-	private static Note noteInDanger;
-	private static Note noteEarlyOnset;
-	private static Patient patientTest1;
-	private static Patient patientTest2;
-	
-	@BeforeAll
-	public static void setup() {
-		noteTest1 = new Note(
-				"1",
-				"1",
-				"1",
-				LocalDateTime.now(),
-				"Brunet",
-				"Nicolas",
-				"une transmission sans probleme");
-		noteTestBorderline = new Note(
-				"2",
-				"1",
-				"2",
-				LocalDateTime.now(),
-				"Piet",
-				"Sarah",
-				"une transmission avec 3 problemes : hémoglobine, fumeur, anormal");
-		noteInDanger = new Note(
-				"3",
-				"1",
-				"3",
-				LocalDateTime.now(),
-				"Roux",
-				"Marc",
-				"Le patient présente les symptômes suivants : HbA1C, Fumeur, Anormal, Réaction, Anticorps, Cholestérol"
-			);
-		noteEarlyOnset = new Note(
-				"4",
-				"1",
-				"4",
-				LocalDateTime.now(),
-				"Martin",
-				"Julien",
-				"Le patient a HbA1C, Microalbumine, Fumeur, Anormal, Réaction, Anticorps, Vertiges, Rechute"
-			);
-		patientTest1 = new Patient(1L, "Jean", "Dupont", LocalDate.of(1990, 1, 1), "masculin", "1 rue A", "0102030405", null, null);
-		patientTest2 = new Patient(1L, "Jeanne", "Dupont", LocalDate.of(1990, 1, 1), "feminin", "1 rue A", "0102030405", null, null);
+	@BeforeEach
+	public void viderCache() {
+		cacheManager.getCache(AlerteServiceImpl.CACHE_RISQUES).clear();
+	}
 
+	/**
+	 * L'âge est désormais calculé à partir de la date de naissance du patient.
+	 */
+	private static Patient patient(String prenom, String genre, int age) {
+		return new Patient(1L, prenom, "Dupont", LocalDate.now().minusYears(age), genre, "1 rue A", "0102030405", null, null, null);
 	}
 	
 	@Test
 	public void riskEvaluationNoneTest() {
 		Long patientId = 1L;
 		int age = 25;
-		when(noteClient.getAllNotesPatient(patientId)).thenReturn(List.of(noteTest1));
-		when(patientClient.getPatientById(patientId)).thenReturn(patientTest1);
-		when(patientClient.getAgePatient(patientId)).thenReturn(age);
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 0));
+		when(patientClient.getPatientById(patientId)).thenReturn(patient("Jean", "masculin", age));
 		
 		String result = alerteService.riskEvaluation(patientId);
 		
 		assertThat("None").isEqualTo(result);
 		
-		verify(noteClient, times(1)).getAllNotesPatient(patientId);
+		verify(noteClient, times(1)).getDeclencheurs(List.of(patientId));
 		verify(patientClient, times(1)).getPatientById(patientId);
-		verify(patientClient, times(1)).getAgePatient(patientId);
 	}
 	
 	@Test
 	public void riskEvaluationBorderlineTest() {
 		Long patientId = 1L;
 		int age = 30;
-		when(noteClient.getAllNotesPatient(patientId)).thenReturn(List.of(noteTestBorderline));
-		when(patientClient.getPatientById(patientId)).thenReturn(patientTest1);
-		when(patientClient.getAgePatient(patientId)).thenReturn(age);
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 2));
+		when(patientClient.getPatientById(patientId)).thenReturn(patient("Jean", "masculin", age));
 		
 		String result = alerteService.riskEvaluation(patientId);
 		
 		assertThat("Borderline").isEqualTo(result);
 		
-		verify(noteClient, times(1)).getAllNotesPatient(patientId);
+		verify(noteClient, times(1)).getDeclencheurs(List.of(patientId));
 		verify(patientClient, times(1)).getPatientById(patientId);
-		verify(patientClient, times(1)).getAgePatient(patientId);
 	}
 	
 	@Test
@@ -120,17 +118,15 @@ public class MicroServiceAlerteServiceTest {
 		Long patientId = 1L;
 		int age = 25;
 
-		when(noteClient.getAllNotesPatient(patientId)).thenReturn(List.of(noteInDanger));
-		when(patientClient.getPatientById(patientId)).thenReturn(patientTest2);
-		when(patientClient.getAgePatient(patientId)).thenReturn(age);
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 6));
+		when(patientClient.getPatientById(patientId)).thenReturn(patient("Jeanne", "feminin", age));
 
 		String result = alerteService.riskEvaluation(patientId);
 
 		assertThat("In Danger").isEqualTo(result);
 
-		verify(noteClient, times(1)).getAllNotesPatient(patientId);
+		verify(noteClient, times(1)).getDeclencheurs(List.of(patientId));
 		verify(patientClient, times(1)).getPatientById(patientId);
-		verify(patientClient, times(1)).getAgePatient(patientId);
 	}
 	
 	@Test
@@ -138,20 +134,297 @@ public class MicroServiceAlerteServiceTest {
 		Long patientId = 1L;
 		int age = 28;
 
-		when(noteClient.getAllNotesPatient(patientId)).thenReturn(List.of(noteEarlyOnset));
-		when(patientClient.getPatientById(patientId)).thenReturn(patientTest1);
-		when(patientClient.getAgePatient(patientId)).thenReturn(age);
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 8));
+		when(patientClient.getPatientById(patientId)).thenReturn(patient("Jean", "masculin", age));
 
 		String result = alerteService.riskEvaluation(patientId);
 
 		assertThat("Early onset").isEqualTo(result);
 
-		verify(noteClient, times(1)).getAllNotesPatient(patientId);
+		verify(noteClient, times(1)).getDeclencheurs(List.of(patientId));
 		verify(patientClient, times(1)).getPatientById(patientId);
-		verify(patientClient, times(1)).getAgePatient(patientId);
 	}
 
+	@Test
+	public void compteurNiveauxRisqueTest() {
+		double inDanger = meterRegistry.counter("alerte.risque.niveaux", "niveau", "In Danger").count();
+		double none = meterRegistry.counter("alerte.risque.niveaux", "niveau", "None").count();
 
-	
-	
+		alerteServiceImpl.niveauRisque(6, 25, "feminin");
+		alerteServiceImpl.niveauRisque(6, 25, "feminin");
+		alerteServiceImpl.niveauRisque(0, 25, "masculin");
+
+		assertThat(meterRegistry.counter("alerte.risque.niveaux", "niveau", "In Danger").count()).isEqualTo(inDanger + 2);
+		assertThat(meterRegistry.counter("alerte.risque.niveaux", "niveau", "None").count()).isEqualTo(none + 1);
+	}
+
+	@Test
+	public void riskEvaluationCacheTest() {
+		Long patientId = 1L;
+		int age = 25;
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 0));
+		when(patientClient.getPatientById(patientId)).thenReturn(patient("Jean", "masculin", age));
+
+		assertThat(alerteService.riskEvaluation(patientId)).isEqualTo("None");
+		assertThat(alerteService.riskEvaluation(patientId)).isEqualTo("None");
+
+		verify(noteClient, times(1)).getDeclencheurs(List.of(patientId));
+		verify(patientClient, times(1)).getPatientById(patientId);
+	}
+
+	@Test
+	public void riskEvaluationDeclencheursIncompletsTest() {
+		Long patientId = 1L;
+		CompteurDeclencheurs incomplet = new CompteurDeclencheurs(patientId, 0, 1);
+		incomplet.setIncomplet(true);
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(List.of(incomplet));
+		when(patientClient.getPatientById(patientId)).thenReturn(patient("Jean", "masculin", 25));
+		double avant = meterRegistry.counter("alerte.declencheurs.incomplets").count();
+
+		// rattrapage en cours côté API note : le risque est renvoyé, mais recalculé à chaque demande
+		assertThat(alerteService.riskEvaluation(patientId)).isEqualTo("None");
+		assertThat(alerteService.riskEvaluation(patientId)).isEqualTo("None");
+
+		verify(noteClient, times(2)).getDeclencheurs(List.of(patientId));
+		assertThat(cacheManager.getCache(AlerteServiceImpl.CACHE_RISQUES).get(patientId)).isNull();
+		assertThat(meterRegistry.counter("alerte.declencheurs.incomplets").count()).isEqualTo(avant + 2);
+	}
+
+	@Test
+	public void invaliderRisqueTest() {
+		Long patientId = 1L;
+		int age = 28;
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 0));
+		when(patientClient.getPatientById(patientId)).thenReturn(patient("Jean", "masculin", age));
+
+		assertThat(alerteService.riskEvaluation(patientId)).isEqualTo("None");
+
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 8));
+		alerteService.invaliderRisque(patientId);
+
+		assertThat(alerteService.riskEvaluation(patientId)).isEqualTo("Early onset");
+		verify(noteClient, times(2)).getDeclencheurs(List.of(patientId));
+	}
+
+	@Test
+	public void invaliderRisquePendantEvaluationTest() throws Exception {
+		Long patientId = 61L;
+		CountDownLatch appelEnCours = new CountDownLatch(1);
+		CountDownLatch invalide = new CountDownLatch(1);
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 0));
+		when(patientClient.getPatientById(patientId)).thenAnswer(invocation -> {
+			appelEnCours.countDown();
+			invalide.await(1, TimeUnit.SECONDS);
+			return patientAvecId(patientId, "masculin", 25);
+		});
+
+		CompletableFuture<String> evaluation = CompletableFuture.supplyAsync(() -> alerteService.riskEvaluation(patientId));
+		assertThat(appelEnCours.await(1, TimeUnit.SECONDS)).isTrue();
+		alerteService.invaliderRisque(patientId);
+		invalide.countDown();
+
+		// le résultat, lu avant la modification, est renvoyé mais pas mis en cache
+		assertThat(evaluation.get(2, TimeUnit.SECONDS)).isEqualTo("None");
+		assertThat(cacheManager.getCache(AlerteServiceImpl.CACHE_RISQUES).get(patientId)).isNull();
+	}
+
+	@Test
+	public void riskEvaluationAppelsParallelesTest() {
+		Long patientId = 1L;
+		int age = 28;
+
+		// chaque appel attend l'autre : des appels séquentiels épuiseraient l'attente avant le délai par appel
+		CountDownLatch appelsEnCours = new CountDownLatch(2);
+		List<Boolean> chevauchements = new CopyOnWriteArrayList<>();
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenAnswer(invocation -> {
+			appelsEnCours.countDown();
+			chevauchements.add(appelsEnCours.await(250, TimeUnit.MILLISECONDS));
+			return compteur(patientId, 8);
+		});
+		when(patientClient.getPatientById(patientId)).thenAnswer(invocation -> {
+			appelsEnCours.countDown();
+			chevauchements.add(appelsEnCours.await(250, TimeUnit.MILLISECONDS));
+			return patient("Jean", "masculin", age);
+		});
+
+		String result = alerteService.riskEvaluation(patientId);
+
+		assertThat(result).isEqualTo("Early onset");
+		assertThat(chevauchements).containsExactly(true, true);
+	}
+
+	@Test
+	public void riskEvaluationTimeoutTest() {
+		// Identifiant propre au test : l'appel lent reste en cours après le test et serait rejoint par les suivants.
+		Long patientId = 99L;
+
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 0));
+		when(patientClient.getPatientById(patientId)).thenAnswer(invocation -> {
+			Thread.sleep(2000);
+			return patient("Jean", "masculin", 25);
+		});
+
+		assertThatThrownBy(() -> alerteService.riskEvaluation(patientId))
+			.isInstanceOf(EvaluationTimeoutException.class);
+	}
+
+	@Test
+	public void riskEvaluationAppelsRegroupesTest() throws Exception {
+		when(noteClient.getDeclencheurs(anyList())).thenAnswer(invocation -> {
+			Thread.sleep(100);
+			List<Long> ids = invocation.getArgument(0);
+			return ids.stream().map(id -> new CompteurDeclencheurs(id, 0, 1)).toList();
+		});
+		when(patientClient.getPatientsByIds(anyList())).thenAnswer(invocation -> {
+			Thread.sleep(100);
+			List<Long> ids = invocation.getArgument(0);
+			return ids.stream().map(id -> patientAvecId(id, "masculin", 25)).toList();
+		});
+
+		List<Long> patientIds = List.of(11L, 12L, 13L, 11L, 12L, 13L);
+		try (ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+			List<CompletableFuture<String>> evaluations = patientIds.stream()
+					.map(id -> CompletableFuture.supplyAsync(() -> alerteService.riskEvaluation(id), executeur))
+					.toList();
+
+			for (CompletableFuture<String> evaluation : evaluations) {
+				assertThat(evaluation.get(2, TimeUnit.SECONDS)).isEqualTo("None");
+			}
+		}
+		verify(patientClient, never()).getPatientById(any());
+		verify(patientClient, times(1)).getPatientsByIds(anyList());
+		verify(noteClient, times(1)).getDeclencheurs(anyList());
+	}
+
+	@Test
+	public void riskEvaluationErreurAppelTest() {
+		Long patientId = 1L;
+
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 0));
+		when(patientClient.getPatientById(patientId)).thenThrow(new IllegalStateException("API patient indisponible"));
+
+		assertThatThrownBy(() -> alerteService.riskEvaluation(patientId))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("API patient indisponible");
+	}
+
+	@Test
+	public void riskEvaluationPatientInconnuTest() {
+		Long patientId = 51L;
+		Request requete = Request.create(Request.HttpMethod.GET, "http://api-patient:8081/patient/infos/" + patientId,
+				Map.of(), null, StandardCharsets.UTF_8, null);
+
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 0));
+		when(patientClient.getPatientById(patientId)).thenThrow(new FeignException.NotFound("Patient non trouvé", requete, null, Map.of()));
+
+		assertThat(alerteService.riskEvaluation(patientId)).isEqualTo("Aucun risque (Patient non trouvé)");
+	}
+
+	@Test
+	public void riskEvaluationRepliTest() {
+		Long patientId = 41L;
+
+		when(noteClient.getDeclencheurs(List.of(patientId))).thenReturn(compteur(patientId, 6));
+		when(patientClient.getPatientById(patientId)).thenReturn(patientAvecId(patientId, "feminin", 25));
+		assertThat(alerteService.riskEvaluation(patientId)).isEqualTo("In Danger");
+
+		alerteService.invaliderRisque(patientId);
+		when(patientClient.getPatientById(patientId)).thenThrow(new IllegalStateException("API patient indisponible"));
+		assertThatThrownBy(() -> alerteService.riskEvaluation(patientId)).isInstanceOf(IllegalStateException.class);
+
+		RisqueRepli repli = alerteService.riskEvaluationRepli(patientId);
+		assertThat(repli.getRisque()).isEqualTo("In Danger");
+		assertThat(repli.getDateDonnees()).isBefore(Instant.now().plusSeconds(1));
+		assertThat(alerteService.riskEvaluationRepli(42L)).isNull();
+		assertThat(meterRegistry.get("alerte.repli").tag("resultat", "servi").counter().count()).isGreaterThanOrEqualTo(1);
+	}
+
+	@Test
+	public void riskEvaluationBatchTest() {
+		Patient patient1 = patientAvecId(1L, "masculin", 28);
+		Patient patient2 = patientAvecId(2L, "masculin", 25);
+		Patient patient3 = patientAvecId(3L, "feminin", 25);
+		when(patientClient.getPatientsByIds(List.of(1L, 2L))).thenReturn(List.of(patient1, patient2));
+		when(patientClient.getPatientsByIds(List.of(3L, 4L))).thenReturn(List.of(patient3));
+		when(noteClient.getDeclencheurs(List.of(1L, 2L))).thenReturn(List.of(new CompteurDeclencheurs(1L, 8, 1)));
+		when(noteClient.getDeclencheurs(List.of(3L))).thenReturn(compteur(3L, 6));
+
+		List<RisqueResultat> resultats = new CopyOnWriteArrayList<>();
+		alerteService.riskEvaluationBatch(new DetectionBatchRequete(List.of(1L, 2L, 3L, 4L, 1L), false), resultats::addAll);
+
+		assertThat(resultats).hasSize(4);
+		assertThat(resultats).anyMatch(r -> r.getPatientId() == 1L && "Early onset".equals(r.getRisque()));
+		assertThat(resultats).anyMatch(r -> r.getPatientId() == 2L && "None".equals(r.getRisque()));
+		assertThat(resultats).anyMatch(r -> r.getPatientId() == 3L && "In Danger".equals(r.getRisque()));
+		assertThat(resultats).anyMatch(r -> r.getPatientId() == 4L && r.getRisque() == null && r.getErreur() != null);
+
+		verify(patientClient, times(2)).getPatientsByIds(anyList());
+		verify(noteClient, times(2)).getDeclencheurs(anyList());
+		verify(patientClient, never()).getPatientById(any());
+	}
+
+	@Test
+	public void riskEvaluationBatchDeclencheursIncompletsTest() {
+		CompteurDeclencheurs incomplet = new CompteurDeclencheurs(1L, 2, 1);
+		incomplet.setIncomplet(true);
+		when(patientClient.getPatientsByIds(List.of(1L, 2L)))
+			.thenReturn(List.of(patientAvecId(1L, "masculin", 28), patientAvecId(2L, "masculin", 25)));
+		when(noteClient.getDeclencheurs(List.of(1L, 2L)))
+			.thenReturn(List.of(incomplet, new CompteurDeclencheurs(2L, 0, 0)));
+
+		List<RisqueResultat> resultats = new CopyOnWriteArrayList<>();
+		alerteService.riskEvaluationBatch(new DetectionBatchRequete(List.of(1L, 2L), false), resultats::addAll);
+
+		assertThat(resultats).anyMatch(r -> r.getPatientId() == 1L && Boolean.TRUE.equals(r.getDeclencheursIncomplets()));
+		assertThat(resultats).anyMatch(r -> r.getPatientId() == 2L && r.getDeclencheursIncomplets() == null);
+	}
+
+	@Test
+	public void riskEvaluationBatchAgeFourniTest() {
+		// 6 déclencheurs : Early onset pour un homme de moins de 30 ans, In Danger au-delà. L'âge fourni par l'API Patient prime.
+		Patient patient = patientAvecId(1L, "masculin", 28);
+		patient.setAge(45);
+		when(patientClient.getPatientsByIds(List.of(1L))).thenReturn(List.of(patient));
+		when(noteClient.getDeclencheurs(List.of(1L))).thenReturn(compteur(1L, 6));
+
+		List<RisqueResultat> resultats = new CopyOnWriteArrayList<>();
+		alerteService.riskEvaluationBatch(new DetectionBatchRequete(List.of(1L), false), resultats::addAll);
+
+		assertThat(resultats).singleElement().satisfies(r -> assertThat(r.getRisque()).isEqualTo("In Danger"));
+	}
+
+	@Test
+	public void riskEvaluationBatchAllTest() {
+		Patient patient1 = patientAvecId(1L, "masculin", 28);
+		Patient patient2 = patientAvecId(2L, "masculin", 25);
+		Patient patient3 = patientAvecId(3L, "feminin", 25);
+		when(patientClient.getPagePatients(100, null)).thenReturn(new PagePatients(List.of(patient1, patient2), "page2", null));
+		when(patientClient.getPagePatients(100, "page2")).thenReturn(new PagePatients(List.of(patient3), null, null));
+		when(noteClient.getDeclencheurs(List.of(1L, 2L))).thenThrow(new IllegalStateException("API note indisponible"));
+		when(noteClient.getDeclencheurs(List.of(3L))).thenReturn(compteur(3L, 6));
+
+		List<RisqueResultat> resultats = new CopyOnWriteArrayList<>();
+		alerteService.riskEvaluationBatch(new DetectionBatchRequete(null, true), resultats::addAll);
+
+		assertThat(resultats).hasSize(3);
+		assertThat(resultats).filteredOn(r -> r.getErreur() != null).hasSize(2);
+		assertThat(resultats).anyMatch(r -> r.getPatientId() == 3L && "In Danger".equals(r.getRisque()));
+
+		verify(patientClient, never()).getPatientsByIds(anyList());
+		verify(patientClient, times(2)).getPagePatients(anyInt(), any());
+	}
+
+	@Test
+	public void riskEvaluationBatchRequeteVideTest() {
+		assertThatThrownBy(() -> alerteService.riskEvaluationBatch(new DetectionBatchRequete(List.of(), false), resultats -> {}))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static Patient patientAvecId(Long id, String genre, int age) {
+		return new Patient(id, "Jean", "Dupont", LocalDate.now().minusYears(age), genre, "1 rue A", "0102030405", null, null, null);
+	}
+
+	private static List<CompteurDeclencheurs> compteur(Long patientId, long totalDeclencheurs) {
+		return List.of(new CompteurDeclencheurs(patientId, totalDeclencheurs, 1));
+	}
 }
@@ -0,0 +1,88 @@
+package com.medilabo.microService.alerte;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.medilabo.microService.alerte.exception.EvaluationTimeoutException;
+import com.medilabo.microService.alerte.service.ProtectionAppels;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+public class ProtectionAppelsTest {
+
+	private CircuitBreakerRegistry circuitBreakers;
+
+	private ProtectionAppels protection;
+
+	@BeforeEach
+	public void setup() {
+		circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+				.slidingWindowSize(4)
+				.minimumNumberOfCalls(4)
+				.failureRateThreshold(50)
+				.build());
+		BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+				.maxConcurrentCalls(1)
+				.maxWaitDuration(Duration.ZERO)
+				.build());
+		protection = new ProtectionAppels(bulkheads, circuitBreakers);
+	}
+
+	@Test
+	public void coupeCircuitOuvertApresEchecsTest() {
+		for (int i = 0; i < 4; i++) {
+			assertThatThrownBy(() -> protection.appelerPatient(() -> {
+				throw new IllegalStateException("API patient indisponible");
+			})).isInstanceOf(IllegalStateException.class);
+		}
+
+		assertThatThrownBy(() -> protection.appelerPatient(() -> "ok")).isInstanceOf(CallNotPermittedException.class);
+		// l'API note a son propre coupe-circuit
+		assertThat(protection.appelerNote(() -> "ok")).isEqualTo("ok");
+	}
+
+	@Test
+	public void bulkheadPleinTest() throws Exception {
+		CountDownLatch appelEnCours = new CountDownLatch(1);
+		CountDownLatch liberer = new CountDownLatch(1);
+		Thread appelLent = Thread.ofVirtual().start(() -> protection.appelerNote(() -> {
+			appelEnCours.countDown();
+			try {
+				return liberer.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}));
+		assertThat(appelEnCours.await(5, TimeUnit.SECONDS)).isTrue();
+
+		assertThatThrownBy(() -> protection.appelerNote(() -> "ok")).isInstanceOf(BulkheadFullException.class);
+		assertThat(protection.appelerPatient(() -> "ok")).isEqualTo("ok");
+
+		liberer.countDown();
+		appelLent.join(5000);
+		assertThat(protection.appelerNote(() -> "ok")).isEqualTo("ok");
+		// un refus du bulkhead ne compte pas comme un échec de l'API
+		assertThat(circuitBreakers.circuitBreaker(ProtectionAppels.NOTE).getMetrics().getNumberOfFailedCalls()).isZero();
+	}
+
+	@Test
+	public void estIndisponibiliteTest() {
+		assertThat(ProtectionAppels.estIndisponibilite(new EvaluationTimeoutException("délai"))).isTrue();
+		assertThat(ProtectionAppels.estIndisponibilite(
+				BulkheadFullException.createBulkheadFullException(BulkheadRegistry.ofDefaults().bulkhead("test")))).isTrue();
+		assertThat(ProtectionAppels.estIndisponibilite(new IllegalArgumentException("date absente"))).isFalse();
+	}
+}
@@ -2,12 +2,16 @@ package com.medilabo.microService.note;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
 @SpringBootApplication
 public class Application {
 
+	/** Nombre maximum d'étapes de démarrage conservées pour l'endpoint actuator {@code startup}. */
+	private static final int ETAPES_DEMARRAGE_MAX = 4096;
+
 	public static void main(String[] args) {
 		Dotenv dotenv = Dotenv.configure()
 			    .directory(".")
@@ -16,7 +20,10 @@ public class Application {
 
 			dotenv.entries()
 			    .forEach(entry -> System.setProperty(entry.getKey(), entry.getValue()));
-		SpringApplication.run(Application.class, args);
+		SpringApplication application = new SpringApplication(Application.class);
+		// Durée de chaque étape du démarrage, consultable sur /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(ETAPES_DEMARRAGE_MAX));
+		application.run(args);
 	}
 
 }
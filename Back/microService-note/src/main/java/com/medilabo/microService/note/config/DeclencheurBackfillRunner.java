@@ -0,0 +1,79 @@
+package com.medilabo.microService.note.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.medilabo.microService.note.service.IDeclencheurService;
+
+/**
+ * Rattrapage, en arrière-plan après le démarrage, des déclencheurs des notes enregistrées avant leur calcul à l'écriture.
+ * <p>
+ * Activé par défaut ({@code note.declencheurs.backfill.enabled}) : le microservice alerte ne lit que les totaux
+ * de {@code compteur_patient}, les notes non rattrapées ne seraient jamais comptées dans le risque.
+ * Les notes sont traitées par lots de {@code note.declencheurs.backfill.taille-lot} pour limiter la mémoire
+ * et la charge sur MongoDB, avec une pause optionnelle entre deux lots. Elles sont parcourues par identifiant
+ * croissant : chaque lot reprend après la dernière note du précédent. Le traitement peut être relancé sans
+ * risque : seules les notes sans déclencheurs sont prises en compte.
+ * </p>
+ * <p>
+ * Tant que le rattrapage n'est pas terminé, {@code GET /note/declencheurs} marque ses totaux {@code incomplet} :
+ * le microservice alerte ne met alors pas en cache les risques calculés.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "note.declencheurs.backfill.enabled", havingValue = "true")
+public class DeclencheurBackfillRunner implements ApplicationRunner {
+
+	private Logger logger = LogManager.getLogger();
+
+	@Autowired
+	private IDeclencheurService declencheurService;
+
+	@Value("${note.declencheurs.backfill.taille-lot:500}")
+	private int tailleLot;
+
+	@Value("${note.declencheurs.backfill.pause-ms:0}")
+	private long pauseMs;
+
+	/**
+	 * Lance le rattrapage en arrière-plan : l'API répond pendant le traitement, et les totaux qu'elle renvoie
+	 * sont marqués incomplets jusqu'à sa fin.
+	 */
+	@Override
+	public void run(ApplicationArguments args) {
+		Thread thread = new Thread(this::rattraper, "note-rattrapage-declencheurs");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Rattrape toutes les notes, lot par lot, puis signale que les totaux sont complets.
+	 * En cas d'échec, les totaux restent marqués incomplets jusqu'au prochain démarrage.
+	 */
+	void rattraper() {
+		logger.info("Début du rattrapage des déclencheurs (lots de {} notes).", tailleLot);
+		try {
+			long lots = 0;
+			String dernierId = null;
+			while ((dernierId = declencheurService.rattraperLot(tailleLot, dernierId)) != null) {
+				lots++;
+				if (pauseMs > 0) {
+					Thread.sleep(pauseMs);
+				}
+			}
+			declencheurService.terminerRattrapage();
+			logger.info("Rattrapage des déclencheurs terminé : {} lots traités.", lots);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			logger.warn("Rattrapage des déclencheurs interrompu, les totaux restent marqués incomplets.");
+		} catch (RuntimeException e) {
+			logger.error("Échec du rattrapage des déclencheurs, les totaux restent marqués incomplets : {}", e.getMessage(), e);
+		}
+	}
+}
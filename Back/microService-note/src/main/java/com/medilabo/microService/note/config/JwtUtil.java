@@ -2,6 +2,7 @@ package com.medilabo.microService.note.config;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -15,16 +16,23 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secret;
 
+    /** Parseur construit une seule fois au démarrage, partagé entre les requêtes. */
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(getSigningKey())
+                .build();
+    }
+
     private Key getSigningKey() {
         byte[] keyBytes = secret.getBytes();
         return Keys.hmacShaKeyFor(keyBytes);
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody();
     }
 
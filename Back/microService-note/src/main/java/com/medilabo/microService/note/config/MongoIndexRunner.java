@@ -0,0 +1,43 @@
+package com.medilabo.microService.note.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.medilabo.microService.note.model.Note;
+
+/**
+ * Création, au démarrage, des index déclarés sur les documents ({@code @CompoundIndex}, {@code @Indexed}).
+ * <p>
+ * Spring Data ne crée plus ces index automatiquement ({@code auto-index-creation} désactivé par défaut) :
+ * sans eux, la recherche des notes d'un patient parcourt toute la collection. {@code ensureIndex}
+ * ne fait rien si l'index existe déjà. Désactivable avec {@code note.mongo.creation-index=false}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "note.mongo.creation-index", havingValue = "true", matchIfMissing = true)
+public class MongoIndexRunner implements ApplicationRunner {
+
+	private Logger logger = LogManager.getLogger();
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		MongoPersistentEntityIndexResolver resolver =
+				new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+		IndexOperations indexOperations = mongoTemplate.indexOps(Note.class);
+		resolver.resolveIndexFor(Note.class).forEach(index -> {
+			String nom = indexOperations.ensureIndex(index);
+			logger.info("Index {} vérifié sur la collection note.", nom);
+		});
+	}
+}
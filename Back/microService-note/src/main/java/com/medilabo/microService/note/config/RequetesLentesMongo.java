@@ -0,0 +1,55 @@
+package com.medilabo.microService.note.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Journalisation des commandes MongoDB plus lentes que {@code note.mongo.requete-lente-ms}.
+ * <p>
+ * Seuls le nom de la commande, la base et la durée sont journalisés, jamais le contenu des notes.
+ * Le nombre de messages est limité par le budget du logger dans {@code log4j2-spring.xml}.
+ * Désactivé avec un seuil négatif.
+ * </p>
+ */
+@Component
+public class RequetesLentesMongo implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+	private Logger logger = LogManager.getLogger();
+
+	@Value("${note.mongo.requete-lente-ms:200}")
+	private long seuilMs;
+
+	@Override
+	public void customize(MongoClientSettings.Builder builder) {
+		if (seuilMs >= 0) {
+			builder.addCommandListener(this);
+		}
+	}
+
+	@Override
+	public void commandSucceeded(CommandSucceededEvent event) {
+		long dureeMs = event.getElapsedTime(TimeUnit.MILLISECONDS);
+		if (dureeMs >= seuilMs) {
+			logger.info("Commande MongoDB lente : {} sur {} en {} ms.", event.getCommandName(), event.getDatabaseName(), dureeMs);
+		}
+	}
+
+	@Override
+	public void commandFailed(CommandFailedEvent event) {
+		long dureeMs = event.getElapsedTime(TimeUnit.MILLISECONDS);
+		if (dureeMs >= seuilMs) {
+			logger.warn("Commande MongoDB lente en échec : {} sur {} en {} ms ({}).", event.getCommandName(),
+					event.getDatabaseName(), dureeMs, event.getThrowable().getMessage());
+		}
+	}
+}
@@ -1,11 +1,19 @@
 package com.medilabo.microService.note.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,10 +22,20 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
 
+import com.medilabo.commun.identite.IdentiteGateway;
+import com.medilabo.commun.identite.IdentiteTransmise;
+import com.medilabo.microService.note.model.CompteurPatient;
+import com.medilabo.microService.note.model.Medecin;
 import com.medilabo.microService.note.model.Note;
+import com.medilabo.microService.note.model.PageNotes;
+import com.medilabo.microService.note.service.IDeclencheurService;
 import com.medilabo.microService.note.service.INoteService;
+import com.medilabo.microService.note.service.NoteServiceImpl;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -25,35 +43,147 @@ import jakarta.validation.Valid;
 public class NoteController {
 	private static final Logger logger = LogManager.getLogger(NoteController.class);
 
+	/**
+	 * Les réponses peuvent être conservées par le navigateur, mais doivent être revalidées (ETag) avant réutilisation.
+	 */
+	private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
 	@Autowired
 	private INoteService noteService;
 
+	@Autowired
+	private IDeclencheurService declencheurService;
+
+	@Autowired
+	private IdentiteGateway identiteGateway;
+
 	@PostMapping("/add")
 	public ResponseEntity<Note> addNote(@Valid @RequestBody Note newNote, 
-										@RequestHeader("Authorization") String token) {
-	    logger.info("Requête reçue pour ajouter une note : {}", newNote);
+										@RequestHeader(value = "Authorization", required = false) String token,
+										HttpServletRequest request) {
+	    logger.info("Requête reçue pour ajouter une note pour le patient {}", newNote.getPatientId());
 	    
-	    if(token.isEmpty()) {
-	    	logger.error("Le token ne peut pas être vide");
-	    	return ResponseEntity.badRequest().body(newNote);
+	    Note noteAdded;
+	    if (identiteGateway.contientIdentite(request)) {
+	    	// Token déjà vérifié par la gateway : le médecin est lu dans les en-têtes signés.
+	    	IdentiteTransmise identite = identiteGateway.lire(request);
+	    	if (identite == null) {
+	    		return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+	    	}
+	    	noteAdded = noteService.addNote(newNote,
+	    			new Medecin(identite.getUserId(), identite.getNom(), identite.getPrenom()));
+	    } else {
+	    	if (token == null || token.isEmpty()) {
+	    		logger.error("Le token ne peut pas être vide");
+	    		return ResponseEntity.badRequest().body(newNote);
+	    	}
+	    	noteAdded = noteService.addNote(newNote, token);
 	    }
 	    
-	    Note noteAdded = noteService.addNote(newNote, token);
-	    
-	    logger.info("Transmission ajoutée avec succès : {}", noteAdded);
+	    logger.info("Transmission {} ajoutée avec succès.", noteAdded.getId());
 	    return ResponseEntity.status(HttpStatus.CREATED).body(noteAdded);
 	}
 
+	/**
+	 * Renvoie toutes les notes d'un patient.
+	 * <p>
+	 * La réponse porte un ETag (version des notes du patient) et un Last-Modified : si le client renvoie
+	 * l'ETag et que les notes n'ont pas changé, la réponse est un 304 sans corps et les notes ne sont pas lues.
+	 * </p>
+	 */
 	@GetMapping("/getNotesPatient")
-	public ResponseEntity<List<Note>> getAllNotesPatient(@RequestParam Long patientId) {
+	public ResponseEntity<List<Note>> getAllNotesPatient(@RequestParam Long patientId, WebRequest webRequest) {
 	    logger.info("Requête reçue pour récupérer les notes du patient avec l'ID : {}", patientId);
+	    if (nonModifie(patientId, webRequest)) {
+	        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+	    }
 	    List<Note> noteList = noteService.getAllNotesByPatientId(patientId);
 	    if (noteList.isEmpty()) {
 	        logger.warn("Aucune note trouvée pour le patient avec l'ID : {}", patientId);
 	    } else {
 	        logger.info("{} notes trouvées pour le patient {}", noteList.size(), patientId);
 	    }
-	    return ResponseEntity.status(HttpStatus.OK).body(noteList);
+	    return ResponseEntity.status(HttpStatus.OK).cacheControl(CACHE_CONTROL).body(noteList);
+	}
+
+	/**
+	 * Compare les en-têtes conditionnels de la requête à la version des notes du patient.
+	 * Ajoute l'ETag et le Last-Modified à la réponse, et passe son statut à 304 si les notes n'ont pas changé.
+	 *
+	 * @return true si le client possède déjà la version courante
+	 */
+	private boolean nonModifie(Long patientId, WebRequest webRequest) {
+	    CompteurPatient version = noteService.getVersionNotesPatient(patientId);
+	    if (version == null || version.getDateModification() == null) {
+	        return false;
+	    }
+	    long lastModified = version.getDateModification().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	    boolean nonModifie = webRequest.checkNotModified("\"" + patientId + "-" + version.getVersion() + "\"", lastModified);
+	    if (nonModifie) {
+	        logger.debug("Notes du patient {} non modifiées, réponse 304.", patientId);
+	    }
+	    return nonModifie;
+	}
+
+	/**
+	 * Renvoie une page de notes d'un patient, de la plus récente à la plus ancienne.
+	 *
+	 * @param patientId identifiant du patient
+	 * @param taille nombre de notes par page (20 par défaut, 100 au maximum)
+	 * @param since date minimale des notes (ISO, incluse), optionnelle
+	 * @param until date maximale des notes (ISO, incluse), optionnelle
+	 * @param curseur curseur {@code curseurSuivant} de la page précédente, absent pour la première page
+	 * @param webRequest la requête, pour les en-têtes conditionnels (même ETag que {@code /getNotesPatient})
+	 */
+	@GetMapping("/getNotesPatient/page")
+	public ResponseEntity<PageNotes> getPageNotesPatient(@RequestParam Long patientId,
+			@RequestParam(defaultValue = "20") int taille,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+			@RequestParam(required = false) String curseur,
+			WebRequest webRequest) {
+	    logger.info("Requête reçue pour une page de {} notes du patient {}", taille, patientId);
+	    if (nonModifie(patientId, webRequest)) {
+	        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+	    }
+	    return ResponseEntity.ok().cacheControl(CACHE_CONTROL)
+	    		.body(noteService.getPageNotesPatient(patientId, taille, since, until, curseur));
+	}
+
+	/**
+	 * Exporte les notes en flux, au format NDJSON (une note JSON par ligne, par défaut) ou CSV.
+	 * Les notes sont écrites dans la réponse au fur et à mesure de leur lecture : la mémoire utilisée
+	 * ne dépend pas du nombre de notes exportées.
+	 *
+	 * @param format {@code ndjson} (par défaut) ou {@code csv}
+	 * @param patientId identifiant du patient, optionnel (toutes les notes sinon)
+	 * @param since date minimale des notes (ISO, incluse), optionnelle
+	 * @param until date maximale des notes (ISO, incluse), optionnelle
+	 */
+	@GetMapping("/export")
+	public void exporterNotes(@RequestParam(defaultValue = NoteServiceImpl.FORMAT_NDJSON) String format,
+			@RequestParam(required = false) Long patientId,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+			HttpServletResponse response) throws IOException {
+	    logger.info("Requête reçue pour exporter les notes au format {}", format);
+	    if (!NoteServiceImpl.FORMAT_CSV.equals(format) && !NoteServiceImpl.FORMAT_NDJSON.equals(format)) {
+	        throw new IllegalArgumentException("Le format d'export doit être 'csv' ou 'ndjson'");
+	    }
+	    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+	    response.setContentType(NoteServiceImpl.FORMAT_CSV.equals(format) ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+	    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"notes." + format + "\"");
+	    noteService.exporterNotes(response.getOutputStream(), format, patientId, since, until);
+	}
+
+	/**
+	 * Renvoie, pour chaque patient demandé, le total des termes déclencheurs de ses notes
+	 * et le nombre de notes comptabilisées. Utilisé par le microservice alerte à la place des notes complètes.
+	 */
+	@GetMapping("/declencheurs")
+	public ResponseEntity<List<CompteurPatient>> getDeclencheurs(@RequestParam List<Long> patientIds) {
+	    logger.info("Requête reçue pour récupérer les déclencheurs de {} patients", patientIds.size());
+	    return ResponseEntity.ok(declencheurService.getCompteurs(patientIds));
 	}
 
 }
@@ -0,0 +1,45 @@
+package com.medilabo.microService.note.event;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.medilabo.commun.notification.PatientModifieEvent;
+import com.medilabo.microService.note.model.CompteurPatient;
+
+/**
+ * Incrémente la version des notes d'un patient à chaque écriture (ajout, modification, suppression).
+ * <p>
+ * Le traitement est synchrone : la nouvelle version est enregistrée avant la réponse à la requête d'écriture,
+ * si bien qu'une lecture suivante ne peut pas renvoyer un 304 sur des notes modifiées.
+ * </p>
+ */
+@Component
+public class VersionNotesListener {
+
+	private Logger logger = LogManager.getLogger();
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@EventListener
+	public void onPatientModifie(PatientModifieEvent event) {
+		if (event.getPatientId() == null) {
+			return;
+		}
+		mongoTemplate.upsert(Query.query(Criteria.where("_id").is(event.getPatientId())),
+				new Update().inc("version", 1)
+						.set("dateModification", LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS)),
+				CompteurPatient.class);
+		logger.debug("Version des notes incrémentée pour le patient {}", event.getPatientId());
+	}
+}
@@ -0,0 +1,62 @@
+package com.medilabo.microService.note.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Total des termes déclencheurs des notes d'un patient, tenu à jour à chaque écriture de note.
+ * <p>
+ * Seules les notes dont le champ {@code nombreDeclencheurs} est renseigné sont comptabilisées ;
+ * les notes plus anciennes sont intégrées par le rattrapage ({@code note.declencheurs.backfill.enabled}),
+ * pendant lequel les totaux renvoyés sont marqués {@code incomplet}.
+ * </p>
+ * <p>
+ * Le document porte aussi la version des notes du patient, utilisée pour les requêtes conditionnelles
+ * ({@code If-None-Match}) sur la lecture des notes.
+ * </p>
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Document(collection = "compteur_patient")
+public class CompteurPatient {
+
+	@Id
+	Long patientId;
+
+	long totalDeclencheurs;
+
+	long nombreNotes;
+
+	/** Version des notes du patient, incrémentée à chaque ajout, modification ou suppression. Sert d'ETag. */
+	@JsonIgnore
+	long version;
+
+	/** Date de la dernière écriture sur les notes du patient (en-tête Last-Modified). */
+	@JsonIgnore
+	LocalDateTime dateModification;
+
+	/**
+	 * Vrai si le total a été lu pendant le rattrapage des déclencheurs : les notes anciennes du patient
+	 * peuvent ne pas encore y être comptées. Renvoyé au microservice alerte, jamais enregistré.
+	 */
+	@Transient
+	boolean incomplet;
+
+	public CompteurPatient(Long patientId, long totalDeclencheurs, long nombreNotes) {
+		this.patientId = patientId;
+		this.totalDeclencheurs = totalDeclencheurs;
+		this.nombreNotes = nombreNotes;
+	}
+}
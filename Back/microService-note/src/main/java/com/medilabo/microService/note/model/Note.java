@@ -3,6 +3,7 @@ package com.medilabo.microService.note.model;
 import java.time.LocalDateTime;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
@@ -16,6 +17,7 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "note")
+@CompoundIndex(name = "patientId_dateNote", def = "{'patientId': 1, 'dateNote': -1}")
 public class Note {
 
 	@Id
@@ -30,4 +32,10 @@ public class Note {
 	@NotBlank(message = "La transmission ne peut pas être vide")
 	private String note;
 
+	/**
+	 * Nombre de termes déclencheurs distincts présents dans la note, calculé à l'écriture.
+	 * Null pour les notes enregistrées avant ce calcul et pas encore rattrapées.
+	 */
+	Integer nombreDeclencheurs;
+
 }
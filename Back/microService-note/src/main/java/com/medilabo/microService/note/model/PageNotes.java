@@ -0,0 +1,29 @@
+package com.medilabo.microService.note.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Page de notes d'un patient, de la plus récente à la plus ancienne.
+ * <p>
+ * {@code curseurSuivant} est à renvoyer tel quel pour obtenir les notes plus anciennes ;
+ * il est absent sur la dernière page.
+ * </p>
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageNotes {
+
+	List<Note> notes;
+
+	String curseurSuivant;
+}
@@ -0,0 +1,175 @@
+package com.medilabo.microService.note.service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.medilabo.commun.declencheur.Declencheurs;
+import com.mongodb.client.result.UpdateResult;
+import com.medilabo.microService.note.model.CompteurPatient;
+import com.medilabo.microService.note.model.Note;
+
+/**
+ * Comptage des termes déclencheurs des notes et tenue des totaux par patient.
+ * <p>
+ * Les totaux sont modifiés uniquement par incréments atomiques ({@code $inc} avec upsert),
+ * ce qui permet des écritures concurrentes sur les notes d'un même patient.
+ * </p>
+ */
+@Service
+public class DeclencheurServiceImpl implements IDeclencheurService {
+
+	private static final String CHAMP_DECLENCHEURS = "nombreDeclencheurs";
+
+	private Logger logger = LogManager.getLogger();
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	/**
+	 * Vrai tant que le rattrapage des déclencheurs n'est pas terminé : les totaux peuvent alors ignorer des notes
+	 * anciennes. Vaut {@code note.declencheurs.backfill.enabled} au démarrage, avant la première requête reçue.
+	 */
+	@Value("${note.declencheurs.backfill.enabled:false}")
+	private volatile boolean rattrapageEnCours;
+
+	/**
+	 * Compte les termes déclencheurs distincts ({@link Declencheurs#MOTS_CLES}) présents dans un texte.
+	 *
+	 * @param texte le contenu de la note
+	 * @return le nombre de termes déclencheurs distincts, 0 si le texte est null
+	 */
+	public int compterDeclencheurs(String texte) {
+		return Declencheurs.MATCHER.compterDeclencheurs(texte);
+	}
+
+	/**
+	 * Ajoute les variations au total du patient, en créant le total s'il n'existe pas.
+	 *
+	 * @param patientId         l'identifiant du patient
+	 * @param deltaDeclencheurs la variation du nombre de déclencheurs
+	 * @param deltaNotes        la variation du nombre de notes comptabilisées
+	 */
+	public void ajusterCompteur(Long patientId, long deltaDeclencheurs, long deltaNotes) {
+		if (patientId == null || (deltaDeclencheurs == 0 && deltaNotes == 0)) {
+			return;
+		}
+		logger.debug("Ajustement du compteur du patient {} : déclencheurs {}, notes {}", patientId, deltaDeclencheurs, deltaNotes);
+		mongoTemplate.upsert(Query.query(Criteria.where("_id").is(patientId)),
+				new Update().inc("totalDeclencheurs", deltaDeclencheurs).inc("nombreNotes", deltaNotes),
+				CompteurPatient.class);
+	}
+
+	/**
+	 * Récupère les totaux de plusieurs patients en une seule requête.
+	 *
+	 * @param patientIds la liste des identifiants des patients
+	 * @return un total par patient demandé, à zéro pour les patients sans note, marqué {@code incomplet}
+	 *         tant que le rattrapage des déclencheurs est en cours
+	 * @throws IllegalArgumentException si la liste est null ou vide
+	 */
+	public List<CompteurPatient> getCompteurs(List<Long> patientIds) {
+		if (patientIds == null || patientIds.isEmpty()) {
+			logger.error("La liste des ids patients ne peut pas être null ou vide : {}", patientIds);
+			throw new IllegalArgumentException("La liste des ids patients ne peut pas être null ou vide");
+		}
+		Map<Long, CompteurPatient> compteurs = mongoTemplate
+				.find(Query.query(Criteria.where("_id").in(patientIds)), CompteurPatient.class).stream()
+				.collect(Collectors.toMap(CompteurPatient::getPatientId, Function.identity()));
+		boolean incomplet = rattrapageEnCours;
+		return patientIds.stream()
+				.distinct()
+				.map(id -> {
+					CompteurPatient compteur = compteurs.getOrDefault(id, new CompteurPatient(id, 0, 0));
+					compteur.setIncomplet(incomplet);
+					return compteur;
+				})
+				.toList();
+	}
+
+	/**
+	 * Indique si le rattrapage des déclencheurs est en cours, et donc si les totaux peuvent être incomplets.
+	 */
+	public boolean isRattrapageEnCours() {
+		return rattrapageEnCours;
+	}
+
+	/**
+	 * Signale la fin du rattrapage : les totaux renvoyés ensuite comptent toutes les notes.
+	 */
+	public void terminerRattrapage() {
+		rattrapageEnCours = false;
+	}
+
+	/**
+	 * Calcule les déclencheurs d'un lot de notes qui n'en ont pas encore, et les ajoute aux totaux des patients.
+	 * <p>
+	 * Les notes sont parcourues dans l'ordre de leur identifiant, à partir de {@code apresId} : chaque lot
+	 * reprend là où le précédent s'est arrêté (index de {@code _id}), sans relire les notes déjà rattrapées.
+	 * Chaque note n'est mise à jour que si son champ est toujours absent : une note écrite entre-temps
+	 * par l'API (et donc déjà comptabilisée) n'est jamais comptée deux fois.
+	 * </p>
+	 *
+	 * @param tailleLot le nombre maximum de notes traitées
+	 * @param apresId   l'identifiant de la dernière note du lot précédent, null pour le premier lot
+	 * @return l'identifiant de la dernière note examinée, à passer au lot suivant, ou null lorsqu'il n'en reste plus
+	 */
+	public String rattraperLot(int tailleLot, String apresId) {
+		Criteria criteres = Criteria.where(CHAMP_DECLENCHEURS).exists(false);
+		if (apresId != null) {
+			criteres = criteres.and("_id").gt(apresId);
+		}
+		Query query = Query.query(criteres).with(Sort.by(Sort.Direction.ASC, "_id")).limit(tailleLot);
+		query.fields().include("patientId").include("note");
+		List<Note> notes = mongoTemplate.find(query, Note.class);
+		if (notes.isEmpty()) {
+			return null;
+		}
+
+		Map<Long, long[]> deltas = new HashMap<>();
+		int rattrapees = 0;
+		for (Note note : notes) {
+			int nombre = compterDeclencheurs(note.getNote());
+			UpdateResult resultat = mongoTemplate.updateFirst(
+					Query.query(Criteria.where("_id").is(note.getId()).and(CHAMP_DECLENCHEURS).exists(false)),
+					Update.update(CHAMP_DECLENCHEURS, nombre), Note.class);
+			if (resultat.getModifiedCount() == 1) {
+				rattrapees++;
+				if (note.getPatientId() != null) {
+					long[] delta = deltas.computeIfAbsent(note.getPatientId(), id -> new long[2]);
+					delta[0] += nombre;
+					delta[1]++;
+				}
+			}
+		}
+
+		if (!deltas.isEmpty()) {
+			LocalDateTime maintenant = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+			BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CompteurPatient.class);
+			deltas.forEach((patientId, delta) -> operations.upsert(
+					Query.query(Criteria.where("_id").is(patientId)),
+					new Update().inc("totalDeclencheurs", delta[0]).inc("nombreNotes", delta[1])
+							// le champ nombreDeclencheurs fait partie des notes renvoyées : leur version change
+							.inc("version", 1).set("dateModification", maintenant)));
+			operations.execute();
+		}
+		logger.info("Rattrapage des déclencheurs : {} notes traitées pour {} patients.", rattrapees, deltas.size());
+		return notes.get(notes.size() - 1).getId();
+	}
+}
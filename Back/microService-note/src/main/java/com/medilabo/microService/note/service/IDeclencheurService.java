@@ -0,0 +1,14 @@
+package com.medilabo.microService.note.service;
+
+import java.util.List;
+
+import com.medilabo.microService.note.model.CompteurPatient;
+
+public interface IDeclencheurService {
+	int compterDeclencheurs(String texte);
+	void ajusterCompteur(Long patientId, long deltaDeclencheurs, long deltaNotes);
+	List<CompteurPatient> getCompteurs(List<Long> patientIds);
+	String rattraperLot(int tailleLot, String apresId);
+	boolean isRattrapageEnCours();
+	void terminerRattrapage();
+}
@@ -1,14 +1,24 @@
 package com.medilabo.microService.note.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import com.medilabo.microService.note.model.CompteurPatient;
+import com.medilabo.microService.note.model.Medecin;
 import com.medilabo.microService.note.model.Note;
+import com.medilabo.microService.note.model.PageNotes;
 
 public interface INoteService {
 	List<Note> getAllNotes();
 	Note getNote(String id);
 	Note addNote(Note newNote, String token);
+	Note addNote(Note newNote, Medecin medecin);
 	public void deleteNote(String id);
 	Note updateNote(String id, Note updatedNote);
 	List<Note> getAllNotesByPatientId(Long patientId);
+	PageNotes getPageNotesPatient(Long patientId, int taille, LocalDateTime depuis, LocalDateTime jusqua, String curseur);
+	CompteurPatient getVersionNotesPatient(Long patientId);
+	long exporterNotes(OutputStream sortie, String format, Long patientId, LocalDateTime depuis, LocalDateTime jusqua) throws IOException;
 }
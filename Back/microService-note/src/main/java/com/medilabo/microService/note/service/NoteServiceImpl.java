@@ -1,37 +1,86 @@
 package com.medilabo.microService.note.service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 
+import io.jsonwebtoken.Claims;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.commun.notification.PatientModifieEvent;
 import com.medilabo.microService.note.config.JwtUtil;
+import com.medilabo.microService.note.model.CompteurPatient;
 import com.medilabo.microService.note.model.Medecin;
 import com.medilabo.microService.note.model.Note;
+import com.medilabo.microService.note.model.PageNotes;
 import com.medilabo.microService.note.repository.INoteRepository;
 
 @Service
 public class NoteServiceImpl implements INoteService {
 	private Logger logger = LogManager.getLogger();
+
+	/** Nombre maximum de notes renvoyées par page. */
+	private static final int TAILLE_MAX_PAGE = 100;
+
+	/** Nombre de notes lues par aller-retour avec MongoDB lors d'un export. */
+	private static final int TAILLE_LOT_EXPORT = 500;
+
+	public static final String FORMAT_CSV = "csv";
+
+	public static final String FORMAT_NDJSON = "ndjson";
+
+	private static final String ENTETE_CSV = "id,patientId,medecinId,nomMedecin,prenomMedecin,dateNote,nombreDeclencheurs,note";
 	
 	@Autowired
 	private INoteRepository noteRepository;
 	
+	@Autowired
+	private MongoTemplate mongoTemplate;
+	
 	@Autowired
 	private JwtUtil jwtUtil;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private IDeclencheurService declencheurService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
 	
 	public List<Note> getAllNotes() {
 		logger.info("Tentative de récupération de toutes les notes.");
 		List<Note> noteList = noteRepository.findAll();
 		if (noteList.isEmpty()) {
-			logger.warn("Attention, la liste est vide : {}", noteList);
+			logger.warn("Attention, la liste des notes est vide.");
 		}
-		logger.info("Notes récupérées : {}", noteList);
+		logger.info("{} notes récupérées.", noteList.size());
 		return noteList;
 	}
 	
@@ -46,7 +95,7 @@ public class NoteServiceImpl implements INoteService {
 	    		    logger.warn("Aucune note trouvée");
 	    		    return new NoSuchElementException("Aucune note trouvée");
 	    		});
-		logger.info("La note récupéré avec l'id {} : {}", id, transmission);
+		logger.info("La note avec l'id {} a été récupérée.", id);
 		return transmission;
 	}
 	
@@ -60,20 +109,37 @@ public class NoteServiceImpl implements INoteService {
 	        throw new IllegalArgumentException("Le token ne peut pas être null ou vide.");
 	    }
 	   	    
-	    Medecin medecin = getMedecin(token);
+	    return addNote(newNote, getMedecin(token));
+	}
+
+	/**
+	 * Ajoute une note pour un médecin déjà identifié (identité transmise par la gateway).
+	 *
+	 * @param newNote la note à ajouter
+	 * @param medecin le médecin auteur de la note
+	 * @return la note enregistrée
+	 * @throws IllegalArgumentException si la note ou le médecin est null
+	 */
+	public Note addNote(Note newNote, Medecin medecin) {
+	    if (newNote == null || medecin == null) {
+	        logger.error("La note et le médecin ne peuvent pas être null.");
+	        throw new IllegalArgumentException("La note et le médecin ne peuvent pas être null.");
+	    }
 
 	    Note note = new Note();
 	    note.setDateNote(LocalDateTime.now());
 	    note.setPatientId(newNote.getPatientId());
 	    note.setNote(newNote.getNote());
 	    note.setMedecin(medecin);
+	    note.setNombreDeclencheurs(declencheurService.compterDeclencheurs(note.getNote()));
 	    
-	    logger.info("Note complète avant sauvegarde : {}", note);
-
+	    logger.debug("Note du patient {} avant sauvegarde : {} déclencheurs.", note.getPatientId(), note.getNombreDeclencheurs());
 
 	    Note noteAdded = noteRepository.save(note);
+	    declencheurService.ajusterCompteur(noteAdded.getPatientId(), noteAdded.getNombreDeclencheurs(), 1);
+	    eventPublisher.publishEvent(new PatientModifieEvent(noteAdded.getPatientId()));
 
-	    logger.info("La note ajouté : {}", noteAdded);
+	    logger.info("Note {} ajoutée pour le patient {}.", noteAdded.getId(), noteAdded.getPatientId());
 
 	    return noteAdded;
 	}
@@ -81,20 +147,25 @@ public class NoteServiceImpl implements INoteService {
 	public Medecin getMedecin(String token) {
 	    if (token.startsWith("Bearer ")) {
 	        token = token.substring(7);
-		    logger.info("le token nettoyé : {}", token);
 	    }		
 		
+		// Une seule vérification du token pour les trois informations du médecin
+		Claims claims = jwtUtil.extractAllClaims(token);
 		Medecin medecin = new Medecin();
-		Long userId = jwtUtil.extractUserId(token);
-		String nomMedecin = jwtUtil.extractNom(token);
-		String prenomMedecin = jwtUtil.extractPrenom(token);
-		medecin.setId(userId);
-		medecin.setNomMedecin(nomMedecin);
-		medecin.setPrenomMedecin(prenomMedecin);
+		medecin.setId(claims.get("userId", Long.class));
+		medecin.setNomMedecin(claims.get("nom", String.class));
+		medecin.setPrenomMedecin(claims.get("prenom", String.class));
 		
 		return medecin;
 	}
 	
+	/**
+	 * Supprime une note et la retire du total de son patient.
+	 * <p>
+	 * La note est lue et supprimée en une seule opération ({@code findAndRemove}) : de deux suppressions
+	 * simultanées, une seule obtient la note et ajuste le total.
+	 * </p>
+	 */
 	public void deleteNote(String id) {
 		logger.info("Tentative de suppression de la note par son id.");
 		logger.debug("id de la note : {}", id);
@@ -103,17 +174,26 @@ public class NoteServiceImpl implements INoteService {
 			throw new IllegalArgumentException("L'id ne peut pas être null ou vide : "+ id);
 		}
 		
-	    if (!noteRepository.existsById(id)) {
+	    Note existing = mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), Note.class);
+	    if (existing == null) {
 	        logger.warn("Aucune note trouvée avec l'id : {}", id);
 	        throw new NoSuchElementException("Aucune note trouvée avec l'id : " + id);
 	    }
 		
-	    noteRepository.deleteById(id);
+	    retirerDuCompteur(existing);
+	    eventPublisher.publishEvent(new PatientModifieEvent(existing.getPatientId()));
 	}
 	
+	/**
+	 * Remplace le contenu d'une note et ajuste le total de son patient.
+	 * <p>
+	 * La note est remplacée en une seule opération ({@code findAndReplace}), qui renvoie la version remplacée :
+	 * le total est ajusté à partir de celle-ci, y compris lorsque deux modifications de la même note se croisent.
+	 * L'id de la note est toujours celui de l'URL, jamais celui du corps de la requête.
+	 * </p>
+	 */
 	public Note updateNote(String id, Note updatedNote) {
 	    logger.info("Tentative de mise à jour de la note avec l'id : {}", id);
-	    logger.debug("note reçue pour mise à jour : {}", updatedNote);
 	    
 	    if (id == null || id.isBlank()) {
 	        logger.error("L'id ne peut pas être null ou vide : {}", id);
@@ -125,23 +205,54 @@ public class NoteServiceImpl implements INoteService {
 	        throw new IllegalArgumentException("La note mise à jour ne peut pas être null.");
 	    }
 
-	    Note existing = noteRepository.findById(id)
-	            .orElseThrow(() -> {
-	                logger.error("Note non trouvée avec l'id : {}", id);
-	                return new NoSuchElementException("Note non trouvée avec l'id : " + id);
-	            });
-	    
-	    logger.debug("La note existante : {}", existing);
-
+	    updatedNote.setId(id);
 	    updatedNote.setDateNote(LocalDateTime.now());
+	    updatedNote.setNombreDeclencheurs(declencheurService.compterDeclencheurs(updatedNote.getNote()));
+
+	    Note existing = mongoTemplate.findAndReplace(Query.query(Criteria.where("_id").is(id)), updatedNote);
+	    if (existing == null) {
+	        logger.error("Note non trouvée avec l'id : {}", id);
+	        throw new NoSuchElementException("Note non trouvée avec l'id : " + id);
+	    }
+	    logger.debug("La note remplacée appartenait au patient {}.", existing.getPatientId());
 
-	    Note saved = noteRepository.save(updatedNote);
+	    Note saved = updatedNote;
+	    retirerDuCompteur(existing);
+	    declencheurService.ajusterCompteur(saved.getPatientId(), saved.getNombreDeclencheurs(), 1);
+	    eventPublisher.publishEvent(new PatientModifieEvent(existing.getPatientId()));
+	    if (saved.getPatientId() != null && !saved.getPatientId().equals(existing.getPatientId())) {
+	        eventPublisher.publishEvent(new PatientModifieEvent(saved.getPatientId()));
+	    }
 
 	    logger.info("Note mise à jour avec succès : {}", saved.getId());
 
 	    return saved;
 	}
 	
+	/**
+	 * Retire une note du total de son patient, si elle y était comptabilisée.
+	 */
+	private void retirerDuCompteur(Note note) {
+	    if (note.getNombreDeclencheurs() != null) {
+	        declencheurService.ajusterCompteur(note.getPatientId(), -note.getNombreDeclencheurs(), -1);
+	    }
+	}
+	
+	/**
+	 * Récupère la version des notes d'un patient, sans lire les notes.
+	 *
+	 * @param patientId l'identifiant du patient
+	 * @return la version et la date de la dernière écriture, null si aucune écriture n'a été enregistrée
+	 */
+	public CompteurPatient getVersionNotesPatient(Long patientId) {
+	    if (patientId == null) {
+	        return null;
+	    }
+	    Query query = Query.query(Criteria.where("_id").is(patientId));
+	    query.fields().include("version").include("dateModification");
+	    return mongoTemplate.findOne(query, CompteurPatient.class);
+	}
+
 	public List<Note> getAllNotesByPatientId(Long patientId) {
 	    logger.info("Tentative de récupération des notes du patient avec l'id : {}", patientId);
 
@@ -150,14 +261,203 @@ public class NoteServiceImpl implements INoteService {
 	        throw new IllegalArgumentException("L'id du patient ne peut pas être null ou vide : " + patientId);
 	    }
 
-	    List<Note> listNotePatient = noteRepository.findAllByPatientId(patientId);
+	    List<Note> listNotePatient = noteRepository.findAllByPatientIdOrderByDateNoteDesc(patientId);
 
 	    if (listNotePatient == null || listNotePatient.isEmpty()) {
 	        logger.warn("Aucune note trouvée pour le patient avec l'id : {}", patientId);
 	    } else {
-	        logger.info("Notes trouvées pour le patient avec l'id {} : {}", patientId, listNotePatient);
+	        logger.info("{} notes trouvées pour le patient avec l'id {}", listNotePatient.size(), patientId);
 	    }
 		return listNotePatient;
 	}
 
+	/**
+	 * Récupère une page de notes d'un patient, de la plus récente à la plus ancienne.
+	 * <p>
+	 * La pagination se fait par curseur : la page suivante est lue à partir de la date et de l'id
+	 * de la dernière note renvoyée, ce qui correspond directement à l'index {@code patientId_dateNote}
+	 * sans parcourir les notes déjà lues. Une note de plus que la taille demandée est lue
+	 * pour savoir s'il existe une page suivante.
+	 * </p>
+	 *
+	 * @param patientId l'identifiant du patient
+	 * @param taille le nombre de notes de la page (entre 1 et 100)
+	 * @param depuis date minimale des notes (incluse), null pour ne pas filtrer
+	 * @param jusqua date maximale des notes (incluse), null pour ne pas filtrer
+	 * @param curseur le curseur renvoyé par la page précédente, null pour la première page
+	 * @return la page de notes et le curseur de la page suivante
+	 * @throws IllegalArgumentException si un paramètre est invalide
+	 */
+	public PageNotes getPageNotesPatient(Long patientId, int taille, LocalDateTime depuis, LocalDateTime jusqua, String curseur) {
+	    if (patientId == null) {
+	        logger.error("L'id du patient ne peut pas être null.");
+	        throw new IllegalArgumentException("L'id du patient ne peut pas être null.");
+	    }
+	    if (taille < 1 || taille > TAILLE_MAX_PAGE) {
+	        logger.error("Taille de page invalide : {} (entre 1 et {})", taille, TAILLE_MAX_PAGE);
+	        throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + TAILLE_MAX_PAGE);
+	    }
+	    if (depuis != null && jusqua != null && depuis.isAfter(jusqua)) {
+	        logger.error("Période invalide : {} après {}", depuis, jusqua);
+	        throw new IllegalArgumentException("La date since doit être antérieure à la date until.");
+	    }
+	    logger.info("Récupération d'une page de {} notes pour le patient {}.", taille, patientId);
+
+	    List<Criteria> criteres = new ArrayList<>();
+	    criteres.add(Criteria.where("patientId").is(patientId));
+	    if (depuis != null) {
+	        criteres.add(Criteria.where("dateNote").gte(depuis));
+	    }
+	    if (jusqua != null) {
+	        criteres.add(Criteria.where("dateNote").lte(jusqua));
+	    }
+	    if (curseur != null && !curseur.isBlank()) {
+	        String[] cle = decoderCurseur(curseur);
+	        LocalDateTime dateDerniere = LocalDateTime.parse(cle[0]);
+	        criteres.add(new Criteria().orOperator(
+	                Criteria.where("dateNote").lt(dateDerniere),
+	                Criteria.where("dateNote").is(dateDerniere).and("id").lt(new ObjectId(cle[1]))));
+	    }
+	    Query query = new Query(new Criteria().andOperator(criteres))
+	            .with(Sort.by(Sort.Direction.DESC, "dateNote", "id"))
+	            .limit(taille + 1);
+
+	    List<Note> notes = mongoTemplate.find(query, Note.class);
+	    String curseurSuivant = null;
+	    if (notes.size() > taille) {
+	        notes = notes.subList(0, taille);
+	        Note derniere = notes.get(taille - 1);
+	        curseurSuivant = encoderCurseur(derniere);
+	    }
+	    logger.info("{} notes renvoyées pour le patient {}.", notes.size(), patientId);
+	    return new PageNotes(notes, curseurSuivant);
+	}
+
+	/**
+	 * Construit le curseur pointant après la note donnée : {@code dateNote|id}, encodé en Base64 URL.
+	 */
+	private String encoderCurseur(Note derniere) {
+	    String cle = derniere.getDateNote() + "|" + derniere.getId();
+	    return Base64.getUrlEncoder().withoutPadding().encodeToString(cle.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Décode un curseur de pagination.
+	 *
+	 * @return la date et l'id de la dernière note lue
+	 */
+	private String[] decoderCurseur(String curseur) {
+	    try {
+	        String[] cle = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8).split("\\|", 2);
+	        if (cle.length != 2 || !ObjectId.isValid(cle[1])) {
+	            throw new IllegalArgumentException("Curseur incomplet");
+	        }
+	        LocalDateTime.parse(cle[0]);
+	        return cle;
+	    } catch (IllegalArgumentException | DateTimeParseException e) {
+	        logger.error("Curseur de pagination invalide : {}", curseur);
+	        throw new IllegalArgumentException("Curseur de pagination invalide", e);
+	    }
+	}
+
+	/**
+	 * Écrit les notes dans un flux au fur et à mesure de leur lecture (curseur MongoDB), sans les charger
+	 * toutes en mémoire. Avec un patient, les notes sont lues dans l'index {@code patientId_dateNote},
+	 * de la plus récente à la plus ancienne ; sinon, dans l'ordre de leur identifiant.
+	 *
+	 * @param sortie le flux de destination (corps de la réponse HTTP)
+	 * @param format {@code csv} ou {@code ndjson}
+	 * @param patientId l'identifiant du patient, null pour toutes les notes
+	 * @param depuis date minimale des notes (incluse), null pour ne pas filtrer
+	 * @param jusqua date maximale des notes (incluse), null pour ne pas filtrer
+	 * @return le nombre de notes exportées
+	 * @throws IllegalArgumentException si le format est inconnu ou si la période est invalide
+	 * @throws IOException si l'écriture dans le flux échoue
+	 */
+	public long exporterNotes(OutputStream sortie, String format, Long patientId, LocalDateTime depuis, LocalDateTime jusqua) throws IOException {
+	    if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+	        logger.error("Format d'export inconnu : {}", format);
+	        throw new IllegalArgumentException("Le format d'export doit être '" + FORMAT_CSV + "' ou '" + FORMAT_NDJSON + "'");
+	    }
+	    if (depuis != null && jusqua != null && depuis.isAfter(jusqua)) {
+	        logger.error("Période invalide : {} après {}", depuis, jusqua);
+	        throw new IllegalArgumentException("La date since doit être antérieure à la date until.");
+	    }
+	    logger.info("Début de l'export des notes au format {} (patient {}, entre {} et {}).", format, patientId, depuis, jusqua);
+
+	    List<Criteria> criteres = new ArrayList<>();
+	    if (patientId != null) {
+	        criteres.add(Criteria.where("patientId").is(patientId));
+	    }
+	    if (depuis != null) {
+	        criteres.add(Criteria.where("dateNote").gte(depuis));
+	    }
+	    if (jusqua != null) {
+	        criteres.add(Criteria.where("dateNote").lte(jusqua));
+	    }
+	    Query query = criteres.isEmpty() ? new Query() : new Query(new Criteria().andOperator(criteres));
+	    query.with(patientId != null
+	            ? Sort.by(Sort.Direction.DESC, "dateNote", "id")
+	            : Sort.by(Sort.Direction.ASC, "id"));
+	    query.cursorBatchSize(TAILLE_LOT_EXPORT);
+
+	    long nombre;
+	    try (Stream<Note> notes = mongoTemplate.stream(query, Note.class)) {
+	        nombre = FORMAT_CSV.equals(format)
+	                ? ecrireCsv(notes.iterator(), sortie)
+	                : ecrireNdjson(notes.iterator(), sortie);
+	    }
+	    logger.info("Export terminé : {} notes exportées.", nombre);
+	    return nombre;
+	}
+
+	private long ecrireNdjson(Iterator<Note> notes, OutputStream sortie) throws IOException {
+	    long nombre = 0;
+	    try (JsonGenerator generateur = objectMapper.getFactory().createGenerator(sortie)) {
+	        generateur.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	        while (notes.hasNext()) {
+	            objectMapper.writeValue(generateur, notes.next());
+	            generateur.writeRaw('\n');
+	            nombre++;
+	        }
+	    }
+	    return nombre;
+	}
+
+	private long ecrireCsv(Iterator<Note> notes, OutputStream sortie) throws IOException {
+	    long nombre = 0;
+	    Writer writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8));
+	    writer.write(ENTETE_CSV);
+	    writer.write('\n');
+	    while (notes.hasNext()) {
+	        Note note = notes.next();
+	        Medecin medecin = note.getMedecin();
+	        writer.write(String.join(",",
+	                champCsv(note.getId()),
+	                champCsv(note.getPatientId()),
+	                champCsv(medecin != null ? medecin.getId() : null),
+	                champCsv(medecin != null ? medecin.getNomMedecin() : null),
+	                champCsv(medecin != null ? medecin.getPrenomMedecin() : null),
+	                champCsv(note.getDateNote()),
+	                champCsv(note.getNombreDeclencheurs()),
+	                champCsv(note.getNote())));
+	        writer.write('\n');
+	        nombre++;
+	    }
+	    writer.flush();
+	    return nombre;
+	}
+
+	/**
+	 * Valeur d'un champ CSV : vide si null, entourée de guillemets (doublés à l'intérieur)
+	 * si elle contient une virgule, un guillemet ou un retour à la ligne.
+	 */
+	static String champCsv(Object valeur) {
+	    String texte = Objects.toString(valeur, "");
+	    if (texte.indexOf(',') >= 0 || texte.indexOf('"') >= 0 || texte.indexOf('\n') >= 0 || texte.indexOf('\r') >= 0) {
+	        return '"' + texte.replace("\"", "\"\"") + '"';
+	    }
+	    return texte;
+	}
+
 }
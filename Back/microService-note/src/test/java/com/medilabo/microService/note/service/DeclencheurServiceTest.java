@@ -0,0 +1,120 @@
+package com.medilabo.microService.note.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.medilabo.microService.note.model.CompteurPatient;
+import com.medilabo.microService.note.model.Note;
+import com.mongodb.client.result.UpdateResult;
+
+@ExtendWith(MockitoExtension.class)
+public class DeclencheurServiceTest {
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@InjectMocks
+	private DeclencheurServiceImpl declencheurService;
+
+	@Test
+	public void compterDeclencheursTest() {
+		assertThat(declencheurService.compterDeclencheurs("une note sans probleme")).isEqualTo(0);
+		assertThat(declencheurService.compterDeclencheurs("HbA1C élevée, patient FUMEUR, fumeur depuis 10 ans")).isEqualTo(2);
+		assertThat(declencheurService.compterDeclencheurs(null)).isEqualTo(0);
+	}
+
+	@Test
+	public void getCompteursTest() {
+		when(mongoTemplate.find(any(Query.class), eq(CompteurPatient.class)))
+			.thenReturn(List.of(new CompteurPatient(1L, 5, 3)));
+
+		List<CompteurPatient> result = declencheurService.getCompteurs(List.of(1L, 2L));
+
+		assertThat(result).extracting(CompteurPatient::getPatientId).containsExactly(1L, 2L);
+		assertThat(result).extracting(CompteurPatient::getTotalDeclencheurs).containsExactly(5L, 0L);
+	}
+
+	@Test
+	public void getCompteursIncompletsPendantRattrapageTest() {
+		ReflectionTestUtils.setField(declencheurService, "rattrapageEnCours", true);
+		when(mongoTemplate.find(any(Query.class), eq(CompteurPatient.class)))
+			.thenReturn(List.of(new CompteurPatient(1L, 5, 3)));
+
+		assertThat(declencheurService.getCompteurs(List.of(1L, 2L)))
+			.extracting(CompteurPatient::isIncomplet).containsExactly(true, true);
+
+		declencheurService.terminerRattrapage();
+
+		assertThat(declencheurService.getCompteurs(List.of(1L, 2L)))
+			.extracting(CompteurPatient::isIncomplet).containsExactly(false, false);
+	}
+
+	@Test
+	public void ajusterCompteurTest() {
+		declencheurService.ajusterCompteur(1L, 3, 1);
+		declencheurService.ajusterCompteur(1L, 0, 0);
+
+		verify(mongoTemplate, times(1)).upsert(any(Query.class), any(Update.class), eq(CompteurPatient.class));
+	}
+
+	@Test
+	public void ajusterCompteurPatientNullTest() {
+		declencheurService.ajusterCompteur(null, 3, 1);
+
+		verify(mongoTemplate, never()).upsert(any(Query.class), any(Update.class), eq(CompteurPatient.class));
+	}
+
+	@Test
+	public void rattraperLotRepriseApresDernierIdTest() {
+		BulkOperations operations = mock(BulkOperations.class);
+		when(mongoTemplate.find(any(Query.class), eq(Note.class))).thenReturn(List.of(
+				new Note("65a000000000000000000002", 1L, null, null, "HbA1C et Poids", null),
+				new Note("65a000000000000000000003", 2L, null, null, "RAS", null)));
+		when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(Note.class)))
+			.thenReturn(UpdateResult.acknowledged(1, 1L, null));
+		when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CompteurPatient.class)).thenReturn(operations);
+
+		String dernierId = declencheurService.rattraperLot(2, "65a000000000000000000001");
+
+		ArgumentCaptor<Query> requete = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(requete.capture(), eq(Note.class));
+		assertThat(requete.getValue().getQueryObject().get("_id")).isEqualTo(new Document("$gt", "65a000000000000000000001"));
+		assertThat(requete.getValue().getSortObject()).isEqualTo(new Document("_id", 1));
+		assertThat(requete.getValue().getLimit()).isEqualTo(2);
+		assertThat(dernierId).isEqualTo("65a000000000000000000003");
+		verify(operations, times(2)).upsert(any(Query.class), any(Update.class));
+	}
+
+	@Test
+	public void rattraperLotTermineTest() {
+		when(mongoTemplate.find(any(Query.class), eq(Note.class))).thenReturn(List.of());
+
+		assertThat(declencheurService.rattraperLot(500, null)).isNull();
+
+		ArgumentCaptor<Query> requete = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(requete.capture(), eq(Note.class));
+		assertThat(requete.getValue().getQueryObject()).doesNotContainKey("_id");
+		verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(CompteurPatient.class));
+	}
+}
@@ -1,5 +1,8 @@
 package com.medilabo.microService.note.service;
 
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -8,9 +11,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.commun.identite.IdentiteGateway;
+import com.medilabo.commun.identite.IdentiteTransmise;
 import com.medilabo.microService.note.controller.NoteController;
+import com.medilabo.microService.note.model.CompteurPatient;
 import com.medilabo.microService.note.model.Medecin;
 import com.medilabo.microService.note.model.Note;
+import com.medilabo.microService.note.model.PageNotes;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -35,6 +42,12 @@ public class NoteControllerTest {
     @MockBean
     private INoteService noteService;
 
+    @MockBean
+    private IDeclencheurService declencheurService;
+
+    @MockBean
+    private IdentiteGateway identiteGateway;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -52,14 +65,16 @@ public class NoteControllerTest {
                 1L,
                 medecin,
                 LocalDateTime.now(),
-                "une note sans probleme"
+                "une note sans probleme",
+                0
         );
         noteTest2 = new Note(
                 "2",
                 1L,
                 medecin,
                 LocalDateTime.now(),
-                "une note avec 5 problemes : hémoglobine, microalbumine, réaction, fumeur, anormal"
+                "une note avec 5 problemes : hémoglobine, microalbumine, réaction, fumeur, anormal",
+                4
         );
         listNoteTest = List.of(noteTest1, noteTest2);
     }
@@ -83,6 +98,45 @@ public class NoteControllerTest {
             .andExpect(jsonPath("$.note").value("une note sans probleme"));
     }
 
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void testAddNoteIdentiteGateway() throws Exception {
+    	when(identiteGateway.contientIdentite(org.mockito.ArgumentMatchers.any())).thenReturn(true);
+    	when(identiteGateway.lire(org.mockito.ArgumentMatchers.any()))
+    			.thenReturn(new IdentiteTransmise(99L, "nico", "USER", "Brunet", "Nicolas"));
+    	when(noteService.addNote(
+    	        org.mockito.ArgumentMatchers.any(Note.class),
+    	        org.mockito.ArgumentMatchers.any(Medecin.class)
+    	)).thenReturn(noteTest1);
+	    objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
+
+        mockMvc.perform(post("/note/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(noteTest1)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value("1"));
+
+        verify(noteService).addNote(
+        		org.mockito.ArgumentMatchers.any(Note.class),
+        		org.mockito.ArgumentMatchers.<Medecin>argThat(m -> m.getId().equals(99L) && m.getNomMedecin().equals("Brunet")));
+        verify(noteService, never()).addNote(
+        		org.mockito.ArgumentMatchers.any(Note.class),
+        		org.mockito.ArgumentMatchers.any(String.class));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void testAddNoteIdentiteGatewayInvalide() throws Exception {
+    	when(identiteGateway.contientIdentite(org.mockito.ArgumentMatchers.any())).thenReturn(true);
+    	when(identiteGateway.lire(org.mockito.ArgumentMatchers.any())).thenReturn(null);
+	    objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
+
+        mockMvc.perform(post("/note/add")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(noteTest1)))
+            .andExpect(status().isUnauthorized());
+    }
+
 
     @Test
     @WithMockUser(username = "user", roles = {"USER"})
@@ -96,4 +150,90 @@ public class NoteControllerTest {
             .andExpect(jsonPath("$[0].id").value("1"))
             .andExpect(jsonPath("$[1].id").value("2"));
     }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void testGetAllNotesPatientNonModifie() throws Exception {
+        CompteurPatient version = new CompteurPatient(1L, 4, 2);
+        version.setVersion(7);
+        version.setDateModification(LocalDateTime.of(2025, 3, 1, 10, 0));
+        when(noteService.getVersionNotesPatient(1L)).thenReturn(version);
+        when(noteService.getAllNotesByPatientId(1L)).thenReturn(listNoteTest);
+
+        mockMvc.perform(get("/note/getNotesPatient").param("patientId", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"1-7\""))
+            .andExpect(header().exists("Last-Modified"))
+            .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(get("/note/getNotesPatient").param("patientId", "1").header("If-None-Match", "\"1-7\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+
+        mockMvc.perform(get("/note/getNotesPatient/page").param("patientId", "1").header("If-None-Match", "\"1-7\""))
+            .andExpect(status().isNotModified());
+
+        verify(noteService, times(1)).getAllNotesByPatientId(1L);
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void testExporterNotes() throws Exception {
+        mockMvc.perform(get("/note/export").param("format", "csv").param("patientId", "1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", org.hamcrest.Matchers.startsWith("text/csv")))
+            .andExpect(header().string("Content-Disposition", "attachment; filename=\"notes.csv\""));
+
+        verify(noteService).exporterNotes(
+        		org.mockito.ArgumentMatchers.any(), org.mockito.ArgumentMatchers.eq("csv"),
+        		org.mockito.ArgumentMatchers.eq(1L), org.mockito.ArgumentMatchers.isNull(), org.mockito.ArgumentMatchers.isNull());
+
+        mockMvc.perform(get("/note/export").param("format", "xml"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void testGetPageNotesPatient() throws Exception {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(noteService.getPageNotesPatient(1L, 2, since, null, null))
+            .thenReturn(new PageNotes(listNoteTest, "curseur"));
+
+        mockMvc.perform(get("/note/getNotesPatient/page")
+                .param("patientId", "1")
+                .param("taille", "2")
+                .param("since", "2024-01-01T00:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.notes.length()").value(2))
+            .andExpect(jsonPath("$.notes[0].id").value("1"))
+            .andExpect(jsonPath("$.curseurSuivant").value("curseur"));
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void testGetPageNotesPatientTailleInvalide() throws Exception {
+        when(noteService.getPageNotesPatient(1L, 500, null, null, null))
+            .thenThrow(new IllegalArgumentException("La taille de page doit être comprise entre 1 et 100"));
+
+        mockMvc.perform(get("/note/getNotesPatient/page")
+                .param("patientId", "1")
+                .param("taille", "500"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(username = "user", roles = {"USER"})
+    public void testGetDeclencheurs() throws Exception {
+        when(declencheurService.getCompteurs(List.of(1L, 2L)))
+            .thenReturn(List.of(new CompteurPatient(1L, 4, 2), new CompteurPatient(2L, 0, 0)));
+
+        mockMvc.perform(get("/note/declencheurs")
+                .param("patientIds", "1", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].patientId").value(1))
+            .andExpect(jsonPath("$[0].totalDeclencheurs").value(4))
+            .andExpect(jsonPath("$[1].totalDeclencheurs").value(0))
+            .andExpect(jsonPath("$[0].incomplet").value(false));
+    }
 }
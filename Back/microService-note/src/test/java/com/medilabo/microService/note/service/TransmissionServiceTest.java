@@ -1,27 +1,49 @@
 package com.medilabo.microService.note.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Spy;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.test.context.ActiveProfiles;
 import org.mockito.junit.jupiter.MockitoExtension; // <-- Ajout de MockitoExtension
 
+import com.medilabo.commun.notification.PatientModifieEvent;
 import com.medilabo.microService.note.config.JwtUtil;
+import com.medilabo.microService.note.model.CompteurPatient;
 import com.medilabo.microService.note.model.Medecin;
 import com.medilabo.microService.note.model.Note;
+import com.medilabo.microService.note.model.PageNotes;
 import com.medilabo.microService.note.repository.INoteRepository;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +56,18 @@ public class TransmissionServiceTest {
 	@Mock
 	private INoteRepository noteRepository;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private IDeclencheurService declencheurService;
+
+	@Mock
+	private MongoTemplate mongoTemplate;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
 	@InjectMocks
 	private NoteServiceImpl noteService;
 	
@@ -53,13 +87,15 @@ public class TransmissionServiceTest {
 				1L,
 				medecin,
 				LocalDateTime.now(),
-				"une note sans probleme");
+				"une note sans probleme",
+				0);
 		noteTest2 = new Note(
 				"2",
 				1L,
 				medecin,
 				LocalDateTime.now(),
-				"une note avec 5 problemes : hémoglobine, microalbumine, réaction, fumeur, anormal");
+				"une note avec 5 problemes : hémoglobine, microalbumine, réaction, fumeur, anormal",
+				4);
 		listNoteTest = List.of(noteTest1, noteTest2);
 	}
 	
@@ -89,9 +125,12 @@ public class TransmissionServiceTest {
 
 	@Test
 	public void addNoteServiceTest() {
-	    when(jwtUtil.extractUserId("mock-token")).thenReturn(99L);
-	    when(jwtUtil.extractNom("mock-token")).thenReturn("nico");
-	    when(jwtUtil.extractPrenom("mock-token")).thenReturn("brunet");
+	    Claims claims = Jwts.claims();
+	    claims.put("userId", 99L);
+	    claims.put("nom", "nico");
+	    claims.put("prenom", "brunet");
+	    when(jwtUtil.extractAllClaims("mock-token")).thenReturn(claims);
+	    when(declencheurService.compterDeclencheurs("une note sans probleme")).thenReturn(0);
 
 	    when(noteRepository.save(any(Note.class))).thenAnswer(invocation -> {
 	        Note savedNote = invocation.getArgument(0);
@@ -115,53 +154,186 @@ public class TransmissionServiceTest {
 	    assertThat(result.getPatientId()).isEqualTo(1L);
 	    assertThat(result.getNote()).isEqualTo("une note sans probleme");
 	    
-	    verify(jwtUtil, times(1)).extractUserId("mock-token");
-	    verify(jwtUtil, times(1)).extractNom("mock-token");
-	    verify(jwtUtil, times(1)).extractPrenom("mock-token");
+	    verify(jwtUtil, times(1)).extractAllClaims("mock-token");
 	    verify(noteRepository, times(1)).save(any(Note.class));
+	    verify(declencheurService, times(1)).ajusterCompteur(1L, 0, 1);
+	    verify(eventPublisher, times(1)).publishEvent(argThat(
+	    		(Object event) -> event instanceof PatientModifieEvent e && e.getPatientId().equals(1L)));
 	}
 
 
 	
 	@Test
 	public void deleteNoteServiceTest() {
-        when(noteRepository.existsById("1")).thenReturn(true);
-        
-        doNothing().when(noteRepository).deleteById("1");
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Note.class))).thenReturn(noteTest1);
 
         noteService.deleteNote("1");
 
-        verify(noteRepository, times(1)).existsById("1");
-        verify(noteRepository, times(1)).deleteById("1");
+        verify(mongoTemplate, times(1)).findAndRemove(any(Query.class), eq(Note.class));
+        verify(noteRepository, never()).deleteById(any());
+        verify(declencheurService, times(1)).ajusterCompteur(1L, 0, -1);
+        verify(eventPublisher, times(1)).publishEvent(argThat(
+        		(Object event) -> event instanceof PatientModifieEvent e && e.getPatientId().equals(1L)));
+	}
+	
+	@Test
+	public void deleteNoteDejaSupprimeeServiceTest() {
+        when(mongoTemplate.findAndRemove(any(Query.class), eq(Note.class))).thenReturn(null);
+
+        assertThatThrownBy(() -> noteService.deleteNote("1")).isInstanceOf(NoSuchElementException.class);
+
+        verify(declencheurService, never()).ajusterCompteur(any(), anyLong(), anyLong());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
 	}
 	
 	@Test
 	public void updateNoteServiceTest() {
-        when(noteRepository.findById("1")).thenReturn(Optional.of(noteTest1));
-        
-        when(noteRepository.save(any(Note.class))).thenReturn(noteTest1);
+        when(mongoTemplate.findAndReplace(any(Query.class), any(Note.class))).thenReturn(noteTest1);
         
         Note result = noteService.updateNote("1", noteTest1);
         
         assertThat(result).isNotNull();
         assertThat(result).isEqualTo(noteTest1);
         
-        verify(noteRepository, times(1)).findById("1");
-        verify(noteRepository, times(1)).save(any(Note.class));
+        verify(mongoTemplate, times(1)).findAndReplace(any(Query.class), any(Note.class));
+        verify(noteRepository, never()).save(any(Note.class));
+        verify(eventPublisher, times(1)).publishEvent(argThat(
+        		(Object event) -> event instanceof PatientModifieEvent e && e.getPatientId().equals(1L)));
 	}
 	
+	@Test
+	public void updateNoteCompteurServiceTest() {
+		Note ancienne = new Note("3", 1L, medecin, LocalDateTime.now(), "Fumeur", 1);
+		Note modifiee = new Note("3", 1L, medecin, null, "Fumeur, Anormal, Rechute", null);
+		when(mongoTemplate.findAndReplace(any(Query.class), any(Note.class))).thenReturn(ancienne);
+		when(declencheurService.compterDeclencheurs("Fumeur, Anormal, Rechute")).thenReturn(3);
+
+		Note result = noteService.updateNote("3", modifiee);
+
+		assertThat(result.getNombreDeclencheurs()).isEqualTo(3);
+		verify(declencheurService, times(1)).ajusterCompteur(1L, -1, -1);
+		verify(declencheurService, times(1)).ajusterCompteur(1L, 3, 1);
+	}
+
+	@Test
+	public void updateNoteSansIdServiceTest() {
+		Note ancienne = new Note("3", 1L, medecin, LocalDateTime.now(), "Fumeur", 1);
+		Note modifiee = new Note(null, 1L, medecin, null, "Fumeur", null);
+		when(mongoTemplate.findAndReplace(any(Query.class), any(Note.class))).thenReturn(ancienne);
+		when(declencheurService.compterDeclencheurs("Fumeur")).thenReturn(1);
+
+		Note result = noteService.updateNote("3", modifiee);
+
+		assertThat(result.getId()).isEqualTo("3");
+		verify(mongoTemplate).findAndReplace(argThat((Query query) -> "3".equals(query.getQueryObject().get("_id"))),
+				argThat((Note note) -> "3".equals(note.getId())));
+	}
+
+	@Test
+	public void updateNoteInexistanteServiceTest() {
+		when(mongoTemplate.findAndReplace(any(Query.class), any(Note.class))).thenReturn(null);
+
+		assertThatThrownBy(() -> noteService.updateNote("3", new Note())).isInstanceOf(NoSuchElementException.class);
+
+		verify(declencheurService, never()).ajusterCompteur(any(), anyLong(), anyLong());
+	}
+
 	@Test
 	public void getAllNotesByPatientIdServiceTest() {
-		when(noteRepository.findAllByPatientId(1L)).thenReturn(listNoteTest);
+		when(noteRepository.findAllByPatientIdOrderByDateNoteDesc(1L)).thenReturn(listNoteTest);
 		
 		List<Note> result = noteService.getAllNotesByPatientId(1L);
 		
 		assertThat(result).isNotNull();
 		assertThat(result).contains(noteTest1, noteTest2);
 		
-        verify(noteRepository, times(1)).findAllByPatientId(1L);
+        verify(noteRepository, times(1)).findAllByPatientIdOrderByDateNoteDesc(1L);
 		
 	}
 
-	
+	@Test
+	public void getPageNotesPatientServiceTest() {
+		LocalDateTime date = LocalDateTime.of(2025, 3, 1, 10, 0);
+		Note recente = new Note("65f000000000000000000003", 1L, medecin, date, "note 3", 0);
+		Note milieu = new Note("65f000000000000000000002", 1L, medecin, date.minusDays(1), "note 2", 0);
+		Note ancienne = new Note("65f000000000000000000001", 1L, medecin, date.minusDays(2), "note 1", 0);
+		when(mongoTemplate.find(any(Query.class), eq(Note.class)))
+			.thenReturn(List.of(recente, milieu, ancienne))
+			.thenReturn(List.of(ancienne));
+
+		PageNotes premiere = noteService.getPageNotesPatient(1L, 2, date.minusYears(1), null, null);
+		PageNotes suivante = noteService.getPageNotesPatient(1L, 2, null, null, premiere.getCurseurSuivant());
+
+		assertThat(premiere.getNotes()).containsExactly(recente, milieu);
+		assertThat(premiere.getCurseurSuivant()).isNotNull();
+		assertThat(suivante.getNotes()).containsExactly(ancienne);
+		assertThat(suivante.getCurseurSuivant()).isNull();
+
+		ArgumentCaptor<Query> requetes = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(2)).find(requetes.capture(), eq(Note.class));
+		Query premiereRequete = requetes.getAllValues().get(0);
+		assertThat(premiereRequete.getLimit()).isEqualTo(3);
+		assertThat(premiereRequete.getSortObject().toJson()).isEqualTo("{\"dateNote\": -1, \"id\": -1}");
+		assertThat(requetes.getAllValues().get(1).getQueryObject().toString()).contains("$or", "65f000000000000000000002");
+	}
+
+	@Test
+	public void getPageNotesPatientParametresInvalidesServiceTest() {
+		LocalDateTime date = LocalDateTime.of(2025, 3, 1, 10, 0);
+		assertThatThrownBy(() -> noteService.getPageNotesPatient(1L, 0, null, null, null))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> noteService.getPageNotesPatient(1L, 20, date, date.minusDays(1), null))
+			.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> noteService.getPageNotesPatient(1L, 20, null, null, "curseur-invalide"))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	public void getVersionNotesPatientTest() {
+		CompteurPatient compteur = new CompteurPatient(1L, 4, 2);
+		compteur.setVersion(3);
+		when(mongoTemplate.findOne(any(Query.class), eq(CompteurPatient.class))).thenReturn(compteur);
+
+		assertThat(noteService.getVersionNotesPatient(1L).getVersion()).isEqualTo(3);
+		assertThat(noteService.getVersionNotesPatient(null)).isNull();
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate, times(1)).findOne(query.capture(), eq(CompteurPatient.class));
+		assertThat(query.getValue().getFieldsObject().keySet()).containsExactlyInAnyOrder("version", "dateModification");
+	}
+
+	@Test
+	public void exporterNotesCsvTest() throws Exception {
+		Note note = new Note("1", 1L, medecin, LocalDateTime.of(2025, 3, 1, 10, 0), "vertiges, \"fumeur\"\nà revoir", 2);
+		when(mongoTemplate.stream(any(Query.class), eq(Note.class))).thenReturn(Stream.of(note, noteTest1));
+
+		ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+		long nombre = noteService.exporterNotes(sortie, "csv", 1L, LocalDateTime.of(2025, 1, 1, 0, 0), null);
+
+		assertThat(nombre).isEqualTo(2);
+		String csv = sortie.toString(StandardCharsets.UTF_8);
+		assertThat(csv).startsWith("id,patientId,medecinId,nomMedecin,prenomMedecin,dateNote,nombreDeclencheurs,note\n");
+		assertThat(csv).contains("1,1,1,nico,brunet,2025-03-01T10:00,2,\"vertiges, \"\"fumeur\"\"\nà revoir\"\n");
+
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).stream(query.capture(), eq(Note.class));
+		assertThat(query.getValue().getQueryObject().toString()).contains("patientId").contains("dateNote");
+		assertThat(query.getValue().getSortObject().keySet()).containsExactly("dateNote", "id");
+	}
+
+	@Test
+	public void exporterNotesNdjsonTest() throws Exception {
+		when(mongoTemplate.stream(any(Query.class), eq(Note.class))).thenReturn(Stream.of(noteTest1, noteTest2));
+
+		ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+		long nombre = noteService.exporterNotes(sortie, "ndjson", null, null, null);
+
+		assertThat(nombre).isEqualTo(2);
+		String[] lignes = sortie.toString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lignes).hasSize(2);
+		assertThat(objectMapper.readTree(lignes[1]).get("id").asText()).isEqualTo("2");
+
+		assertThatThrownBy(() -> noteService.exporterNotes(sortie, "xml", null, null, null))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
 }
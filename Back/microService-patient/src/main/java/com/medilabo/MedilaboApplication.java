@@ -2,6 +2,7 @@ package com.medilabo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
@@ -16,6 +17,9 @@ import io.github.cdimascio.dotenv.Dotenv;
  */
 @SpringBootApplication
 public class MedilaboApplication {
+
+	/** Nombre maximum d'étapes de démarrage conservées pour l'endpoint actuator {@code startup}. */
+	private static final int ETAPES_DEMARRAGE_MAX = 4096;
 	
 	static boolean isCI = "true".equals(System.getenv("CI"));
 
@@ -37,7 +41,10 @@ public class MedilaboApplication {
 			dotenv.entries()
 			    .forEach(entry -> System.setProperty(entry.getKey(), entry.getValue()));
 
-		SpringApplication.run(MedilaboApplication.class, args);
+		SpringApplication application = new SpringApplication(MedilaboApplication.class);
+		// Durée de chaque étape du démarrage, consultable sur /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(ETAPES_DEMARRAGE_MAX));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,17 @@
+package com.medilabo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Active le cache des patients ({@code patients}), configuré dans {@code application.properties}
+ * (Caffeine, taille maximale, durée de vie et statistiques exposées par l'actuator).
+ * <p>
+ * Le cache est local à chaque instance : la durée de vie borne le délai pendant lequel une autre
+ * instance peut renvoyer un patient modifié ailleurs.
+ * </p>
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,40 @@
+package com.medilabo.config;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Alignement, au démarrage, de la séquence {@code patient_seq} sur les identifiants déjà présents.
+ * <p>
+ * Les patients créés avant le passage à la séquence ont reçu leur identifiant de la colonne
+ * {@code IDENTITY} : sans cet alignement, la séquence (créée à 1 par Hibernate) redistribuerait
+ * des identifiants existants. La séquence est placée au moins un bloc (50) au-dessus du plus grand
+ * identifiant ; elle n'est jamais reculée. Requête propre à PostgreSQL, désactivable avec
+ * {@code patient.sequence.alignement=false}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "patient.sequence.alignement", havingValue = "true", matchIfMissing = true)
+public class SequencePatientRunner implements ApplicationRunner {
+
+	private static final String ALIGNEMENT_SEQUENCE =
+			"SELECT setval('patient_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM patient) + 50, "
+			+ "(SELECT last_value FROM patient_seq)))";
+
+	private Logger logger = LogManager.getLogger();
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		Long valeur = jdbcTemplate.queryForObject(ALIGNEMENT_SEQUENCE, Long.class);
+		logger.info("Séquence patient_seq alignée sur la valeur {}.", valeur);
+	}
+}
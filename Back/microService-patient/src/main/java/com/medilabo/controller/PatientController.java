@@ -1,6 +1,10 @@
 package com.medilabo.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -9,7 +13,11 @@ import java.util.Optional;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,14 +25,25 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 
+import com.medilabo.model.PagePatients;
 import com.medilabo.model.Patient;
+import com.medilabo.model.PatientAvecAge;
+import com.medilabo.model.RapportImport;
+import com.medilabo.service.IPatientExportService;
+import com.medilabo.service.IPatientImportService;
 import com.medilabo.service.IPatientService;
+import com.medilabo.service.PatientExportServiceImpl;
+import com.medilabo.service.PatientImportServiceImpl;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 
@@ -38,20 +57,41 @@ public class PatientController {
 
 	private Logger logger = LogManager.getLogger();
 	
+	/**
+	 * Les réponses peuvent être conservées par le navigateur, mais doivent être revalidées (ETag) avant réutilisation.
+	 */
+	private static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
 	@Autowired
 	private IPatientService patientService;
+
+	@Autowired
+	private IPatientImportService patientImportService;
+
+	@Autowired
+	private IPatientExportService patientExportService;
 	
     /**
-     * Récupère la liste de tous les patients enregistrés.
+     * Récupère une page de patients, paginée par curseur.
      *
-     * @return la liste des patients avec un code HTTP 200
+     * @param taille nombre de patients par page (20 par défaut, 100 au maximum)
+     * @param tri tri de la liste : {@code id} (par défaut) ou {@code nom}
+     * @param curseur curseur {@code curseurSuivant} renvoyé par la page précédente, absent pour la première page
+     * @param total {@code true} pour renvoyer aussi le nombre total de patients
+     * @return la page de patients avec un code HTTP 200, ou 400 si un paramètre est invalide
      */
     @GetMapping("/list")
-    public ResponseEntity<List<Patient>> getAllPatients() {
-    	logger.info("Entrée dans le controller getAllPatients.");
-        List<Patient> patientList = patientService.getAllPatient();
-        logger.info("La liste des patients : {}", patientList);
-        return ResponseEntity.ok(patientList);
+    public ResponseEntity<PagePatients> getAllPatients(
+            @RequestParam(defaultValue = "20") int taille,
+            @RequestParam(defaultValue = "id") String tri,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(defaultValue = "false") boolean total) {
+    	logger.info("Entrée dans le controller getAllPatients (taille {}, tri {}).", taille, tri);
+        try {
+            return ResponseEntity.ok(patientService.getPagePatients(taille, tri, curseur, total));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
     
     /**
@@ -79,7 +119,7 @@ public class PatientController {
         }
 
         try {
-            logger.info("Calcul de l'âge pour le patient {} avec date de naissance : {}", id, dateNaissance);
+            logger.debug("Calcul de l'âge pour le patient {}.", id);
             int agePatient = patientService.agePatient(dateNaissance);
             logger.info("Âge du patient {} calculé : {}", id, agePatient);
             return agePatient;
@@ -91,14 +131,54 @@ public class PatientController {
 	
     /**
      * Récupère les informations d'un patient selon son identifiant.
+     * <p>
+     * La réponse porte un ETag et un Last-Modified calculés à partir de la date de modification du patient.
+     * Si le client renvoie l'ETag ({@code If-None-Match}) et que le patient n'a pas changé, la réponse est
+     * un 304 sans corps, et le patient n'est pas chargé.
+     * </p>
      *
      * @param id identifiant du patient
-     * @return le patient correspondant
+     * @param webRequest la requête, pour les en-têtes conditionnels
+     * @return le patient correspondant, ou 304 s'il n'a pas été modifié
      */
 	@GetMapping("/infos/{id}")
-	public Patient getPatientById(@PathVariable Long id) {
+	public ResponseEntity<Patient> getPatientById(@PathVariable Long id, WebRequest webRequest) {
+	    LocalDateTime dateModification = patientService.getDateModificationPatient(id);
+	    if (dateModification != null) {
+	        long lastModified = dateModification.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	        if (webRequest.checkNotModified(etagPatient(id, lastModified), lastModified)) {
+	            logger.debug("Patient {} non modifié, réponse 304.", id);
+	            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(CACHE_CONTROL).build();
+	        }
+	    }
 	    Patient patient = patientService.getPatientById(id);
-        return patient;
+        return ResponseEntity.ok().cacheControl(CACHE_CONTROL).body(patient);
+	}
+
+	/**
+	 * ETag fort d'un patient : identifiant et date de modification (en millisecondes).
+	 */
+	private static String etagPatient(Long id, long lastModified) {
+	    return "\"" + id + "-" + lastModified + "\"";
+	}
+	
+    /**
+     * Récupère en une seule requête les informations de plusieurs patients, avec leur âge.
+     * Utilisé par le microservice alerte pour l'évaluation des risques par lot, et par les écrans
+     * de liste qui évitent ainsi un appel {@code /infos/{id}/age} par patient.
+     *
+     * @param ids identifiants des patients (5000 au maximum)
+     * @return la liste des patients trouvés, les identifiants inconnus étant ignorés
+     */
+	@GetMapping("/infos")
+	public ResponseEntity<List<PatientAvecAge>> getPatientsByIds(@RequestParam List<Long> ids) {
+	    logger.info("Entrée dans le controller getPatientsByIds pour {} ids.", ids.size());
+	    try {
+	        List<PatientAvecAge> patients = patientService.getPatientsByIds(ids);
+	        return ResponseEntity.ok(patients);
+	    } catch (IllegalArgumentException e) {
+	        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+	    }
 	}
 	
     /**
@@ -111,7 +191,6 @@ public class PatientController {
 	@PostMapping("/add")
 	public ResponseEntity<?> ajouterPatientApi(@RequestBody @Valid Patient patient, BindingResult result) {
 	    logger.info("Entrée dans POST patient/add");
-	    logger.info("Patient reçu : {}", patient);
 
 	    if (result.hasErrors()) {
 	        Map<String, String> errors = new HashMap<>();
@@ -126,6 +205,64 @@ public class PatientController {
 	    return ResponseEntity.status(HttpStatus.CREATED).body(savedPatient);
 	}
 
+    /**
+     * Importe des patients en masse à partir d'un fichier CSV ({@code text/csv}) ou NDJSON
+     * ({@code application/x-ndjson}, un patient JSON par ligne), lu en flux.
+     * <p>
+     * Le CSV commence par une ligne d'en-tête (colonnes {@code nom}, {@code prenom}, {@code dateNaissance},
+     * {@code genre}, et facultativement {@code adresse}, {@code telephone}), séparées par des virgules
+     * ou des points-virgules. Les lignes invalides sont ignorées et listées dans le rapport.
+     * </p>
+     *
+     * @param request la requête, dont le corps est lu ligne par ligne
+     * @return le rapport d'import, ou 400 si l'en-tête CSV est invalide
+     * @throws IOException si le corps de la requête ne peut pas être lu
+     */
+	@PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+	public ResponseEntity<RapportImport> importerPatients(HttpServletRequest request) throws IOException {
+	    String format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+	            ? PatientImportServiceImpl.FORMAT_NDJSON
+	            : PatientImportServiceImpl.FORMAT_CSV;
+	    logger.info("Entrée dans POST patient/import au format {}", format);
+	    try {
+	        return ResponseEntity.ok(patientImportService.importerPatients(request.getInputStream(), format));
+	    } catch (IllegalArgumentException e) {
+	        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+	    }
+	}
+
+    /**
+     * Exporte les patients en flux, au format NDJSON (un patient JSON par ligne, par défaut) ou CSV.
+     * <p>
+     * Les patients sont écrits dans la réponse au fur et à mesure de leur lecture en base :
+     * la mémoire utilisée ne dépend pas du nombre de patients exportés.
+     * </p>
+     *
+     * @param format {@code ndjson} (par défaut) ou {@code csv}
+     * @param since date de modification minimale (ISO, incluse), optionnelle
+     * @param until date de modification maximale (ISO, incluse), optionnelle
+     * @param response la réponse, dans laquelle les patients sont écrits
+     * @throws IOException si l'écriture de la réponse échoue
+     */
+	@GetMapping("/export")
+	public void exporterPatients(@RequestParam(defaultValue = PatientExportServiceImpl.FORMAT_NDJSON) String format,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until,
+			HttpServletResponse response) throws IOException {
+	    logger.info("Entrée dans GET patient/export au format {}", format);
+	    if (!PatientExportServiceImpl.FORMAT_CSV.equals(format) && !PatientExportServiceImpl.FORMAT_NDJSON.equals(format)) {
+	        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Le format d'export doit être 'csv' ou 'ndjson'");
+	    }
+	    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+	    response.setContentType(PatientExportServiceImpl.FORMAT_CSV.equals(format) ? "text/csv" : MediaType.APPLICATION_NDJSON_VALUE);
+	    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"patients." + format + "\"");
+	    try {
+	        patientExportService.exporterPatients(response.getOutputStream(), format, since, until);
+	    } catch (IllegalArgumentException e) {
+	        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+	    }
+	}
+
     /**
      * Supprime un patient à partir de son identifiant.
      *
@@ -0,0 +1,22 @@
+package com.medilabo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ligne rejetée lors d'un import de patients, avec la raison du rejet.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ErreurImport {
+
+	/** Numéro de la ligne dans le fichier importé (la ligne d'en-tête d'un CSV est la ligne 1). */
+	private long ligne;
+
+	/** Raison du rejet : ligne illisible, contraintes non respectées ou ligne refusée par la base. */
+	private String message;
+}
@@ -0,0 +1,34 @@
+package com.medilabo.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Page de patients renvoyée par {@code GET /patient/list}.
+ *
+ * <p>La pagination est faite par curseur (keyset) : {@code curseurSuivant} est à renvoyer tel quel
+ * pour obtenir la page suivante, il vaut {@code null} sur la dernière page.
+ * Le nombre total de patients n'est calculé que s'il a été demandé.</p>
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PagePatients {
+
+	/** Les patients de la page, dans l'ordre du tri demandé. */
+	private List<Patient> patients;
+
+	/** Curseur opaque de la page suivante, {@code null} s'il n'y a plus de patient. */
+	private String curseurSuivant;
+
+	/** Nombre total de patients, renseigné uniquement si {@code total=true}. */
+	private Long total;
+}
@@ -8,6 +8,8 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -34,14 +36,19 @@ import lombok.Setter;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name="patient")
+@Table(name="patient", indexes = @Index(name = "idx_patient_nom_id", columnList = "nom, id"))
 public class Patient {
 	
     /**
-     * Identifiant unique du patient (généré par MongoDB).
+     * Identifiant unique du patient, tiré de la séquence {@code patient_seq}.
+     * <p>
+     * Les identifiants sont réservés par blocs de 50 (optimiseur pooled) : Hibernate connaît l'identifiant
+     * avant l'insertion et peut regrouper les insertions en lots JDBC, ce que {@code IDENTITY} empêche.
+     * </p>
      */
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "patient_seq")
+    @SequenceGenerator(name = "patient_seq", sequenceName = "patient_seq", allocationSize = 50)
 	Long id;
 	
     /**
@@ -0,0 +1,28 @@
+package com.medilabo.model;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Patient renvoyé par la récupération par lot, accompagné de son âge calculé.
+ * <p>
+ * Les champs du patient sont sérialisés au même niveau que l'âge : le JSON reste celui
+ * d'un {@link Patient}, avec un champ {@code age} en plus.
+ * </p>
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatientAvecAge {
+
+	@JsonUnwrapped
+	private Patient patient;
+
+	/** Âge du patient en années, null si sa date de naissance n'est pas renseignée. */
+	private Integer age;
+}
@@ -0,0 +1,49 @@
+package com.medilabo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Rapport renvoyé par {@code POST /patient/import}.
+ *
+ * <p>Le détail des erreurs est limité aux {@value #NOMBRE_MAX_ERREURS} premières lignes rejetées,
+ * afin que le rapport d'un fichier entièrement invalide reste de taille raisonnable ;
+ * {@code nombreErreurs} compte toutes les lignes rejetées.</p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class RapportImport {
+
+	/** Nombre maximum d'erreurs détaillées dans le rapport. */
+	public static final int NOMBRE_MAX_ERREURS = 1000;
+
+	/** Nombre de lignes de données lues (hors en-tête et lignes vides). */
+	private long lignesLues;
+
+	/** Nombre de patients enregistrés. */
+	private long patientsImportes;
+
+	/** Nombre total de lignes rejetées. */
+	private long nombreErreurs;
+
+	/** Détail des premières lignes rejetées. */
+	private List<ErreurImport> erreurs = new ArrayList<>();
+
+	/**
+	 * Enregistre une ligne rejetée.
+	 *
+	 * @param ligne le numéro de la ligne
+	 * @param message la raison du rejet
+	 */
+	public void ajouterErreur(long ligne, String message) {
+		nombreErreurs++;
+		if (erreurs.size() < NOMBRE_MAX_ERREURS) {
+			erreurs.add(new ErreurImport(ligne, message));
+		}
+	}
+}
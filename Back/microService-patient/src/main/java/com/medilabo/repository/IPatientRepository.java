@@ -1,6 +1,13 @@
 package com.medilabo.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.medilabo.model.Patient;
@@ -8,11 +15,40 @@ import com.medilabo.model.Patient;
 /**
  * Interface de persistance pour les entités {@link Patient}.
  * 
- * Cette interface étend {@link MongoRepository} afin de bénéficier automatiquement
- * des opérations CRUD (Create, Read, Update, Delete) sur la collection MongoDB associée aux patients.
+ * Cette interface étend {@link JpaRepository} afin de bénéficier automatiquement
+ * des opérations CRUD (Create, Read, Update, Delete) sur la table associée aux patients.
  * 
- * Le type de l'entité est {@code Patient}, et le type de sa clé primaire est {@code String}.
+ * Le type de l'entité est {@code Patient}, et le type de sa clé primaire est {@code Long}.
  */
 @Repository
 public interface IPatientRepository extends JpaRepository<Patient, Long> {
+
+	/**
+	 * Première page des patients triés par identifiant.
+	 */
+	List<Patient> findAllByOrderByIdAsc(Limit limit);
+
+	/**
+	 * Page suivante des patients triés par identifiant (keyset sur la clé primaire).
+	 */
+	List<Patient> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+	/**
+	 * Première page des patients triés par nom puis identifiant.
+	 */
+	List<Patient> findAllByOrderByNomAscIdAsc(Limit limit);
+
+	/**
+	 * Page suivante des patients triés par nom puis identifiant, à partir du dernier couple (nom, id) lu.
+	 * S'appuie sur l'index {@code idx_patient_nom_id}.
+	 */
+	@Query("select p from Patient p where p.nom > :nom or (p.nom = :nom and p.id > :id) order by p.nom asc, p.id asc")
+	List<Patient> findPageApresNom(@Param("nom") String nom, @Param("id") Long id, Limit limit);
+
+	/**
+	 * Date de modification d'un patient, lue sans charger l'entité.
+	 * Sert à répondre aux requêtes conditionnelles ({@code If-None-Match}, {@code If-Modified-Since}).
+	 */
+	@Query("select p.dateModification from Patient p where p.id = :id")
+	Optional<LocalDateTime> findDateModificationById(@Param("id") Long id);
 }
@@ -0,0 +1,25 @@
+package com.medilabo.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Export en flux des patients, au format CSV ou NDJSON.
+ */
+public interface IPatientExportService {
+
+    /**
+     * Écrit les patients dans un flux, au fur et à mesure de leur lecture en base (curseur),
+     * sans les charger tous en mémoire.
+     *
+     * @param sortie le flux de destination (corps de la réponse HTTP)
+     * @param format le format : {@code csv} ou {@code ndjson}
+     * @param depuis date de modification minimale (incluse), null pour ne pas filtrer
+     * @param jusqua date de modification maximale (incluse), null pour ne pas filtrer
+     * @return le nombre de patients exportés
+     * @throws IllegalArgumentException si le format est inconnu ou si la période est invalide
+     * @throws IOException si l'écriture dans le flux échoue
+     */
+	long exporterPatients(OutputStream sortie, String format, LocalDateTime depuis, LocalDateTime jusqua) throws IOException;
+}
@@ -0,0 +1,24 @@
+package com.medilabo.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.medilabo.model.RapportImport;
+
+/**
+ * Import en masse de patients à partir d'un fichier CSV ou NDJSON.
+ */
+public interface IPatientImportService {
+
+    /**
+     * Importe les patients lus dans un flux, ligne par ligne, sans charger le fichier en mémoire.
+     * Les lignes invalides sont ignorées et signalées dans le rapport.
+     *
+     * @param flux le contenu du fichier, encodé en UTF-8
+     * @param format le format du fichier : {@code csv} ou {@code ndjson}
+     * @return le rapport d'import (lignes lues, patients enregistrés, lignes rejetées)
+     * @throws IllegalArgumentException si le format est inconnu ou si l'en-tête CSV est invalide
+     * @throws IOException si le flux ne peut pas être lu
+     */
+	RapportImport importerPatients(InputStream flux, String format) throws IOException;
+}
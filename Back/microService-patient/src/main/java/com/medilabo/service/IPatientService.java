@@ -1,10 +1,13 @@
 package com.medilabo.service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import com.medilabo.model.PagePatients;
 import com.medilabo.model.Patient;
+import com.medilabo.model.PatientAvecAge;
 
 /**
  * Interface définissant les opérations disponibles pour la gestion des patients
@@ -13,11 +16,16 @@ import com.medilabo.model.Patient;
 public interface IPatientService {
 	
     /**
-     * Récupère la liste de tous les patients enregistrés.
+     * Récupère une page de patients, paginée par curseur (keyset).
      *
-     * @return une liste de tous les patients
+     * @param taille le nombre de patients de la page (entre 1 et 100)
+     * @param tri le tri de la liste : {@code id} ou {@code nom}
+     * @param curseur le curseur renvoyé par la page précédente, {@code null} pour la première page
+     * @param avecTotal {@code true} pour calculer le nombre total de patients
+     * @return la page de patients et le curseur de la page suivante
+     * @throws IllegalArgumentException si la taille, le tri ou le curseur est invalide
      */
-	List<Patient> getAllPatient();
+	PagePatients getPagePatients(int taille, String tri, String curseur, boolean avecTotal);
 	
     /**
      * Récupère un patient par son identifiant unique.
@@ -28,6 +36,25 @@ public interface IPatientService {
      * @throws java.util.NoSuchElementException si aucun patient n'est trouvé avec cet identifiant
      */
 	Patient getPatientById(Long id);
+
+    /**
+     * Récupère la date de modification d'un patient sans charger l'entité complète,
+     * pour répondre aux requêtes conditionnelles (ETag, Last-Modified).
+     *
+     * @param id l'identifiant du patient
+     * @return la date de modification, ou null si le patient n'existe pas ou n'en a pas
+     */
+	LocalDateTime getDateModificationPatient(Long id);
+
+    /**
+     * Récupère en une seule requête les patients correspondant à une liste d'identifiants,
+     * avec leur âge calculé. Les identifiants inconnus sont ignorés.
+     *
+     * @param ids la liste des identifiants des patients
+     * @return la liste des patients trouvés, avec leur âge
+     * @throws IllegalArgumentException si la liste est null, vide ou trop longue
+     */
+	List<PatientAvecAge> getPatientsByIds(List<Long> ids);
 	
 	   /**
      * Supprime un patient à partir de son identifiant.
@@ -0,0 +1,31 @@
+package com.medilabo.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.medilabo.model.Patient;
+
+/**
+ * Copie immuable d'un patient conservée dans le cache {@code patients}.
+ * <p>
+ * Le cache ne contient jamais l'entité JPA elle-même : une entité modifiée par un appelant, ou encore attachée
+ * à un contexte de persistance, changerait le contenu du cache pour toutes les requêtes suivantes.
+ * Chaque lecture reconstruit une nouvelle entité avec {@link #versPatient()}.
+ * </p>
+ */
+public record PatientEnCache(Long id, String prenom, String nom, LocalDate dateNaissance, String genre,
+		String adresse, String telephone, LocalDateTime dateCreation, LocalDateTime dateModification) {
+
+	public static PatientEnCache de(Patient patient) {
+		return new PatientEnCache(patient.getId(), patient.getPrenom(), patient.getNom(), patient.getDateNaissance(),
+				patient.getGenre(), patient.getAdresse(), patient.getTelephone(), patient.getDateCreation(),
+				patient.getDateModification());
+	}
+
+	/**
+	 * @return une nouvelle entité, détachée, portant les valeurs de la copie
+	 */
+	public Patient versPatient() {
+		return new Patient(id, prenom, nom, dateNaissance, genre, adresse, telephone, dateCreation, dateModification);
+	}
+}
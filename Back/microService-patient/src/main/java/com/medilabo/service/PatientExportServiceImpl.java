@@ -0,0 +1,149 @@
+package com.medilabo.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.model.Patient;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Implémentation de {@link IPatientExportService}.
+ * <p>
+ * Les patients sont lus avec un curseur ({@code getResultStream} et une taille de fetch JDBC) dans une
+ * transaction en lecture seule : PostgreSQL ne renvoie alors les lignes que par paquets. Chaque patient est
+ * écrit dans la réponse puis détaché du contexte de persistance, si bien que la mémoire utilisée reste
+ * constante quel que soit le nombre de patients.
+ * </p>
+ */
+@Service
+public class PatientExportServiceImpl implements IPatientExportService {
+
+	public static final String FORMAT_CSV = "csv";
+
+	public static final String FORMAT_NDJSON = "ndjson";
+
+	private static final String ENTETE_CSV = "id,nom,prenom,dateNaissance,genre,adresse,telephone,dateCreation,dateModification";
+
+	private Logger logger = LogManager.getLogger();
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${patient.export.taille-fetch:500}")
+	private int tailleFetch;
+
+	@Transactional(readOnly = true)
+	public long exporterPatients(OutputStream sortie, String format, LocalDateTime depuis, LocalDateTime jusqua) throws IOException {
+	    if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+	        logger.error("Format d'export inconnu : {}", format);
+	        throw new IllegalArgumentException("Le format d'export doit être '" + FORMAT_CSV + "' ou '" + FORMAT_NDJSON + "'");
+	    }
+	    if (depuis != null && jusqua != null && depuis.isAfter(jusqua)) {
+	        logger.error("Période invalide : {} après {}", depuis, jusqua);
+	        throw new IllegalArgumentException("La date de début doit précéder la date de fin");
+	    }
+	    logger.info("Début de l'export des patients au format {} (modifiés entre {} et {}).", format, depuis, jusqua);
+
+	    StringBuilder jpql = new StringBuilder("select p from Patient p where 1 = 1");
+	    if (depuis != null) {
+	        jpql.append(" and p.dateModification >= :depuis");
+	    }
+	    if (jusqua != null) {
+	        jpql.append(" and p.dateModification <= :jusqua");
+	    }
+	    jpql.append(" order by p.id");
+	    TypedQuery<Patient> query = entityManager.createQuery(jpql.toString(), Patient.class)
+	            .setHint(AvailableHints.HINT_FETCH_SIZE, tailleFetch)
+	            .setHint(AvailableHints.HINT_READ_ONLY, true);
+	    if (depuis != null) {
+	        query.setParameter("depuis", depuis);
+	    }
+	    if (jusqua != null) {
+	        query.setParameter("jusqua", jusqua);
+	    }
+
+	    long nombre;
+	    try (Stream<Patient> patients = query.getResultStream()) {
+	        nombre = FORMAT_CSV.equals(format)
+	                ? ecrireCsv(patients.iterator(), sortie)
+	                : ecrireNdjson(patients.iterator(), sortie);
+	    }
+	    logger.info("Export terminé : {} patients exportés.", nombre);
+	    return nombre;
+	}
+
+	private long ecrireNdjson(Iterator<Patient> patients, OutputStream sortie) throws IOException {
+	    long nombre = 0;
+	    try (JsonGenerator generateur = objectMapper.getFactory().createGenerator(sortie)) {
+	        generateur.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+	        while (patients.hasNext()) {
+	            Patient patient = patients.next();
+	            objectMapper.writeValue(generateur, patient);
+	            generateur.writeRaw('\n');
+	            entityManager.detach(patient);
+	            nombre++;
+	        }
+	    }
+	    return nombre;
+	}
+
+	private long ecrireCsv(Iterator<Patient> patients, OutputStream sortie) throws IOException {
+	    long nombre = 0;
+	    Writer writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8));
+	    writer.write(ENTETE_CSV);
+	    writer.write('\n');
+	    while (patients.hasNext()) {
+	        Patient patient = patients.next();
+	        writer.write(String.join(",",
+	                champCsv(patient.getId()),
+	                champCsv(patient.getNom()),
+	                champCsv(patient.getPrenom()),
+	                champCsv(patient.getDateNaissance()),
+	                champCsv(patient.getGenre()),
+	                champCsv(patient.getAdresse()),
+	                champCsv(patient.getTelephone()),
+	                champCsv(patient.getDateCreation()),
+	                champCsv(patient.getDateModification())));
+	        writer.write('\n');
+	        entityManager.detach(patient);
+	        nombre++;
+	    }
+	    writer.flush();
+	    return nombre;
+	}
+
+	/**
+	 * Valeur d'un champ CSV : vide si null, entourée de guillemets (doublés à l'intérieur)
+	 * si elle contient une virgule, un guillemet ou un retour à la ligne.
+	 */
+	static String champCsv(Object valeur) {
+	    String texte = Objects.toString(valeur, "");
+	    if (texte.indexOf(',') >= 0 || texte.indexOf('"') >= 0 || texte.indexOf('\n') >= 0 || texte.indexOf('\r') >= 0) {
+	        return '"' + texte.replace("\"", "\"\"") + '"';
+	    }
+	    return texte;
+	}
+}
@@ -0,0 +1,270 @@
+package com.medilabo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.model.Patient;
+import com.medilabo.model.RapportImport;
+import com.medilabo.repository.IPatientRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Implémentation de {@link IPatientImportService}.
+ * <p>
+ * Le fichier est lu ligne par ligne : chaque ligne est convertie en {@link Patient}, validée avec les
+ * contraintes Bean Validation de l'entité, puis ajoutée au lot courant. Un lot complet est enregistré
+ * dans sa propre transaction ({@code saveAll}) et le contexte de persistance est vidé : la mémoire
+ * utilisée ne dépend que de la taille du lot, pas de celle du fichier. Les insertions d'un lot sont
+ * regroupées en batchs JDBC ({@code hibernate.jdbc.batch_size}), grâce aux identifiants tirés de la séquence.
+ * Si la base refuse un lot, ses patients sont enregistrés un par un : seules les lignes refusées sont rejetées.
+ * </p>
+ */
+@Service
+public class PatientImportServiceImpl implements IPatientImportService {
+
+	public static final String FORMAT_CSV = "csv";
+
+	public static final String FORMAT_NDJSON = "ndjson";
+
+	/** Colonnes obligatoires de l'en-tête CSV. */
+	private static final List<String> COLONNES_OBLIGATOIRES = List.of("nom", "prenom", "dateNaissance", "genre");
+
+	private Logger logger = LogManager.getLogger();
+
+	@Autowired
+	private IPatientRepository patientRepository;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Value("${patient.import.taille-lot:500}")
+	private int tailleLot;
+
+	public RapportImport importerPatients(InputStream flux, String format) throws IOException {
+	    if (!FORMAT_CSV.equals(format) && !FORMAT_NDJSON.equals(format)) {
+	        logger.error("Format d'import inconnu : {}", format);
+	        throw new IllegalArgumentException("Le format d'import doit être '" + FORMAT_CSV + "' ou '" + FORMAT_NDJSON + "'");
+	    }
+	    logger.info("Début de l'import de patients au format {} (lots de {}).", format, tailleLot);
+
+	    RapportImport rapport = new RapportImport();
+	    List<Patient> lot = new ArrayList<>(tailleLot);
+	    List<Long> lignesDuLot = new ArrayList<>(tailleLot);
+	    BufferedReader lecteur = new BufferedReader(new InputStreamReader(flux, StandardCharsets.UTF_8));
+
+	    Map<String, Integer> colonnes = null;
+	    char separateur = ',';
+	    String ligne;
+	    long numero = 0;
+	    while ((ligne = lecteur.readLine()) != null) {
+	        numero++;
+	        // marque d'ordre des octets ajoutée par certains tableurs
+	        if (numero == 1 && !ligne.isEmpty() && ligne.charAt(0) == '\uFEFF') {
+	            ligne = ligne.substring(1);
+	        }
+	        if (ligne.isBlank()) {
+	            continue;
+	        }
+	        if (FORMAT_CSV.equals(format) && colonnes == null) {
+	            separateur = ligne.indexOf(';') >= 0 ? ';' : ',';
+	            colonnes = lireEntete(ligne, separateur);
+	            continue;
+	        }
+
+	        rapport.setLignesLues(rapport.getLignesLues() + 1);
+	        Patient patient;
+	        try {
+	            patient = FORMAT_CSV.equals(format)
+	                    ? lireLigneCsv(ligne, separateur, colonnes)
+	                    : objectMapper.readValue(ligne, Patient.class);
+	        } catch (IOException | RuntimeException e) {
+	            rapport.ajouterErreur(numero, "Ligne illisible : " + e.getMessage());
+	            continue;
+	        }
+
+	        Set<ConstraintViolation<Patient>> violations = validator.validate(patient);
+	        if (!violations.isEmpty()) {
+	            rapport.ajouterErreur(numero, violations.stream()
+	                    .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+	                    .sorted()
+	                    .collect(Collectors.joining(", ")));
+	            continue;
+	        }
+
+	        LocalDateTime maintenant = LocalDateTime.now();
+	        patient.setId(null);
+	        patient.setDateCreation(maintenant);
+	        patient.setDateModification(maintenant);
+	        lot.add(patient);
+	        lignesDuLot.add(numero);
+	        if (lot.size() >= tailleLot) {
+	            enregistrerLot(lot, lignesDuLot, rapport);
+	        }
+	    }
+	    if (FORMAT_CSV.equals(format) && colonnes == null) {
+	        logger.error("Import CSV sans en-tête.");
+	        throw new IllegalArgumentException("Le fichier CSV doit commencer par une ligne d'en-tête");
+	    }
+	    enregistrerLot(lot, lignesDuLot, rapport);
+
+	    logger.info("Import terminé : {} lignes lues, {} patients importés, {} lignes rejetées.",
+	            rapport.getLignesLues(), rapport.getPatientsImportes(), rapport.getNombreErreurs());
+	    return rapport;
+	}
+
+	/**
+	 * Enregistre un lot de patients dans une transaction, puis vide le lot et le contexte de persistance.
+	 * Si la base refuse le lot, ses patients sont enregistrés un par un (voir {@link #enregistrerUnParUn}).
+	 */
+	private void enregistrerLot(List<Patient> lot, List<Long> lignesDuLot, RapportImport rapport) {
+	    if (lot.isEmpty()) {
+	        return;
+	    }
+	    try {
+	        patientRepository.saveAll(lot);
+	        rapport.setPatientsImportes(rapport.getPatientsImportes() + lot.size());
+	        logger.debug("Lot de {} patients enregistré.", lot.size());
+	    } catch (DataAccessException e) {
+	        logger.warn("Lot de {} patients refusé par la base, enregistrement patient par patient : {}",
+	                lot.size(), e.getMostSpecificCause().getMessage());
+	        entityManager.clear();
+	        enregistrerUnParUn(lot, lignesDuLot, rapport);
+	    } finally {
+	        lot.clear();
+	        lignesDuLot.clear();
+	        entityManager.clear();
+	    }
+	}
+
+	/**
+	 * Enregistre les patients d'un lot refusé par la base, chacun dans sa propre transaction,
+	 * pour ne signaler en erreur que les lignes réellement refusées.
+	 */
+	private void enregistrerUnParUn(List<Patient> lot, List<Long> lignesDuLot, RapportImport rapport) {
+	    for (int i = 0; i < lot.size(); i++) {
+	        Patient patient = lot.get(i);
+	        // identifiant tiré de la séquence pendant l'essai du lot, dont l'insertion a été annulée
+	        patient.setId(null);
+	        try {
+	            patientRepository.save(patient);
+	            rapport.setPatientsImportes(rapport.getPatientsImportes() + 1);
+	        } catch (DataAccessException e) {
+	            logger.error("Ligne {} refusée par la base : {}", lignesDuLot.get(i), e.getMostSpecificCause().getMessage());
+	            rapport.ajouterErreur(lignesDuLot.get(i), "Ligne refusée par la base : " + e.getMostSpecificCause().getMessage());
+	        }
+	    }
+	}
+
+	/**
+	 * Lit l'en-tête CSV et renvoie la position de chaque colonne.
+	 *
+	 * @throws IllegalArgumentException si une colonne obligatoire est absente
+	 */
+	private Map<String, Integer> lireEntete(String ligne, char separateur) {
+	    List<String> noms = decouperLigneCsv(ligne, separateur);
+	    Map<String, Integer> colonnes = new HashMap<>();
+	    for (int i = 0; i < noms.size(); i++) {
+	        colonnes.put(noms.get(i).trim(), i);
+	    }
+	    List<String> manquantes = COLONNES_OBLIGATOIRES.stream().filter(nom -> !colonnes.containsKey(nom)).toList();
+	    if (!manquantes.isEmpty()) {
+	        logger.error("En-tête CSV invalide, colonnes manquantes : {}", manquantes);
+	        throw new IllegalArgumentException("En-tête CSV invalide, colonnes manquantes : " + manquantes);
+	    }
+	    return colonnes;
+	}
+
+	/**
+	 * Convertit une ligne CSV en patient, à partir des positions lues dans l'en-tête.
+	 * La date de naissance est attendue au format ISO ({@code aaaa-mm-jj}).
+	 */
+	private Patient lireLigneCsv(String ligne, char separateur, Map<String, Integer> colonnes) {
+	    List<String> valeurs = decouperLigneCsv(ligne, separateur);
+	    Patient patient = new Patient();
+	    patient.setNom(valeur(valeurs, colonnes, "nom"));
+	    patient.setPrenom(valeur(valeurs, colonnes, "prenom"));
+	    String dateNaissance = valeur(valeurs, colonnes, "dateNaissance");
+	    patient.setDateNaissance(dateNaissance != null ? LocalDate.parse(dateNaissance) : null);
+	    patient.setGenre(valeur(valeurs, colonnes, "genre"));
+	    patient.setAdresse(valeur(valeurs, colonnes, "adresse"));
+	    patient.setTelephone(valeur(valeurs, colonnes, "telephone"));
+	    return patient;
+	}
+
+	/**
+	 * Valeur d'une colonne, null si la colonne est absente ou vide.
+	 */
+	private static String valeur(List<String> valeurs, Map<String, Integer> colonnes, String colonne) {
+	    Integer index = colonnes.get(colonne);
+	    if (index == null || index >= valeurs.size()) {
+	        return null;
+	    }
+	    String valeur = valeurs.get(index).trim();
+	    return valeur.isEmpty() ? null : valeur;
+	}
+
+	/**
+	 * Découpe une ligne CSV. Les champs peuvent être entourés de guillemets doubles pour contenir
+	 * le séparateur ; un guillemet est alors doublé ({@code ""}). Les champs sur plusieurs lignes ne sont pas acceptés.
+	 *
+	 * @throws IllegalArgumentException si un guillemet n'est pas fermé
+	 */
+	static List<String> decouperLigneCsv(String ligne, char separateur) {
+	    List<String> champs = new ArrayList<>();
+	    StringBuilder champ = new StringBuilder();
+	    boolean entreGuillemets = false;
+	    for (int i = 0; i < ligne.length(); i++) {
+	        char c = ligne.charAt(i);
+	        if (entreGuillemets) {
+	            if (c == '"' && i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+	                champ.append('"');
+	                i++;
+	            } else if (c == '"') {
+	                entreGuillemets = false;
+	            } else {
+	                champ.append(c);
+	            }
+	        } else if (c == '"') {
+	            entreGuillemets = true;
+	        } else if (c == separateur) {
+	            champs.add(champ.toString());
+	            champ.setLength(0);
+	        } else {
+	            champ.append(c);
+	        }
+	    }
+	    if (entreGuillemets) {
+	        throw new IllegalArgumentException("Guillemet non fermé");
+	    }
+	    champs.add(champ.toString());
+	    return champs;
+	}
+}
@@ -1,18 +1,28 @@
 package com.medilabo.service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import java.util.NoSuchElementException;
 
+import com.medilabo.commun.notification.PatientModifieEvent;
+import com.medilabo.model.PagePatients;
 import com.medilabo.model.Patient;
+import com.medilabo.model.PatientAvecAge;
 import com.medilabo.repository.IPatientRepository;
 
 /**
@@ -24,19 +34,116 @@ public class PatientServiceImpl implements IPatientService{
 	
 	private Logger logger = LogManager.getLogger();
 	
+	/** Nom du cache des patients, indexé par identifiant. */
+	public static final String CACHE_PATIENTS = "patients";
+
+	/** Nombre maximum d'identifiants acceptés par une récupération par lot. */
+	private static final int TAILLE_MAX_LOT = 5000;
+
+	/** Nombre maximum de patients renvoyés par page. */
+	private static final int TAILLE_MAX_PAGE = 100;
+
+	private static final String TRI_ID = "id";
+
+	private static final String TRI_NOM = "nom";
+
+	/** Nombre de compteurs de génération ; plusieurs patients peuvent partager un compteur. */
+	private static final int NOMBRE_GENERATIONS = 4096;
+
+	/**
+	 * Génération de chaque patient, incrémentée à chaque invalidation : un patient lu en base avant
+	 * une modification n'est pas remis en cache après l'invalidation (voir {@link #mettreEnCache}).
+	 */
+	private final AtomicLongArray generations = new AtomicLongArray(NOMBRE_GENERATIONS);
+
 	@Autowired
 	private IPatientRepository patientRepository;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private CacheManager cacheManager;
 	
     /**
-     * Récupère la liste de tous les patients.
+     * Récupère une page de patients, paginée par curseur.
+     * <p>
+     * Le curseur contient le tri et la clé du dernier patient de la page ({@code id}, ou {@code nom} et {@code id}) :
+     * la page suivante est lue directement à partir de cette clé, sans {@code OFFSET}, quel que soit
+     * le nombre de patients déjà parcourus. Un patient de plus que la taille demandée est lu
+     * pour savoir s'il existe une page suivante.
+     * </p>
      *
-     * @return la liste des patients.
+     * @param taille le nombre de patients de la page.
+     * @param tri le tri : {@code id} ou {@code nom}.
+     * @param curseur le curseur de la page précédente, null pour la première page.
+     * @param avecTotal true pour renseigner le nombre total de patients.
+     * @return la page de patients.
+     * @throws IllegalArgumentException si la taille, le tri ou le curseur est invalide.
      */
-	public List<Patient> getAllPatient() {
-	    logger.info("Récupération de tous les patients.");
-	    List<Patient> listePatient = patientRepository.findAll();
-	    logger.info("{} patients récupérés.", listePatient.size());
-	    return listePatient;
+	public PagePatients getPagePatients(int taille, String tri, String curseur, boolean avecTotal) {
+	    if (taille < 1 || taille > TAILLE_MAX_PAGE) {
+	        logger.error("Taille de page invalide : {} (entre 1 et {})", taille, TAILLE_MAX_PAGE);
+	        throw new IllegalArgumentException("La taille de page doit être comprise entre 1 et " + TAILLE_MAX_PAGE);
+	    }
+	    if (!TRI_ID.equals(tri) && !TRI_NOM.equals(tri)) {
+	        logger.error("Tri invalide : {}", tri);
+	        throw new IllegalArgumentException("Le tri doit être '" + TRI_ID + "' ou '" + TRI_NOM + "'");
+	    }
+	    logger.info("Récupération d'une page de {} patients triés par {}.", taille, tri);
+
+	    Limit limite = Limit.of(taille + 1);
+	    List<Patient> patients;
+	    if (curseur == null || curseur.isBlank()) {
+	        patients = TRI_ID.equals(tri)
+	                ? patientRepository.findAllByOrderByIdAsc(limite)
+	                : patientRepository.findAllByOrderByNomAscIdAsc(limite);
+	    } else {
+	        String[] cle = decoderCurseur(curseur, tri);
+	        Long dernierId = Long.valueOf(cle[1]);
+	        patients = TRI_ID.equals(tri)
+	                ? patientRepository.findByIdGreaterThanOrderByIdAsc(dernierId, limite)
+	                : patientRepository.findPageApresNom(cle[2], dernierId, limite);
+	    }
+
+	    String curseurSuivant = null;
+	    if (patients.size() > taille) {
+	        patients = patients.subList(0, taille);
+	        curseurSuivant = encoderCurseur(tri, patients.get(taille - 1));
+	    }
+	    Long total = avecTotal ? patientRepository.count() : null;
+	    logger.info("{} patients récupérés.", patients.size());
+	    return new PagePatients(patients, curseurSuivant, total);
+	}
+
+	/**
+	 * Construit le curseur pointant après le patient donné : {@code tri:id} ou {@code tri:id:nom}, encodé en Base64 URL.
+	 */
+	private String encoderCurseur(String tri, Patient dernier) {
+	    String cle = TRI_ID.equals(tri)
+	            ? tri + ":" + dernier.getId()
+	            : tri + ":" + dernier.getId() + ":" + dernier.getNom();
+	    return Base64.getUrlEncoder().withoutPadding().encodeToString(cle.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Décode un curseur et vérifie qu'il correspond au tri demandé.
+	 *
+	 * @return le tri, l'identifiant et, pour le tri par nom, le nom du dernier patient lu
+	 */
+	private String[] decoderCurseur(String curseur, String tri) {
+	    try {
+	        String[] cle = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8).split(":", 3);
+	        int tailleAttendue = TRI_ID.equals(tri) ? 2 : 3;
+	        if (cle.length != tailleAttendue || !tri.equals(cle[0])) {
+	            throw new IllegalArgumentException("Curseur incompatible avec le tri " + tri);
+	        }
+	        Long.parseLong(cle[1]);
+	        return cle;
+	    } catch (IllegalArgumentException e) {
+	        logger.error("Curseur de pagination invalide : {}", curseur);
+	        throw new IllegalArgumentException("Curseur de pagination invalide", e);
+	    }
 	}
 
     /**
@@ -46,6 +153,12 @@ public class PatientServiceImpl implements IPatientService{
      * @return le patient correspondant.
      * @throws IllegalArgumentException si l'id est nul ou vide.
      * @throws NoSuchElementException si aucun patient n'est trouvé.
+     * <p>
+     * Une copie immuable du patient ({@link PatientEnCache}) est conservée dans le cache {@code patients} ;
+     * elle en est retirée par {@link #addPatient}, {@link #updatePatient} et {@link #deletePatient}.
+     * Chaque appel renvoie une nouvelle entité : la modifier ne change pas le cache.
+     * Les patients introuvables ne sont pas mis en cache.
+     * </p>
      */
 	public Patient getPatientById(Long id) {
 	    logger.info("Récupération du patient avec l'id : {}", id);
@@ -54,16 +167,106 @@ public class PatientServiceImpl implements IPatientService{
 	        throw new IllegalArgumentException("L'id ne peut pas être null ou vide");
 	    }
 
+	    Cache cache = cacheManager.getCache(CACHE_PATIENTS);
+	    PatientEnCache enCache = cache.get(id, PatientEnCache.class);
+	    if (enCache != null) {
+	        return enCache.versPatient();
+	    }
+
+	    long generation = generations.get(caseGeneration(id));
 	    Patient patient = patientRepository.findById(id)
 	        .orElseThrow(() -> {
 	            logger.error("Patient non trouvé avec l'id : {}", id);
 	            return new NoSuchElementException("Patient non trouvé avec l'id : " + id);
 	        });
 
-	    logger.info("Patient récupéré avec succès : {}", patient);
+	    mettreEnCache(cache, PatientEnCache.de(patient), generation);
+	    logger.info("Patient {} récupéré avec succès.", id);
 	    return patient;
 	}
 
+	/**
+	 * Met le patient en cache, sauf s'il a été invalidé depuis le début de sa lecture en base.
+	 * <p>
+	 * La génération est relue après l'écriture : si une invalidation s'est glissée entre la vérification
+	 * et l'écriture, l'entrée est retirée. {@link #invaliderPatient(Long)} incrémente la génération avant
+	 * de vider le cache.
+	 * </p>
+	 */
+	private void mettreEnCache(Cache cache, PatientEnCache patient, long generation) {
+	    int indice = caseGeneration(patient.id());
+	    if (generations.get(indice) != generation) {
+	        logger.debug("Patient {} non mis en cache : patient modifié pendant sa lecture.", patient.id());
+	        return;
+	    }
+	    cache.put(patient.id(), patient);
+	    if (generations.get(indice) != generation) {
+	        cache.evict(patient.id());
+	    }
+	}
+
+	/**
+	 * Retire un patient du cache {@code patients}, après l'enregistrement de sa modification en base.
+	 */
+	private void invaliderPatient(Long id) {
+	    generations.incrementAndGet(caseGeneration(id));
+	    cacheManager.getCache(CACHE_PATIENTS).evict(id);
+	}
+
+	private static int caseGeneration(Long id) {
+	    return Math.floorMod(id.hashCode(), NOMBRE_GENERATIONS);
+	}
+
+    /**
+     * Récupère la date de modification d'un patient.
+     * <p>
+     * Si le patient est déjà dans le cache {@code patients}, sa date est lue dans le cache ;
+     * sinon, seule la colonne {@code date_modification} est lue en base.
+     * </p>
+     *
+     * @param id l'identifiant du patient.
+     * @return la date de modification, null si le patient n'existe pas ou n'en a pas.
+     */
+	public LocalDateTime getDateModificationPatient(Long id) {
+	    if (id == null) {
+	        return null;
+	    }
+	    Cache cache = cacheManager.getCache(CACHE_PATIENTS);
+	    PatientEnCache patient = cache != null ? cache.get(id, PatientEnCache.class) : null;
+	    if (patient != null) {
+	        return patient.dateModification();
+	    }
+	    return patientRepository.findDateModificationById(id).orElse(null);
+	}
+
+    /**
+     * Récupère en une seule requête les patients correspondant à une liste d'identifiants,
+     * avec leur âge calculé à la date du jour.
+     *
+     * @param ids la liste des identifiants des patients.
+     * @return la liste des patients trouvés, les identifiants inconnus étant ignorés.
+     * @throws IllegalArgumentException si la liste est null, vide ou dépasse la taille maximale.
+     */
+	public List<PatientAvecAge> getPatientsByIds(List<Long> ids) {
+	    if (ids == null || ids.isEmpty()) {
+	        logger.error("La liste des ids ne peut pas être null ou vide : {}", ids);
+	        throw new IllegalArgumentException("La liste des ids ne peut pas être null ou vide");
+	    }
+	    if (ids.size() > TAILLE_MAX_LOT) {
+	        logger.error("Trop d'ids demandés : {} (maximum {})", ids.size(), TAILLE_MAX_LOT);
+	        throw new IllegalArgumentException("La liste des ids ne peut pas dépasser " + TAILLE_MAX_LOT + " éléments");
+	    }
+	    logger.info("Récupération de {} patients par lot.", ids.size());
+	    List<Patient> patients = patientRepository.findAllById(ids);
+	    logger.info("{} patients trouvés sur {} demandés.", patients.size(), ids.size());
+	    LocalDate aujourdHui = LocalDate.now();
+	    return patients.stream()
+	            .map(patient -> new PatientAvecAge(patient, patient.getDateNaissance() != null
+	                    ? Period.between(patient.getDateNaissance(), aujourdHui).getYears()
+	                    : null))
+	            .toList();
+	}
+
     /**
      * Supprime un patient par son identifiant.
      *
@@ -84,6 +287,8 @@ public class PatientServiceImpl implements IPatientService{
 	    }
 	    
 	    patientRepository.deleteById(id);
+	    invaliderPatient(id);
+	    eventPublisher.publishEvent(new PatientModifieEvent(id));
 	    logger.info("Patient supprimé avec succès pour id = {}", id);
 	}
 
@@ -96,7 +301,7 @@ public class PatientServiceImpl implements IPatientService{
      * @throws IllegalArgumentException si le patient est nul ou son nom est vide.
      */
     public Patient addPatient(Patient newPatient) {
-        logger.info("Tentative d'ajout d'un nouveau patient : {}", newPatient);
+        logger.info("Tentative d'ajout d'un nouveau patient.");
 
         if (newPatient == null) {
             logger.error("Le patient à ajouter est null");
@@ -112,7 +317,8 @@ public class PatientServiceImpl implements IPatientService{
         newPatient.setDateModification(LocalDateTime.now());
 
         Patient patientAjoute = patientRepository.save(newPatient);
-        logger.info("Patient ajouté avec succès : {}", patientAjoute);
+        invaliderPatient(patientAjoute.getId());
+        logger.info("Patient ajouté avec succès avec l'id {}.", patientAjoute.getId());
 
         return patientAjoute;
     }
@@ -146,7 +352,9 @@ public class PatientServiceImpl implements IPatientService{
             patientToUpdate.setDateModification(LocalDateTime.now());
 
             Patient patientMisAJour = patientRepository.save(patientToUpdate);
-            logger.info("Patient mis à jour avec succès : {}", patientMisAJour);
+            invaliderPatient(patientMisAJour.getId());
+            eventPublisher.publishEvent(new PatientModifieEvent(patientMisAJour.getId()));
+            logger.info("Patient {} mis à jour avec succès.", patientMisAJour.getId());
 
             return Optional.of(patientMisAJour);
         } else {
@@ -171,7 +379,7 @@ public class PatientServiceImpl implements IPatientService{
         LocalDate aujourdHui = LocalDate.now();
         Period period = Period.between(dateNaissance, aujourdHui);
         int age = period.getYears();
-        logger.debug("Calcul de l'âge : dateNaissance = {}, age = {}", dateNaissance, age);
+        logger.debug("Âge calculé : {}", age);
         return age;
     }
 
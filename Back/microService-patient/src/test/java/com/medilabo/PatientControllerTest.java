@@ -5,6 +5,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.mockito.Mockito.doNothing;
@@ -16,6 +17,7 @@ import static org.mockito.ArgumentMatchers.any;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +32,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.test.context.support.WithMockUser;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medilabo.model.PagePatients;
 import com.medilabo.model.Patient;
 import com.medilabo.service.IPatientService;
 
@@ -79,15 +82,27 @@ public class PatientControllerTest {
 	public void getAllPatientTest() throws Exception {
 		List<Patient> listPatient = List.of(patientTest1, patientTest2);
 		
-		when(patientService.getAllPatient()).thenReturn(listPatient);
+		when(patientService.getPagePatients(20, "id", null, false)).thenReturn(new PagePatients(listPatient, "curseur", null));
 		
 		mockMvc.perform(get("/patient/list"))
         .andExpect(content().contentType("application/json"))
-        .andExpect(jsonPath("$.length()").value(2))
-        .andExpect(jsonPath("$[0].prenom").value("Nicolas"))
-        .andExpect(jsonPath("$[1].prenom").value("Sarah")); 
+        .andExpect(jsonPath("$.patients.length()").value(2))
+        .andExpect(jsonPath("$.patients[0].prenom").value("Nicolas"))
+        .andExpect(jsonPath("$.patients[1].prenom").value("Sarah"))
+        .andExpect(jsonPath("$.curseurSuivant").value("curseur"))
+        .andExpect(jsonPath("$.total").doesNotExist()); 
 		
-		verify(patientService, times(1)).getAllPatient();
+		verify(patientService, times(1)).getPagePatients(20, "id", null, false);
+	}
+
+	@Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+	public void getAllPatientParametreInvalideTest() throws Exception {
+		when(patientService.getPagePatients(500, "id", null, false))
+			.thenThrow(new IllegalArgumentException("La taille de page doit être comprise entre 1 et 100"));
+		
+		mockMvc.perform(get("/patient/list").param("taille", "500"))
+        .andExpect(status().isBadRequest());
 	}
 	
 	@Test
@@ -103,6 +118,27 @@ public class PatientControllerTest {
 
 	    verify(patientService, times(1)).getPatientById(1L);
 	}
+
+	@Test
+    @WithMockUser(username = "testuser", roles = {"USER"})
+	public void getPatientByIdNonModifieControllerTest() throws Exception {
+		LocalDateTime dateModification = LocalDateTime.of(2025, 3, 1, 10, 15, 30);
+		long lastModified = dateModification.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		when(patientService.getDateModificationPatient(1L)).thenReturn(dateModification);
+		when(patientService.getPatientById(1L)).thenReturn(patientTest1);
+
+	    String etag = mockMvc.perform(get("/patient/infos/{id}", "1"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"1-" + lastModified + "\""))
+        .andExpect(header().exists("Last-Modified"))
+        .andReturn().getResponse().getHeader("ETag");
+
+	    mockMvc.perform(get("/patient/infos/{id}", "1").header("If-None-Match", etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+	    verify(patientService, times(1)).getPatientById(1L);
+	}
 	
 	@Test
 	@WithMockUser(username = "testuser", roles = {"USER"})
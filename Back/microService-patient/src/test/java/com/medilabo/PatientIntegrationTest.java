@@ -1,9 +1,11 @@
 package com.medilabo; // Ajustez le package de votre test
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.Period;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -11,6 +13,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,6 +21,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medilabo.model.Patient;
 import com.medilabo.repository.IPatientRepository;
+import com.medilabo.service.PatientServiceImpl;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -33,12 +37,16 @@ public class PatientIntegrationTest  {
 	@Autowired
 	private ObjectMapper objectMapper;
 
+	@Autowired
+	private CacheManager cacheManager;
+
 
 	private Long patientTestId;
 
 	@BeforeEach
 	void setupPatientData() {
 		patientRepository.deleteAll();
+		cacheManager.getCache(PatientServiceImpl.CACHE_PATIENTS).clear();
 
 		Patient patientTest1 = new Patient();
 		patientTest1.setNom("brunet");
@@ -55,10 +63,50 @@ public class PatientIntegrationTest  {
 	void getListPatientTest() throws Exception {
 		mockMvc.perform(get("/patient/list"))
 			.andExpect(status().isOk())
-			.andExpect(jsonPath("$").isArray())
-			.andExpect(jsonPath("$.length()").value(1))
-			.andExpect(jsonPath("$[0].nom").value("brunet"))
-			.andExpect(jsonPath("$[0].prenom").value("nicolas"));
+			.andExpect(jsonPath("$.patients").isArray())
+			.andExpect(jsonPath("$.patients.length()").value(1))
+			.andExpect(jsonPath("$.patients[0].nom").value("brunet"))
+			.andExpect(jsonPath("$.patients[0].prenom").value("nicolas"))
+			.andExpect(jsonPath("$.curseurSuivant").doesNotExist());
+	}
+
+	@Test
+	void getListPatientPaginationParNomTest() throws Exception {
+		for (String nom : new String[] {"martin", "adam", "brunet", "zola"}) {
+			Patient patient = new Patient();
+			patient.setNom(nom);
+			patient.setPrenom("paul");
+			patient.setDateNaissance(LocalDate.of(1980, 1, 1));
+			patient.setGenre("M");
+			patientRepository.save(patient);
+		}
+
+		String premierePage = mockMvc.perform(get("/patient/list").param("taille", "2").param("tri", "nom").param("total", "true"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.patients.length()").value(2))
+			.andExpect(jsonPath("$.patients[0].nom").value("adam"))
+			.andExpect(jsonPath("$.patients[1].nom").value("brunet"))
+			.andExpect(jsonPath("$.patients[1].id").value(patientTestId))
+			.andExpect(jsonPath("$.total").value(5))
+			.andReturn().getResponse().getContentAsString();
+		String curseur = objectMapper.readTree(premierePage).get("curseurSuivant").asText();
+
+		String deuxiemePage = mockMvc.perform(get("/patient/list").param("taille", "2").param("tri", "nom").param("curseur", curseur))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.patients.length()").value(2))
+			.andExpect(jsonPath("$.patients[0].nom").value("brunet"))
+			.andExpect(jsonPath("$.patients[1].nom").value("martin"))
+			.andReturn().getResponse().getContentAsString();
+		curseur = objectMapper.readTree(deuxiemePage).get("curseurSuivant").asText();
+
+		mockMvc.perform(get("/patient/list").param("taille", "2").param("tri", "nom").param("curseur", curseur))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.patients.length()").value(1))
+			.andExpect(jsonPath("$.patients[0].nom").value("zola"))
+			.andExpect(jsonPath("$.curseurSuivant").doesNotExist());
+
+		mockMvc.perform(get("/patient/list").param("tri", "id").param("curseur", curseur))
+			.andExpect(status().isBadRequest());
 	}
 
     @Test
@@ -71,6 +119,16 @@ public class PatientIntegrationTest  {
     }
 
 
+    @Test
+    void getPatientsByIdsTest() throws Exception {
+        mockMvc.perform(get("/patient/infos").param("ids", patientTestId.toString(), "999999"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(patientTestId))
+            .andExpect(jsonPath("$[0].nom").value("brunet"))
+            .andExpect(jsonPath("$[0].age").value(Period.between(LocalDate.of(1991, 9, 24), LocalDate.now()).getYears()));
+    }
+
     @Test
     void getAgePatientTest() throws Exception {
         LocalDate dateNaissance = LocalDate.of(1991, 9, 24);
@@ -104,7 +162,7 @@ public class PatientIntegrationTest  {
 
         mockMvc.perform(get("/patient/list"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$.length()").value(1));
+            .andExpect(jsonPath("$.patients.length()").value(1));
     }
 
 
@@ -133,6 +191,170 @@ public class PatientIntegrationTest  {
     }
 
 
+    @Test
+    void cachePatientInvalideApresMiseAJourTest() throws Exception {
+        mockMvc.perform(get("/patient/infos/{id}", patientTestId))
+            .andExpect(status().isOk());
+        assertThat(cacheManager.getCache(PatientServiceImpl.CACHE_PATIENTS).get(patientTestId)).isNotNull();
+
+        Patient updatedPatient = patientRepository.findById(patientTestId).orElseThrow();
+        updatedPatient.setNom("BrunetModifie");
+        mockMvc.perform(put("/patient/update/{id}", patientTestId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedPatient)))
+            .andExpect(status().isOk());
+        assertThat(cacheManager.getCache(PatientServiceImpl.CACHE_PATIENTS).get(patientTestId)).isNull();
+
+        mockMvc.perform(get("/patient/infos/{id}", patientTestId))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.nom").value("BrunetModifie"));
+
+        mockMvc.perform(delete("/patient/delete/{id}", patientTestId))
+            .andExpect(status().isNoContent());
+        assertThat(cacheManager.getCache(PatientServiceImpl.CACHE_PATIENTS).get(patientTestId)).isNull();
+    }
+
+
+    @Test
+    void getPatientByIdConditionnelTest() throws Exception {
+        Patient patient = patientRepository.findById(patientTestId).orElseThrow();
+        patient.setDateModification(LocalDateTime.of(2025, 1, 1, 12, 0));
+        patientRepository.save(patient);
+
+        String etag = mockMvc.perform(get("/patient/infos/{id}", patientTestId))
+            .andExpect(status().isOk())
+            .andExpect(header().exists("ETag"))
+            .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/patient/infos/{id}", patientTestId).header("If-None-Match", etag))
+            .andExpect(status().isNotModified());
+
+        patient.setNom("BrunetModifie");
+        mockMvc.perform(put("/patient/update/{id}", patientTestId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patient)))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/patient/infos/{id}", patientTestId).header("If-None-Match", etag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.nom").value("BrunetModifie"));
+    }
+
+    @Test
+    void importerPatientsCsvTest() throws Exception {
+        String csv = "nom;prenom;dateNaissance;genre;adresse;telephone\n"
+                + "martin;julien;1980-02-01;M;\"12; rue des Lilas\";0601020304\n"
+                + "\n"
+                + "durand;sophie;1975-06-15;F;;\n"
+                + "x1;paul;1990-01-01;M;;\n"
+                + "bernard;lucie;pas-une-date;F;;\n"
+                + "petit;emma;2001-12-24;F;;\n";
+
+        mockMvc.perform(post("/patient/import")
+                .contentType("text/csv")
+                .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.lignesLues").value(5))
+            .andExpect(jsonPath("$.patientsImportes").value(3))
+            .andExpect(jsonPath("$.nombreErreurs").value(2))
+            .andExpect(jsonPath("$.erreurs[0].ligne").value(5))
+            .andExpect(jsonPath("$.erreurs[0].message").value("nom : Le nom ne doit contenir que des lettres."))
+            .andExpect(jsonPath("$.erreurs[1].ligne").value(6));
+
+        Patient martin = patientRepository.findAll().stream()
+            .filter(patient -> "martin".equals(patient.getNom()))
+            .findFirst().orElseThrow();
+        assertThat(martin.getAdresse()).isEqualTo("12; rue des Lilas");
+        assertThat(martin.getDateCreation()).isNotNull();
+        assertThat(patientRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void importerPatientsLotRefuseParLaBaseTest() throws Exception {
+        // adresse valide pour Bean Validation, mais trop longue pour sa colonne (255 caractères)
+        String adresseTropLongue = "a".repeat(300);
+        String csv = "nom,prenom,dateNaissance,genre,adresse\n"
+                + "martin,julien,1980-02-01,M,\n"
+                + "durand,sophie,1975-06-15,F," + adresseTropLongue + "\n"
+                + "petit,emma,2001-12-24,F,\n";
+
+        mockMvc.perform(post("/patient/import")
+                .contentType("text/csv")
+                .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.lignesLues").value(3))
+            .andExpect(jsonPath("$.patientsImportes").value(2))
+            .andExpect(jsonPath("$.nombreErreurs").value(1))
+            .andExpect(jsonPath("$.erreurs[0].ligne").value(3));
+
+        assertThat(patientRepository.findAll()).extracting(Patient::getNom)
+            .containsExactlyInAnyOrder("brunet", "martin", "petit");
+    }
+
+    @Test
+    void importerPatientsNdjsonTest() throws Exception {
+        String ndjson = "{\"nom\":\"martin\",\"prenom\":\"julien\",\"dateNaissance\":\"1980-02-01\",\"genre\":\"M\"}\n"
+                + "{\"nom\":\"durand\",\"prenom\":\"sophie\"}\n"
+                + "pas du json\n";
+
+        mockMvc.perform(post("/patient/import")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(ndjson))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.lignesLues").value(3))
+            .andExpect(jsonPath("$.patientsImportes").value(1))
+            .andExpect(jsonPath("$.erreurs[0].ligne").value(2))
+            .andExpect(jsonPath("$.erreurs[1].ligne").value(3));
+    }
+
+    @Test
+    void importerPatientsEnteteInvalideTest() throws Exception {
+        mockMvc.perform(post("/patient/import")
+                .contentType("text/csv")
+                .content("nom,prenom\nmartin,julien\n"))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/patient/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    void exporterPatientsTest() throws Exception {
+        Patient ancien = new Patient();
+        ancien.setNom("martin");
+        ancien.setPrenom("julien");
+        ancien.setAdresse("12, rue des Lilas");
+        ancien.setDateNaissance(LocalDate.of(1980, 2, 1));
+        ancien.setGenre("M");
+        ancien.setDateModification(LocalDateTime.of(2020, 1, 1, 0, 0));
+        patientRepository.save(ancien);
+        Patient recent = patientRepository.findById(patientTestId).orElseThrow();
+        recent.setDateModification(LocalDateTime.of(2025, 1, 1, 0, 0));
+        patientRepository.save(recent);
+
+        String csv = mockMvc.perform(get("/patient/export").param("format", "csv"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", org.hamcrest.Matchers.startsWith("text/csv")))
+            .andReturn().getResponse().getContentAsString();
+        String[] lignes = csv.split("\n");
+        assertThat(lignes).hasSize(3);
+        assertThat(lignes[0]).startsWith("id,nom,prenom");
+        assertThat(csv).contains("\"12, rue des Lilas\"");
+
+        String ndjson = mockMvc.perform(get("/patient/export").param("since", "2024-01-01T00:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", org.hamcrest.Matchers.startsWith(MediaType.APPLICATION_NDJSON_VALUE)))
+            .andReturn().getResponse().getContentAsString();
+        String[] patients = ndjson.split("\n");
+        assertThat(patients).hasSize(1);
+        assertThat(objectMapper.readTree(patients[0]).get("nom").asText()).isEqualTo("brunet");
+
+        mockMvc.perform(get("/patient/export").param("format", "xml"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     void deletePatientTest() throws Exception {
         mockMvc.perform(get("/patient/infos/{id}", patientTestId))
@@ -143,6 +365,6 @@ public class PatientIntegrationTest  {
 
         mockMvc.perform(get("/patient/list"))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$.length()").value(0));
+            .andExpect(jsonPath("$.patients.length()").value(0));
     }
 }
\ No newline at end of file
@@ -1,14 +1,18 @@
 package com.medilabo;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.time.Period;
 import java.util.Arrays;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -16,15 +20,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import static org.mockito.ArgumentMatchers.any;
 
+import com.medilabo.commun.notification.PatientModifieEvent;
+import com.medilabo.model.PagePatients;
 import com.medilabo.model.Patient;
+import com.medilabo.model.PatientAvecAge;
 import com.medilabo.repository.IPatientRepository;
 import com.medilabo.service.IPatientService;
 
 @SpringBootTest
 @ActiveProfiles("test")
+@RecordApplicationEvents
 public class PatientServiceTest {
 
 	@Autowired
@@ -33,6 +44,9 @@ public class PatientServiceTest {
 	@MockBean
 	private IPatientRepository patientRepository;
 
+	@Autowired
+	private ApplicationEvents applicationEvents;
+
 	public static Patient p1;
 	public static Patient p2;
 	public static Patient p3;
@@ -46,18 +60,43 @@ public class PatientServiceTest {
 	}
 	
 	@Test
-	public void getAllPatientTest() {
-        List<Patient> mockList = Arrays.asList(p1, p2);
+	public void getPagePatientsTest() {
+        List<Patient> mockList = Arrays.asList(p1, p2, p3);
         
-        when(patientRepository.findAll()).thenReturn(mockList);
+        when(patientRepository.findAllByOrderByIdAsc(Limit.of(3))).thenReturn(mockList);
+        when(patientRepository.count()).thenReturn(3L);
         
-        List<Patient> result = patientService.getAllPatient();
+        PagePatients result = patientService.getPagePatients(2, "id", null, true);
 
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).getPrenom()).isEqualTo("Jean");
-        assertThat(result.get(1).getPrenom()).isEqualTo("Marie");
+        assertThat(result.getPatients()).hasSize(2);
+        assertThat(result.getPatients().get(0).getPrenom()).isEqualTo("Jean");
+        assertThat(result.getPatients().get(1).getPrenom()).isEqualTo("Marie");
+        assertThat(result.getCurseurSuivant()).isNotNull();
+        assertThat(result.getTotal()).isEqualTo(3L);
         
-        verify(patientRepository, times(1)).findAll();
+        verify(patientRepository, times(1)).findAllByOrderByIdAsc(Limit.of(3));
+	}
+
+	@Test
+	public void getPagePatientsCurseurNomTest() {
+        when(patientRepository.findAllByOrderByNomAscIdAsc(Limit.of(2))).thenReturn(List.of(p1, p2));
+        when(patientRepository.findPageApresNom("Dupont", 1L, Limit.of(2))).thenReturn(List.of(p3));
+
+        PagePatients premiere = patientService.getPagePatients(1, "nom", null, false);
+        PagePatients suivante = patientService.getPagePatients(1, "nom", premiere.getCurseurSuivant(), false);
+
+        assertThat(premiere.getPatients()).containsExactly(p1);
+        assertThat(premiere.getTotal()).isNull();
+        assertThat(suivante.getPatients()).containsExactly(p3);
+        assertThat(suivante.getCurseurSuivant()).isNull();
+        verify(patientRepository, never()).count();
+	}
+
+	@Test
+	public void getPagePatientsParametresInvalidesTest() {
+        assertThrows(IllegalArgumentException.class, () -> patientService.getPagePatients(101, "id", null, false));
+        assertThrows(IllegalArgumentException.class, () -> patientService.getPagePatients(20, "prenom", null, false));
+        assertThrows(IllegalArgumentException.class, () -> patientService.getPagePatients(20, "id", "pas-un-curseur", false));
 	}
 	
 	@Test
@@ -70,6 +109,64 @@ public class PatientServiceTest {
         
         verify(patientRepository, times(1)).findById(1L);
 	}
+
+	@Test
+	public void getPatientByIdCopieEnCacheTest() {
+        Patient patient = new Patient(80L, "Luc", "Martin", LocalDate.of(1970, 3, 2), "masculin", null, null, null, null);
+        when(patientRepository.findById(80L)).thenReturn(Optional.of(patient));
+
+        Patient premier = patientService.getPatientById(80L);
+        premier.setNom("Modifie");
+        Patient second = patientService.getPatientById(80L);
+
+        assertThat(second).isNotSameAs(premier);
+        assertThat(second.getNom()).isEqualTo("Martin");
+        verify(patientRepository, times(1)).findById(80L);
+	}
+
+	@Test
+	public void getPatientByIdInvalidePendantLectureTest() {
+        Patient patient = new Patient(81L, "Anne", "Leroy", LocalDate.of(1980, 7, 14), "feminin", null, null, null, null);
+        when(patientRepository.existsById(81L)).thenReturn(true);
+        when(patientRepository.findById(81L))
+            .thenAnswer(invocation -> {
+                // Suppression terminée pendant la lecture : le patient lu ne doit pas être mis en cache
+                patientService.deletePatient(81L);
+                return Optional.of(patient);
+            })
+            .thenReturn(Optional.empty());
+
+        assertThat(patientService.getPatientById(81L)).isSameAs(patient);
+        assertThrows(NoSuchElementException.class, () -> patientService.getPatientById(81L));
+
+        verify(patientRepository, times(2)).findById(81L);
+	}
+	
+	@Test
+	public void getPatientsByIdsTest() {
+        List<Long> ids = List.of(1L, 2L, 99L);
+        when(patientRepository.findAllById(ids)).thenReturn(List.of(p1, p2));
+
+        List<PatientAvecAge> result = patientService.getPatientsByIds(ids);
+
+        assertThat(result).extracting(PatientAvecAge::getPatient).containsExactly(p1, p2);
+        assertThat(result).extracting(PatientAvecAge::getAge).containsExactly(
+                Period.between(p1.getDateNaissance(), LocalDate.now()).getYears(),
+                Period.between(p2.getDateNaissance(), LocalDate.now()).getYears());
+
+        verify(patientRepository, times(1)).findAllById(ids);
+	}
+
+	@Test
+	public void getPatientsByIdsSansDateNaissanceTest() {
+        Patient sansDate = new Patient(3L, "Paul", "Petit", null, "masculin", null, null, null, null);
+        when(patientRepository.findAllById(List.of(3L))).thenReturn(List.of(sansDate));
+
+        List<PatientAvecAge> result = patientService.getPatientsByIds(List.of(3L));
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getAge()).isNull();
+	}
 	
 	@Test
 	public void addPatientTest() {
@@ -103,6 +200,9 @@ public class PatientServiceTest {
 
 	    verify(patientRepository, times(1)).findById(3L);
 	    verify(patientRepository, times(1)).save(any(Patient.class));
+	    assertThat(applicationEvents.stream(PatientModifieEvent.class))
+	    	.extracting(PatientModifieEvent::getPatientId)
+	    	.containsExactly(3L);
 	}
 
 
@@ -115,6 +215,9 @@ public class PatientServiceTest {
 
         verify(patientRepository, times(1)).existsById(p1.getId());
         verify(patientRepository, times(1)).deleteById(p1.getId());
+        assertThat(applicationEvents.stream(PatientModifieEvent.class))
+        	.extracting(PatientModifieEvent::getPatientId)
+        	.containsExactly(p1.getId());
 	}
 	
 	@Test
@@ -1,5 +1,6 @@
 package com.medilabo.microService.utilisateur.config;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,6 +11,9 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.medilabo.commun.identite.IdentiteGateway;
+import com.medilabo.commun.identite.IdentiteTransmise;
+
 import java.io.IOException;
 import java.util.Collections;
 
@@ -22,6 +26,10 @@ import java.util.Collections;
  * avec un objet Authentication.
  * </p>
  * <p>
+ * Avec {@code medilabo.identite.mode=entetes}, l'identité déjà vérifiée par la gateway est lue
+ * dans les en-têtes {@code X-Medilabo-*} (voir {@link IdentiteGateway}) sans vérifier à nouveau le token.
+ * </p>
+ * <p>
  * Cela permet de sécuriser les endpoints en s'appuyant sur les informations contenues dans le JWT,
  * sans avoir besoin d'une session côté serveur.
  * </p>
@@ -33,13 +41,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
 
+    private final IdentiteGateway identiteGateway;
+
     /**
-     * Constructeur avec injection de dépendance du composant JwtUtil.
+     * Constructeur avec injection de dépendance des composants JwtUtil et IdentiteGateway.
      * 
      * @param jwtUtil composant utilitaire pour manipuler les tokens JWT
+     * @param identiteGateway lecture de l'identité transmise par la gateway
      */
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, IdentiteGateway identiteGateway) {
         this.jwtUtil = jwtUtil;
+        this.identiteGateway = identiteGateway;
     }
 
     /**
@@ -64,25 +76,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String authHeader = request.getHeader("Authorization");
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            if (jwtUtil.isTokenValid(token)) {
-                String username = jwtUtil.extractUsername(token);
-                String role = jwtUtil.extractRole(token);
-
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(
-                                username,
-                                null,
-                                Collections.singletonList(new SimpleGrantedAuthority(role))
-                        );
+        if (identiteGateway.contientIdentite(request)) {
+            // Token déjà vérifié par la gateway : seule la signature des en-têtes est contrôlée.
+            IdentiteTransmise identite = identiteGateway.lire(request);
+            if (identite != null && identite.getUsername() != null) {
+                authentifier(identite.getUsername(), identite.getRole());
+            }
+        } else {
+            String authHeader = request.getHeader("Authorization");
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                Claims claims = jwtUtil.lireClaims(authHeader.substring(7));
+                if (claims != null) {
+                    authentifier(claims.getSubject(), claims.get("role", String.class));
+                }
             }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Renseigne le contexte de sécurité avec l'utilisateur et son rôle.
+     */
+    private void authentifier(String username, String role) {
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(
+                        username,
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority(role))
+                );
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
 }
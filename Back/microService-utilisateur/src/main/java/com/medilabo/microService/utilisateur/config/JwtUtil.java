@@ -46,6 +46,11 @@ public class JwtUtil {
      * Clé symétrique utilisée pour la signature des JWT.
      */
     private Key key;
+
+    /**
+     * Parseur construit une seule fois : il est immuable et peut être partagé entre les requêtes.
+     */
+    private JwtParser parser;
     
     /**
      * Cette méthode sera appelée après l'injection des dépendances,
@@ -59,6 +64,9 @@ public class JwtUtil {
         }
 
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
         System.out.println("Clé JWT chargée avec succès depuis l'environnement Docker !"); // Pour confirmation
     }
     
@@ -95,6 +103,21 @@ public class JwtUtil {
         return key;
     }
     
+    /**
+     * Vérifie un token JWT et retourne ses claims, en une seule vérification de signature.
+     * 
+     * @param token le token JWT à vérifier
+     * @return les claims du token, ou null si le token est invalide (expiré, modifié, etc.)
+     */
+    public Claims lireClaims(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            // token invalide (expiré, modifié, etc.)
+            return null;
+        }
+    }
+    
     /**
      * Vérifie la validité d'un token JWT.
      * <p>
@@ -106,16 +129,7 @@ public class JwtUtil {
      * @return true si le token est valide, false sinon
      */
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            // token invalide (expiré, modifié, etc.)
-            return false;
-        }
+        return lireClaims(token) != null;
     }
     
     /**
@@ -125,10 +139,7 @@ public class JwtUtil {
      * @return le nom d'utilisateur contenu dans le token
      */
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
@@ -140,10 +151,7 @@ public class JwtUtil {
      * @return le rôle de l'utilisateur contenu dans le token
      */
     public String extractRole(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .get("role", String.class);
     }
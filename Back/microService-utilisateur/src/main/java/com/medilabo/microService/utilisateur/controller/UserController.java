@@ -138,7 +138,7 @@ public class UserController {
 		logger.info("Requête reçu sur le controller updateUser()");
 		
 		if(result.hasErrors()) {
-			logger.error("Une erreur s'est produite lors de la mise à jour de l utilisateur {}", userToUpdate);
+			logger.error("Une erreur s'est produite lors de la mise à jour de l'utilisateur {}", id);
 			Map<String, String> errors = new HashMap<>();
 	        result.getFieldErrors().forEach(error -> 
             	errors.put(error.getField(), error.getDefaultMessage()));
@@ -168,9 +168,7 @@ public class UserController {
 	        User user = userService.getUserByUsername(userDto.getUsername());
 	        String jwt = jwtUtil.generateToken(user.getId(), user.getUsername(), user.getRole(), user.getPrenom(), user.getNom());
 	        
-	        logger.info("Utilisateur authentifié: " + user.getUsername());
-	        logger.info("Token JWT généré: " + jwt);
-
+	        logger.info("Utilisateur authentifié : {}", user.getUsername());
 
 	        return ResponseEntity.ok(Map.of(
 	            "status", "success",
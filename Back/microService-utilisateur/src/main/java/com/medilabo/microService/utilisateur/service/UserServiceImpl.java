@@ -48,7 +48,7 @@ public class UserServiceImpl implements IUserService {
 		if (listUtilisateur.isEmpty()) {
 			logger.warn("Attention, la liste des utilisateurs est vide.");
 		}
-		logger.info("Le contenu de la liste utilisateur {}", listUtilisateur);
+		logger.info("{} utilisateurs récupérés.", listUtilisateur.size());
 		return listUtilisateur;
 	}
 	
@@ -69,7 +69,7 @@ public class UserServiceImpl implements IUserService {
 		User utilisateur = userRepository.findById(id)
 			    .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé avec l'id : " + id));
 
-		logger.debug("L'utilisateur récupéré : {}", utilisateur);
+		logger.debug("L'utilisateur {} a été récupéré.", id);
 		return utilisateur;
 	}
 	
@@ -94,7 +94,7 @@ public class UserServiceImpl implements IUserService {
 	        throw new UserNotFoundException("Utilisateur non trouvé avec le username : " + username);
 	    }
 	    
-		logger.debug("L utilisateur récupéré : {}", utilisateurFinded);
+		logger.debug("L'utilisateur {} a été récupéré.", utilisateurFinded.getId());
 		return utilisateurFinded;
 	}
 	
@@ -107,7 +107,7 @@ public class UserServiceImpl implements IUserService {
 	 * @throws UsernameAlreadyExistsException si un utilisateur avec le même username existe déjà
 	 */
 	public User addUser(User utilisateur) {
-		logger.info("Tentative d'ajout de l'utilisateur : {}", utilisateur);
+		logger.info("Tentative d'ajout d'un utilisateur.");
 		
 	    if (utilisateur == null 
 	            || utilisateur.getUsername() == null || utilisateur.getUsername().isBlank()
@@ -116,7 +116,7 @@ public class UserServiceImpl implements IUserService {
 	            || utilisateur.getPrenom() == null || utilisateur.getPrenom().isBlank()
 	            || utilisateur.getRole() == null || utilisateur.getRole().isBlank()) {
 
-	            logger.error("Utilisateur invalide : {}", utilisateur);
+	            logger.error("Utilisateur invalide : informations incomplètes.");
 	            throw new IllegalArgumentException("Les informations de l'utilisateur sont incomplètes : " + utilisateur);
 	        }
 		
@@ -170,7 +170,6 @@ public class UserServiceImpl implements IUserService {
 	 */
 	public User updateUser(User userUpdated, Long id) {
 	    logger.info("Tentative de mise à jour de l'utilisateur avec l'id : {}", id);
-	    logger.info("le userupdated : {}", userUpdated);
 	    if (id == null || userUpdated == null) {
 	        logger.error("ID ou données utilisateur invalides.");
 	        throw new IllegalArgumentException("ID ou données utilisateur invalides.");
@@ -199,7 +198,7 @@ public class UserServiceImpl implements IUserService {
 	    }
 		
 	    User updatedUser = userRepository.save(userToUpdate);
-	    logger.info("Mise à jour réussie : {}", updatedUser);
+	    logger.info("Mise à jour réussie de l'utilisateur {}.", id);
 
 	    return updatedUser;
 		
@@ -3,6 +3,7 @@ import React, { useState, useEffect } from 'react';
 function AlertSante({ patientId }) {
   const [riskLevel, setRiskLevel] = useState('Chargement du risque...');
   const [error, setError] = useState(null);
+  const [dateDonnees, setDateDonnees] = useState(null);
   const [isLoading, setIsLoading] = useState(true);
 
   useEffect(() => {
@@ -26,6 +27,9 @@ function AlertSante({ patientId }) {
 
         const data = await response.text();
         setRiskLevel(data);
+        // API patient ou note indisponible : risque évalué avec les dernières données reçues
+        setDateDonnees(response.headers.get('X-Medilabo-Donnees-Perimees') === 'true'
+          ? response.headers.get('X-Medilabo-Date-Donnees') : null);
       } catch (err) {
         console.error("Erreur lors de la récupération du niveau de risque:", err);
         setError(err.message);
@@ -95,6 +99,11 @@ function AlertSante({ patientId }) {
   return (
     <div style={{ padding: '20px', border: '1px solid #ddd', borderRadius: '5px', backgroundColor: '#f9f9f9', marginBottom: '15px' }}>
       <p>{message} <span style={displayStyle}>{riskLevel}</span></p>
+      {dateDonnees && (
+        <p style={{ color: '#6c757d', fontStyle: 'italic' }}>
+          Données indisponibles : risque évalué avec les données du {new Date(dateDonnees).toLocaleString('fr-FR')}.
+        </p>
+      )}
     </div>
   );
 }
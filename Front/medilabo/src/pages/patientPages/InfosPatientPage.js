@@ -1,9 +1,11 @@
-import React, { useState, useEffect } from "react";
+import React, { useState, useEffect, useCallback } from "react";
 import { useNavigate, useParams } from "react-router-dom";
 import AlertSante from '../../components/AlertSante';
 import Menu from "../../components/Menu";
 import "../../styles/infosPatientPage.css"
 
+const TAILLE_PAGE_NOTES = 10;
+
 function InfosPatientPage() {
   const { id } = useParams();
   const navigate = useNavigate();
@@ -12,6 +14,7 @@ function InfosPatientPage() {
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState(null);
   const [notes, setNotes] = useState([]);
+  const [curseurNotes, setCurseurNotes] = useState(null);
 
   useEffect(() => {
     const token = localStorage.getItem('jwtToken');
@@ -40,14 +43,19 @@ function InfosPatientPage() {
     });
   }, [id, navigate]);
 
-useEffect(() => {
+const chargerNotes = useCallback((curseur) => {
   const token = localStorage.getItem('jwtToken');
   if (!token) {
     navigate("/connexion");
     return;
   }
 
-  fetch(`http://localhost:8080/note/getNotesPatient?patientId=${id}`, {
+  const params = new URLSearchParams({ patientId: id, taille: TAILLE_PAGE_NOTES });
+  if (curseur) {
+    params.append('curseur', curseur);
+  }
+
+  fetch(`http://localhost:8080/note/getNotesPatient/page?${params}`, {
     method: 'GET',
     headers: {
       'Authorization': `Bearer ${token}`,
@@ -61,14 +69,20 @@ useEffect(() => {
       }
       return response.json();
     })
-    .then((notesData) => {
-      setNotes(notesData);
+    .then((page) => {
+      // Les notes arrivent de la plus récente à la plus ancienne : une page suivante complète la liste.
+      setNotes((notesAffichees) => curseur ? [...notesAffichees, ...page.notes] : page.notes);
+      setCurseurNotes(page.curseurSuivant ?? null);
     })
     .catch((err) => {
       console.error("Erreur lors du chargement des notes ou médecins:", err);
     });
 }, [id, navigate]);
 
+useEffect(() => {
+  chargerNotes(null);
+}, [chargerNotes]);
+
 
   if (isLoading) return <p>Chargement...</p>;
   if (error) return <p>Erreur : {error}</p>;
@@ -131,6 +145,9 @@ useEffect(() => {
                 <li className="aucuneNote">Aucune note</li>
               )}
             </ul>
+            {curseurNotes && (
+              <button className="btnNotesPrecedentes" onClick={() => chargerNotes(curseurNotes)}>Afficher les notes plus anciennes</button>
+            )}
             <button className="btnAjouterNote" onClick={() => navigate(`/patient/infos/${patient.id}/note`)}>Ajouter une note</button>
           </div>
 
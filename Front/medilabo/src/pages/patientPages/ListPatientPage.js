@@ -4,17 +4,32 @@ import '../../styles/listPatientPage.css';
 
 import Menu from '../../components/Menu';
 
+const TAILLE_PAGE = 20;
+
 function ListPatientPage() {
   const [patients, setPatients] = useState([]);
   const [isLoading, setIsLoading] = useState(true);
   const [error, setError] = useState(null);
+  const [tri, setTri] = useState('nom');
+  // Curseurs des pages déjà parcourues : le dernier élément est celui de la page affichée.
+  const [curseurs, setCurseurs] = useState([null]);
+  const [curseurSuivant, setCurseurSuivant] = useState(null);
+  const [total, setTotal] = useState(null);
 
   const navigate = useNavigate();
+  const curseurCourant = curseurs[curseurs.length - 1];
 
   useEffect(() => {
     const token = localStorage.getItem('jwtToken');
+    const params = new URLSearchParams({ taille: TAILLE_PAGE, tri });
+    if (curseurCourant) {
+      params.append('curseur', curseurCourant);
+    } else {
+      params.append('total', 'true');
+    }
 
-    fetch('http://localhost:8080/patient/list', {
+    setIsLoading(true);
+    fetch(`http://localhost:8080/patient/list?${params}`, {
       method: 'GET',
       headers: {
         'Authorization': `Bearer ${token}`,
@@ -29,14 +44,26 @@ function ListPatientPage() {
         return response.json();
       })
       .then((data) => {
-        setPatients(data);
+        setPatients(data.patients);
+        setCurseurSuivant(data.curseurSuivant ?? null);
+        if (data.total !== undefined) {
+          setTotal(data.total);
+        }
         setIsLoading(false);
       })
       .catch((error) => {
         setError(error.message);
         setIsLoading(false);
       });
-  }, []);
+  }, [tri, curseurCourant]);
+
+  const handleTri = (event) => {
+    setTri(event.target.value);
+    setCurseurs([null]);
+  };
+
+  const pageSuivante = () => setCurseurs([...curseurs, curseurSuivant]);
+  const pagePrecedente = () => setCurseurs(curseurs.slice(0, -1));
 
     const handleDelete = async (id) => {
     if (!window.confirm("Voulez-vous vraiment supprimer ce patient ?")) return;
@@ -71,6 +98,18 @@ return (
 <div className="patient-list-container" id="patientListSection">
   <Menu />
   <h2 className="section-title">Liste des patients</h2>
+  <div className="pagination">
+    <label>
+      Trier par{' '}
+      <select value={tri} onChange={handleTri}>
+        <option value="nom">Nom</option>
+        <option value="id">Date d'ajout</option>
+      </select>
+    </label>
+    {total !== null && <span> {total} patients - page {curseurs.length}</span>}
+    <button disabled={curseurs.length === 1} onClick={pagePrecedente}>Précédent</button>
+    <button disabled={!curseurSuivant} onClick={pageSuivante}>Suivant</button>
+  </div>
   <table className="tablePatient">
     <thead>
       <tr className="ligneTablePatient">
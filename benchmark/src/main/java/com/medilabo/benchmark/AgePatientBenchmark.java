@@ -0,0 +1,54 @@
+package com.medilabo.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.medilabo.microService.alerte.service.AlerteServiceImpl;
+import com.medilabo.service.PatientServiceImpl;
+
+/**
+ * Calcul de l'âge d'un patient : {@code PatientServiceImpl.agePatient} (API Patient)
+ * et {@code AlerteServiceImpl.calculerAge} (calcul local du microservice alerte).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AgePatientBenchmark {
+
+	private PatientServiceImpl patientService;
+
+	private AlerteServiceImpl alerteService;
+
+	private LocalDate dateNaissance;
+
+	@Setup
+	public void setup() {
+		patientService = new PatientServiceImpl();
+		alerteService = new AlerteServiceImpl();
+		dateNaissance = LocalDate.of(1985, 5, 10);
+	}
+
+	@Benchmark
+	public int agePatient() {
+		return patientService.agePatient(dateNaissance);
+	}
+
+	@Benchmark
+	public int calculerAgeAlerte() {
+		return alerteService.calculerAge(dateNaissance);
+	}
+}
@@ -0,0 +1,29 @@
+package com.medilabo.benchmark;
+
+import java.lang.reflect.Field;
+
+/**
+ * Injection des champs privés des composants mesurés, instanciés sans contexte Spring.
+ */
+public final class Champs {
+
+	private Champs() {
+	}
+
+	/**
+	 * Affecte une valeur à un champ privé (équivalent d'un {@code @Value} ou {@code @Autowired}).
+	 *
+	 * @param cible  l'objet à modifier
+	 * @param nom    le nom du champ
+	 * @param valeur la valeur à affecter
+	 */
+	public static void affecter(Object cible, String nom, Object valeur) {
+		try {
+			Field champ = cible.getClass().getDeclaredField(nom);
+			champ.setAccessible(true);
+			champ.set(cible, valeur);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Impossible d'affecter le champ " + nom, e);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package com.medilabo.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.medilabo.commun.declencheur.Declencheurs;
+
+/**
+ * Génération de transmissions médicales réalistes pour les benchmarks.
+ * <p>
+ * Les textes mélangent un vocabulaire clinique courant et les termes déclencheurs (avec des variations
+ * de casse et d'accents), dans une proportion donnée. La graine est fixe : deux exécutions produisent
+ * le même corpus.
+ * </p>
+ */
+public final class CorpusNotes {
+
+	/** Les termes déclencheurs des microservices alerte et note. */
+	public static final List<String> MOTS_CLES = Declencheurs.MOTS_CLES;
+
+	private static final List<String> MOTS_COURANTS = List.of(
+			"le", "patient", "présente", "une", "tension", "artérielle", "stable", "depuis", "la", "dernière",
+			"consultation", "examen", "clinique", "sans", "particularité", "suivi", "traitement", "prescrit",
+			"bilan", "sanguin", "prévu", "douleur", "thoracique", "absente", "revoir", "dans", "trois", "mois",
+			"glycémie", "à", "jeun", "contrôlée", "auscultation", "normale", "fatigue", "signalée", "régime",
+			"alimentaire", "conseillé", "activité", "physique", "régulière", "recommandée", "pas", "de", "fièvre");
+
+	private static final long GRAINE = 42L;
+
+	private CorpusNotes() {
+	}
+
+	/**
+	 * Génère des transmissions d'environ {@code longueur} caractères.
+	 *
+	 * @param nombre          le nombre de transmissions
+	 * @param longueur        la longueur approximative de chaque transmission
+	 * @param densiteMotsCles la probabilité qu'un mot soit un terme déclencheur
+	 * @return les textes générés
+	 */
+	public static List<String> textes(int nombre, int longueur, double densiteMotsCles) {
+		Random random = new Random(GRAINE);
+		List<String> textes = new ArrayList<>(nombre);
+		for (int i = 0; i < nombre; i++) {
+			StringBuilder texte = new StringBuilder(longueur + 16);
+			boolean debutPhrase = true;
+			while (texte.length() < longueur) {
+				String mot;
+				if (random.nextDouble() < densiteMotsCles) {
+					mot = MOTS_CLES.get(random.nextInt(MOTS_CLES.size()));
+					mot = random.nextBoolean() ? mot.toLowerCase() : mot;
+				} else {
+					mot = MOTS_COURANTS.get(random.nextInt(MOTS_COURANTS.size()));
+				}
+				if (debutPhrase) {
+					mot = Character.toUpperCase(mot.charAt(0)) + mot.substring(1);
+				}
+				texte.append(mot);
+				debutPhrase = random.nextInt(12) == 0;
+				texte.append(debutPhrase ? ". " : (random.nextInt(8) == 0 ? ", " : " "));
+			}
+			textes.add(texte.toString());
+		}
+		return textes;
+	}
+}
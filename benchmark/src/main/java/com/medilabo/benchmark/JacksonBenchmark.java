@@ -0,0 +1,108 @@
+package com.medilabo.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.medilabo.microService.note.model.Medecin;
+import com.medilabo.microService.note.model.Note;
+import com.medilabo.model.Patient;
+
+/**
+ * Sérialisation et désérialisation JSON des listes de patients et de notes,
+ * telles que renvoyées par {@code /patient/list} et {@code /note/getNotesPatient}.
+ * <p>
+ * L'{@link ObjectMapper} est configuré comme celui de Spring Boot (dates ISO-8601).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonBenchmark {
+
+	/** Nombre d'éléments de chaque liste. */
+	@Param({"10", "100", "1000"})
+	private int taille;
+
+	/** Longueur approximative du texte d'une note, en caractères. */
+	@Param({"200", "2000"})
+	private int longueurNote;
+
+	private ObjectMapper objectMapper;
+
+	private List<Patient> patients;
+
+	private List<Note> notes;
+
+	private byte[] patientsJson;
+
+	private byte[] notesJson;
+
+	@Setup
+	public void setup() throws JsonProcessingException {
+		objectMapper = new ObjectMapper()
+				.registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+		Random random = new Random(42);
+		patients = new ArrayList<>(taille);
+		for (long i = 1; i <= taille; i++) {
+			patients.add(new Patient(i, "Prenom", "Nom", LocalDate.of(1950 + random.nextInt(60), 1 + random.nextInt(12), 1),
+					random.nextBoolean() ? "masculin" : "feminin", i + " rue des Lilas", "0601020304",
+					LocalDateTime.now(), LocalDateTime.now()));
+		}
+
+		List<String> textes = CorpusNotes.textes(taille, longueurNote, 0.01);
+		Medecin medecin = new Medecin(1L, "Martin", "Julien");
+		notes = new ArrayList<>(taille);
+		for (int i = 0; i < taille; i++) {
+			notes.add(new Note(String.valueOf(i), (long) random.nextInt(100), medecin, LocalDateTime.now(), textes.get(i), null));
+		}
+
+		patientsJson = objectMapper.writeValueAsBytes(patients);
+		notesJson = objectMapper.writeValueAsBytes(notes);
+	}
+
+	@Benchmark
+	public byte[] serialisationPatients() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(patients);
+	}
+
+	@Benchmark
+	public List<Patient> deserialisationPatients() throws Exception {
+		return objectMapper.readValue(patientsJson, new TypeReference<List<Patient>>() { });
+	}
+
+	@Benchmark
+	public byte[] serialisationNotes() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(notes);
+	}
+
+	@Benchmark
+	public List<Note> deserialisationNotes() throws Exception {
+		return objectMapper.readValue(notesJson, new TypeReference<List<Note>>() { });
+	}
+}
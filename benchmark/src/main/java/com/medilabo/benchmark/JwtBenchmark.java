@@ -0,0 +1,143 @@
+package com.medilabo.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.medilabo.gateway.CacheTokensVerifies;
+import com.medilabo.gateway.IdentiteJwt;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+
+/**
+ * Génération, validation et lecture des JWT dans les trois classes {@code JwtUtil}
+ * (utilisateur, gateway et note).
+ * <p>
+ * Chaque benchmark reproduit le travail réellement effectué pour une requête : la gateway et le filtre
+ * du microservice utilisateur valident le token puis en extraient le nom et le rôle (la gateway ne vérifie
+ * qu'une fois chaque token, puis lit son cache), l'API Note
+ * en extrait l'identité du médecin à l'ajout d'une note.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+	private static final String SECRET = "medilabo-benchmark-secret-medilabo-benchmark-secret-0123456789ab";
+
+	private com.medilabo.microService.utilisateur.config.JwtUtil jwtUtilisateur;
+
+	private com.medilabo.gateway.JwtUtil jwtGateway;
+
+	private CacheTokensVerifies cacheTokens;
+
+	private com.medilabo.microService.note.config.JwtUtil jwtNote;
+
+	private String token;
+
+	private String tokenFalsifie;
+
+	@Setup
+	public void setup() {
+		jwtUtilisateur = new com.medilabo.microService.utilisateur.config.JwtUtil();
+		Champs.affecter(jwtUtilisateur, "secretKey", SECRET);
+		jwtUtilisateur.init();
+
+		jwtGateway = new com.medilabo.gateway.JwtUtil();
+		Champs.affecter(jwtGateway, "secretKey", SECRET);
+		jwtGateway.init();
+		cacheTokens = new CacheTokensVerifies(jwtGateway, new SimpleMeterRegistry(), 10_000, Duration.ofHours(1));
+
+		jwtNote = new com.medilabo.microService.note.config.JwtUtil();
+		Champs.affecter(jwtNote, "secret", SECRET);
+		jwtNote.init();
+
+		token = jwtUtilisateur.generateToken(1L, "jdupont", "USER", "Jean", "Dupont");
+		char dernier = token.charAt(token.length() - 1);
+		tokenFalsifie = token.substring(0, token.length() - 1) + (dernier == 'A' ? 'B' : 'A');
+	}
+
+	/**
+	 * Connexion : génération du token par le microservice utilisateur.
+	 */
+	@Benchmark
+	public String generationToken() {
+		return jwtUtilisateur.generateToken(1L, "jdupont", "USER", "Jean", "Dupont");
+	}
+
+	/**
+	 * Ancien filtre de la gateway : validation puis extraction du nom et du rôle (trois vérifications).
+	 */
+	@Benchmark
+	public void filtreGatewayTroisParsings(Blackhole blackhole) {
+		blackhole.consume(jwtGateway.isTokenValid(token));
+		blackhole.consume(jwtGateway.extractUsername(token));
+		blackhole.consume(jwtGateway.extractRole(token));
+	}
+
+	/**
+	 * Vérification unique d'un token absent du cache de la gateway.
+	 */
+	@Benchmark
+	public IdentiteJwt filtreGateway() {
+		return jwtGateway.verifierToken(token);
+	}
+
+	/**
+	 * Filtre de la gateway pour un token déjà vérifié : empreinte SHA-256 et lecture du cache.
+	 */
+	@Benchmark
+	public IdentiteJwt filtreGatewayCache() {
+		return cacheTokens.verifier(token);
+	}
+
+	/**
+	 * Ancien filtre du microservice utilisateur : validation puis extraction du nom et du rôle (trois vérifications).
+	 */
+	@Benchmark
+	public void filtreUtilisateurTroisParsings(Blackhole blackhole) {
+		blackhole.consume(jwtUtilisateur.isTokenValid(token));
+		blackhole.consume(jwtUtilisateur.extractUsername(token));
+		blackhole.consume(jwtUtilisateur.extractRole(token));
+	}
+
+	/**
+	 * Filtre du microservice utilisateur en mode {@code jwt} : une seule vérification du token.
+	 */
+	@Benchmark
+	public Object filtreUtilisateur() {
+		return jwtUtilisateur.lireClaims(token);
+	}
+
+	/**
+	 * Rejet d'un token dont la signature a été modifiée.
+	 */
+	@Benchmark
+	public boolean validationTokenFalsifie() {
+		return jwtGateway.isTokenValid(tokenFalsifie);
+	}
+
+	/**
+	 * Ajout d'une note : extraction de l'identité du médecin, comme dans {@code NoteServiceImpl.getMedecin}.
+	 */
+	@Benchmark
+	public Object medecinNote() {
+		return jwtNote.extractAllClaims(token);
+	}
+}
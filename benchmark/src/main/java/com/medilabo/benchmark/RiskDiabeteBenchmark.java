@@ -0,0 +1,88 @@
+package com.medilabo.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.medilabo.commun.declencheur.Declencheurs;
+import com.medilabo.commun.declencheur.MotCleMatcher;
+
+/**
+ * Comptage des déclencheurs du risque de diabète dans les transmissions d'un patient.
+ * <p>
+ * Compare l'ancien comptage des déclencheurs (stream + {@code toLowerCase} + {@code contains})
+ * au comptage avec l'automate {@link MotCleMatcher}, réalisé par l'API Note à l'écriture des notes.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RiskDiabeteBenchmark {
+
+	/** Nombre de transmissions du patient. */
+	@Param({"10", "100", "500"})
+	private int nombreNotes;
+
+	/** Longueur approximative d'une transmission, en caractères. */
+	@Param({"200", "2000"})
+	private int longueurNote;
+
+	/** Probabilité qu'un mot de la transmission soit un déclencheur. */
+	@Param({"0.002", "0.02"})
+	private double densiteMotsCles;
+
+	private List<String> notes;
+
+	private MotCleMatcher motCleMatcher;
+
+	@Setup
+	public void setup() {
+		notes = CorpusNotes.textes(nombreNotes, longueurNote, densiteMotsCles);
+		motCleMatcher = Declencheurs.MATCHER;
+	}
+
+	/**
+	 * Implémentation d'origine de {@code riskDiabete} : copie en minuscules de chaque transmission
+	 * puis un {@code contains} par mot-clé.
+	 */
+	@Benchmark
+	public long comptageStream() {
+	    List<String> keywords = CorpusNotes.MOTS_CLES.stream()
+	    	    .map(String::toLowerCase)
+	    	    .toList();
+
+    	return notes.stream()
+    	    .map(String::toLowerCase)
+    	    .flatMap(noteContent ->
+    	        keywords.stream()
+    	            .filter(noteContent::contains)
+    	    )
+    	    .count();
+	}
+
+	/**
+	 * Comptage complet (sans arrêt anticipé) avec l'automate.
+	 */
+	@Benchmark
+	public long comptageMatcher() {
+		long total = 0;
+		for (String note : notes) {
+			total += motCleMatcher.compterDeclencheurs(note);
+		}
+		return total;
+	}
+}
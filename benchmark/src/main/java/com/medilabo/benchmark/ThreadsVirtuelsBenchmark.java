@@ -0,0 +1,238 @@
+package com.medilabo.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Traitement de requêtes bloquantes par Tomcat : pool de threads plateforme contre threads virtuels.
+ * <p>
+ * Le serveur est configuré comme celui des microservices : pool par défaut de 200 threads, ou un thread
+ * virtuel par requête ({@code spring.threads.virtual.enabled=true}, même exécuteur que Spring Boot).
+ * Chaque requête attend {@code latenceMs} millisecondes, comme une requête JDBC, MongoDB ou un appel Feign.
+ * Une opération envoie une vague de {@code connexions} requêtes simultanées, chacune sur sa propre
+ * connexion (ouverte une fois pour toutes, keep-alive), et attend toutes les réponses : le débit vaut
+ * {@code connexions} divisé par la durée mesurée. Le client est volontairement minimal (un thread virtuel
+ * et une socket bloquante par connexion) pour que la mesure porte sur le serveur.
+ * </p>
+ * <p>
+ * Les compteurs {@code threadsPlateformePic} et {@code tasPicMo} donnent le nombre maximum de threads
+ * plateforme de la JVM et l'occupation maximale du tas (où sont stockées les piles des threads virtuels)
+ * pendant l'itération. Les limites de descripteurs de fichiers ({@code ulimit -n}) doivent couvrir
+ * deux sockets par connexion.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class ThreadsVirtuelsBenchmark {
+
+	/** Nombre de requêtes simultanées (et de connexions ouvertes). */
+	@Param({"1000", "5000", "10000"})
+	private int connexions;
+
+	/** Exécution des requêtes côté serveur : {@code plateforme} ou {@code virtuels}. */
+	@Param({"plateforme", "virtuels"})
+	private String mode;
+
+	/** Durée d'attente simulée de chaque requête (base de données, API distante). */
+	@Param({"20"})
+	private long latenceMs;
+
+	private static final byte[] REQUETE = ("GET /patient HTTP/1.1\r\nHost: localhost\r\n\r\n")
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] REPONSE = "{\"id\":1,\"nom\":\"Dupont\",\"prenom\":\"Jean\"}"
+			.getBytes(StandardCharsets.UTF_8);
+
+	private Tomcat tomcat;
+
+	private List<Socket> sockets;
+
+	@Setup
+	public void setup() throws IOException, LifecycleException {
+		java.util.logging.Logger.getLogger("org.apache").setLevel(java.util.logging.Level.WARNING);
+
+		tomcat = new Tomcat();
+		tomcat.setBaseDir(Files.createTempDirectory("tomcat-benchmark").toString());
+		Connector connector = new Connector("HTTP/1.1");
+		connector.setPort(0);
+		connector.setProperty("maxConnections", String.valueOf(connexions * 2));
+		connector.setProperty("acceptCount", String.valueOf(connexions));
+		connector.setProperty("maxKeepAliveRequests", "-1");
+		if ("virtuels".equals(mode)) {
+			connector.getProtocolHandler().setExecutor(new VirtualThreadExecutor("tomcat-handler-"));
+		}
+		tomcat.setConnector(connector);
+
+		Context context = tomcat.addContext("", null);
+		Tomcat.addServlet(context, "patient", new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				try {
+					Thread.sleep(latenceMs);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				response.setContentType("application/json");
+				response.setContentLength(REPONSE.length);
+				response.getOutputStream().write(REPONSE);
+			}
+		});
+		context.addServletMappingDecoded("/patient", "patient");
+		tomcat.start();
+
+		sockets = new ArrayList<>(connexions);
+		for (int i = 0; i < connexions; i++) {
+			Socket socket = new Socket("localhost", connector.getLocalPort());
+			socket.setTcpNoDelay(true);
+			sockets.add(socket);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException, LifecycleException {
+		for (Socket socket : sockets) {
+			socket.close();
+		}
+		tomcat.stop();
+		tomcat.destroy();
+	}
+
+	/**
+	 * Mesure de l'occupation mémoire et du nombre de threads pendant une itération.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Ressources {
+
+		/** Nombre maximum de threads plateforme vivants pendant l'itération. */
+		public long threadsPlateformePic;
+
+		/** Occupation maximale du tas pendant l'itération, en Mo. */
+		public long tasPicMo;
+
+		private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+		private final MemoryMXBean memoire = ManagementFactory.getMemoryMXBean();
+
+		private ScheduledExecutorService echantillonneur;
+
+		private volatile long tasPic;
+
+		@Setup(Level.Iteration)
+		public void demarrer() {
+			threads.resetPeakThreadCount();
+			tasPic = 0;
+			echantillonneur = Executors.newSingleThreadScheduledExecutor();
+			echantillonneur.scheduleAtFixedRate(
+					() -> tasPic = Math.max(tasPic, memoire.getHeapMemoryUsage().getUsed()), 0, 5, TimeUnit.MILLISECONDS);
+		}
+
+		@TearDown(Level.Iteration)
+		public void arreter() {
+			echantillonneur.shutdownNow();
+			threadsPlateformePic = threads.getPeakThreadCount();
+			tasPicMo = tasPic / (1024 * 1024);
+		}
+	}
+
+	@Benchmark
+	public int vagueDeRequetes(Ressources ressources) throws InterruptedException, ExecutionException {
+		List<Future<Integer>> reponses = new ArrayList<>(connexions);
+		int octets = 0;
+		try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (Socket socket : sockets) {
+				reponses.add(clients.submit(() -> echanger(socket)));
+			}
+			for (Future<Integer> reponse : reponses) {
+				octets += reponse.get();
+			}
+		}
+		return octets;
+	}
+
+	/**
+	 * Envoie une requête sur une connexion ouverte et lit la réponse complète.
+	 *
+	 * @return la taille du corps de la réponse
+	 */
+	private static int echanger(Socket socket) {
+		try {
+			OutputStream sortie = socket.getOutputStream();
+			sortie.write(REQUETE);
+			sortie.flush();
+
+			InputStream entree = new BufferedInputStream(socket.getInputStream(), 512);
+			int longueur = -1;
+			String ligne;
+			while (!(ligne = lireLigne(entree)).isEmpty()) {
+				if (ligne.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+					longueur = Integer.parseInt(ligne.substring(15).trim());
+				}
+			}
+			return entree.readNBytes(longueur).length;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String lireLigne(InputStream entree) throws IOException {
+		StringBuilder ligne = new StringBuilder();
+		int c;
+		while ((c = entree.read()) != '\n') {
+			if (c < 0) {
+				throw new IOException("Connexion fermée par le serveur");
+			}
+			if (c != '\r') {
+				ligne.append((char) c);
+			}
+		}
+		return ligne.toString();
+	}
+}
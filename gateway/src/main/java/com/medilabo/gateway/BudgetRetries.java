@@ -0,0 +1,98 @@
+package com.medilabo.gateway;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Budget de nouvelles tentatives commun à toutes les routes de la gateway.
+ * <p>
+ * Chaque requête routée ajoute {@code ratio} jeton au budget, dans la limite de {@code max} jetons ; chaque
+ * nouvelle tentative en consomme un. Les nouvelles tentatives ne peuvent donc pas dépasser {@code ratio} fois
+ * le trafic (10 % par défaut), plus une réserve de {@code max} tentatives : quand un microservice tombe, les
+ * tentatives cessent dès la réserve épuisée au lieu de multiplier la charge sur un service déjà en difficulté.
+ * </p>
+ * <p>
+ * Métriques : jauge {@code gateway.retry.budget} (jetons disponibles), compteur {@code gateway.retry.tentatives}.
+ * </p>
+ */
+@Component
+public class BudgetRetries {
+
+    /** Les jetons sont comptés en millièmes pour rester entiers. */
+    private static final long UNITE = 1000;
+
+    private final long depot;
+
+    private final long plafond;
+
+    private final AtomicLong jetons;
+
+    private final Counter tentatives;
+
+    /**
+     * @param ratio    jeton ajouté par requête routée, entre 0 et 1
+     * @param max      nombre maximum de jetons en réserve, aussi le nombre de jetons au démarrage
+     * @param registry registre des métriques
+     */
+    public BudgetRetries(@Value("${gateway.retry.budget.ratio:0.1}") double ratio,
+            @Value("${gateway.retry.budget.max:20}") int max,
+            MeterRegistry registry) {
+        if (ratio < 0 || ratio > 1 || max < 1) {
+            throw new IllegalStateException("gateway.retry.budget mal configuré : le ratio doit être compris entre 0 et 1 "
+                    + "et le maximum au moins égal à 1.");
+        }
+        this.depot = Math.round(ratio * UNITE);
+        this.plafond = max * UNITE;
+        this.jetons = new AtomicLong(plafond);
+        Gauge.builder("gateway.retry.budget", this, BudgetRetries::disponibles)
+                .description("Nouvelles tentatives encore permises par le budget")
+                .register(registry);
+        this.tentatives = Counter.builder("gateway.retry.tentatives")
+                .description("Nouvelles tentatives de requêtes routées")
+                .register(registry);
+    }
+
+    /**
+     * Alimente le budget pour une requête routée.
+     */
+    public void enregistrerRequete() {
+        jetons.accumulateAndGet(depot, (courant, ajout) -> Math.min(plafond, courant + ajout));
+    }
+
+    /**
+     * @return {@code true} si le budget permet encore une nouvelle tentative
+     */
+    public boolean autorise() {
+        return jetons.get() >= UNITE;
+    }
+
+    /**
+     * Consomme un jeton pour une nouvelle tentative.
+     *
+     * @return {@code false} si le budget est épuisé, la tentative ne doit alors pas avoir lieu
+     */
+    public boolean consommer() {
+        long courant;
+        do {
+            courant = jetons.get();
+            if (courant < UNITE) {
+                return false;
+            }
+        } while (!jetons.compareAndSet(courant, courant - UNITE));
+        tentatives.increment();
+        return true;
+    }
+
+    /**
+     * @return le nombre de nouvelles tentatives encore permises
+     */
+    public double disponibles() {
+        return (double) jetons.get() / UNITE;
+    }
+}
@@ -0,0 +1,111 @@
+package com.medilabo.gateway;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache des tokens JWT déjà vérifiés par la gateway.
+ * <p>
+ * Un même token est présenté à chaque requête du frontend : une fois sa signature vérifiée,
+ * l'identité qu'il contient est conservée jusqu'à sa date d'expiration (au plus
+ * {@code gateway.jwt.cache.duree-max}), ce qui évite de refaire le calcul HMAC et le parsing JSON
+ * pour les requêtes suivantes. La clé du cache est l'empreinte SHA-256 du token : les tokens
+ * eux-mêmes ne sont pas conservés en mémoire. Les tokens invalides ne sont pas mis en cache.
+ * </p>
+ * <p>
+ * Métriques exposées : {@code cache.gets} / {@code cache.size} / {@code cache.evictions} (cache {@code jwt})
+ * et {@code gateway.jwt.verification} (durée des vérifications de signature).
+ * </p>
+ */
+@Component
+public class CacheTokensVerifies {
+
+    private final JwtUtil jwtUtil;
+
+    private final Cache<String, IdentiteJwt> cache;
+
+    private final Timer tempsVerification;
+
+    /**
+     * Construit le cache et enregistre ses métriques.
+     *
+     * @param jwtUtil     utilitaire de vérification des tokens
+     * @param registry    registre des métriques
+     * @param tailleMax   nombre maximum de tokens conservés
+     * @param dureeMax    durée maximale de conservation d'un token, même si son expiration est plus lointaine
+     */
+    public CacheTokensVerifies(JwtUtil jwtUtil, MeterRegistry registry,
+            @Value("${gateway.jwt.cache.taille:10000}") long tailleMax,
+            @Value("${gateway.jwt.cache.duree-max:PT1H}") Duration dureeMax) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tailleMax)
+                .expireAfter(Expiry.creating((String empreinte, IdentiteJwt identite) -> dureeConservation(identite, dureeMax)))
+                .recordStats()
+                .build();
+        this.tempsVerification = Timer.builder("gateway.jwt.verification")
+                .description("Durée de vérification de la signature d'un token JWT absent du cache")
+                .register(registry);
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt");
+    }
+
+    /**
+     * Retourne l'identité contenue dans un token, en ne vérifiant sa signature que s'il n'est pas déjà en cache.
+     *
+     * @param token le token JWT (sans le préfixe Bearer)
+     * @return l'identité du token, ou null si le token est invalide ou expiré
+     */
+    public IdentiteJwt verifier(String token) {
+        String empreinte = empreinte(token);
+        IdentiteJwt identite = cache.getIfPresent(empreinte);
+        if (identite != null) {
+            return identite;
+        }
+        identite = tempsVerification.record(() -> jwtUtil.verifierToken(token));
+        if (identite != null && identite.username() != null) {
+            cache.put(empreinte, identite);
+        }
+        return identite;
+    }
+
+    /**
+     * Durée pendant laquelle une identité reste en cache : jusqu'à l'expiration du token, bornée par {@code dureeMax}.
+     */
+    private static Duration dureeConservation(IdentiteJwt identite, Duration dureeMax) {
+        if (identite.expiration() == null) {
+            return dureeMax;
+        }
+        Duration restante = Duration.between(Instant.now(), identite.expiration());
+        if (restante.isNegative()) {
+            return Duration.ZERO;
+        }
+        return restante.compareTo(dureeMax) < 0 ? restante : dureeMax;
+    }
+
+    /**
+     * Empreinte SHA-256 (hexadécimale) d'un token.
+     */
+    private static String empreinte(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
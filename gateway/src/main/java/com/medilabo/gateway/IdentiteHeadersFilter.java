@@ -0,0 +1,129 @@
+package com.medilabo.gateway;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Transmission aux microservices de l'identité vérifiée par la gateway.
+ * <p>
+ * Le token JWT n'est vérifié qu'une fois, par {@link JwtAuthenticationWebFilter}. Les informations qu'il contient
+ * (userId, username, rôle, nom, prénom, expiration) sont ajoutées à la requête routée sous forme d'en-têtes
+ * {@code X-Medilabo-*}, accompagnés d'une signature HMAC-SHA256 calculée avec {@code medilabo.identite.secret}.
+ * Un microservice configuré avec {@code medilabo.identite.mode=entetes} vérifie cette signature, beaucoup moins
+ * coûteuse que le parsing complet du JWT, au lieu de vérifier à nouveau le token.
+ * </p>
+ * <p>
+ * Les en-têtes {@code X-Medilabo-*} envoyés par le client sont toujours supprimés : seule la gateway peut les
+ * renseigner. Le nom d'utilisateur, le nom et le prénom sont encodés en UTF-8 (format URL) pour rester valides
+ * dans un en-tête HTTP.
+ * </p>
+ */
+@Component
+public class IdentiteHeadersFilter implements GlobalFilter, Ordered {
+
+    /** Attribut de l'échange contenant l'{@link IdentiteJwt} vérifiée. */
+    public static final String ATTRIBUT_IDENTITE = IdentiteHeadersFilter.class.getName() + ".identite";
+
+    public static final String PREFIXE = "X-Medilabo-";
+    public static final String ENTETE_USER_ID = PREFIXE + "User-Id";
+    public static final String ENTETE_USERNAME = PREFIXE + "Username";
+    public static final String ENTETE_ROLE = PREFIXE + "Role";
+    public static final String ENTETE_NOM = PREFIXE + "Nom";
+    public static final String ENTETE_PRENOM = PREFIXE + "Prenom";
+    public static final String ENTETE_EXPIRATION = PREFIXE + "Expiration";
+    public static final String ENTETE_SIGNATURE = PREFIXE + "Signature";
+
+    private static final String ALGORITHME = "HmacSHA256";
+
+    private final SecretKeySpec cle;
+
+    /**
+     * @param secret clé partagée avec les microservices pour signer les en-têtes d'identité
+     */
+    public IdentiteHeadersFilter(@Value("${medilabo.identite.secret}") String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("medilabo.identite.secret n'a pas été défini.");
+        }
+        this.cle = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHME);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        IdentiteJwt identite = exchange.getAttribute(ATTRIBUT_IDENTITE);
+        ServerWebExchange echangeRoute = exchange.mutate()
+                .request(requete -> requete.headers(entetes -> {
+                    entetes.keySet().stream()
+                            .filter(nom -> nom.regionMatches(true, 0, PREFIXE, 0, PREFIXE.length()))
+                            .toList()
+                            .forEach(entetes::remove);
+                    if (identite != null) {
+                        ajouterIdentite(entetes, identite);
+                    }
+                }))
+                .build();
+        return chain.filter(echangeRoute);
+    }
+
+    /**
+     * Ajoute les en-têtes d'identité et leur signature.
+     */
+    private void ajouterIdentite(HttpHeaders entetes, IdentiteJwt identite) {
+        String userId = identite.userId() != null ? identite.userId().toString() : "";
+        String username = encoder(identite.username());
+        String role = identite.role() != null ? identite.role() : "";
+        String nom = encoder(identite.nom());
+        String prenom = encoder(identite.prenom());
+        String expiration = identite.expiration() != null ? String.valueOf(identite.expiration().getEpochSecond()) : "";
+
+        entetes.set(ENTETE_USER_ID, userId);
+        entetes.set(ENTETE_USERNAME, username);
+        entetes.set(ENTETE_ROLE, role);
+        entetes.set(ENTETE_NOM, nom);
+        entetes.set(ENTETE_PRENOM, prenom);
+        entetes.set(ENTETE_EXPIRATION, expiration);
+        entetes.set(ENTETE_SIGNATURE, signer(String.join("\n", userId, username, role, nom, prenom, expiration)));
+    }
+
+    /**
+     * Signature HMAC-SHA256, encodée en Base64 URL, des valeurs des en-têtes d'identité.
+     *
+     * @param donnees les valeurs des en-têtes, séparées par des retours à la ligne
+     * @return la signature
+     */
+    String signer(String donnees) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHME);
+            mac.init(cle);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(donnees.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Impossible de signer les en-têtes d'identité", e);
+        }
+    }
+
+    private static String encoder(String valeur) {
+        return valeur != null ? URLEncoder.encode(valeur, StandardCharsets.UTF_8) : "";
+    }
+
+    /**
+     * Exécuté avant le routage de la requête vers le microservice.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,16 @@
+package com.medilabo.gateway;
+
+import java.time.Instant;
+
+/**
+ * Identité extraite d'un token JWT dont la signature et la date d'expiration ont été vérifiées.
+ *
+ * @param userId     l'identifiant de l'utilisateur
+ * @param username   le nom d'utilisateur (subject)
+ * @param role       le rôle de l'utilisateur
+ * @param nom        le nom de l'utilisateur
+ * @param prenom     le prénom de l'utilisateur
+ * @param expiration la date d'expiration du token, {@code null} si le token n'en a pas
+ */
+public record IdentiteJwt(Long userId, String username, String role, String nom, String prenom, Instant expiration) {
+}
@@ -30,16 +30,16 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationWebFilter implements WebFilter {
 
-    private final JwtUtil jwtUtil;
+    private final CacheTokensVerifies cacheTokens;
 
 
     /**
-     * Constructeur avec injection de dépendance du composant JwtUtil.
+     * Constructeur avec injection de dépendance du cache des tokens vérifiés.
      * 
-     * @param jwtUtil Utilitaire pour manipuler les tokens JWT.
+     * @param cacheTokens Vérification des tokens JWT, avec mise en cache des tokens valides.
      */
-    public JwtAuthenticationWebFilter(JwtUtil jwtUtil) {
-        this.jwtUtil = jwtUtil;
+    public JwtAuthenticationWebFilter(CacheTokensVerifies cacheTokens) {
+        this.cacheTokens = cacheTokens;
     }
 
     /**
@@ -66,16 +66,18 @@ public class JwtAuthenticationWebFilter implements WebFilter {
 
         String token = authHeader.substring(7);
 
-        if (!jwtUtil.isTokenValid(token)) {
+        // Une seule vérification de signature par token : les requêtes suivantes lisent le cache.
+        IdentiteJwt identite = cacheTokens.verifier(token);
+
+        if (identite == null || identite.username() == null) {
             return chain.filter(exchange);
         }
 
-        String username = jwtUtil.extractUsername(token);
-        String role = jwtUtil.extractRole(token);
+        // Transmise aux microservices par IdentiteHeadersFilter, sans nouvelle vérification du token.
+        exchange.getAttributes().put(IdentiteHeadersFilter.ATTRIBUT_IDENTITE, identite);
 
-        if (username == null) {
-            return chain.filter(exchange);
-        }
+        String username = identite.username();
+        String role = identite.role();
 
         UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
                 username,
@@ -4,6 +4,7 @@ import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
 import java.security.Key;
+import java.util.Date;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -37,6 +38,11 @@ public class JwtUtil {
      */
     private Key key;
 
+    /**
+     * Parseur construit une seule fois : il est immuable et peut être partagé entre les requêtes.
+     */
+    private JwtParser parser;
+
     /**
      * Cette méthode sera appelée après l'injection des dépendances,
      * donc après que secretKey soit injectée par Spring.
@@ -53,9 +59,35 @@ public class JwtUtil {
         }
 
         this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
         System.out.println("Clé JWT chargée avec succès depuis l'environnement Docker !"); // Pour confirmation
     }
 
+    /**
+     * Vérifie un token JWT et en extrait l'identité, en une seule vérification de signature.
+     * 
+     * @param token Le token JWT à vérifier
+     * @return l'identité contenue dans le token, ou null si le token est invalide (expiré, modifié, etc.)
+     */
+    public IdentiteJwt verifierToken(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date expiration = claims.getExpiration();
+            return new IdentiteJwt(
+                    claims.get("userId", Long.class),
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("nom", String.class),
+                    claims.get("prenom", String.class),
+                    expiration != null ? expiration.toInstant() : null);
+        } catch (JwtException | IllegalArgumentException e) {
+            // token invalide (expiré, modifié, etc.)
+            return null;
+        }
+    }
+
     /**
      * Valide la validité d'un token JWT.
      * <p>
@@ -66,16 +98,7 @@ public class JwtUtil {
      * @return true si le token est valide, false sinon (expiré, modifié, etc.)
      */
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            // token invalide (expiré, modifié, etc.)
-            return false;
-        }
+        return verifierToken(token) != null;
     }
 
 
@@ -86,10 +109,7 @@ public class JwtUtil {
      * @return Le nom d'utilisateur contenu dans le token
      */
     public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
@@ -101,10 +121,7 @@ public class JwtUtil {
      * @return Le rôle de l'utilisateur contenu dans le token
      */
     public String extractRole(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .get("role", String.class);
     }
@@ -4,6 +4,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 import io.github.cdimascio.dotenv.Dotenv;
 
@@ -16,6 +17,9 @@ import io.github.cdimascio.dotenv.Dotenv;
  */
 @SpringBootApplication
 public class MedilaboGatewayApplication {
+
+	/** Nombre maximum d'étapes de démarrage conservées pour l'endpoint actuator {@code startup}. */
+	private static final int ETAPES_DEMARRAGE_MAX = 4096;
 	
 	private static Logger logger = LogManager.getLogger();
 
@@ -40,7 +44,10 @@ public class MedilaboGatewayApplication {
 			dotenv.entries()
 			    .forEach(entry -> System.setProperty(entry.getKey(), entry.getValue()));
 
-		SpringApplication.run(MedilaboGatewayApplication.class, args);
+		SpringApplication application = new SpringApplication(MedilaboGatewayApplication.class);
+		// Durée de chaque étape du démarrage, consultable sur /actuator/startup
+		application.setApplicationStartup(new BufferingApplicationStartup(ETAPES_DEMARRAGE_MAX));
+		application.run(args);
 	}
 
 }
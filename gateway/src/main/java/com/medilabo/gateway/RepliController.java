@@ -0,0 +1,70 @@
+package com.medilabo.gateway;
+
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+
+/**
+ * Réponse de repli des routes protégées par un coupe-circuit ({@code fallbackUri=forward:/repli/<service>}).
+ * <p>
+ * Quand un microservice ne répond pas, ou que son coupe-circuit est ouvert après trop d'échecs, le client reçoit
+ * aussitôt une réponse 503 (504 si le délai de réponse de la route est dépassé) avec l'en-tête {@code Retry-After},
+ * au lieu d'attendre le microservice ou de recevoir une erreur 500.
+ * </p>
+ */
+@RestController
+public class RepliController {
+
+    private Logger logger = LogManager.getLogger();
+
+    private final long retryAfterSecondes;
+
+    /**
+     * @param retryAfterSecondes délai conseillé au client avant un nouvel essai, la durée d'ouverture des coupe-circuits
+     */
+    public RepliController(@Value("${gateway.repli.retry-after-s:10}") long retryAfterSecondes) {
+        this.retryAfterSecondes = retryAfterSecondes;
+    }
+
+    /**
+     * @param service le microservice indisponible
+     * @return l'erreur, au format {@code {"service": ..., "message": ...}}
+     */
+    @RequestMapping("/repli/{service}")
+    public ResponseEntity<Map<String, String>> repli(@PathVariable String service, ServerWebExchange exchange) {
+        Throwable cause = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR);
+        HttpStatus statut = HttpStatus.SERVICE_UNAVAILABLE;
+        String message = "Le service " + service + " est indisponible, réessayez plus tard.";
+        if (cause instanceof CallNotPermittedException) {
+            message = "Le service " + service + " est temporairement suspendu après des erreurs répétées, réessayez plus tard.";
+        } else if (estDelaiDepasse(cause)) {
+            statut = HttpStatus.GATEWAY_TIMEOUT;
+            message = "Le service " + service + " n'a pas répondu à temps.";
+        }
+        logger.debug("Repli pour le service {} ({}) : {}", service, statut.value(), cause != null ? cause.toString() : "cause inconnue");
+        return ResponseEntity.status(statut)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSecondes))
+                .body(Map.of("service", service, "message", message));
+    }
+
+    private static boolean estDelaiDepasse(Throwable cause) {
+        if (cause instanceof ResponseStatusException exception) {
+            return exception.getStatusCode().value() == HttpStatus.GATEWAY_TIMEOUT.value();
+        }
+        return cause instanceof TimeoutException;
+    }
+}
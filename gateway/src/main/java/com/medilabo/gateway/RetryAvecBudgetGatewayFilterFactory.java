@@ -0,0 +1,88 @@
+package com.medilabo.gateway;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtre {@code RetryAvecBudget} : le filtre {@code Retry} de Spring Cloud Gateway, limité par le {@link BudgetRetries}
+ * commun à toutes les routes.
+ * <p>
+ * Par défaut, seules les requêtes GET sont tentées à nouveau (2 fois au plus, après 50 puis 100 ms), et seulement
+ * quand la connexion au microservice a échoué ou a été coupée ({@link IOException}) : une réponse 5xx ou un délai
+ * de réponse dépassé ne sont pas retentés, pour ne pas multiplier la latence ni la charge d'un service déjà lent.
+ * Les arguments du filtre {@code Retry} ({@code retries}, {@code methods}, {@code statuses}...) restent utilisables.
+ * </p>
+ */
+@Component
+public class RetryAvecBudgetGatewayFilterFactory extends RetryGatewayFilterFactory {
+
+    private final BudgetRetries budget;
+
+    public RetryAvecBudgetGatewayFilterFactory(BudgetRetries budget) {
+        this.budget = budget;
+    }
+
+    @Override
+    public RetryConfig newConfig() {
+        return new RetryAvecBudgetConfig();
+    }
+
+    /**
+     * Les arguments des routes sont liés sur une instance de cette classe, créée par son constructeur :
+     * {@link #newConfig()} n'est pas utilisé par Spring Cloud Gateway pour les routes déclarées en configuration.
+     */
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public Class<RetryConfig> getConfigClass() {
+        return (Class) RetryAvecBudgetConfig.class;
+    }
+
+    /**
+     * Configuration par défaut du filtre {@code RetryAvecBudget}, modifiable par les arguments de la route.
+     */
+    public static class RetryAvecBudgetConfig extends RetryConfig {
+
+        @SuppressWarnings("unchecked")
+        public RetryAvecBudgetConfig() {
+            setRetries(2);
+            setSeries();
+            setExceptions(IOException.class);
+            setBackoff(Duration.ofMillis(50), Duration.ofMillis(500), 2, true);
+        }
+    }
+
+    @Override
+    public GatewayFilter apply(RetryConfig retryConfig) {
+        GatewayFilter retry = super.apply(retryConfig);
+        return (exchange, chain) -> {
+            budget.enregistrerRequete();
+            AtomicInteger essais = new AtomicInteger();
+            AtomicReference<Throwable> derniereErreur = new AtomicReference<>();
+            return retry.filter(exchange, echange -> Mono.defer(() -> {
+                // exceedsMaxIterations a vérifié le budget, mais une autre requête a pu l'épuiser entre-temps :
+                // la tentative n'a alors pas lieu et le client reçoit l'erreur de l'essai précédent
+                if (essais.getAndIncrement() > 0 && !budget.consommer()) {
+                    return Mono.error(derniereErreur.get());
+                }
+                return chain.filter(echange).doOnError(derniereErreur::set);
+            }));
+        };
+    }
+
+    /**
+     * Interrompt aussi les nouvelles tentatives quand le budget est épuisé.
+     */
+    @Override
+    public boolean exceedsMaxIterations(ServerWebExchange exchange, RetryConfig retryConfig) {
+        return super.exceedsMaxIterations(exchange, retryConfig) || !budget.autorise();
+    }
+}
@@ -3,6 +3,7 @@ package com.medilabo.gateway;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -27,6 +28,8 @@ import java.util.List;
  * <ul>
  *   <li>L'accès public aux ressources Swagger UI pour la documentation.</li>
  *   <li>L'accès public aux endpoints de login et de santé des microservices.</li>
+ *   <li>L'accès libre aux endpoints actuator, uniquement sur le port de gestion ({@code management.server.port}),
+ *   qui n'est pas publié : sur le port public, {@code /actuator/**} exige un token comme toute autre requête.</li>
  *   <li>La sécurisation par défaut de toutes les autres requêtes.</li>
  *   <li>La configuration des règles CORS autorisant les requêtes depuis localhost:3000.</li>
  * </ul>
@@ -66,7 +69,7 @@ public class SecurityConfig {
                 .pathMatchers("/utilisateur/health").permitAll()
                 .pathMatchers("/note/health").permitAll()
                 .pathMatchers("/alerte/health").permitAll()
-                .pathMatchers("/actuator/**").permitAll()
+                .matchers(EndpointRequest.toAnyEndpoint()).permitAll()
                 .anyExchange().authenticated()
             )
             .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
@@ -83,7 +86,10 @@ public class SecurityConfig {
      * <p>
      * Ici, seules les requêtes venant de "http://localhost:3000" sont autorisées,
      * avec les méthodes HTTP GET, POST, PUT, DELETE, OPTIONS,
-     * et certains headers spécifiques (Authorization, Cache-Control, Content-Type).
+     * et certains headers spécifiques (Authorization, Cache-Control, Content-Type,
+     * ainsi que les en-têtes des requêtes conditionnelles If-None-Match et If-Modified-Since).
+     * Les en-têtes ETag et Last-Modified des réponses sont exposés au front, ainsi que
+     * X-Medilabo-Donnees-Perimees et X-Medilabo-Date-Donnees (risque évalué sur des données anciennes).
      * </p>
      * 
      * @return la source de configuration CORS à appliquer
@@ -94,7 +100,10 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(List.of("http://localhost:3000"));
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowCredentials(true);
-        configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Cache-Control", "Content-Type",
+                "If-None-Match", "If-Modified-Since"));
+        configuration.setExposedHeaders(List.of("ETag", "Last-Modified",
+                "X-Medilabo-Donnees-Perimees", "X-Medilabo-Date-Donnees"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
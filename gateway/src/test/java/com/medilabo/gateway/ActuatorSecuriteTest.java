@@ -0,0 +1,41 @@
+package com.medilabo.gateway;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Vérifie que les endpoints actuator ne sont accessibles sans token que sur le port de gestion.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@ActiveProfiles("test")
+public class ActuatorSecuriteTest {
+
+	@LocalServerPort
+	private int portPublic;
+
+	@LocalManagementPort
+	private int portGestion;
+
+	private WebTestClient client(int port) {
+		return WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+	}
+
+	@Test
+	public void actuatorProtegeSurPortPublicTest() {
+		for (String chemin : new String[] { "/actuator/health", "/actuator/metrics", "/actuator/circuitbreakers",
+				"/actuator/circuitbreakerevents", "/actuator/startup" }) {
+			client(portPublic).get().uri(chemin).exchange().expectStatus().isUnauthorized();
+		}
+	}
+
+	@Test
+	public void actuatorAccessibleSurPortGestionTest() {
+		client(portGestion).get().uri("/actuator/health").exchange().expectStatus().isOk();
+		client(portGestion).get().uri("/actuator/metrics").exchange().expectStatus().isOk();
+		client(portGestion).get().uri("/actuator/circuitbreakers").exchange().expectStatus().isOk();
+	}
+}
@@ -0,0 +1,66 @@
+package com.medilabo.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BudgetRetriesTest {
+
+	private SimpleMeterRegistry registry;
+
+	private BudgetRetries budget;
+
+	@BeforeEach
+	public void setup() {
+		registry = new SimpleMeterRegistry();
+		budget = new BudgetRetries(0.1, 3, registry);
+	}
+
+	@Test
+	public void reserveEpuiseeTest() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(budget.autorise()).isTrue();
+			assertThat(budget.consommer()).isTrue();
+		}
+
+		assertThat(budget.autorise()).isFalse();
+		assertThat(budget.consommer()).isFalse();
+		assertThat(registry.get("gateway.retry.tentatives").counter().count()).isEqualTo(3);
+	}
+
+	@Test
+	public void budgetProportionnelAuTraficTest() {
+		while (budget.consommer()) {
+			// épuise la réserve
+		}
+
+		for (int i = 0; i < 9; i++) {
+			budget.enregistrerRequete();
+		}
+		assertThat(budget.autorise()).isFalse();
+
+		budget.enregistrerRequete();
+		assertThat(budget.autorise()).isTrue();
+		assertThat(budget.consommer()).isTrue();
+		assertThat(budget.autorise()).isFalse();
+	}
+
+	@Test
+	public void reservePlafonneeTest() {
+		for (int i = 0; i < 1000; i++) {
+			budget.enregistrerRequete();
+		}
+
+		assertThat(registry.get("gateway.retry.budget").gauge().value()).isEqualTo(3);
+	}
+
+	@Test
+	public void configurationInvalideTest() {
+		assertThrows(IllegalStateException.class, () -> new BudgetRetries(1.5, 3, new SimpleMeterRegistry()));
+		assertThrows(IllegalStateException.class, () -> new BudgetRetries(0.1, 0, new SimpleMeterRegistry()));
+	}
+}
@@ -0,0 +1,81 @@
+package com.medilabo.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CacheTokensVerifiesTest {
+
+	private static final String SECRET = "une-cle-secrete-de-test-suffisamment-longue-pour-hmac-sha-256-ok";
+
+	private JwtUtil jwtUtil;
+
+	private SimpleMeterRegistry registry;
+
+	private CacheTokensVerifies cacheTokens;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		jwtUtil = new JwtUtil();
+		Field secretKey = JwtUtil.class.getDeclaredField("secretKey");
+		secretKey.setAccessible(true);
+		secretKey.set(jwtUtil, SECRET);
+		jwtUtil.init();
+		registry = new SimpleMeterRegistry();
+		cacheTokens = new CacheTokensVerifies(jwtUtil, registry, 100, Duration.ofHours(1));
+	}
+
+	@Test
+	public void verifierTokenMisEnCacheTest() {
+		String token = token("jdupont", new Date(System.currentTimeMillis() + 60_000));
+
+		IdentiteJwt premier = cacheTokens.verifier(token);
+		IdentiteJwt second = cacheTokens.verifier(token);
+
+		assertThat(premier.username()).isEqualTo("jdupont");
+		assertThat(premier.role()).isEqualTo("USER");
+		assertThat(premier.userId()).isEqualTo(7L);
+		assertThat(premier.prenom()).isEqualTo("Jean");
+		assertThat(second).isSameAs(premier);
+		assertThat(registry.get("cache.gets").tag("cache", "jwt").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("gateway.jwt.verification").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void verifierTokenFalsifieTest() {
+		String token = token("jdupont", new Date(System.currentTimeMillis() + 60_000));
+		String tokenFalsifie = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+		assertThat(cacheTokens.verifier(tokenFalsifie)).isNull();
+		assertThat(cacheTokens.verifier(tokenFalsifie)).isNull();
+		assertThat(registry.get("gateway.jwt.verification").timer().count()).isEqualTo(2);
+	}
+
+	@Test
+	public void verifierTokenExpireTest() {
+		String token = token("jdupont", new Date(System.currentTimeMillis() - 1_000));
+
+		assertThat(cacheTokens.verifier(token)).isNull();
+	}
+
+	private String token(String username, Date expiration) {
+		return Jwts.builder()
+				.setSubject(username)
+				.claim("userId", 7L)
+				.claim("role", "USER")
+				.claim("nom", "Dupont")
+				.claim("prenom", "Jean")
+				.setIssuedAt(new Date())
+				.setExpiration(expiration)
+				.signWith(jwtUtil.getKey())
+				.compact();
+	}
+}
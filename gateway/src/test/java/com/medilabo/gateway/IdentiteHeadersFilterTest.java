@@ -0,0 +1,57 @@
+package com.medilabo.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+
+public class IdentiteHeadersFilterTest {
+
+	private final IdentiteHeadersFilter filtre = new IdentiteHeadersFilter("secret-identite-de-test");
+
+	@Test
+	public void entetesClientSupprimesTest() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/patient/list")
+				.header("X-Medilabo-Role", "ADMIN")
+				.header("x-medilabo-user-id", "1"));
+
+		HttpHeaders transmis = filtrer(exchange);
+
+		assertThat(transmis.keySet()).noneMatch(nom -> nom.toLowerCase().startsWith("x-medilabo-"));
+	}
+
+	@Test
+	public void identiteTransmiseEtSigneeTest() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/note/add")
+				.header("X-Medilabo-Role", "ADMIN"));
+		exchange.getAttributes().put(IdentiteHeadersFilter.ATTRIBUT_IDENTITE,
+				new IdentiteJwt(7L, "jdupont", "USER", "Dupont", "Éloïse", Instant.ofEpochSecond(2_000_000_000L)));
+
+		HttpHeaders transmis = filtrer(exchange);
+
+		assertThat(transmis.getFirst(IdentiteHeadersFilter.ENTETE_USER_ID)).isEqualTo("7");
+		assertThat(transmis.get(IdentiteHeadersFilter.ENTETE_ROLE)).containsExactly("USER");
+		assertThat(transmis.getFirst(IdentiteHeadersFilter.ENTETE_PRENOM)).isEqualTo("%C3%89lo%C3%AFse");
+		assertThat(transmis.getFirst(IdentiteHeadersFilter.ENTETE_SIGNATURE))
+			.isEqualTo(filtre.signer("7\njdupont\nUSER\nDupont\n%C3%89lo%C3%AFse\n2000000000"));
+	}
+
+	private HttpHeaders filtrer(ServerWebExchange exchange) {
+		AtomicReference<ServerWebExchange> routee = new AtomicReference<>();
+		GatewayFilterChain chain = echange -> {
+			routee.set(echange);
+			return Mono.empty();
+		};
+		filtre.filter(exchange, chain).block();
+		return routee.get().getRequest().getHeaders();
+	}
+}
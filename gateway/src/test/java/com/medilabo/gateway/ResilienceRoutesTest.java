@@ -0,0 +1,137 @@
+package com.medilabo.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+/**
+ * Routes de la gateway face à des microservices simulés : l'API patient coupe chaque connexion dès son ouverture,
+ * l'API note répond après le délai de réponse de sa route.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class ResilienceRoutesTest {
+
+	/** Délai de réponse de la route note pendant le test, en ms. */
+	private static final int DELAI_REPONSE_NOTE_MS = 300;
+
+	private static final ServerSocket patientRefuse;
+
+	private static final AtomicInteger connexionsPatient = new AtomicInteger();
+
+	private static final HttpServer noteLente;
+
+	private static final AtomicInteger requetesNote = new AtomicInteger();
+
+	static {
+		try {
+			patientRefuse = new ServerSocket(0);
+			Thread accepteur = new Thread(() -> {
+				while (!patientRefuse.isClosed()) {
+					try (Socket connexion = patientRefuse.accept()) {
+						connexionsPatient.incrementAndGet();
+					} catch (IOException e) {
+						// serveur fermé en fin de test
+					}
+				}
+			});
+			accepteur.setDaemon(true);
+			accepteur.start();
+
+			noteLente = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+			noteLente.setExecutor(Executors.newCachedThreadPool());
+			noteLente.createContext("/", echange -> {
+				requetesNote.incrementAndGet();
+				try {
+					Thread.sleep(DELAI_REPONSE_NOTE_MS * 5L);
+					echange.sendResponseHeaders(200, -1);
+				} catch (InterruptedException | IOException e) {
+					// la gateway a abandonné la requête
+				} finally {
+					echange.close();
+				}
+			});
+			noteLente.start();
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@DynamicPropertySource
+	static void routes(DynamicPropertyRegistry registry) {
+		registry.add("PATIENT_URL", () -> "http://localhost:" + patientRefuse.getLocalPort());
+		registry.add("NOTE_URL", () -> "http://localhost:" + noteLente.getAddress().getPort());
+		registry.add("GATEWAY_TIMEOUT_NOTE_MS", () -> DELAI_REPONSE_NOTE_MS);
+	}
+
+	@AfterAll
+	static void arreter() throws IOException {
+		patientRefuse.close();
+		noteLente.stop(0);
+	}
+
+	@Autowired
+	private WebTestClient client;
+
+	@Autowired
+	private CircuitBreakerRegistry circuitBreakers;
+
+	@BeforeEach
+	public void initialiser() {
+		connexionsPatient.set(0);
+		requetesNote.set(0);
+		circuitBreakers.getAllCircuitBreakers().forEach(circuitBreaker -> circuitBreaker.reset());
+	}
+
+	@Test
+	public void getRetenteConnexionCoupeeTest() {
+		client.get().uri("/patient/health")
+			.exchange()
+			.expectStatus().isEqualTo(503)
+			.expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "10")
+			.expectBody().jsonPath("$.service").isEqualTo("patient");
+
+		assertThat(connexionsPatient.get()).isEqualTo(3);
+	}
+
+	@Test
+	public void postNonRetenteTest() {
+		client.post().uri("/patient/health")
+			.exchange()
+			.expectStatus().isEqualTo(503)
+			.expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "10");
+
+		assertThat(connexionsPatient.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void delaiDepasseNonRetenteTest() {
+		client.get().uri("/note/health")
+			.exchange()
+			.expectStatus().isEqualTo(504)
+			.expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "10")
+			.expectBody().jsonPath("$.service").isEqualTo("note");
+
+		assertThat(requetesNote.get()).isEqualTo(1);
+	}
+}
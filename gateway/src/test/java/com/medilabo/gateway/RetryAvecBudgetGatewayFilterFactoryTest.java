@@ -0,0 +1,59 @@
+package com.medilabo.gateway;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+public class RetryAvecBudgetGatewayFilterFactoryTest {
+
+	private final AtomicInteger appels = new AtomicInteger();
+
+	private final ConnectException refus = new ConnectException("Connexion refusée");
+
+	private Mono<Void> filtrer(BudgetRetries budget) {
+		RetryAvecBudgetGatewayFilterFactory factory = new RetryAvecBudgetGatewayFilterFactory(budget);
+		GatewayFilter filtre = factory.apply(factory.newConfig());
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/patient/list"));
+		return filtre.filter(exchange, echange -> Mono.defer(() -> {
+			appels.incrementAndGet();
+			return Mono.error(refus);
+		}));
+	}
+
+	@Test
+	public void nouvellesTentativesDansLeBudgetTest() {
+		BudgetRetries budget = mock(BudgetRetries.class);
+		when(budget.autorise()).thenReturn(true);
+		when(budget.consommer()).thenReturn(true);
+
+		StepVerifier.create(filtrer(budget)).expectErrorMatches(erreur -> erreur == refus).verify();
+
+		assertThat(appels.get()).isEqualTo(3);
+		verify(budget, times(2)).consommer();
+	}
+
+	@Test
+	public void budgetEpuiseEntreDeuxTentativesTest() {
+		// une autre requête consomme le dernier jeton entre la vérification et la tentative
+		BudgetRetries budget = mock(BudgetRetries.class);
+		when(budget.autorise()).thenReturn(true, false);
+		when(budget.consommer()).thenReturn(false);
+
+		StepVerifier.create(filtrer(budget)).expectErrorMatches(erreur -> erreur == refus).verify();
+
+		assertThat(appels.get()).isEqualTo(1);
+	}
+}
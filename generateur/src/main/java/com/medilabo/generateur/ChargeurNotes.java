@@ -0,0 +1,191 @@
+package com.medilabo.generateur;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.medilabo.commun.declencheur.Declencheurs;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+
+/**
+ * Chargement des notes dans les collections {@code note} et {@code compteur_patient} de l'API Note.
+ * <p>
+ * Les documents ont la forme écrite par Spring Data pour {@code Note} et {@code CompteurPatient}
+ * (médecin embarqué, {@code _class}) ; le nombre de déclencheurs de chaque note est calculé avec le
+ * même automate que l'API ({@link Declencheurs#MATCHER}), et le compteur de chaque patient est incrémenté comme le fait l'API
+ * ({@code $inc} avec upsert). Les patients sont répartis par tranches entre les threads ; chaque thread
+ * envoie ses notes par {@code insertMany} non ordonné. L'index {@code patientId_dateNote} est créé
+ * à la fin s'il n'existe pas : le construire une fois est plus rapide que le tenir à jour à chaque insertion.
+ * </p>
+ */
+class ChargeurNotes {
+
+	/** Nombre de patients traités d'un coup par un thread. */
+	private static final int TRANCHE_PATIENTS = 1000;
+
+	private static final int NOMBRE_MEDECINS = 40;
+
+	private static final String CLASSE_NOTE = "com.medilabo.microService.note.model.Note";
+
+	private static final String CLASSE_COMPTEUR = "com.medilabo.microService.note.model.CompteurPatient";
+
+	private final Configuration configuration;
+
+	private final long premierId;
+
+	private final List<Document> medecins = new ArrayList<>(NOMBRE_MEDECINS);
+
+	private final AtomicLong prochainRang = new AtomicLong();
+
+	private final AtomicLong notesChargees = new AtomicLong();
+
+	/**
+	 * @param premierId identifiant du patient de rang 0
+	 */
+	ChargeurNotes(Configuration configuration, long premierId) {
+		this.configuration = configuration;
+		this.premierId = premierId;
+		SplittableRandom alea = Distributions.alea(configuration.graine(), -1);
+		for (long id = 1; id <= NOMBRE_MEDECINS; id++) {
+			medecins.add(new Document("_id", id)
+					.append("nomMedecin", Distributions.choisir(alea, Distributions.NOMS))
+					.append("prenomMedecin", Distributions.choisir(alea, alea.nextBoolean()
+							? Distributions.PRENOMS_FEMMES : Distributions.PRENOMS_HOMMES)));
+		}
+	}
+
+	/**
+	 * Charge les notes de tous les patients.
+	 *
+	 * @return le nombre de notes chargées
+	 */
+	long charger() throws InterruptedException, ExecutionException {
+		ConnectionString uri = new ConnectionString(configuration.mongo());
+		if (uri.getDatabase() == null) {
+			throw new IllegalArgumentException("L'URI MongoDB doit indiquer la base, par exemple mongodb://localhost:27017/medilabo");
+		}
+		try (MongoClient client = MongoClients.create(uri)) {
+			MongoDatabase base = client.getDatabase(uri.getDatabase());
+			MongoCollection<Document> notes = base.getCollection("note");
+			MongoCollection<Document> compteurs = base.getCollection("compteur_patient");
+			if (configuration.vider()) {
+				notes.drop();
+				compteurs.drop();
+			}
+
+			long debut = System.nanoTime();
+			List<Future<?>> threads = new ArrayList<>(configuration.threads());
+			ExecutorService executeur = Executors.newFixedThreadPool(configuration.threads());
+			try {
+				for (int i = 0; i < configuration.threads(); i++) {
+					threads.add(executeur.submit(() -> chargerTranches(notes, compteurs)));
+				}
+				for (Future<?> thread : threads) {
+					thread.get();
+				}
+			} finally {
+				executeur.shutdownNow();
+			}
+			Progression.terminer("notes", notesChargees.get(), debut);
+
+			notes.createIndex(Indexes.compoundIndex(Indexes.ascending("patientId"), Indexes.descending("dateNote")),
+					new IndexOptions().name("patientId_dateNote"));
+			return notesChargees.get();
+		}
+	}
+
+	private void chargerTranches(MongoCollection<Document> notes, MongoCollection<Document> compteurs) {
+		List<Document> lot = new ArrayList<>(configuration.tailleLot());
+		List<UpdateOneModel<Document>> totaux = new ArrayList<>(TRANCHE_PATIENTS);
+		long rang;
+		while ((rang = prochainRang.getAndAdd(TRANCHE_PATIENTS)) < configuration.patients()) {
+			long fin = Math.min(rang + TRANCHE_PATIENTS, configuration.patients());
+			for (; rang < fin; rang++) {
+				PatientSynthetique patient = PatientSynthetique.generer(configuration, rang, premierId + rang);
+				if (patient.nombreNotes() == 0) {
+					continue;
+				}
+				long totalDeclencheurs = 0;
+				LocalDateTime derniere = patient.dateCreation();
+				SplittableRandom alea = new SplittableRandom(patient.graineNotes());
+				long minutes = Math.max(1, ChronoUnit.MINUTES.between(patient.dateCreation(), configuration.dateReference().atStartOfDay()));
+				for (int i = 0; i < patient.nombreNotes(); i++) {
+					LocalDateTime dateNote = patient.dateCreation().plusMinutes(alea.nextLong(minutes));
+					derniere = dateNote.isAfter(derniere) ? dateNote : derniere;
+					Document note = note(patient, dateNote, alea);
+					totalDeclencheurs += note.getInteger("nombreDeclencheurs");
+					lot.add(note);
+					if (lot.size() >= configuration.tailleLot()) {
+						envoyer(notes, lot);
+					}
+				}
+				totaux.add(total(patient, totalDeclencheurs, derniere));
+			}
+			envoyer(notes, lot);
+			if (!totaux.isEmpty()) {
+				compteurs.bulkWrite(totaux, new BulkWriteOptions().ordered(false));
+				totaux.clear();
+			}
+		}
+	}
+
+	private Document note(PatientSynthetique patient, LocalDateTime dateNote, SplittableRandom alea) {
+		String texte = Distributions.texte(alea, Distributions.longueurNote(alea), patient.densiteMotsCles());
+		return new Document("patientId", patient.id())
+				.append("medecin", medecins.get(alea.nextInt(medecins.size())))
+				.append("dateNote", date(dateNote))
+				.append("note", texte)
+				.append("nombreDeclencheurs", Declencheurs.MATCHER.compterDeclencheurs(texte))
+				.append("_class", CLASSE_NOTE);
+	}
+
+	/** Ajout des notes du patient à son compteur, comme à chaque écriture de note par l'API. */
+	private static UpdateOneModel<Document> total(PatientSynthetique patient, long totalDeclencheurs, LocalDateTime derniere) {
+		Bson modification = Updates.combine(
+				Updates.inc("totalDeclencheurs", totalDeclencheurs),
+				Updates.inc("nombreNotes", (long) patient.nombreNotes()),
+				Updates.inc("version", 1L),
+				Updates.set("dateModification", date(derniere)),
+				Updates.setOnInsert("_class", CLASSE_COMPTEUR));
+		return new UpdateOneModel<>(Filters.eq("_id", patient.id()), modification, new UpdateOptions().upsert(true));
+	}
+
+	private void envoyer(MongoCollection<Document> notes, List<Document> lot) {
+		if (lot.isEmpty()) {
+			return;
+		}
+		notes.insertMany(lot, new InsertManyOptions().ordered(false));
+		long total = notesChargees.addAndGet(lot.size());
+		Progression.signaler("notes", total - lot.size(), total);
+		lot.clear();
+	}
+
+	/** Date enregistrée comme le fait Spring Data pour un {@code LocalDateTime} (fuseau de la JVM). */
+	private static Date date(LocalDateTime dateTime) {
+		return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+	}
+}
@@ -0,0 +1,160 @@
+package com.medilabo.generateur;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Chargement des patients dans la table {@code patient} créée par l'API Patient.
+ * <p>
+ * Les identifiants sont réservés d'un bloc dans la séquence {@code patient_seq}, qui est ensuite avancée
+ * au-delà du bloc : les patients créés plus tard par l'API (blocs de 50 de l'optimiseur pooled d'Hibernate)
+ * ne peuvent pas réutiliser un identifiant généré. Sur PostgreSQL, les lignes sont envoyées en un seul
+ * {@code COPY ... FROM STDIN} (le chemin d'insertion le plus rapide), puis la table est analysée pour que
+ * le planificateur connaisse son nouveau volume. Sur les autres bases (H2), elles sont insérées par lots JDBC.
+ * </p>
+ */
+class ChargeurPatients {
+
+	/** Taille des blocs d'identifiants réservés par Hibernate ({@code allocationSize} de {@code Patient}). */
+	private static final int ALLOCATION_HIBERNATE = 50;
+
+	private static final String COLONNES = "id, nom, prenom, date_naissance, genre, adresse, telephone, date_creation, date_modification";
+
+	/** Taille des blocs envoyés au flux COPY. */
+	private static final int TAILLE_BLOC_COPY = 1 << 20;
+
+	private final Configuration configuration;
+
+	ChargeurPatients(Configuration configuration) {
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Charge les patients.
+	 *
+	 * @return l'identifiant du premier patient (les suivants sont consécutifs)
+	 */
+	long charger() throws SQLException {
+		try (Connection connexion = DriverManager.getConnection(configuration.jdbc())) {
+			boolean postgres = "PostgreSQL".equals(connexion.getMetaData().getDatabaseProductName());
+			if (configuration.vider()) {
+				try (Statement statement = connexion.createStatement()) {
+					statement.execute(postgres ? "truncate table patient" : "delete from patient");
+				}
+			}
+			long premierId = reserverIdentifiants(connexion, postgres);
+			long debut = System.nanoTime();
+			if (postgres) {
+				copier(connexion, premierId);
+				try (Statement statement = connexion.createStatement()) {
+					statement.execute("analyze patient");
+				}
+			} else {
+				inserer(connexion, premierId);
+			}
+			Progression.terminer("patients", configuration.patients(), debut);
+			return premierId;
+		}
+	}
+
+	private long reserverIdentifiants(Connection connexion, boolean postgres) throws SQLException {
+		long valeur;
+		try (Statement statement = connexion.createStatement();
+				ResultSet resultat = statement.executeQuery(
+						postgres ? "select nextval('patient_seq')" : "select next value for patient_seq")) {
+			resultat.next();
+			valeur = resultat.getLong(1);
+		}
+		// prochain bloc Hibernate : ]suivante - 50, suivante], entièrement après les identifiants générés
+		long suivante = valeur + configuration.patients() + ALLOCATION_HIBERNATE;
+		if (postgres) {
+			try (PreparedStatement statement = connexion.prepareStatement("select setval('patient_seq', ?, false)")) {
+				statement.setLong(1, suivante);
+				statement.execute();
+			}
+		} else {
+			try (Statement statement = connexion.createStatement()) {
+				statement.execute("alter sequence patient_seq restart with " + suivante);
+			}
+		}
+		return valeur + 1;
+	}
+
+	private void copier(Connection connexion, long premierId) throws SQLException {
+		CopyIn copie = connexion.unwrap(PGConnection.class).getCopyAPI()
+				.copyIn("copy patient (" + COLONNES + ") from stdin (format csv)");
+		try {
+			ByteArrayOutputStream bloc = new ByteArrayOutputStream(TAILLE_BLOC_COPY + 4096);
+			StringBuilder ligne = new StringBuilder(256);
+			for (long rang = 0; rang < configuration.patients(); rang++) {
+				PatientSynthetique patient = PatientSynthetique.generer(configuration, rang, premierId + rang);
+				ligne.setLength(0);
+				ligne.append(patient.id()).append(',');
+				csv(ligne, patient.nom()).append(',');
+				csv(ligne, patient.prenom()).append(',');
+				ligne.append(patient.dateNaissance()).append(',');
+				csv(ligne, patient.genre()).append(',');
+				csv(ligne, patient.adresse()).append(',');
+				csv(ligne, patient.telephone()).append(',');
+				ligne.append(patient.dateCreation()).append(',');
+				ligne.append(patient.dateModification()).append('\n');
+				bloc.writeBytes(ligne.toString().getBytes(StandardCharsets.UTF_8));
+				if (bloc.size() >= TAILLE_BLOC_COPY) {
+					copie.writeToCopy(bloc.toByteArray(), 0, bloc.size());
+					bloc.reset();
+				}
+				Progression.signaler("patients", rang, rang + 1);
+			}
+			copie.writeToCopy(bloc.toByteArray(), 0, bloc.size());
+			copie.endCopy();
+		} finally {
+			if (copie.isActive()) {
+				copie.cancelCopy();
+			}
+		}
+	}
+
+	private void inserer(Connection connexion, long premierId) throws SQLException {
+		connexion.setAutoCommit(false);
+		try (PreparedStatement statement = connexion.prepareStatement(
+				"insert into patient (" + COLONNES + ") values (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+			for (long rang = 0; rang < configuration.patients(); rang++) {
+				PatientSynthetique patient = PatientSynthetique.generer(configuration, rang, premierId + rang);
+				statement.setLong(1, patient.id());
+				statement.setString(2, patient.nom());
+				statement.setString(3, patient.prenom());
+				statement.setObject(4, patient.dateNaissance());
+				statement.setString(5, patient.genre());
+				statement.setString(6, patient.adresse());
+				statement.setString(7, patient.telephone());
+				statement.setObject(8, patient.dateCreation());
+				statement.setObject(9, patient.dateModification());
+				statement.addBatch();
+				if ((rang + 1) % configuration.tailleLot() == 0) {
+					statement.executeBatch();
+					connexion.commit();
+				}
+				Progression.signaler("patients", rang, rang + 1);
+			}
+			statement.executeBatch();
+			connexion.commit();
+		}
+	}
+
+	/** Champ CSV entre guillemets ; un champ vide sans guillemets vaut {@code null} pour {@code COPY}. */
+	private static StringBuilder csv(StringBuilder ligne, String valeur) {
+		if (valeur == null) {
+			return ligne;
+		}
+		return ligne.append('"').append(valeur.replace("\"", "\"\"")).append('"');
+	}
+}
@@ -0,0 +1,75 @@
+package com.medilabo.generateur;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Paramètres de la génération, lus sur la ligne de commande ({@code --cle=valeur}).
+ *
+ * @param patients      nombre de patients générés
+ * @param notes         nombre moyen de notes générées au total (le nombre exact dépend du tirage)
+ * @param graine        graine des tirages : deux générations avec la même graine produisent les mêmes données
+ * @param dateReference date à laquelle les données sont générées (dates de création, de notes et âges)
+ * @param jdbc          URL JDBC de la base des patients (PostgreSQL ou H2), {@code null} pour ne pas générer de patients
+ * @param mongo         URI MongoDB de la base des notes, {@code null} pour ne pas générer de notes
+ * @param premierId     identifiant du premier patient quand les patients ne sont pas générés ({@code jdbc} absent)
+ * @param threads       nombre de threads de génération des notes
+ * @param tailleLot     nombre de lignes ou de documents par envoi
+ * @param vider         vide la table {@code patient} et les collections {@code note} et {@code compteur_patient} avant de générer
+ */
+public record Configuration(long patients, long notes, long graine, LocalDate dateReference, String jdbc, String mongo,
+		long premierId, int threads, int tailleLot, boolean vider) {
+
+	/**
+	 * Lit les arguments {@code --cle=valeur} ; les clés absentes prennent leur valeur par défaut.
+	 *
+	 * @throws IllegalArgumentException si un argument est mal formé ou inconnu
+	 */
+	public static Configuration lire(String[] args) {
+		Map<String, String> valeurs = new HashMap<>();
+		for (String arg : args) {
+			int egal = arg.indexOf('=');
+			if (!arg.startsWith("--") || egal < 0) {
+				throw new IllegalArgumentException("Argument attendu sous la forme --cle=valeur : " + arg);
+			}
+			valeurs.put(arg.substring(2, egal), arg.substring(egal + 1));
+		}
+
+		Configuration configuration = new Configuration(
+				Long.parseLong(retirer(valeurs, "patients", "1000000")),
+				Long.parseLong(retirer(valeurs, "notes", "10000000")),
+				Long.parseLong(retirer(valeurs, "graine", "42")),
+				LocalDate.parse(retirer(valeurs, "date-reference", "2025-01-01")),
+				valeurs.remove("jdbc"),
+				valeurs.remove("mongo"),
+				Long.parseLong(retirer(valeurs, "premier-id", "1")),
+				Integer.parseInt(retirer(valeurs, "threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+				Integer.parseInt(retirer(valeurs, "taille-lot", "5000")),
+				Boolean.parseBoolean(retirer(valeurs, "vider", "false")));
+
+		if (!valeurs.isEmpty()) {
+			throw new IllegalArgumentException("Arguments inconnus : " + valeurs.keySet());
+		}
+		if (configuration.patients() < 1 || configuration.notes() < 0) {
+			throw new IllegalArgumentException("Il faut au moins un patient et un nombre de notes positif.");
+		}
+		if (configuration.threads() < 1 || configuration.tailleLot() < 1) {
+			throw new IllegalArgumentException("Le nombre de threads et la taille des lots doivent être au moins égaux à 1.");
+		}
+		if (configuration.jdbc() == null && configuration.mongo() == null) {
+			throw new IllegalArgumentException("Indiquer au moins une base : --jdbc pour les patients, --mongo pour les notes.");
+		}
+		return configuration;
+	}
+
+	/** Nombre moyen de notes par patient. */
+	public double notesParPatient() {
+		return (double) notes / patients;
+	}
+
+	private static String retirer(Map<String, String> valeurs, String cle, String defaut) {
+		String valeur = valeurs.remove(cle);
+		return valeur != null ? valeur : defaut;
+	}
+}
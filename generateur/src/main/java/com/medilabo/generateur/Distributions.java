@@ -0,0 +1,159 @@
+package com.medilabo.generateur;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.medilabo.commun.declencheur.Declencheurs;
+
+/**
+ * Lois de tirage des données générées.
+ * <p>
+ * Les proportions sont celles d'une patientèle de médecine générale : un peu plus de femmes que d'hommes,
+ * une majorité d'adultes de plus de 45 ans, et un nombre de notes par patient très inégal (loi log-normale) :
+ * la plupart des patients ont quelques notes, quelques-uns plusieurs centaines. La densité des termes
+ * déclencheurs dépend du profil du patient, pour que les quatre niveaux de risque soient représentés.
+ * </p>
+ */
+final class Distributions {
+
+	private static final List<String> MOTS_COURANTS = List.of(
+			"le", "patient", "présente", "une", "tension", "artérielle", "stable", "depuis", "la", "dernière",
+			"consultation", "examen", "clinique", "sans", "particularité", "suivi", "traitement", "prescrit",
+			"bilan", "sanguin", "prévu", "douleur", "thoracique", "absente", "revoir", "dans", "trois", "mois",
+			"glycémie", "à", "jeun", "contrôlée", "auscultation", "normale", "fatigue", "signalée", "régime",
+			"alimentaire", "conseillé", "activité", "physique", "régulière", "recommandée", "pas", "de", "fièvre");
+
+	static final List<String> NOMS = List.of("Martin", "Bernard", "Thomas", "Petit", "Robert", "Richard", "Durand",
+			"Dubois", "Moreau", "Laurent", "Simon", "Michel", "Lefebvre", "Leroy", "Roux", "David", "Bertrand",
+			"Morel", "Fournier", "Girard", "Bonnet", "Dupont", "Lambert", "Fontaine", "Rousseau", "Vincent",
+			"Muller", "Lefèvre", "Faure", "André", "Mercier", "Blanc", "Guérin", "Boyer", "Garnier", "Chevalier",
+			"François", "Legrand", "Gauthier", "Garcia", "Perrin", "Robin", "Clément", "Morin", "Nicolas", "Henry",
+			"Roussel", "Mathieu", "Gautier", "Masson");
+
+	static final List<String> PRENOMS_FEMMES = List.of("Marie", "Nathalie", "Isabelle", "Sylvie", "Catherine",
+			"Françoise", "Christine", "Monique", "Sophie", "Valérie", "Sandrine", "Céline", "Julie", "Camille",
+			"Léa", "Manon", "Chloé", "Emma", "Inès", "Jade", "Louise", "Alice", "Anne-Marie", "Jeanne", "Lucie");
+
+	static final List<String> PRENOMS_HOMMES = List.of("Jean", "Philippe", "Michel", "Alain", "Patrick", "Nicolas",
+			"Christophe", "Pierre", "Christian", "Éric", "Frédéric", "Laurent", "Stéphane", "David", "Julien",
+			"Thomas", "Lucas", "Hugo", "Louis", "Gabriel", "Arthur", "Jules", "Jean-Pierre", "Paul", "Antoine");
+
+	private static final List<String> VOIES = List.of("rue", "avenue", "boulevard", "chemin", "place", "allée", "impasse");
+
+	private static final List<String> NOMS_VOIES = List.of("des Lilas", "Victor Hugo", "de la République",
+			"Jean Jaurès", "du Moulin", "de la Gare", "Pasteur", "des Écoles", "du Château", "de l'Église",
+			"Gambetta", "des Tilleuls", "de Paris", "du Général de Gaulle", "des Acacias");
+
+	/** Tranches d'âge : âge minimum, âge maximum exclu, proportion cumulée. */
+	private static final double[][] TRANCHES_AGE = {
+			{0, 18, 0.14}, {18, 30, 0.26}, {30, 45, 0.44}, {45, 60, 0.66}, {60, 75, 0.87}, {75, 96, 1.0}};
+
+	/** Profils de patients : proportion cumulée, probabilité qu'un mot soit un terme déclencheur. */
+	private static final double[][] PROFILS_DECLENCHEURS = {{0.60, 0.003}, {0.85, 0.02}, {1.0, 0.06}};
+
+	/** Écart type (en logarithme) du nombre de notes par patient. */
+	private static final double SIGMA_NOTES = 1.0;
+
+	/** Longueur médiane d'une note et son écart type en logarithme. */
+	private static final double LONGUEUR_MEDIANE = 250;
+
+	private static final double SIGMA_LONGUEUR = 0.6;
+
+	private static final int LONGUEUR_MIN = 20;
+
+	private static final int LONGUEUR_MAX = 4000;
+
+	private Distributions() {
+	}
+
+	/**
+	 * Générateur propre à un patient : les données d'un patient ne dépendent que de la graine et de son rang,
+	 * quel que soit l'ordre ou le thread de génération.
+	 */
+	static SplittableRandom alea(long graine, long rang) {
+		return new SplittableRandom(graine * 0x9E3779B97F4A7C15L + rang);
+	}
+
+	static <T> T choisir(SplittableRandom alea, List<T> valeurs) {
+		return valeurs.get(alea.nextInt(valeurs.size()));
+	}
+
+	/** Âge en jours, tiré par tranche puis uniformément dans la tranche. */
+	static long ageEnJours(SplittableRandom alea) {
+		double tirage = alea.nextDouble();
+		for (double[] tranche : TRANCHES_AGE) {
+			if (tirage < tranche[2]) {
+				return alea.nextLong((long) (tranche[0] * 365.25), (long) (tranche[1] * 365.25));
+			}
+		}
+		throw new IllegalStateException("Tranches d'âge incomplètes");
+	}
+
+	/**
+	 * Nombre de notes d'un patient, de moyenne {@code moyenne} (loi log-normale arrondie au hasard,
+	 * ce qui conserve la moyenne), plafonné à cent fois la moyenne.
+	 */
+	static int nombreNotes(SplittableRandom alea, double moyenne) {
+		if (moyenne <= 0) {
+			return 0;
+		}
+		double mu = Math.log(moyenne) - SIGMA_NOTES * SIGMA_NOTES / 2;
+		double valeur = Math.min(Math.exp(mu + SIGMA_NOTES * alea.nextGaussian()), moyenne * 100);
+		long entier = (long) valeur;
+		return (int) (alea.nextDouble() < valeur - entier ? entier + 1 : entier);
+	}
+
+	/** Probabilité qu'un mot des notes du patient soit un terme déclencheur, selon son profil. */
+	static double densiteMotsCles(SplittableRandom alea) {
+		double tirage = alea.nextDouble();
+		for (double[] profil : PROFILS_DECLENCHEURS) {
+			if (tirage < profil[0]) {
+				return profil[1];
+			}
+		}
+		throw new IllegalStateException("Profils de patients incomplets");
+	}
+
+	static int longueurNote(SplittableRandom alea) {
+		double longueur = LONGUEUR_MEDIANE * Math.exp(SIGMA_LONGUEUR * alea.nextGaussian());
+		return (int) Math.max(LONGUEUR_MIN, Math.min(LONGUEUR_MAX, longueur));
+	}
+
+	static String adresse(SplittableRandom alea) {
+		return (1 + alea.nextInt(150)) + " " + choisir(alea, VOIES) + " " + choisir(alea, NOMS_VOIES);
+	}
+
+	static String telephone(SplittableRandom alea) {
+		StringBuilder telephone = new StringBuilder(14).append('0').append(1 + alea.nextInt(7));
+		for (int i = 0; i < 4; i++) {
+			telephone.append(' ').append(alea.nextInt(10)).append(alea.nextInt(10));
+		}
+		return telephone.toString();
+	}
+
+	/**
+	 * Transmission d'environ {@code longueur} caractères, dont chaque mot est un terme déclencheur
+	 * avec la probabilité {@code densite} (casse variable, comme dans les notes saisies).
+	 */
+	static String texte(SplittableRandom alea, int longueur, double densite) {
+		StringBuilder texte = new StringBuilder(longueur + 16);
+		boolean debutPhrase = true;
+		while (texte.length() < longueur) {
+			String mot;
+			if (alea.nextDouble() < densite) {
+				mot = choisir(alea, Declencheurs.MOTS_CLES);
+				mot = alea.nextBoolean() ? mot.toLowerCase() : mot;
+			} else {
+				mot = choisir(alea, MOTS_COURANTS);
+			}
+			if (debutPhrase) {
+				mot = Character.toUpperCase(mot.charAt(0)) + mot.substring(1);
+			}
+			texte.append(mot);
+			debutPhrase = alea.nextInt(12) == 0;
+			texte.append(debutPhrase ? ". " : (alea.nextInt(8) == 0 ? ", " : " "));
+		}
+		texte.setLength(texte.length() - 1);
+		return texte.toString();
+	}
+}
@@ -0,0 +1,42 @@
+package com.medilabo.generateur;
+
+import java.sql.SQLException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Génération d'un jeu de données volumineux et reproductible pour les tests de performance.
+ * <p>
+ * Les patients sont chargés dans la base de l'API Patient ({@code --jdbc}), puis leurs notes dans celle
+ * de l'API Note ({@code --mongo}). Les tables et collections doivent avoir été créées par un premier
+ * démarrage des API. Exemple :
+ * {@code java -jar medilabo-generateur.jar --patients=1000000 --notes=10000000
+ * --jdbc=jdbc:postgresql://localhost:5432/medilabo?user=medilabo&password=medilabo
+ * --mongo=mongodb://localhost:27017/medilabo}.
+ * </p>
+ */
+public class GenerateurDonnees {
+
+	public static void main(String[] args) throws SQLException, InterruptedException, ExecutionException {
+		Configuration configuration;
+		try {
+			configuration = Configuration.lire(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Options : --patients, --notes, --graine, --date-reference (aaaa-mm-jj), --jdbc, --mongo, "
+					+ "--premier-id (sans --jdbc), --threads, --taille-lot, --vider=true");
+			System.exit(2);
+			return;
+		}
+
+		long premierId = configuration.premierId();
+		if (configuration.jdbc() != null) {
+			System.err.printf("Génération de %,d patients (graine %d)...%n", configuration.patients(), configuration.graine());
+			premierId = new ChargeurPatients(configuration).charger();
+		}
+		if (configuration.mongo() != null) {
+			System.err.printf("Génération d'environ %,d notes pour les patients %d à %d...%n", configuration.notes(),
+					premierId, premierId + configuration.patients() - 1);
+			new ChargeurNotes(configuration, premierId).charger();
+		}
+	}
+}
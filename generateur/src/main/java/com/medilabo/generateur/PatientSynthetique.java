@@ -0,0 +1,52 @@
+package com.medilabo.generateur;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+
+/**
+ * Patient généré, avec ce qu'il faut pour générer ses notes.
+ *
+ * @param id              identifiant du patient
+ * @param dateCreation    date de création du dossier, aussi date de la première note possible
+ * @param nombreNotes     nombre de notes du patient
+ * @param densiteMotsCles probabilité qu'un mot de ses notes soit un terme déclencheur
+ * @param graineNotes     graine des tirages de ses notes
+ */
+record PatientSynthetique(long id, String nom, String prenom, LocalDate dateNaissance, String genre, String adresse,
+		String telephone, LocalDateTime dateCreation, LocalDateTime dateModification, int nombreNotes,
+		double densiteMotsCles, long graineNotes) {
+
+	/** Ancienneté maximale d'un dossier, en jours. */
+	private static final int ANCIENNETE_MAX_JOURS = 10 * 365;
+
+	/**
+	 * Génère le patient de rang {@code rang} (à partir de 0). Le résultat ne dépend que de la configuration,
+	 * du rang et de l'identifiant.
+	 */
+	static PatientSynthetique generer(Configuration configuration, long rang, long id) {
+		SplittableRandom alea = Distributions.alea(configuration.graine(), rang);
+		LocalDateTime reference = configuration.dateReference().atStartOfDay();
+
+		boolean femme = alea.nextDouble() < 0.52;
+		LocalDate dateNaissance = configuration.dateReference().minusDays(Distributions.ageEnJours(alea));
+		long ancienneteMax = Math.min(ANCIENNETE_MAX_JOURS, ChronoUnit.DAYS.between(dateNaissance, configuration.dateReference()));
+		LocalDateTime dateCreation = reference.minusMinutes(alea.nextLong(Math.max(1, ancienneteMax) * 24 * 60));
+		LocalDateTime dateModification = dateCreation.plusMinutes(
+				alea.nextLong(Math.max(1, ChronoUnit.MINUTES.between(dateCreation, reference))));
+
+		return new PatientSynthetique(id,
+				Distributions.choisir(alea, Distributions.NOMS),
+				Distributions.choisir(alea, femme ? Distributions.PRENOMS_FEMMES : Distributions.PRENOMS_HOMMES),
+				dateNaissance,
+				femme ? "F" : "M",
+				alea.nextDouble() < 0.85 ? Distributions.adresse(alea) : null,
+				alea.nextDouble() < 0.9 ? Distributions.telephone(alea) : null,
+				dateCreation,
+				dateModification,
+				Distributions.nombreNotes(alea, configuration.notesParPatient()),
+				Distributions.densiteMotsCles(alea),
+				alea.nextLong());
+	}
+}
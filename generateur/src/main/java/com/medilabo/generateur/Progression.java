@@ -0,0 +1,33 @@
+package com.medilabo.generateur;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Affichage de l'avancement de la génération sur la sortie d'erreur.
+ */
+final class Progression {
+
+	/** Un message tous les {@value} éléments chargés. */
+	private static final long PAS = 100_000;
+
+	private Progression() {
+	}
+
+	/**
+	 * Signale l'avancement quand le total passe un multiple de {@link #PAS}.
+	 *
+	 * @param avant le total avant le dernier envoi
+	 * @param apres le total après le dernier envoi
+	 */
+	static void signaler(String libelle, long avant, long apres) {
+		if (avant / PAS != apres / PAS) {
+			System.err.printf(Locale.ROOT, "  %,d %s...%n", apres, libelle);
+		}
+	}
+
+	static void terminer(String libelle, long total, long debutNs) {
+		double secondes = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debutNs)) / 1000.0;
+		System.err.printf(Locale.ROOT, "%,d %s chargés en %.1f s (%,.0f par seconde).%n", total, libelle, secondes, total / secondes);
+	}
+}
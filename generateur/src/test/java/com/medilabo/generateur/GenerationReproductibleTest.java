@@ -0,0 +1,94 @@
+package com.medilabo.generateur;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+public class GenerationReproductibleTest {
+
+	private static final LocalDate DATE_REFERENCE = LocalDate.of(2025, 1, 1);
+
+	private static Configuration configuration(long graine, LocalDate dateReference) {
+		return new Configuration(1000, 10000, graine, dateReference, "jdbc:h2:mem:test", null, 1, 4, 500, false);
+	}
+
+	private static List<PatientSynthetique> patients(Configuration configuration) {
+		return LongStream.range(0, 100)
+				.mapToObj(rang -> PatientSynthetique.generer(configuration, rang, rang + 1))
+				.toList();
+	}
+
+	/** Notes d'un patient tirées comme par {@link ChargeurNotes}, à partir de la graine du patient. */
+	private static List<String> notes(PatientSynthetique patient) {
+		SplittableRandom alea = new SplittableRandom(patient.graineNotes());
+		List<String> textes = new ArrayList<>();
+		for (int i = 0; i < patient.nombreNotes(); i++) {
+			textes.add(Distributions.texte(alea, Distributions.longueurNote(alea), patient.densiteMotsCles()));
+		}
+		return textes;
+	}
+
+	@Test
+	public void memesPatientsPourLaMemeGraineTest() {
+		assertThat(patients(configuration(42, DATE_REFERENCE))).isEqualTo(patients(configuration(42, DATE_REFERENCE)));
+	}
+
+	@Test
+	public void patientIndependantDeLOrdreDeGenerationTest() {
+		Configuration configuration = configuration(42, DATE_REFERENCE);
+		List<PatientSynthetique> dansLOrdre = patients(configuration);
+
+		// un thread peut générer le rang 57 avant les précédents
+		assertThat(PatientSynthetique.generer(configuration, 57, 58)).isEqualTo(dansLOrdre.get(57));
+	}
+
+	@Test
+	public void memesNotesPourLaMemeGraineTest() {
+		List<PatientSynthetique> premiere = patients(configuration(42, DATE_REFERENCE));
+		List<PatientSynthetique> seconde = patients(configuration(42, DATE_REFERENCE));
+
+		for (int i = 0; i < premiere.size(); i++) {
+			assertThat(notes(seconde.get(i))).isEqualTo(notes(premiere.get(i)));
+		}
+		assertThat(premiere).anyMatch(patient -> patient.nombreNotes() > 0);
+	}
+
+	@Test
+	public void memesTiragesPourLeMemeGenerateurTest() {
+		SplittableRandom premier = Distributions.alea(42, 7);
+		SplittableRandom second = Distributions.alea(42, 7);
+
+		for (int i = 0; i < 1000; i++) {
+			assertThat(Distributions.ageEnJours(second)).isEqualTo(Distributions.ageEnJours(premier));
+			assertThat(Distributions.nombreNotes(second, 10)).isEqualTo(Distributions.nombreNotes(premier, 10));
+			assertThat(Distributions.densiteMotsCles(second)).isEqualTo(Distributions.densiteMotsCles(premier));
+			assertThat(Distributions.adresse(second)).isEqualTo(Distributions.adresse(premier));
+			assertThat(Distributions.telephone(second)).isEqualTo(Distributions.telephone(premier));
+		}
+	}
+
+	@Test
+	public void autreGraineAutresPatientsTest() {
+		assertThat(patients(configuration(43, DATE_REFERENCE))).isNotEqualTo(patients(configuration(42, DATE_REFERENCE)));
+	}
+
+	@Test
+	public void datesRelativesALaDateDeReferenceTest() {
+		LocalDate autreReference = DATE_REFERENCE.plusYears(1);
+		List<PatientSynthetique> avant = patients(configuration(42, DATE_REFERENCE));
+		List<PatientSynthetique> apres = patients(configuration(42, autreReference));
+
+		for (int i = 0; i < avant.size(); i++) {
+			assertThat(apres.get(i).nom()).isEqualTo(avant.get(i).nom());
+			assertThat(apres.get(i).dateNaissance()).isEqualTo(
+					autreReference.minusDays(DATE_REFERENCE.toEpochDay() - avant.get(i).dateNaissance().toEpochDay()));
+			assertThat(apres.get(i).dateCreation()).isBefore(autreReference.atStartOfDay());
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.medilabo.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Client HTTP de la gateway, partagé par tous les scénarios.
+ * <p>
+ * Chaque requête est enregistrée dans les {@link Mesures} sous le nom de sa route, sa latence étant
+ * comptée depuis l'instant de départ fourni par l'appelant. Une réponse 2xx ou 304 est un succès ;
+ * tout autre statut, un délai dépassé ou une connexion refusée est une erreur. Le token obtenu à la
+ * connexion est ajouté à toutes les requêtes suivantes.
+ * </p>
+ */
+public class ClientMedilabo {
+
+	private final HttpClient http;
+
+	private final URI cible;
+
+	private final Duration timeout;
+
+	private final Mesures mesures;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private volatile String token;
+
+	public ClientMedilabo(Configuration configuration, Mesures mesures) {
+		this.cible = configuration.cible();
+		this.timeout = configuration.timeout();
+		this.mesures = mesures;
+		this.http = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(configuration.timeout())
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.build();
+	}
+
+	/**
+	 * Connecte le médecin.
+	 *
+	 * @return le token JWT, {@code null} si la connexion a échoué
+	 */
+	public String connecter(String utilisateur, String motDePasse, long debutNs) {
+		String corps = objectMapper.createObjectNode().put("username", utilisateur).put("password", motDePasse).toString();
+		HttpResponse<String> reponse = envoyer("POST /utilisateur/login", post("/utilisateur/login", corps, "application/json"), debutNs);
+		if (!succes(reponse)) {
+			return null;
+		}
+		return lireJson(reponse.body()).path("token").asText(null);
+	}
+
+	/** Token ajouté aux requêtes suivantes. */
+	public void authentifier(String token) {
+		this.token = token;
+	}
+
+	public HttpRequest.Builder get(String chemin) {
+		return HttpRequest.newBuilder(cible.resolve(chemin)).GET();
+	}
+
+	public HttpRequest.Builder post(String chemin, String corps, String typeContenu) {
+		return HttpRequest.newBuilder(cible.resolve(chemin))
+				.header("Content-Type", typeContenu)
+				.POST(HttpRequest.BodyPublishers.ofString(corps));
+	}
+
+	/**
+	 * Envoie une requête et enregistre sa latence.
+	 *
+	 * @param route   nom de la route dans le rapport
+	 * @param requete la requête à compléter (token, délai maximum)
+	 * @param debutNs instant de départ de la mesure ({@link System#nanoTime()})
+	 * @return la réponse, {@code null} si elle n'est pas arrivée
+	 */
+	public HttpResponse<String> envoyer(String route, HttpRequest.Builder requete, long debutNs) {
+		requete.timeout(timeout);
+		String tokenCourant = token;
+		if (tokenCourant != null) {
+			requete.header("Authorization", "Bearer " + tokenCourant);
+		}
+		try {
+			HttpResponse<String> reponse = http.send(requete.build(), HttpResponse.BodyHandlers.ofString());
+			mesures.enregistrer(route, debutNs, succes(reponse));
+			return reponse;
+		} catch (IOException e) {
+			mesures.enregistrer(route, debutNs, false);
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			mesures.enregistrer(route, debutNs, false);
+			return null;
+		}
+	}
+
+	public JsonNode lireJson(String corps) {
+		try {
+			return objectMapper.readTree(corps);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Réponse JSON illisible : " + e.getOriginalMessage(), e);
+		}
+	}
+
+	public Mesures mesures() {
+		return mesures;
+	}
+
+	public ObjectMapper objectMapper() {
+		return objectMapper;
+	}
+
+	public static boolean succes(HttpResponse<?> reponse) {
+		return reponse != null && (reponse.statusCode() / 100 == 2 || reponse.statusCode() == 304);
+	}
+}
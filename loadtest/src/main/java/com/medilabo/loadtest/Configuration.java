@@ -0,0 +1,100 @@
+package com.medilabo.loadtest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Paramètres d'un test de charge, lus sur la ligne de commande ({@code --cle=valeur}).
+ *
+ * @param cible             URL de la gateway
+ * @param debit             nombre de scénarios démarrés par seconde
+ * @param arrivees          loi des arrivées : {@code constantes} (intervalle fixe) ou {@code poisson}
+ * @param echauffement      durée de la phase d'échauffement, dont les mesures sont ignorées
+ * @param duree             durée de la phase mesurée
+ * @param timeout           délai maximum d'une requête
+ * @param maxEnCours        nombre maximum de scénarios en cours ; au-delà, les arrivées sont abandonnées
+ * @param patients          nombre de patients importés avant le test
+ * @param notesParPatient   nombre de notes ajoutées à chaque patient importé
+ * @param utilisateur       identifiant du médecin utilisé par le test (créé s'il n'existe pas)
+ * @param motDePasse        mot de passe du médecin
+ * @param mix               poids relatif de chaque scénario
+ * @param csv               fichier CSV du rapport, {@code null} pour n'afficher que le tableau
+ */
+public record Configuration(URI cible, double debit, String arrivees, Duration echauffement, Duration duree,
+		Duration timeout, int maxEnCours, int patients, int notesParPatient, String utilisateur, String motDePasse,
+		Map<Scenario, Integer> mix, String csv) {
+
+	public static final String MIX_PAR_DEFAUT = "connexion:5,liste:25,dossier:40,note:15,risque:15";
+
+	/**
+	 * Lit les arguments {@code --cle=valeur} ; les clés absentes prennent leur valeur par défaut.
+	 *
+	 * @throws IllegalArgumentException si un argument est mal formé ou inconnu
+	 */
+	public static Configuration lire(String[] args) {
+		Map<String, String> valeurs = new HashMap<>();
+		for (String arg : args) {
+			int egal = arg.indexOf('=');
+			if (!arg.startsWith("--") || egal < 0) {
+				throw new IllegalArgumentException("Argument attendu sous la forme --cle=valeur : " + arg);
+			}
+			valeurs.put(arg.substring(2, egal), arg.substring(egal + 1));
+		}
+
+		Configuration configuration = new Configuration(
+				URI.create(retirer(valeurs, "cible", "http://localhost:8080")),
+				Double.parseDouble(retirer(valeurs, "debit", "20")),
+				retirer(valeurs, "arrivees", "poisson"),
+				Duration.ofSeconds(Long.parseLong(retirer(valeurs, "echauffement", "30"))),
+				Duration.ofSeconds(Long.parseLong(retirer(valeurs, "duree", "120"))),
+				Duration.ofSeconds(Long.parseLong(retirer(valeurs, "timeout", "10"))),
+				Integer.parseInt(retirer(valeurs, "max-en-cours", "2000")),
+				Integer.parseInt(retirer(valeurs, "patients", "200")),
+				Integer.parseInt(retirer(valeurs, "notes-par-patient", "3")),
+				retirer(valeurs, "utilisateur", "chargeMed"),
+				retirer(valeurs, "mot-de-passe", "Charge2025!"),
+				lireMix(retirer(valeurs, "mix", MIX_PAR_DEFAUT)),
+				valeurs.remove("csv"));
+
+		if (!valeurs.isEmpty()) {
+			throw new IllegalArgumentException("Arguments inconnus : " + valeurs.keySet());
+		}
+		if (configuration.debit() <= 0 || configuration.maxEnCours() < 1) {
+			throw new IllegalArgumentException("Le débit doit être positif et max-en-cours au moins égal à 1.");
+		}
+		if (!"constantes".equals(configuration.arrivees()) && !"poisson".equals(configuration.arrivees())) {
+			throw new IllegalArgumentException("Les arrivées doivent être 'constantes' ou 'poisson'.");
+		}
+		return configuration;
+	}
+
+	/**
+	 * Lit un mix de la forme {@code connexion:5,liste:25} ; un scénario absent a un poids nul.
+	 */
+	static Map<Scenario, Integer> lireMix(String texte) {
+		Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+		for (String element : texte.split(",")) {
+			String[] parties = element.trim().split(":");
+			if (parties.length != 2) {
+				throw new IllegalArgumentException("Élément de mix attendu sous la forme scenario:poids : " + element);
+			}
+			int poids = Integer.parseInt(parties[1].trim());
+			if (poids < 0) {
+				throw new IllegalArgumentException("Le poids d'un scénario ne peut pas être négatif : " + element);
+			}
+			mix.put(Scenario.depuisNom(parties[0].trim()), poids);
+		}
+		if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+			throw new IllegalArgumentException("Le mix doit contenir au moins un scénario de poids positif.");
+		}
+		return mix;
+	}
+
+	private static String retirer(Map<String, String> valeurs, String cle, String defaut) {
+		String valeur = valeurs.remove(cle);
+		return valeur != null ? valeur : defaut;
+	}
+}
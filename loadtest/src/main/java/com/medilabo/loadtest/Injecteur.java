@@ -0,0 +1,124 @@
+package com.medilabo.loadtest;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Démarrage des scénarios à débit fixé (modèle ouvert).
+ * <p>
+ * Les arrivées ne dépendent pas des réponses : un scénario démarre à chaque instant prévu, sur son
+ * propre thread virtuel, même si les précédents ne sont pas terminés. Un service ralenti voit donc
+ * les requêtes s'accumuler, comme en production, au lieu de ralentir l'injecteur. Les instants sont
+ * réguliers ({@code constantes}) ou tirés selon un processus de Poisson ({@code poisson}). Au-delà de
+ * {@code maxEnCours} scénarios en cours, les arrivées sont abandonnées et comptées.
+ * </p>
+ */
+public class Injecteur {
+
+	private final Configuration configuration;
+
+	private final Parcours parcours;
+
+	private final Mesures mesures;
+
+	private final Scenario[] scenarios;
+
+	private final int[] poidsCumules;
+
+	public Injecteur(Configuration configuration, Parcours parcours, Mesures mesures) {
+		this.configuration = configuration;
+		this.parcours = parcours;
+		this.mesures = mesures;
+
+		Map<Scenario, Integer> mix = configuration.mix();
+		this.scenarios = mix.keySet().toArray(Scenario[]::new);
+		this.poidsCumules = new int[scenarios.length];
+		int cumul = 0;
+		for (int i = 0; i < scenarios.length; i++) {
+			cumul += mix.get(scenarios[i]);
+			poidsCumules[i] = cumul;
+		}
+	}
+
+	/**
+	 * Injecte la charge pendant l'échauffement puis pendant la durée mesurée ; les mesures sont remises
+	 * à zéro entre les deux. Attend ensuite la fin des scénarios en cours (au plus deux fois le délai
+	 * maximum d'une requête).
+	 */
+	public void injecter() throws InterruptedException {
+		Semaphore enCours = new Semaphore(configuration.maxEnCours());
+		ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor();
+
+		long debut = System.nanoTime();
+		long finEchauffement = debut + configuration.echauffement().toNanos();
+		long fin = finEchauffement + configuration.duree().toNanos();
+		boolean enEchauffement = configuration.echauffement().isPositive();
+		System.err.printf("Injection à %.1f scénarios/s : %d s d'échauffement, %d s mesurées.%n",
+				configuration.debit(), configuration.echauffement().toSeconds(), configuration.duree().toSeconds());
+
+		long prochaine = debut;
+		while (prochaine < fin) {
+			attendre(prochaine);
+			if (enEchauffement && prochaine >= finEchauffement) {
+				mesures.remettreAZero();
+				enEchauffement = false;
+				System.err.println("Fin de l'échauffement, début des mesures.");
+			}
+			if (enCours.tryAcquire()) {
+				long prevu = prochaine;
+				Scenario scenario = tirer();
+				executeur.execute(() -> {
+					try {
+						parcours.executer(scenario, prevu);
+					} finally {
+						enCours.release();
+					}
+				});
+			} else {
+				mesures.abandonner();
+			}
+			prochaine += intervalleNs();
+		}
+		if (enEchauffement) {
+			mesures.remettreAZero();
+		}
+
+		executeur.shutdown();
+		Duration attente = configuration.timeout().multipliedBy(2);
+		if (!executeur.awaitTermination(attente.toMillis(), TimeUnit.MILLISECONDS)) {
+			System.err.println("Des scénarios sont encore en cours, ils ne figurent pas dans le rapport.");
+			executeur.shutdownNow();
+		}
+	}
+
+	private long intervalleNs() {
+		double moyenneNs = TimeUnit.SECONDS.toNanos(1) / configuration.debit();
+		if ("constantes".equals(configuration.arrivees())) {
+			return Math.max(1, Math.round(moyenneNs));
+		}
+		return Math.max(1, Math.round(-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * moyenneNs));
+	}
+
+	private Scenario tirer() {
+		int tirage = ThreadLocalRandom.current().nextInt(poidsCumules[poidsCumules.length - 1]);
+		for (int i = 0; i < poidsCumules.length; i++) {
+			if (tirage < poidsCumules[i]) {
+				return scenarios[i];
+			}
+		}
+		return scenarios[scenarios.length - 1];
+	}
+
+	private static void attendre(long instantNs) {
+		long restant;
+		while ((restant = instantNs - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(restant);
+		}
+	}
+}
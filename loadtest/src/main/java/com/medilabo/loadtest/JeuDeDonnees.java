@@ -0,0 +1,149 @@
+package com.medilabo.loadtest;
+
+import java.net.URLEncoder;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Préparation des données du test, à travers la gateway comme le ferait un médecin.
+ * <ol>
+ * <li>création du médecin du test (ignorée s'il existe déjà) et connexion ;</li>
+ * <li>import des patients en un seul appel NDJSON ({@code POST /patient/import}) ;</li>
+ * <li>lecture des identifiants par la liste paginée ({@code GET /patient/list}) ;</li>
+ * <li>ajout des notes de chaque patient, {@value #APPELS_SIMULTANES} appels à la fois.</li>
+ * </ol>
+ * <p>
+ * Les données s'ajoutent à celles déjà présentes : un test rejoué sur la même base porte sur plus de patients.
+ * </p>
+ */
+public class JeuDeDonnees {
+
+	private static final int APPELS_SIMULTANES = 32;
+
+	private static final List<String> PRENOMS = List.of("Jean", "Marie", "Pierre", "Lucie", "Paul", "Claire",
+			"Louis", "Emma", "Hugo", "Léa", "Jules", "Chloé");
+
+	private final ClientMedilabo client;
+
+	private final Configuration configuration;
+
+	private final Random random = new Random(42L);
+
+	public JeuDeDonnees(ClientMedilabo client, Configuration configuration) {
+		this.client = client;
+		this.configuration = configuration;
+	}
+
+	/**
+	 * @return les identifiants des patients utilisés par les scénarios
+	 * @throws IllegalStateException si la connexion, l'import ou la lecture des patients échoue
+	 */
+	public List<Long> preparer() throws InterruptedException {
+		creerMedecin();
+		String token = client.connecter(configuration.utilisateur(), configuration.motDePasse(), System.nanoTime());
+		if (token == null) {
+			throw new IllegalStateException("Connexion impossible avec l'utilisateur " + configuration.utilisateur());
+		}
+		client.authentifier(token);
+
+		importerPatients();
+		List<Long> patients = lirePatients();
+		if (patients.isEmpty()) {
+			throw new IllegalStateException("Aucun patient disponible pour le test.");
+		}
+		ajouterNotes(patients);
+		return patients;
+	}
+
+	private void creerMedecin() {
+		String corps = client.objectMapper().createObjectNode()
+				.put("username", configuration.utilisateur())
+				.put("nom", "Charge")
+				.put("prenom", "Medecin")
+				.put("password", configuration.motDePasse())
+				.put("role", "USER")
+				.toString();
+		// 4xx si le médecin existe déjà : la connexion qui suit dira si le mot de passe est le bon
+		client.envoyer("préparation POST /utilisateur/add", client.post("/utilisateur/add", corps, "application/json"), System.nanoTime());
+	}
+
+	private void importerPatients() {
+		if (configuration.patients() <= 0) {
+			return;
+		}
+		StringBuilder ndjson = new StringBuilder(configuration.patients() * 96);
+		for (int i = 0; i < configuration.patients(); i++) {
+			ndjson.append(client.objectMapper().createObjectNode()
+					.put("nom", "Charge")
+					.put("prenom", PRENOMS.get(random.nextInt(PRENOMS.size())))
+					.put("dateNaissance", LocalDate.of(1940, 1, 1).plusDays(random.nextInt(65 * 365)).toString())
+					.put("genre", random.nextBoolean() ? "M" : "F")
+					.toString())
+				.append('\n');
+		}
+		HttpResponse<String> reponse = client.envoyer("préparation POST /patient/import",
+				client.post("/patient/import", ndjson.toString(), "application/x-ndjson"), System.nanoTime());
+		if (!ClientMedilabo.succes(reponse)) {
+			throw new IllegalStateException("Import des patients refusé : " + (reponse != null ? reponse.statusCode() : "pas de réponse"));
+		}
+		JsonNode rapport = client.lireJson(reponse.body());
+		System.err.printf("%d patients importés, %d lignes rejetées.%n",
+				rapport.path("patientsImportes").asLong(), rapport.path("nombreErreurs").asLong());
+	}
+
+	/**
+	 * Lit les identifiants des premiers patients, au plus le nombre importé (au moins une page).
+	 */
+	private List<Long> lirePatients() {
+		List<Long> patients = new ArrayList<>();
+		String curseur = null;
+		do {
+			String chemin = "/patient/list?taille=100" + (curseur != null ? "&curseur=" + URLEncoder.encode(curseur, StandardCharsets.UTF_8) : "");
+			HttpResponse<String> reponse = client.envoyer("préparation GET /patient/list", client.get(chemin), System.nanoTime());
+			if (!ClientMedilabo.succes(reponse)) {
+				throw new IllegalStateException("Lecture de la liste des patients impossible.");
+			}
+			JsonNode page = client.lireJson(reponse.body());
+			page.path("patients").forEach(patient -> patients.add(patient.path("id").asLong()));
+			curseur = page.path("curseurSuivant").asText(null);
+		} while (curseur != null && patients.size() < configuration.patients());
+		return patients;
+	}
+
+	private void ajouterNotes(List<Long> patients) throws InterruptedException {
+		if (configuration.notesParPatient() <= 0) {
+			return;
+		}
+		Parcours parcours = new Parcours(client, patients, configuration);
+		Semaphore appels = new Semaphore(APPELS_SIMULTANES);
+		AtomicInteger echecs = new AtomicInteger();
+		try (ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (long patientId : patients) {
+				for (int i = 0; i < configuration.notesParPatient(); i++) {
+					appels.acquire();
+					executeur.execute(() -> {
+						try {
+							if (!parcours.ajouterNote(patientId, System.nanoTime())) {
+								echecs.incrementAndGet();
+							}
+						} finally {
+							appels.release();
+						}
+					});
+				}
+			}
+		}
+		System.err.printf("%d notes ajoutées, %d échecs.%n",
+				(long) patients.size() * configuration.notesParPatient() - echecs.get(), echecs.get());
+	}
+}
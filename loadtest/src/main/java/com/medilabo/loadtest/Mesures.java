@@ -0,0 +1,89 @@
+package com.medilabo.loadtest;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latences et erreurs par route, enregistrées depuis plusieurs threads.
+ * <p>
+ * Chaque route a son propre {@link Recorder} HdrHistogram (de 1 µs à 5 minutes, 3 chiffres significatifs).
+ * {@link #remettreAZero()} ouvre une nouvelle fenêtre de mesure : les valeurs enregistrées avant
+ * (échauffement) sont ignorées.
+ * </p>
+ */
+public class Mesures {
+
+	private static final long LATENCE_MAX_US = TimeUnit.MINUTES.toMicros(5);
+
+	private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+	private final LongAdder abandons = new LongAdder();
+
+	/**
+	 * Enregistre une requête ou un scénario terminé.
+	 *
+	 * @param route   nom de la route, par exemple {@code GET /patient/list}
+	 * @param debutNs instant de départ prévu ({@link System#nanoTime()})
+	 * @param succes  {@code false} si la réponse est une erreur ou n'est pas arrivée
+	 */
+	public void enregistrer(String route, long debutNs, boolean succes) {
+		long latenceUs = Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - debutNs), LATENCE_MAX_US);
+		Route mesure = routes.computeIfAbsent(route, nom -> new Route());
+		mesure.latences.recordValue(Math.max(latenceUs, 1));
+		if (!succes) {
+			mesure.erreurs.increment();
+		}
+	}
+
+	/** Compte une arrivée abandonnée, faute de place parmi les scénarios en cours. */
+	public void abandonner() {
+		abandons.increment();
+	}
+
+	/** Oublie toutes les mesures enregistrées jusqu'ici. */
+	public void remettreAZero() {
+		routes.values().forEach(Route::cloturer);
+		abandons.reset();
+	}
+
+	/**
+	 * Clôt la fenêtre de mesure en cours.
+	 *
+	 * @return l'histogramme des latences (en microsecondes) et le nombre d'erreurs de chaque route, par nom de route
+	 */
+	public Map<String, Resultat> cloturer() {
+		Map<String, Resultat> resultats = new TreeMap<>();
+		routes.forEach((nom, route) -> resultats.put(nom, route.cloturer()));
+		return resultats;
+	}
+
+	public long abandons() {
+		return abandons.sum();
+	}
+
+	/**
+	 * Mesures d'une route sur une fenêtre.
+	 *
+	 * @param latences histogramme des latences, en microsecondes
+	 * @param erreurs  nombre de réponses en erreur ou absentes
+	 */
+	public record Resultat(Histogram latences, long erreurs) {
+	}
+
+	private static final class Route {
+
+		private final Recorder latences = new Recorder(1, LATENCE_MAX_US, 3);
+
+		private final LongAdder erreurs = new LongAdder();
+
+		private Resultat cloturer() {
+			return new Resultat(latences.getIntervalHistogram(), erreurs.sumThenReset());
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.medilabo.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exécution des scénarios sur les patients préparés par {@link JeuDeDonnees}.
+ * <p>
+ * La latence de la première requête d'un scénario, comme celle du scénario complet (route
+ * {@code scénario <nom>}), est comptée depuis l'instant d'arrivée prévu et non depuis l'envoi réel :
+ * le temps passé à attendre un injecteur ou une connexion saturés fait partie de la mesure
+ * (correction de l'omission coordonnée). Les requêtes suivantes d'un même scénario dépendent de
+ * la précédente et sont mesurées depuis leur envoi.
+ * </p>
+ */
+public class Parcours {
+
+	private final ClientMedilabo client;
+
+	private final List<Long> patients;
+
+	private final Configuration configuration;
+
+	public Parcours(ClientMedilabo client, List<Long> patients, Configuration configuration) {
+		this.client = client;
+		this.patients = patients;
+		this.configuration = configuration;
+	}
+
+	/**
+	 * Exécute un scénario et enregistre sa durée totale.
+	 *
+	 * @param debutNs instant d'arrivée prévu du scénario ({@link System#nanoTime()})
+	 */
+	public void executer(Scenario scenario, long debutNs) {
+		boolean succes = switch (scenario) {
+			case CONNEXION -> client.connecter(configuration.utilisateur(), configuration.motDePasse(), debutNs) != null;
+			case LISTE -> ClientMedilabo.succes(client.envoyer("GET /patient/list", client.get("/patient/list?taille=20"), debutNs));
+			case DOSSIER -> ouvrirDossier(patientAuHasard(), debutNs);
+			case NOTE -> ajouterNote(patientAuHasard(), debutNs);
+			case RISQUE -> ClientMedilabo.succes(evaluerRisque(patientAuHasard(), debutNs));
+		};
+		client.mesures().enregistrer("scénario " + scenario.nom(), debutNs, succes);
+	}
+
+	/**
+	 * Ouverture d'un dossier comme dans le front : informations du patient, puis ses notes et son niveau de risque.
+	 */
+	private boolean ouvrirDossier(long patientId, long debutNs) {
+		if (!ClientMedilabo.succes(client.envoyer("GET /patient/infos/{id}", client.get("/patient/infos/" + patientId), debutNs))) {
+			return false;
+		}
+		boolean notes = ClientMedilabo.succes(client.envoyer("GET /note/getNotesPatient",
+				client.get("/note/getNotesPatient?patientId=" + patientId), System.nanoTime()));
+		return notes & ClientMedilabo.succes(evaluerRisque(patientId, System.nanoTime()));
+	}
+
+	boolean ajouterNote(long patientId, long debutNs) {
+		return ClientMedilabo.succes(client.envoyer("POST /note/add",
+				client.post("/note/add", corpsNote(patientId), "application/json"), debutNs));
+	}
+
+	private HttpResponse<String> evaluerRisque(long patientId, long debutNs) {
+		return client.envoyer("GET /alerte/detecte", client.get("/alerte/detecte?patientId=" + patientId), debutNs);
+	}
+
+	private String corpsNote(long patientId) {
+		return client.objectMapper().createObjectNode()
+				.put("patientId", patientId)
+				.put("note", Transmissions.auHasard())
+				.toString();
+	}
+
+	private long patientAuHasard() {
+		return patients.get(ThreadLocalRandom.current().nextInt(patients.size()));
+	}
+}
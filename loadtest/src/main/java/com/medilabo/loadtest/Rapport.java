@@ -0,0 +1,82 @@
+package com.medilabo.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Tableau des latences (en millisecondes) et du débit de chaque route sur la fenêtre mesurée,
+ * affiché sur la sortie standard et, si demandé, écrit au format CSV.
+ */
+public class Rapport {
+
+	private static final String[] COLONNES = {"route", "requetes", "erreurs", "debit_par_s", "p50_ms", "p90_ms",
+			"p99_ms", "p999_ms", "max_ms"};
+
+	private final Configuration configuration;
+
+	private final Map<String, Mesures.Resultat> resultats;
+
+	private final long abandons;
+
+	public Rapport(Configuration configuration, Map<String, Mesures.Resultat> resultats, long abandons) {
+		this.configuration = configuration;
+		this.resultats = resultats;
+		this.abandons = abandons;
+	}
+
+	public void afficher(PrintStream sortie) {
+		sortie.printf(Locale.ROOT, "%nCible %s, %.1f scénarios/s (arrivées %s), %d s mesurées, %d arrivées abandonnées.%n%n",
+				configuration.cible(), configuration.debit(), configuration.arrivees(), configuration.duree().toSeconds(), abandons);
+		List<List<String>> lignes = lignes();
+		int largeur = Math.max("Route".length(), lignes.stream().mapToInt(ligne -> ligne.get(0).length()).max().orElse(0));
+		String format = "%-" + largeur + "s %9s %8s %10s %9s %9s %9s %9s %9s%n";
+		sortie.printf(format, "Route", "Requêtes", "Erreurs", "Débit/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+		for (List<String> ligne : lignes) {
+			sortie.printf(format, ligne.toArray());
+		}
+	}
+
+	public void ecrireCsv(Path fichier) throws IOException {
+		List<String> contenu = new ArrayList<>();
+		contenu.add(String.join(",", COLONNES));
+		for (List<String> ligne : lignes()) {
+			contenu.add("\"" + ligne.get(0) + "\"," + String.join(",", ligne.subList(1, ligne.size())));
+		}
+		Files.write(fichier, contenu, StandardCharsets.UTF_8);
+	}
+
+	private List<List<String>> lignes() {
+		double secondes = configuration.duree().toMillis() / 1000.0;
+		List<List<String>> lignes = new ArrayList<>();
+		resultats.forEach((route, resultat) -> {
+			Histogram latences = resultat.latences();
+			if (latences.getTotalCount() == 0) {
+				// route appelée seulement pendant la préparation ou l'échauffement
+				return;
+			}
+			lignes.add(List.of(route,
+					String.valueOf(latences.getTotalCount()),
+					String.valueOf(resultat.erreurs()),
+					String.format(Locale.ROOT, "%.1f", latences.getTotalCount() / secondes),
+					ms(latences.getValueAtPercentile(50)),
+					ms(latences.getValueAtPercentile(90)),
+					ms(latences.getValueAtPercentile(99)),
+					ms(latences.getValueAtPercentile(99.9)),
+					ms(latences.getMaxValue())));
+		});
+		return lignes;
+	}
+
+	private static String ms(long microsecondes) {
+		return String.format(Locale.ROOT, "%.1f", microsecondes / 1000.0);
+	}
+}
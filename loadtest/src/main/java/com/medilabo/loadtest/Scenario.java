@@ -0,0 +1,45 @@
+package com.medilabo.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Parcours d'un médecin dans l'application, rejoués par le test de charge.
+ */
+public enum Scenario {
+
+	/** Connexion : {@code POST /utilisateur/login}. */
+	CONNEXION("connexion"),
+
+	/** Première page de la liste des patients : {@code GET /patient/list}. */
+	LISTE("liste"),
+
+	/** Ouverture d'un dossier : informations du patient, puis ses notes et son niveau de risque. */
+	DOSSIER("dossier"),
+
+	/** Ajout d'une transmission : {@code POST /note/add}. */
+	NOTE("note"),
+
+	/** Évaluation du risque de diabète : {@code GET /alerte/detecte}. */
+	RISQUE("risque");
+
+	private final String nom;
+
+	Scenario(String nom) {
+		this.nom = nom;
+	}
+
+	public String nom() {
+		return nom;
+	}
+
+	/**
+	 * @throws IllegalArgumentException si aucun scénario ne porte ce nom
+	 */
+	public static Scenario depuisNom(String nom) {
+		return Arrays.stream(values())
+				.filter(scenario -> scenario.nom.equals(nom))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException("Scénario inconnu : " + nom
+						+ " (attendu : " + Arrays.stream(values()).map(Scenario::nom).toList() + ")"));
+	}
+}
@@ -0,0 +1,44 @@
+package com.medilabo.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Test de charge de bout en bout : gateway, puis API Patient, Note, Utilisateur et Alerte.
+ * <p>
+ * Prépare un jeu de données, injecte les scénarios au débit demandé puis affiche, pour chaque route
+ * et chaque scénario, le nombre de requêtes, les erreurs, le débit et les percentiles de latence.
+ * Exemple : {@code java -jar medilabo-loadtest.jar --cible=http://localhost:8080 --debit=50 --duree=120}.
+ * </p>
+ */
+public class TestDeCharge {
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Configuration configuration;
+		try {
+			configuration = Configuration.lire(args);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Options : --cible, --debit, --arrivees=constantes|poisson, --echauffement, --duree, "
+					+ "--timeout (secondes), --max-en-cours, --patients, --notes-par-patient, --utilisateur, "
+					+ "--mot-de-passe, --mix (" + Configuration.MIX_PAR_DEFAUT + "), --csv");
+			System.exit(2);
+			return;
+		}
+
+		Mesures mesures = new Mesures();
+		ClientMedilabo client = new ClientMedilabo(configuration, mesures);
+		System.err.println("Préparation des données sur " + configuration.cible() + "...");
+		List<Long> patients = new JeuDeDonnees(client, configuration).preparer();
+
+		mesures.remettreAZero();
+		new Injecteur(configuration, new Parcours(client, patients, configuration), mesures).injecter();
+
+		Rapport rapport = new Rapport(configuration, mesures.cloturer(), mesures.abandons());
+		rapport.afficher(System.out);
+		if (configuration.csv() != null) {
+			rapport.ecrireCsv(Path.of(configuration.csv()));
+		}
+	}
+}
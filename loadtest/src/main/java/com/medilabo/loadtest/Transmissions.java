@@ -0,0 +1,71 @@
+package com.medilabo.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Transmissions médicales envoyées par le test de charge.
+ * <p>
+ * Même vocabulaire que le corpus des benchmarks : un texte clinique courant dans lequel environ un mot
+ * sur dix est un terme déclencheur, pour que l'évaluation du risque ait du travail réel. Les textes sont
+ * générés une fois (graine fixe), puis tirés au hasard.
+ * </p>
+ */
+public final class Transmissions {
+
+	/** Les termes déclencheurs, identiques à ceux des microservices alerte et note. */
+	private static final List<String> MOTS_CLES = List.of(
+		    "HbA1C", "Microalbumine", "Taille", "Poids", "Fumeur", "Fumer",
+		    "Fumeuse", "Anormal", "Cholestérol", "Vertiges", "Rechute", "Réaction", "Anticorps"
+		);
+
+	private static final List<String> MOTS_COURANTS = List.of(
+			"le", "patient", "présente", "une", "tension", "artérielle", "stable", "depuis", "la", "dernière",
+			"consultation", "examen", "clinique", "sans", "particularité", "suivi", "traitement", "prescrit",
+			"bilan", "sanguin", "prévu", "douleur", "thoracique", "absente", "revoir", "dans", "trois", "mois",
+			"glycémie", "à", "jeun", "contrôlée", "auscultation", "normale", "fatigue", "signalée", "régime",
+			"alimentaire", "conseillé", "activité", "physique", "régulière", "recommandée", "pas", "de", "fièvre");
+
+	private static final int NOMBRE = 500;
+
+	private static final int LONGUEUR = 300;
+
+	private static final double DENSITE_MOTS_CLES = 0.1;
+
+	private static final List<String> TEXTES = generer(new Random(42L));
+
+	private Transmissions() {
+	}
+
+	/** Une transmission tirée au hasard. */
+	public static String auHasard() {
+		return TEXTES.get(ThreadLocalRandom.current().nextInt(TEXTES.size()));
+	}
+
+	private static List<String> generer(Random random) {
+		List<String> textes = new ArrayList<>(NOMBRE);
+		for (int i = 0; i < NOMBRE; i++) {
+			StringBuilder texte = new StringBuilder(LONGUEUR + 16);
+			boolean debutPhrase = true;
+			while (texte.length() < LONGUEUR) {
+				String mot;
+				if (random.nextDouble() < DENSITE_MOTS_CLES) {
+					mot = MOTS_CLES.get(random.nextInt(MOTS_CLES.size()));
+					mot = random.nextBoolean() ? mot.toLowerCase() : mot;
+				} else {
+					mot = MOTS_COURANTS.get(random.nextInt(MOTS_COURANTS.size()));
+				}
+				if (debutPhrase) {
+					mot = Character.toUpperCase(mot.charAt(0)) + mot.substring(1);
+				}
+				texte.append(mot);
+				debutPhrase = random.nextInt(12) == 0;
+				texte.append(debutPhrase ? ". " : (random.nextInt(8) == 0 ? ", " : " "));
+			}
+			textes.add(texte.toString().trim());
+		}
+		return textes;
+	}
+}